@@ -0,0 +1,136 @@
+package org.openpaas.ieda.common.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncExecutorConfig implements AsyncConfigurer {
+
+    //@Async 에서 사용하는 작업 유형별 실행기 이름
+    final public static String DEPLOY_EXECUTOR = "deployExecutor";
+    final public static String FILE_TRANSFER_EXECUTOR = "fileTransferExecutor";
+    final public static String DIRECTOR_QUERY_EXECUTOR = "directorQueryExecutor";
+    final public static String IAAS_QUERY_EXECUTOR = "iaasQueryExecutor";
+
+    //ThreadPoolExecutor 는 대기열이 가득 찬 뒤에만 core 이상으로 늘어나므로 core 를 최대 동시 실행 수로 지정하고
+    //유휴 스레드는 allowCoreThreadTimeOut 으로 정리
+    //배포/삭제 : 수십 분 이상 실행되므로 동시 실행 수를 제한
+    final private static int DEPLOY_POOL_SIZE = 8;
+    final private static int DEPLOY_QUEUE_CAPACITY = 16;
+    //스템셀/릴리즈 다운로드 및 업로드 : 디스크/네트워크 대역폭을 나누어 쓰므로 작게 유지
+    final private static int FILE_TRANSFER_POOL_SIZE = 4;
+    final private static int FILE_TRANSFER_QUEUE_CAPACITY = 8;
+    //Task 로그/Job/스냅샷/삭제 등 짧은 디렉터 요청
+    //(Task 종료까지의 로그 추적은 DirectorTaskTracker 스레드에서 수행하므로 요청 등록 후 바로 반환)
+    final private static int DIRECTOR_QUERY_POOL_SIZE = 16;
+    final private static int DIRECTOR_QUERY_QUEUE_CAPACITY = 100;
+    //인프라(AWS/Openstack/Azure) 계정 별 리소스 조회 : 계정 수 x 리소스 유형 만큼 동시에 요청
+    final private static int IAAS_QUERY_POOL_SIZE = 16;
+    final private static int IAAS_QUERY_QUEUE_CAPACITY = 64;
+    final private static int KEEP_ALIVE_SECONDS = 60;
+    final private static int AWAIT_TERMINATION_SECONDS = 30;
+    private final static Logger LOGGER = LoggerFactory.getLogger(AsyncExecutorConfig.class);
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 플랫폼 설치/삭제 비동기 실행기
+     * @title : deployExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    @Bean(name = DEPLOY_EXECUTOR)
+    public ThreadPoolTaskExecutor deployExecutor() {
+        return createExecutor(DEPLOY_EXECUTOR, DEPLOY_POOL_SIZE, DEPLOY_QUEUE_CAPACITY);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 파일 다운로드 및 업로드 비동기 실행기
+     * @title : fileTransferExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    @Bean(name = FILE_TRANSFER_EXECUTOR)
+    public ThreadPoolTaskExecutor fileTransferExecutor() {
+        return createExecutor(FILE_TRANSFER_EXECUTOR, FILE_TRANSFER_POOL_SIZE, FILE_TRANSFER_QUEUE_CAPACITY);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉터 조회/짧은 작업 비동기 실행기
+     * @title : directorQueryExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    @Bean(name = DIRECTOR_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor directorQueryExecutor() {
+        return createExecutor(DIRECTOR_QUERY_EXECUTOR, DIRECTOR_QUERY_POOL_SIZE, DIRECTOR_QUERY_QUEUE_CAPACITY);
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 인프라 계정 리소스 조회 실행기
+     * @title : iaasQueryExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    @Bean(name = IAAS_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor iaasQueryExecutor() {
+        return createExecutor(IAAS_QUERY_EXECUTOR, IAAS_QUERY_POOL_SIZE, IAAS_QUERY_QUEUE_CAPACITY);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행기 이름을 지정하지 않은 @Async 메소드는 디렉터 조회 실행기 사용
+     * @title : getAsyncExecutor
+     * @return : Executor
+    ***************************************************/
+    @Override
+    public Executor getAsyncExecutor() {
+        return directorQueryExecutor();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 반환값이 없는 @Async 메소드에서 처리되지 않은 예외 로그 출력
+     * @title : getAsyncUncaughtExceptionHandler
+     * @return : AsyncUncaughtExceptionHandler
+    ***************************************************/
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return new AsyncUncaughtExceptionHandler() {
+            @Override
+            public void handleUncaughtException(Throwable ex, Method method, Object... params) {
+                if( LOGGER.isErrorEnabled() ){
+                    LOGGER.error("async method " + method.getDeclaringClass().getSimpleName() + "." + method.getName() + " failed : " + ex.getMessage(), ex);
+                }
+            }
+        };
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 대기열 크기가 제한된 고정 크기 실행기 생성(대기열이 가득 차면 TaskRejectedException 발생)
+     * @title : createExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    private ThreadPoolTaskExecutor createExecutor(String name, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setBeanName(name);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(KEEP_ALIVE_SECONDS);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new CountingAbortPolicy(name));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(AWAIT_TERMINATION_SECONDS);
+        return executor;
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.openpaas.ieda.common.async;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AsyncExecutorMetrics implements PublicMetrics {
+
+    @Autowired @Qualifier(AsyncExecutorConfig.DEPLOY_EXECUTOR) private ThreadPoolTaskExecutor deployExecutor;
+    @Autowired @Qualifier(AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR) private ThreadPoolTaskExecutor fileTransferExecutor;
+    @Autowired @Qualifier(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR) private ThreadPoolTaskExecutor directorQueryExecutor;
+    @Autowired @Qualifier(AsyncExecutorConfig.IAAS_QUERY_EXECUTOR) private ThreadPoolTaskExecutor iaasQueryExecutor;
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 비동기 실행기별 활성/대기/완료/거부 건수 메트릭
+     * @title : metrics
+     * @return : Collection<Metric<?>>
+    ***************************************************/
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        addMetrics(metrics, AsyncExecutorConfig.DEPLOY_EXECUTOR, deployExecutor);
+        addMetrics(metrics, AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR, fileTransferExecutor);
+        addMetrics(metrics, AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR, directorQueryExecutor);
+        addMetrics(metrics, AsyncExecutorConfig.IAAS_QUERY_EXECUTOR, iaasQueryExecutor);
+        return metrics;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행기 하나의 메트릭 추가
+     * @title : addMetrics
+     * @return : void
+    ***************************************************/
+    private void addMetrics(List<Metric<?>> metrics, String name, ThreadPoolTaskExecutor executor) {
+        if( executor == null || executor.getThreadPoolExecutor() == null ){
+            return;
+        }
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        String prefix = "async.executor." + name + ".";
+        metrics.add(new Metric<Integer>(prefix + "active", pool.getActiveCount()));
+        metrics.add(new Metric<Integer>(prefix + "pool", pool.getPoolSize()));
+        metrics.add(new Metric<Integer>(prefix + "queued", pool.getQueue().size()));
+        metrics.add(new Metric<Integer>(prefix + "queue.remaining", pool.getQueue().remainingCapacity()));
+        metrics.add(new Metric<Long>(prefix + "completed", pool.getCompletedTaskCount()));
+        RejectedExecutionHandler handler = pool.getRejectedExecutionHandler();
+        if( handler instanceof CountingAbortPolicy ){
+            metrics.add(new Metric<Long>(prefix + "rejected", ((CountingAbortPolicy) handler).getRejectedCount()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.openpaas.ieda.common.async;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CountingAbortPolicy extends ThreadPoolExecutor.AbortPolicy {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(CountingAbortPolicy.class);
+
+    private final String executorName;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public CountingAbortPolicy(String executorName) {
+        this.executorName = executorName;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 거부 건수를 기록한 뒤 RejectedExecutionException 발생
+     * @title : rejectedExecution
+     * @return : void
+    ***************************************************/
+    @Override
+    public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+        rejectedCount.incrementAndGet();
+        if( LOGGER.isWarnEnabled() ){
+            LOGGER.warn(executorName + " rejected task (active : " + executor.getActiveCount() + ", queued : " + executor.getQueue().size() + ")");
+        }
+        super.rejectedExecution(runnable, executor);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 누적 거부 건수
+     * @title : getRejectedCount
+     * @return : long
+    ***************************************************/
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
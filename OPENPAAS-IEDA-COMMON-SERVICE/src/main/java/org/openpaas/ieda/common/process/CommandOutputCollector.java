@@ -0,0 +1,7 @@
+package org.openpaas.ieda.common.process;
+
+//출력 전체가 필요한 리스너(--json 출력 등)
+//출력 펌프 스레드에서 바로 호출하므로 줄을 건너뛰지 않고, 명령 실행이 끝나기 전에 모든 줄이 전달됨
+//(stdout/stderr 펌프가 동시에 호출할 수 있으므로 구현은 스레드 안전하고 빠르게 반환해야 함)
+public interface CommandOutputCollector extends CommandOutputListener {
+}
@@ -0,0 +1,12 @@
+package org.openpaas.ieda.common.process;
+
+public interface CommandOutputListener {
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 명령 출력 한 줄 전달(stdout/stderr 구분, 한 실행 안에서는 순차적으로 호출)
+     * @title : onLine
+     * @return : void
+    ***************************************************/
+    void onLine(String line, boolean error);
+}
@@ -0,0 +1,43 @@
+package org.openpaas.ieda.common.process;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.openpaas.ieda.common.process.CommandProcessSupervisor.CommandStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommandProcessMetrics implements PublicMetrics {
+
+    @Autowired private CommandProcessSupervisor supervisor;
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 명령 유형별 실행/대기/완료/실패 건수 및 실행 시간 메트릭
+     * @title : metrics
+     * @return : Collection<Metric<?>>
+    ***************************************************/
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        for( CommandType type : CommandType.values() ){
+            CommandStats stats = supervisor.getStats(type);
+            String prefix = "command." + type.name().toLowerCase() + ".";
+            metrics.add(new Metric<Integer>(prefix + "running", stats.getRunning()));
+            metrics.add(new Metric<Integer>(prefix + "waiting", stats.getWaiting()));
+            metrics.add(new Metric<Long>(prefix + "completed", stats.getCompleted()));
+            metrics.add(new Metric<Long>(prefix + "failed", stats.getFailed()));
+            metrics.add(new Metric<Long>(prefix + "timedOut", stats.getTimedOut()));
+            metrics.add(new Metric<Long>(prefix + "cancelled", stats.getCancelled()));
+            metrics.add(new Metric<Long>(prefix + "queue.millis.total", stats.getTotalQueueMillis()));
+            metrics.add(new Metric<Long>(prefix + "run.millis.total", stats.getTotalRunMillis()));
+            metrics.add(new Metric<Long>(prefix + "run.millis.max", stats.getMaxRunMillis()));
+            metrics.add(new Metric<Long>(prefix + "output.lines", stats.getOutputLines()));
+        }
+        return metrics;
+    }
+}
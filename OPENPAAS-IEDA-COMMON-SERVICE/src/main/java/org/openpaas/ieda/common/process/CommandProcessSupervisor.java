@@ -0,0 +1,624 @@
+package org.openpaas.ieda.common.process;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.openpaas.ieda.common.exception.CommonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommandProcessSupervisor {
+
+    //실행 별로 보관하는 최근 출력 줄 수
+    final private static int OUTPUT_BUFFER_LINES = 20000;
+    final private static int ERROR_BUFFER_LINES = 2000;
+    //종료 요청(SIGTERM) 후 강제 종료까지 대기 시간
+    final private static long TERMINATE_GRACE = 5 * 1000L;
+    //프로세스 종료 후 출력 스트림을 마저 읽는 최대 시간(강제 종료한 경우 하위 프로세스가 스트림을 잡고 있을 수 있으므로 짧게 대기)
+    final private static long PUMP_DRAIN_TIMEOUT = 5 * 1000L;
+    final private static long TERMINATED_PUMP_DRAIN_TIMEOUT = 500L;
+    //리스너에 전달하지 못하고 쌓아 두는 최대 출력 줄 수(넘으면 리스너 전달만 생략, 결과 출력에는 남음)
+    final private static int MAX_PENDING_LISTENER_LINES = 10000;
+    //프로세스 종료 후 남은 출력을 리스너에 마저 전달하는 최대 대기 시간
+    final private static long LISTENER_DRAIN_TIMEOUT = 30 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(CommandProcessSupervisor.class);
+
+    private static volatile CommandProcessSupervisor instance;
+
+    //stdout/stderr 을 읽는 스레드(실행 당 2개)
+    private final ExecutorService pumps = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "command-output-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    //출력 줄을 리스너에 전달하는 스레드(리스너가 느려도 출력 스트림은 계속 읽음)
+    private final ExecutorService dispatchers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "command-listener-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    //submit 으로 요청된 명령을 실행하는 스레드
+    private final ExecutorService runners = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "command-runner-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final Map<CommandType, Semaphore> permits = new EnumMap<CommandType, Semaphore>(CommandType.class);
+    private final Map<CommandType, CommandStats> stats = new EnumMap<CommandType, CommandStats>(CommandType.class);
+    //취소 키 별 실행 중인 명령
+    private final ConcurrentMap<String, RunningCommand> running = new ConcurrentHashMap<String, RunningCommand>();
+
+    //스프링 컨텍스트 밖에서 생성된 경우 메시지 파일을 직접 읽음
+    @Autowired(required = false)
+    private MessageSource message = defaultMessageSource();
+
+    public CommandProcessSupervisor() {
+        for( CommandType type : CommandType.values() ){
+            permits.put(type, new Semaphore(type.getMaxConcurrency(), true));
+            stats.put(type, new CommandStats());
+        }
+    }
+
+    @PostConstruct
+    public void initialize() {
+        instance = this;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for( RunningCommand command : running.values() ){
+            command.cancel();
+        }
+        runners.shutdownNow();
+        pumps.shutdownNow();
+        dispatchers.shutdownNow();
+        if( instance == this ){
+            instance = null;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 Supervisor 응답(스프링 컨텍스트 밖에서는 별도 인스턴스 생성)
+     * @title : getInstance
+     * @return : CommandProcessSupervisor
+    ***************************************************/
+    public static CommandProcessSupervisor getInstance() {
+        CommandProcessSupervisor supervisor = instance;
+        if( supervisor == null ){
+            synchronized (CommandProcessSupervisor.class) {
+                if( instance == null ){
+                    instance = new CommandProcessSupervisor();
+                }
+                supervisor = instance;
+            }
+        }
+        return supervisor;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 취소 키 없이 명령 실행 후 종료까지 대기
+     * @title : run
+     * @return : CommandResult
+    ***************************************************/
+    public CommandResult run(CommandType type, List<String> command, CommandOutputListener listener) throws IOException, InterruptedException {
+        return run(type, null, command, listener, type.getTimeout());
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 명령 실행 후 종료까지 대기(key 로 cancel 가능)
+     * @title : run
+     * @return : CommandResult
+    ***************************************************/
+    public CommandResult run(CommandType type, String key, List<String> command, CommandOutputListener listener) throws IOException, InterruptedException {
+        return run(type, key, command, listener, type.getTimeout());
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 유형별 동시 실행 수 안에서 명령을 실행하고 stdout/stderr 을 별도 스레드에서 읽음
+     *                제한 시간(0 이하이면 제한 없음)이 지나거나 취소되면 프로세스를 종료
+     * @title : run
+     * @return : CommandResult
+    ***************************************************/
+    public CommandResult run(CommandType type, String key, List<String> command, CommandOutputListener listener, long timeout)
+            throws IOException, InterruptedException {
+        RunningCommand runningCommand = new RunningCommand();
+        if( key != null && running.putIfAbsent(key, runningCommand) != null ){
+            throw new CommonException(message.getMessage("common.conflict.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.conflict.process.message", new Object[] { key }, Locale.KOREA), HttpStatus.CONFLICT);
+        }
+        CommandStats stat = stats.get(type);
+        Semaphore permit = permits.get(type);
+        OutputRingBuffer output = new OutputRingBuffer(OUTPUT_BUFFER_LINES);
+        OutputRingBuffer errorOutput = new OutputRingBuffer(ERROR_BUFFER_LINES);
+        long queuedAt = System.currentTimeMillis();
+        stat.waiting.incrementAndGet();
+        try {
+            try {
+                permit.acquire();
+            } finally {
+                stat.waiting.decrementAndGet();
+            }
+            long startedAt = System.currentTimeMillis();
+            long queueMillis = startedAt - queuedAt;
+            stat.running.incrementAndGet();
+            try {
+                if( runningCommand.isCancelled() ){
+                    stat.record(queueMillis, 0L, 0L, CommandResult.NO_EXIT_CODE, false, true);
+                    return new CommandResult(type, CommandResult.NO_EXIT_CODE, false, true, queueMillis, 0L, output, errorOutput);
+                }
+                Process process = new ProcessBuilder(command).start();
+                runningCommand.attach(process);
+                //수집 리스너는 펌프 스레드에서 바로 호출하고 그 외 리스너는 별도 스레드에서 전달
+                CommandOutputCollector collector = listener instanceof CommandOutputCollector ? (CommandOutputCollector) listener : null;
+                ListenerDispatcher dispatcher = listener != null && collector == null ? new ListenerDispatcher(listener, dispatchers) : null;
+                Future<?> outputPump = pumps.submit(new OutputPump(process.getInputStream(), output, dispatcher, collector, false));
+                Future<?> errorPump = pumps.submit(new OutputPump(process.getErrorStream(), errorOutput, dispatcher, collector, true));
+                boolean timedOut = false;
+                try {
+                    if( !waitFor(process, timeout) ){
+                        timedOut = true;
+                        if( LOGGER.isWarnEnabled() ){ LOGGER.warn(describe(command) + " timed out after " + timeout + "ms, terminating"); }
+                        terminate(process);
+                    }
+                } catch (InterruptedException e) {
+                    terminate(process);
+                    throw e;
+                } finally {
+                    long drainTimeout = timedOut || runningCommand.isCancelled() || Thread.currentThread().isInterrupted()
+                            ? TERMINATED_PUMP_DRAIN_TIMEOUT : PUMP_DRAIN_TIMEOUT;
+                    drain(outputPump, drainTimeout);
+                    drain(errorPump, drainTimeout);
+                    if( dispatcher != null ){
+                        dispatcher.await(drainTimeout == PUMP_DRAIN_TIMEOUT ? LISTENER_DRAIN_TIMEOUT : TERMINATED_PUMP_DRAIN_TIMEOUT);
+                    }
+                }
+                int exitCode = process.isAlive() ? CommandResult.NO_EXIT_CODE : process.exitValue();
+                long runMillis = System.currentTimeMillis() - startedAt;
+                CommandResult result = new CommandResult(type, exitCode, timedOut, runningCommand.isCancelled(), queueMillis, runMillis, output, errorOutput);
+                stat.record(queueMillis, runMillis, result.getOutputLines(), exitCode, timedOut, result.isCancelled());
+                if( LOGGER.isInfoEnabled() ){
+                    LOGGER.info(describe(command) + " exit " + exitCode + " in " + runMillis + "ms (queued " + queueMillis + "ms, "
+                            + result.getOutputLines() + " lines" + (timedOut ? ", timed out" : "") + (result.isCancelled() ? ", cancelled" : "") + ")");
+                }
+                return result;
+            } finally {
+                stat.running.decrementAndGet();
+                permit.release();
+            }
+        } finally {
+            if( key != null ){
+                running.remove(key, runningCommand);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 별도 스레드에서 명령을 실행하고 결과를 Future로 응답(호출 스레드는 실행 중 다른 작업 가능)
+     * @title : submit
+     * @return : Future<CommandResult>
+    ***************************************************/
+    public Future<CommandResult> submit(final CommandType type, final String key, final List<String> command, final CommandOutputListener listener) {
+        return runners.submit(new Callable<CommandResult>() {
+            @Override
+            public CommandResult call() throws Exception {
+                return run(type, key, command, listener, type.getTimeout());
+            }
+        });
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : key 로 실행 중(또는 대기 중)인 명령 취소
+     * @title : cancel
+     * @return : boolean
+    ***************************************************/
+    public boolean cancel(String key) {
+        RunningCommand command = running.get(key);
+        if( command == null ){
+            return false;
+        }
+        command.cancel();
+        return true;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : key 로 실행 중(또는 대기 중)인 명령이 있는지 여부
+     * @title : isRunning
+     * @return : boolean
+    ***************************************************/
+    public boolean isRunning(String key) {
+        return running.containsKey(key);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 명령 유형별 실행 통계
+     * @title : getStats
+     * @return : CommandStats
+    ***************************************************/
+    public CommandStats getStats(CommandType type) {
+        return stats.get(type);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 프로세스 종료 대기(제한 시간이 0 이하이면 종료될 때까지 대기), 제한 시간 안에 끝나면 true
+     * @title : waitFor
+     * @return : boolean
+    ***************************************************/
+    private static boolean waitFor(Process process, long timeout) throws InterruptedException {
+        if( timeout <= 0 ){
+            process.waitFor();
+            return true;
+        }
+        return process.waitFor(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 종료 요청 후 유예 시간 안에 끝나지 않으면 강제 종료
+     * @title : terminate
+     * @return : void
+    ***************************************************/
+    private static void terminate(Process process) {
+        process.destroy();
+        try {
+            if( !process.waitFor(TERMINATE_GRACE, TimeUnit.MILLISECONDS) ){
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 남은 출력을 마저 읽음(하위 프로세스가 스트림을 잡고 있으면 중단)
+     * @title : drain
+     * @return : void
+    ***************************************************/
+    private static void drain(Future<?> pump, long timeout) {
+        try {
+            pump.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pump.cancel(true);
+        } catch (ExecutionException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("command output read error : " + e.getCause()); }
+        } catch (InterruptedException e) {
+            pump.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 로그 출력용 명령 요약(실행 파일과 하위 명령만 표시, -v 값 등 비밀번호 제외)
+     * @title : describe
+     * @return : String
+    ***************************************************/
+    static String describe(List<String> command) {
+        if( command.isEmpty() ){
+            return "";
+        }
+        String description = command.get(0);
+        for( int i = 1; i < command.size(); i++ ){
+            String arg = command.get(i);
+            if( !arg.startsWith("-") && !command.get(i - 1).startsWith("-") ){
+                return description + " " + arg;
+            }
+        }
+        return description;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스프링 메시지 설정과 같은 메시지 파일(messages/messages.properties)
+     * @title : defaultMessageSource
+     * @return : MessageSource
+    ***************************************************/
+    private static MessageSource defaultMessageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        return messageSource;
+    }
+
+    private static class OutputPump implements Runnable {
+        private final InputStream inputStream;
+        private final OutputRingBuffer buffer;
+        private final ListenerDispatcher dispatcher;
+        private final CommandOutputCollector collector;
+        private final boolean error;
+
+        OutputPump(InputStream inputStream, OutputRingBuffer buffer, ListenerDispatcher dispatcher, CommandOutputCollector collector, boolean error) {
+            this.inputStream = inputStream;
+            this.buffer = buffer;
+            this.dispatcher = dispatcher;
+            this.collector = collector;
+            this.error = error;
+        }
+
+        @Override
+        public void run() {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+                String line = null;
+                while( (line = reader.readLine()) != null ){
+                    buffer.add(line);
+                    if( dispatcher != null ){
+                        dispatcher.offer(line, error);
+                    }
+                    if( collector != null ){
+                        collect(line);
+                    }
+                }
+            } catch (IOException e) {
+                if( LOGGER.isDebugEnabled() ){ LOGGER.debug("command output closed : " + e.getMessage()); }
+            } finally {
+                try {
+                    if( reader != null ){
+                        reader.close();
+                    } else {
+                        inputStream.close();
+                    }
+                } catch (IOException e) {
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
+                }
+            }
+        }
+
+        private void collect(String line) {
+            try {
+                collector.onLine(line, error);
+            } catch (RuntimeException e) {
+                //수집 오류가 있어도 출력은 계속 읽음
+                if( LOGGER.isErrorEnabled() ){ LOGGER.error("command output collector error : " + e.getMessage()); }
+            }
+        }
+    }
+
+    //한 실행의 stdout/stderr 출력을 읽은 순서대로 하나의 스레드에서 리스너에 전달
+    //(리스너가 웹소켓 전송 등으로 느려도 출력 펌프 스레드는 막히지 않음)
+    private static class ListenerDispatcher implements Runnable {
+        private final CommandOutputListener listener;
+        private final ExecutorService executor;
+        private final ArrayDeque<OutputLine> lines = new ArrayDeque<OutputLine>();
+        private boolean scheduled;
+        private long dropped;
+
+        ListenerDispatcher(CommandOutputListener listener, ExecutorService executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void offer(String line, boolean error) {
+            synchronized (this) {
+                if( lines.size() >= MAX_PENDING_LISTENER_LINES ){
+                    if( dropped++ == 0 && LOGGER.isWarnEnabled() ){
+                        LOGGER.warn("command output listener is too slow, skipping output lines");
+                    }
+                    return;
+                }
+                lines.add(new OutputLine(line, error));
+                if( scheduled ){
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    lines.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while( true ){
+                OutputLine line;
+                synchronized (this) {
+                    line = lines.poll();
+                    if( line == null ){
+                        scheduled = false;
+                        notifyAll();
+                        return;
+                    }
+                }
+                try {
+                    listener.onLine(line.text, line.error);
+                } catch (RuntimeException e) {
+                    //리스너 오류가 있어도 남은 출력은 계속 전달
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error("command output listener error : " + e.getMessage()); }
+                }
+            }
+        }
+
+        //남은 출력이 리스너에 전달될 때까지 대기(제한 시간이 지나면 나머지는 백그라운드에서 전달)
+        void await(long timeout) {
+            long deadline = System.currentTimeMillis() + timeout;
+            synchronized (this) {
+                try {
+                    long remaining = timeout;
+                    while( scheduled && remaining > 0 ){
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if( scheduled && LOGGER.isWarnEnabled() ){
+                    LOGGER.warn(lines.size() + " command output lines are still pending for the listener");
+                }
+                if( dropped > 0 && LOGGER.isWarnEnabled() ){
+                    LOGGER.warn(dropped + " command output lines were not passed to the listener");
+                }
+            }
+        }
+    }
+
+    private static class OutputLine {
+        private final String text;
+        private final boolean error;
+
+        OutputLine(String text, boolean error) {
+            this.text = text;
+            this.error = error;
+        }
+    }
+
+    private static class RunningCommand {
+        private Process process;
+        private boolean cancelled;
+
+        void attach(Process process) {
+            boolean cancelledBeforeStart;
+            synchronized (this) {
+                this.process = process;
+                cancelledBeforeStart = cancelled;
+            }
+            if( cancelledBeforeStart ){
+                terminate(process);
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancel() {
+            Process target;
+            synchronized (this) {
+                cancelled = true;
+                target = process;
+            }
+            if( target != null ){
+                terminate(target);
+            }
+        }
+    }
+
+    public static class CommandStats {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final AtomicLong cancelled = new AtomicLong();
+        private final AtomicLong totalQueueMillis = new AtomicLong();
+        private final AtomicLong totalRunMillis = new AtomicLong();
+        private final AtomicLong maxRunMillis = new AtomicLong();
+        private final AtomicLong outputLines = new AtomicLong();
+
+        void record(long queueMillis, long runMillis, long lines, int exitCode, boolean isTimedOut, boolean isCancelled) {
+            completed.incrementAndGet();
+            if( isCancelled ){
+                cancelled.incrementAndGet();
+            } else if( isTimedOut ){
+                timedOut.incrementAndGet();
+            } else if( exitCode != 0 ){
+                failed.incrementAndGet();
+            }
+            totalQueueMillis.addAndGet(queueMillis);
+            totalRunMillis.addAndGet(runMillis);
+            outputLines.addAndGet(lines);
+            long max = maxRunMillis.get();
+            while( runMillis > max && !maxRunMillis.compareAndSet(max, runMillis) ){
+                max = maxRunMillis.get();
+            }
+        }
+
+        public int getRunning() {
+            return running.get();
+        }
+
+        public int getWaiting() {
+            return waiting.get();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getTimedOut() {
+            return timedOut.get();
+        }
+
+        public long getCancelled() {
+            return cancelled.get();
+        }
+
+        public long getTotalQueueMillis() {
+            return totalQueueMillis.get();
+        }
+
+        public long getTotalRunMillis() {
+            return totalRunMillis.get();
+        }
+
+        public long getMaxRunMillis() {
+            return maxRunMillis.get();
+        }
+
+        public long getOutputLines() {
+            return outputLines.get();
+        }
+    }
+}
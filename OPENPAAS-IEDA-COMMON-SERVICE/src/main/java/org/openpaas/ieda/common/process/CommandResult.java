@@ -0,0 +1,96 @@
+package org.openpaas.ieda.common.process;
+
+public class CommandResult {
+
+    //실행되지 않았거나 종료 코드를 받지 못한 경우
+    final public static int NO_EXIT_CODE = -1;
+
+    private final CommandType type;
+    private final int exitCode;
+    private final boolean timedOut;
+    private final boolean cancelled;
+    private final long queueMillis;
+    private final long runMillis;
+    private final OutputRingBuffer output;
+    private final OutputRingBuffer errorOutput;
+
+    public CommandResult(CommandType type, int exitCode, boolean timedOut, boolean cancelled, long queueMillis, long runMillis,
+            OutputRingBuffer output, OutputRingBuffer errorOutput) {
+        this.type = type;
+        this.exitCode = exitCode;
+        this.timedOut = timedOut;
+        this.cancelled = cancelled;
+        this.queueMillis = queueMillis;
+        this.runMillis = runMillis;
+        this.output = output;
+        this.errorOutput = errorOutput;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 제한 시간/취소 없이 종료 코드 0으로 끝났는지 여부
+     * @title : isSuccess
+     * @return : boolean
+    ***************************************************/
+    public boolean isSuccess() {
+        return exitCode == 0 && !timedOut && !cancelled;
+    }
+
+    public CommandType getType() {
+        return type;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getQueueMillis() {
+        return queueMillis;
+    }
+
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 표준 출력(버퍼 크기를 넘은 앞부분은 제외)
+     * @title : getOutput
+     * @return : String
+    ***************************************************/
+    public String getOutput() {
+        return output.toString();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 표준 에러 출력(버퍼 크기를 넘은 앞부분은 제외)
+     * @title : getErrorOutput
+     * @return : String
+    ***************************************************/
+    public String getErrorOutput() {
+        return errorOutput.toString();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 표준 출력 뒤에 표준 에러 출력을 붙인 전체 로그
+     * @title : getCombinedOutput
+     * @return : String
+    ***************************************************/
+    public String getCombinedOutput() {
+        return output.toString() + errorOutput.toString();
+    }
+
+    public long getOutputLines() {
+        return output.getTotalLines() + errorOutput.getTotalLines();
+    }
+}
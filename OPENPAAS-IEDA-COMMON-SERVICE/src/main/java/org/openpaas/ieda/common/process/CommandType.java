@@ -0,0 +1,29 @@
+package org.openpaas.ieda.common.process;
+
+public enum CommandType {
+
+    //bosh deploy/create-env/delete-env : 수십 분 이상 실행되므로 동시 실행 수를 제한
+    //배포 시간은 규모에 따라 예측할 수 없으므로 기본은 제한 시간 없음(취소로 종료)
+    DEPLOY(4, Long.getLong("ieda.command.deploy.timeout", 0L)),
+    //bosh update-cloud-config/update-runtime-config/delete-config
+    CONFIG(4, Long.getLong("ieda.command.config.timeout", 10 * 60 * 1000L)),
+    //spiff merge/bosh interpolate 등 로컬에서 끝나는 명령
+    GENERATE(8, Long.getLong("ieda.command.generate.timeout", 2 * 60 * 1000L));
+
+    private final int maxConcurrency;
+    //실행 제한 시간(ms, 0 이하이면 제한 없음)
+    private final long timeout;
+
+    private CommandType(int maxConcurrency, long timeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = timeout;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,75 @@
+package org.openpaas.ieda.common.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutputRingBuffer {
+
+    private final String[] lines;
+    private int head = 0;
+    private int size = 0;
+    private long totalLines = 0;
+
+    public OutputRingBuffer(int capacity) {
+        this.lines = new String[capacity];
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 출력 한 줄 추가(가득 차면 가장 오래된 줄을 덮어씀)
+     * @title : add
+     * @return : void
+    ***************************************************/
+    public synchronized void add(String line) {
+        lines[(head + size) % lines.length] = line;
+        if( size < lines.length ){
+            size++;
+        } else {
+            head = (head + 1) % lines.length;
+        }
+        totalLines++;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 버퍼에 남아 있는 출력 목록(오래된 순)
+     * @title : getLines
+     * @return : List<String>
+    ***************************************************/
+    public synchronized List<String> getLines() {
+        List<String> list = new ArrayList<String>(size);
+        for( int i = 0; i < size; i++ ){
+            list.add(lines[(head + i) % lines.length]);
+        }
+        return list;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 지금까지 추가된 전체 줄 수
+     * @title : getTotalLines
+     * @return : long
+    ***************************************************/
+    public synchronized long getTotalLines() {
+        return totalLines;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 버퍼 크기를 넘어 버려진 줄 수
+     * @title : getDroppedLines
+     * @return : long
+    ***************************************************/
+    public synchronized long getDroppedLines() {
+        return totalLines - size;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuffer buffer = new StringBuffer();
+        for( int i = 0; i < size; i++ ){
+            buffer.append(lines[(head + i) % lines.length]).append("\n");
+        }
+        return buffer.toString();
+    }
+}
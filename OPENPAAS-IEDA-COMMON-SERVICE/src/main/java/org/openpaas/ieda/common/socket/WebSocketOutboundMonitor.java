@@ -0,0 +1,67 @@
+package org.openpaas.ieda.common.socket;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WebSocketOutboundMonitor {
+
+    @Autowired(required = false)
+    @Qualifier("clientOutboundChannelExecutor")
+    private ThreadPoolTaskExecutor clientOutboundChannelExecutor;
+
+    //클라이언트 전송 대기 메시지가 이 값을 넘으면 로그 발행을 미룸
+    final private static int MAX_PENDING_MESSAGES = 500;
+
+    private static volatile WebSocketOutboundMonitor instance;
+
+    @PostConstruct
+    public void initialize() {
+        instance = this;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if( instance == this ){
+            instance = null;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 모니터 응답(스프링 컨텍스트 밖에서는 null)
+     * @title : getInstance
+     * @return : WebSocketOutboundMonitor
+    ***************************************************/
+    public static WebSocketOutboundMonitor getInstance() {
+        return instance;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 클라이언트 전송 채널에 대기 중인 메시지 수
+     * @title : getPendingMessageCount
+     * @return : int
+    ***************************************************/
+    public int getPendingMessageCount() {
+        if( clientOutboundChannelExecutor == null || clientOutboundChannelExecutor.getThreadPoolExecutor() == null ){
+            return 0;
+        }
+        return clientOutboundChannelExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 클라이언트 전송 채널에 대기 중인 메시지가 한도를 넘었는지 확인(대기하지 않음)
+     * @title : isBackedUp
+     * @return : boolean
+    ***************************************************/
+    public boolean isBackedUp() {
+        return getPendingMessageCount() > MAX_PENDING_MESSAGES;
+    }
+}
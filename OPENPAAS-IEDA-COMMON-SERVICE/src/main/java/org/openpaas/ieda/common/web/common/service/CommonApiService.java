@@ -6,22 +6,45 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openstack4j.api.OSClient.OSClientV2;
 import org.openstack4j.api.OSClient.OSClientV3;
+import org.openstack4j.core.transport.Config;
 import org.openstack4j.model.common.Identifier;
+import org.openstack4j.model.identity.v2.Access;
+import org.openstack4j.model.identity.v3.Token;
 import org.openstack4j.openstack.OSFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatchClientBuilder;
+import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.services.compute.ComputeScopes;
 import com.microsoft.aad.adal4j.AuthenticationContext;
@@ -42,9 +65,90 @@ public class CommonApiService {
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String BASE_DIR  = System.getProperty("user.home") + SEPARATOR + ".bosh_plugin";
     final private static String KEY_DIR   = BASE_DIR + SEPARATOR + "key";
+    //토큰 만료 전 새로 발급 받는 여유 시간(백그라운드 갱신은 2배 시간 전부터)
+    final private static long TOKEN_REFRESH_MARGIN = 5 * 60 * 1000L;
+    //이 시간 동안 사용하지 않은 계정의 클라이언트/토큰은 정리
+    final private static long SESSION_IDLE_TIMEOUT = 60 * 60 * 1000L;
+    final private static long SESSION_REFRESH_INTERVAL = 60 * 1000L;
+    //Azure AD 토큰 발급 스레드 수 및 대기 요청 수
+    final private static int AZURE_AUTH_THREADS = 4;
+    final private static int AZURE_AUTH_QUEUE_CAPACITY = 100;
+    final private static long NO_EXPIRE = Long.MAX_VALUE;
+    //SDK 연결/응답 제한 시간(조회 Future 를 취소해도 SDK 의 소켓 대기는 중단되지 않으므로 SDK 에서 제한)
+    final public static int SDK_CONNECTION_TIMEOUT = 10 * 1000;
+    final public static int SDK_READ_TIMEOUT = 20 * 1000;
     final private static Logger LOGGER = LoggerFactory.getLogger(CommonApiService.class);
 	//private Azure azure;
     
+    //인프라 계정 별로 재사용하는 SDK 클라이언트/인증 토큰(new CommonApiService()로 생성한 경우에도 공유)
+    private final static ConcurrentMap<String, AccountSession> SESSIONS = new ConcurrentHashMap<String, AccountSession>();
+    private final static ConcurrentMap<String, Object> SESSION_LOCKS = new ConcurrentHashMap<String, Object>();
+    //Azure AD 토큰 발급 스레드(호출마다 스레드 풀을 생성하지 않도록 공유, 응답이 늦어도 스레드가 늘어나지 않도록 제한)
+    private final static ExecutorService AZURE_AUTH_EXECUTOR = newAzureAuthExecutor();
+    //토큰 갱신은 인증 서버 응답을 기다리므로 공용 스케줄러가 아닌 전용 스레드에서 실행
+    private ScheduledExecutorService sessionScheduler;
+    
+    private interface SessionLoader {
+        //클라이언트/토큰 발급(실패 시 null)
+        AccountSession load();
+    }
+    
+    private static class AccountSession {
+        final Object client;
+        final long expiresAt;
+        String account;
+        SessionLoader loader;
+        volatile long lastAccess = System.currentTimeMillis();
+        
+        AccountSession(Object client, long expiresAt) {
+            this.client = client;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 토큰 갱신/계정 정리 전용 스케줄러 시작
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public void initialize(){
+        sessionScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "iaas-session-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        sessionScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refreshSessions();
+                } catch (RuntimeException e) {
+                    //예외로 다음 갱신이 취소되지 않도록 기록만 함
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error("refresh iaas sessions : " + e.getMessage()); }
+                }
+            }
+        }, SESSION_REFRESH_INTERVAL, SESSION_REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 토큰 갱신/계정 정리 전용 스케줄러 종료
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public void shutdown(){
+        if( sessionScheduler != null ){
+            sessionScheduler.shutdownNow();
+            sessionScheduler = null;
+        }
+    }
+    
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : AWS 공통 credential API
@@ -58,46 +162,95 @@ public class CommonApiService {
         return provider;
     }
     
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정/리전 별로 재사용하는 AWS EC2 클라이언트
+     * @title : getAmazonEC2Client
+     * @return : AmazonEC2Client
+    ***************************************************/
+    public AmazonEC2Client getAmazonEC2Client(final String accessKey, final String secret, final String region){
+        return (AmazonEC2Client) getSession(accessKey, sessionKey("aws-ec2", accessKey, secret, region), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                return new AccountSession(AmazonEC2ClientBuilder.standard().withRegion(region)
+                        .withClientConfiguration(awsClientConfiguration())
+                        .withCredentials(getAwsStaticCredentialsProvider(accessKey, secret)).build(), NO_EXPIRE);
+            }
+        });
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정/리전 별로 재사용하는 AWS CloudWatch 클라이언트
+     * @title : getAmazonCloudWatchClient
+     * @return : AmazonCloudWatchClient
+    ***************************************************/
+    public AmazonCloudWatchClient getAmazonCloudWatchClient(final String accessKey, final String secret, final String region){
+        return (AmazonCloudWatchClient) getSession(accessKey, sessionKey("aws-cloudwatch", accessKey, secret, region), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                return new AccountSession(AmazonCloudWatchClientBuilder.standard().withRegion(region)
+                        .withClientConfiguration(awsClientConfiguration())
+                        .withCredentials(getAwsStaticCredentialsProvider(accessKey, secret)).build(), NO_EXPIRE);
+            }
+        });
+    }
+    
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : Openstack V2 접근 인증 토큰
+     *                토큰은 만료 전까지 재사용하고 클라이언트는 호출 스레드마다 토큰으로 생성
      * @title : getAccountInfoFromOpenstackV2
      * @return : boolean
     ***************************************************/
-    public OSClientV2 getOSClientFromOpenstackV2( String endpoint, String tenant, String user, String secret){
-        OSClientV2 os = null;
-        try{
-            os = OSFactory.builderV2()
-                    .endpoint(endpoint)
-                    .credentials(user, secret)
-                    .tenantName(tenant)
-                    .authenticate();
-        }catch(Exception e){
-            if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
-        }
-        return os;
+    public OSClientV2 getOSClientFromOpenstackV2( final String endpoint, final String tenant, final String user, final String secret){
+        Access access = (Access) getSession(user, sessionKey("openstack-v2", endpoint, tenant, user, secret), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                try{
+                    OSClientV2 os = OSFactory.builderV2()
+                            .withConfig(openstackConfig())
+                            .endpoint(endpoint)
+                            .credentials(user, secret)
+                            .tenantName(tenant)
+                            .authenticate();
+                    return new AccountSession(os.getAccess(), expiresAt(os.getAccess().getToken().getExpires()));
+                }catch(Exception e){
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
+                }
+                return null;
+            }
+        });
+        return access == null ? null : OSFactory.clientFromAccess(access, openstackConfig());
    }
     
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : Openstack V3 접근 인증 토큰
+     *                토큰은 만료 전까지 재사용하고 클라이언트는 호출 스레드마다 토큰으로 생성
      * @title : getAccountInfoFromOpenstackV3
      * @return : boolean
     ***************************************************/
-    public OSClientV3 getOSClientFromOpenstackV3( String endpoint, String domain, String project, String user, String secret){
-        OSClientV3 osV3 = null;
-        try{
-            Identifier domainIdentifier = Identifier.byName(domain);
-            osV3 = OSFactory.builderV3()
-                    .endpoint(endpoint )
-                    .credentials(user, secret, domainIdentifier)
-                    .scopeToProject(Identifier.byName(project), Identifier.byName(domain))
-                    .authenticate();
-            
-        }catch(Exception e){
-            if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
-        }
-        return osV3;
+    public OSClientV3 getOSClientFromOpenstackV3( final String endpoint, final String domain, final String project, final String user, final String secret){
+        Token token = (Token) getSession(user, sessionKey("openstack-v3", endpoint, domain, project, user, secret), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                try{
+                    Identifier domainIdentifier = Identifier.byName(domain);
+                    OSClientV3 osV3 = OSFactory.builderV3()
+                            .withConfig(openstackConfig())
+                            .endpoint(endpoint )
+                            .credentials(user, secret, domainIdentifier)
+                            .scopeToProject(Identifier.byName(project), Identifier.byName(domain))
+                            .authenticate();
+                    return new AccountSession(osV3.getToken(), expiresAt(osV3.getToken().getExpires()));
+                }catch(Exception e){
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
+                }
+                return null;
+            }
+        });
+        return token == null ? null : OSFactory.clientFromToken(token, openstackConfig());
    }
     
     /****************************************************************
@@ -106,25 +259,30 @@ public class CommonApiService {
      * @title : getGoogleCredentialFromGoogle
      * @return : Compute
     *****************************************************************/
-    public GoogleCredential getGoogleCredentialFromGoogle( String jsonPath ){
-        GoogleCredential credential= null;
-        File file = new File(KEY_DIR + SEPARATOR + jsonPath);
-        if( file.exists() ){
-            try {
-                InputStream inputStream = new BufferedInputStream(new FileInputStream(file)); 
-                
-                credential= GoogleCredential.fromStream(inputStream);
-                List<String> computeScopes =Collections.singletonList(ComputeScopes.COMPUTE);
-                if (credential.createScopedRequired()) {
-                    credential = credential.createScoped(computeScopes);
+    public GoogleCredential getGoogleCredentialFromGoogle( final String jsonPath ){
+        return (GoogleCredential) getSession(jsonPath, sessionKey("google", jsonPath), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                File file = new File(KEY_DIR + SEPARATOR + jsonPath);
+                if( !file.exists() ){
+                    return null;
+                }
+                try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                    GoogleCredential credential= GoogleCredential.fromStream(inputStream);
+                    List<String> computeScopes =Collections.singletonList(ComputeScopes.COMPUTE);
+                    if (credential.createScopedRequired()) {
+                        credential = credential.createScoped(computeScopes);
+                    }
+                    
+                    credential.refreshToken();
+                    Long expiresIn = credential.getExpiresInSeconds();
+                    return new AccountSession(credential, expiresIn == null ? NO_EXPIRE : System.currentTimeMillis() + expiresIn * 1000L);
+                } catch (IOException e) {
+                    LOGGER.error(e.getMessage());
                 }
-                
-                credential.refreshToken();
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage());
+                return null;
             }
-        }
-        return credential;
+        });
     }
 
     final private static String AZURE_TOKEN_URL = "https://login.microsoftonline.com/";
@@ -132,83 +290,260 @@ public class CommonApiService {
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : Azure 공통 credential API
+     *                Azure AD 토큰이 만료되기 전까지 같은 credential을 재사용
      * @title : getAzureCredentialsFromAzure
      * @return : AzureCredentials
     ***************************************************/
-    public AzureTokenCredentials getAzureCredentialsFromAzure(String client, String tenant, String key, String azureSubscriptionId){
-    	
-    	/*ApplicationTokenCredentials credentials = new ApplicationTokenCredentials(client, 
-    	        tenant,
-    	        key, 
-    	        AzureEnvironment.AZURE);
-    	
-    	Azure.Authenticated azureAuth = Azure.authenticate(credentials);
- 
-		Azure azure = azureAuth
-				.configure()
-    	        //.withLogLevel(LogLevel.OFF)
-    	        .authenticate(credentials)
-    	        .withSubscription(azureSubscriptionId);*/
-    	
-    	// use adal to Authenticate
-        AuthenticationContext authContext = null;
-        AuthenticationResult authResult = null;
-        ExecutorService service = null;
-        AzureTokenCredentials credentials = null;
-        try {
-            service = Executors.newFixedThreadPool(1);
-            String url = AZURE_TOKEN_URL + tenant + "/oauth2/token";
-            authContext = new AuthenticationContext(url, false, service);
-            ClientCredential clientCred = new ClientCredential(client, key);
-            Future<AuthenticationResult> future = authContext.acquireToken(AZURE_ACQUIRE_TOKEN_URL, clientCred, null);
-            authResult = future.get();
-            if( !StringUtils.isEmpty(authResult.getAccessToken())){
-            	ApplicationTokenCredentials credential = new ApplicationTokenCredentials(client, 
-            	        tenant,
-            	        key, 
-            	        AzureEnvironment.AZURE);
-            	credentials = credential.withDefaultSubscriptionId(azureSubscriptionId);
+    public AzureTokenCredentials getAzureCredentialsFromAzure(final String client, final String tenant, final String key, final String azureSubscriptionId){
+        return (AzureTokenCredentials) getSession(client, sessionKey("azure-credentials", client, tenant, key, azureSubscriptionId), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                AuthenticationResult authResult = acquireAzureToken(client, tenant, key);
+                if( authResult == null ){
+                    return null;
+                }
+                ApplicationTokenCredentials credential = new ApplicationTokenCredentials(client, 
+                        tenant,
+                        key, 
+                        AzureEnvironment.AZURE);
+                return new AccountSession(credential.withDefaultSubscriptionId(azureSubscriptionId), expiresAt(authResult.getExpiresOnDate()));
             }
-        } catch (Exception ex) {
-                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(ex.getMessage()); }
-        }
-        return credentials;
+        });
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : Azure AD access token(만료 전까지 재사용)
+     * @title : getAzureAccessToken
+     * @return : String
+    ***************************************************/
+    public String getAzureAccessToken(final String client, final String tenant, final String key){
+        return (String) getSession(client, sessionKey("azure-token", client, tenant, key), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                AuthenticationResult authResult = acquireAzureToken(client, tenant, key);
+                return authResult == null ? null : new AccountSession(authResult.getAccessToken(), expiresAt(authResult.getExpiresOnDate()));
+            }
+        });
     }
     
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : Azure 공통 credential API
+     *                credential과 함께 갱신되고 그 전까지 같은 Azure 클라이언트를 재사용
      * @title : getAzureFromAzure
      * @return : AzureCredentials
     ***************************************************/
-	public Azure getAzureFromAzure(String client, String tenant, String key, String azureSubscriptionId){
-    	
-    	// use adal to Authenticate
-        AuthenticationContext authContext = null;
-        AuthenticationResult authResult = null;
-        ExecutorService service = null;
-        AzureTokenCredentials credentials = null;
-        Azure azure = null;
+	public Azure getAzureFromAzure(final String client, final String tenant, final String key, final String azureSubscriptionId){
+        return (Azure) getSession(client, sessionKey("azure", client, tenant, key, azureSubscriptionId), new SessionLoader() {
+            @Override
+            public AccountSession load() {
+                AzureTokenCredentials credentials = getAzureCredentialsFromAzure(client, tenant, key, azureSubscriptionId);
+                AccountSession credentialSession = SESSIONS.get(sessionKey("azure-credentials", client, tenant, key, azureSubscriptionId));
+                if( credentials == null || credentialSession == null ){
+                    return null;
+                }
+                try {
+                    Azure.Authenticated azureAuth = Azure.configure()
+                            .withConnectionTimeout(SDK_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS)
+                            .withReadTimeout(SDK_READ_TIMEOUT, TimeUnit.MILLISECONDS)
+                            .authenticate(credentials);
+                    return new AccountSession(azureAuth.withDefaultSubscription(), credentialSession.expiresAt);
+                } catch (Exception ex) {
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(ex.getMessage()); }
+                }
+                return null;
+            }
+        });
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 인프라 계정 수정/삭제 시 해당 계정(접근 아이디 또는 Google 키 파일)의 클라이언트/토큰 삭제
+     * @title : invalidateAccount
+     * @return : void
+    ***************************************************/
+    public static void invalidateAccount(String account){
+        if( StringUtils.isEmpty(account) ){
+            return;
+        }
+        Iterator<Map.Entry<String, AccountSession>> iterator = SESSIONS.entrySet().iterator();
+        while( iterator.hasNext() ){
+            Map.Entry<String, AccountSession> entry = iterator.next();
+            AccountSession session = entry.getValue();
+            if( account.equals(session.account) ){
+                iterator.remove();
+                SESSION_LOCKS.remove(entry.getKey());
+                close(session);
+            }
+        }
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 만료가 가까운 토큰은 백그라운드에서 갱신하고 오래 사용하지 않은 계정은 정리
+     * @title : refreshSessions
+     * @return : void
+    ***************************************************/
+    public void refreshSessions(){
+        refreshSessions(System.currentTimeMillis());
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 기준 시각으로 토큰 갱신/계정 정리(발급에 실패해 세션 없이 남은 lock 도 정리)
+     * @title : refreshSessions
+     * @return : void
+    ***************************************************/
+    void refreshSessions(long now){
+        for( Map.Entry<String, AccountSession> entry : SESSIONS.entrySet() ){
+            AccountSession session = entry.getValue();
+            if( now - session.lastAccess > SESSION_IDLE_TIMEOUT ){
+                if( SESSIONS.remove(entry.getKey(), session) ){
+                    SESSION_LOCKS.remove(entry.getKey());
+                    close(session);
+                }
+            }else if( session.expiresAt - TOKEN_REFRESH_MARGIN * 2 <= now ){
+                synchronized (getSessionLock(entry.getKey())) {
+                    if( SESSIONS.get(entry.getKey()) == session ){
+                        AccountSession refreshed = loadSession(session.account, entry.getKey(), session.loader);
+                        if( refreshed != null ){
+                            refreshed.lastAccess = session.lastAccess;
+                        }
+                    }
+                }
+            }
+        }
+        SESSION_LOCKS.keySet().retainAll(SESSIONS.keySet());
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 캐시된 클라이언트/토큰 수
+     * @title : getSessionCount
+     * @return : int
+    ***************************************************/
+    static int getSessionCount(){
+        return SESSIONS.size();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정 별 발급 lock 수
+     * @title : getSessionLockCount
+     * @return : int
+    ***************************************************/
+    static int getSessionLockCount(){
+        return SESSION_LOCKS.size();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 캐시된 클라이언트/토큰 조회(없거나 만료가 가까우면 새로 발급)
+     * @title : getSession
+     * @return : Object
+    ***************************************************/
+    private static Object getSession(String account, String key, SessionLoader loader){
+        AccountSession session = SESSIONS.get(key);
+        if( session == null || session.expiresAt - TOKEN_REFRESH_MARGIN <= System.currentTimeMillis() ){
+            synchronized (getSessionLock(key)) {
+                session = SESSIONS.get(key);
+                if( session == null || session.expiresAt - TOKEN_REFRESH_MARGIN <= System.currentTimeMillis() ){
+                    session = loadSession(account, key, loader);
+                }
+            }
+        }
+        if( session == null ){
+            return null;
+        }
+        session.lastAccess = System.currentTimeMillis();
+        return session.client;
+    }
+    
+    private static AccountSession loadSession(String account, String key, SessionLoader loader){
+        AccountSession session = loader.load();
+        if( session == null || session.client == null ){
+            return null;
+        }
+        session.account = account;
+        session.loader = loader;
+        SESSIONS.put(key, session);
+        return session;
+    }
+    
+    private static Object getSessionLock(String key){
+        Object lock = new Object();
+        Object previous = SESSION_LOCKS.putIfAbsent(key, lock);
+        return previous == null ? lock : previous;
+    }
+    
+    private static void close(AccountSession session){
+        if( session.client instanceof AmazonWebServiceClient ){
+            ((AmazonWebServiceClient) session.client).shutdown();
+        }
+    }
+    
+    private static ExecutorService newAzureAuthExecutor(){
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(AZURE_AUTH_THREADS, AZURE_AUTH_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(AZURE_AUTH_QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "azure-auth");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static ClientConfiguration awsClientConfiguration(){
+        return new ClientConfiguration()
+                .withConnectionTimeout(SDK_CONNECTION_TIMEOUT)
+                .withSocketTimeout(SDK_READ_TIMEOUT)
+                .withClientExecutionTimeout(SDK_READ_TIMEOUT);
+    }
+    
+    private static Config openstackConfig(){
+        return Config.newConfig()
+                .withConnectionTimeout(SDK_CONNECTION_TIMEOUT)
+                .withReadTimeout(SDK_READ_TIMEOUT);
+    }
+    
+    private static String sessionKey(String... values){
+        return StringUtils.join(values, '\n');
+    }
+    
+    private static long expiresAt(Date expires){
+        return expires == null ? NO_EXPIRE : expires.getTime();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : adal4j로 Azure AD 토큰 발급(실패 시 null)
+     * @title : acquireAzureToken
+     * @return : AuthenticationResult
+    ***************************************************/
+    private static AuthenticationResult acquireAzureToken(String client, String tenant, String key){
         try {
-            service = Executors.newFixedThreadPool(1);
             String url = AZURE_TOKEN_URL + tenant + "/oauth2/token";
-            authContext = new AuthenticationContext(url, false, service);
+            AuthenticationContext authContext = new AuthenticationContext(url, false, AZURE_AUTH_EXECUTOR);
             ClientCredential clientCred = new ClientCredential(client, key);
             Future<AuthenticationResult> future = authContext.acquireToken(AZURE_ACQUIRE_TOKEN_URL, clientCred, null);
-            authResult = future.get();
+            AuthenticationResult authResult = null;
+            try {
+                authResult = future.get(SDK_READ_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw e;
+            }
             if( !StringUtils.isEmpty(authResult.getAccessToken())){
-            	ApplicationTokenCredentials credential = new ApplicationTokenCredentials(client, 
-            	        tenant,
-            	        key, 
-            	        AzureEnvironment.AZURE);
-            	credentials = credential.withDefaultSubscriptionId(azureSubscriptionId);
-            	Azure.Authenticated azureAuth = Azure.authenticate(credentials);
-            	azure = azureAuth.withDefaultSubscription();
+                return authResult;
             }
         } catch (Exception ex) {
-                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(ex.getMessage()); }
-    }
-		return azure;
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error(ex.getMessage()); }
+        }
+        return null;
     }
     
     /***************************************************
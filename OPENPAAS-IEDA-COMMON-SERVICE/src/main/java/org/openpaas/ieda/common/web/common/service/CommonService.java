@@ -17,11 +17,9 @@ import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.RegionUtils;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.AmazonEC2Exception;
 import com.amazonaws.services.ec2.model.AvailabilityZone;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
@@ -70,10 +68,9 @@ public class CommonService {
         CommonApiService common = new CommonApiService();
         HashMap<String, Object> ant = commondao.selectAccountInfoById(id, principal.getName());
 
-        AWSStaticCredentialsProvider provider = common.getAwsStaticCredentialsProvider(
-                ant.get("commonAccessUser").toString(), ant.get("commonAccessSecret").toString());
         Region regionId = RegionUtils.getRegion(region);
-        AmazonEC2Client ec2 = (AmazonEC2Client) AmazonEC2ClientBuilder.standard().withRegion(regionId.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = common.getAmazonEC2Client(
+                ant.get("commonAccessUser").toString(), ant.get("commonAccessSecret").toString(), regionId.getName());
         
         try{
              zones = ec2.describeAvailabilityZones().getAvailabilityZones().stream()
@@ -0,0 +1,108 @@
+package org.openpaas.ieda.common.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class AsyncExecutorConfigUnitTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private CountDownLatch release;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        executor = new AsyncExecutorConfig().fileTransferExecutor();
+        executor.initialize();
+        release = new CountDownLatch(1);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 최대 스레드와 대기열이 가득 차면 요청을 거부하고 거부 건수를 기록하는지 테스트
+    * @title : testRejectWhenQueueFull
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRejectWhenQueueFull(){
+        int capacity = executor.getMaxPoolSize() + executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        for( int i = 0; i < capacity; i++ ){
+            executor.execute(blockingTask());
+        }
+        try {
+            executor.execute(blockingTask());
+            fail("TaskRejectedException expected");
+        } catch (TaskRejectedException e) {
+            CountingAbortPolicy policy = (CountingAbortPolicy) executor.getThreadPoolExecutor().getRejectedExecutionHandler();
+            assertEquals(1L, policy.getRejectedCount());
+        }
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 최대 스레드 수까지는 대기열에 쌓지 않고 동시에 실행하는지 테스트
+    * @title : testRunUpToPoolSizeWithoutQueueing
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRunUpToPoolSizeWithoutQueueing() throws Exception {
+        final CountDownLatch started = new CountDownLatch(executor.getMaxPoolSize());
+        for( int i = 0; i < executor.getMaxPoolSize(); i++ ){
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    blockingTask().run();
+                }
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getThreadPoolExecutor().getQueue().size());
+        assertTrue(executor.getThreadPoolExecutor().allowsCoreThreadTimeOut());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트 종료 시까지 대기하는 작업
+    * @title : blockingTask
+    * @return : Runnable
+    ***************************************************/
+    private Runnable blockingTask(){
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
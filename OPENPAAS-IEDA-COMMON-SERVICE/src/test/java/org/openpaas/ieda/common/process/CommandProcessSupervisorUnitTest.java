@@ -0,0 +1,230 @@
+package org.openpaas.ieda.common.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openpaas.ieda.common.exception.CommonException;
+import org.springframework.http.HttpStatus;
+
+public class CommandProcessSupervisorUnitTest {
+
+    private CommandProcessSupervisor supervisor;
+    private ExecutorService executor;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        supervisor = new CommandProcessSupervisor();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        supervisor.shutdown();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : stdout/stderr 을 나누어 읽고 종료 코드를 결과로 응답하는지 테스트
+    * @title : testRunCollectsOutputAndExitCode
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRunCollectsOutputAndExitCode() throws Exception{
+        final List<String> lines = new ArrayList<String>();
+        CommandResult result = supervisor.run(CommandType.GENERATE, shell("echo out; echo err 1>&2; exit 3"), new CommandOutputListener() {
+            @Override
+            public void onLine(String line, boolean error) {
+                lines.add((error ? "E:" : "O:") + line);
+            }
+        });
+
+        assertEquals(3, result.getExitCode());
+        assertFalse(result.isSuccess());
+        assertEquals("out\n", result.getOutput());
+        assertEquals("err\n", result.getErrorOutput());
+        assertTrue(lines.contains("O:out") && lines.contains("E:err"));
+        assertEquals(1L, supervisor.getStats(CommandType.GENERATE).getFailed());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 제한 시간이 지나면 프로세스를 종료하는지 테스트
+    * @title : testRunTimeout
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRunTimeout() throws Exception{
+        long start = System.currentTimeMillis();
+        CommandResult result = supervisor.run(CommandType.GENERATE, null, shell("sleep 30"), null, 200L);
+
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertTrue(System.currentTimeMillis() - start < 10 * 1000L);
+        assertEquals(1L, supervisor.getStats(CommandType.GENERATE).getTimedOut());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : key 로 실행 중인 명령을 취소할 수 있는지 테스트
+    * @title : testCancel
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCancel() throws Exception{
+        Future<CommandResult> future = executor.submit(new Callable<CommandResult>() {
+            @Override
+            public CommandResult call() throws Exception {
+                return supervisor.run(CommandType.DEPLOY, "bootstrap/1", shell("sleep 30"), null);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5 * 1000L;
+        while( !supervisor.isRunning("bootstrap/1") && System.currentTimeMillis() < deadline ){
+            Thread.sleep(10);
+        }
+
+        assertTrue(supervisor.cancel("bootstrap/1"));
+        CommandResult result = future.get(10, TimeUnit.SECONDS);
+        assertTrue(result.isCancelled());
+        assertFalse(supervisor.isRunning("bootstrap/1"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 리스너가 느려도 출력을 계속 읽어 프로세스가 멈추지 않고, 리스너에는 출력 순서대로 전달하는지 테스트
+    * @title : testSlowListenerDoesNotBlockProcess
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testSlowListenerDoesNotBlockProcess() throws Exception{
+        final List<String> lines = new ArrayList<String>();
+        //파이프 버퍼보다 큰 출력(출력을 읽지 않으면 프로세스가 쓰기에서 멈춤)
+        CommandResult result = supervisor.run(CommandType.GENERATE, null, shell("i=0; while [ $i -lt 5000 ]; do echo line$i; i=$((i+1)); done | sed 's/$/ 0123456789012345678901234567890123456789/'"), new CommandOutputListener() {
+            @Override
+            public void onLine(String line, boolean error) {
+                //첫 줄에서 제한 시간(1초)보다 오래 멈춤
+                if( lines.isEmpty() ){
+                    try {
+                        Thread.sleep(2 * 1000L);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                lines.add(line);
+            }
+        }, 1000L);
+
+        assertFalse(result.isTimedOut());
+        assertEquals(0, result.getExitCode());
+        assertEquals(5000L, result.getOutputLines());
+        assertEquals(5000, lines.size());
+        assertTrue(lines.get(0).startsWith("line0 ") && lines.get(4999).startsWith("line4999 "));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 수집 리스너에는 대기 출력 한도보다 많은 출력도 건너뛰지 않고 실행 종료 전에 모두 전달하는지 테스트
+    * @title : testCollectorReceivesAllLines
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCollectorReceivesAllLines() throws Exception{
+        final List<String> lines = new ArrayList<String>();
+        CommandResult result = supervisor.run(CommandType.GENERATE, shell("i=0; while [ $i -lt 12000 ]; do echo line$i; i=$((i+1)); done"), new CommandOutputCollector() {
+            @Override
+            public synchronized void onLine(String line, boolean error) {
+                lines.add(line);
+            }
+        });
+
+        assertEquals(0, result.getExitCode());
+        assertEquals(12000, lines.size());
+        assertEquals("line0", lines.get(0));
+        assertEquals("line11999", lines.get(11999));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 같은 key 의 명령이 실행 중이면 메시지 파일의 충돌 메시지로 응답하는지 테스트
+    * @title : testRunConflict
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRunConflict() throws Exception{
+        Future<CommandResult> future = executor.submit(new Callable<CommandResult>() {
+            @Override
+            public CommandResult call() throws Exception {
+                return supervisor.run(CommandType.DEPLOY, "cf/1", shell("sleep 30"), null);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5 * 1000L;
+        while( !supervisor.isRunning("cf/1") && System.currentTimeMillis() < deadline ){
+            Thread.sleep(10);
+        }
+
+        try {
+            supervisor.run(CommandType.DEPLOY, "cf/1", shell("true"), null);
+            fail();
+        } catch (CommonException e) {
+            assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+            assertEquals("conflict.exception", e.getCode());
+            assertEquals("cf/1 명령이 이미 실행 중입니다.", e.getMessage());
+        }
+        supervisor.cancel("cf/1");
+        assertTrue(future.get(10, TimeUnit.SECONDS).isCancelled());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 출력 버퍼가 가득 차면 오래된 줄부터 버리는지 테스트
+    * @title : testOutputRingBuffer
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOutputRingBuffer(){
+        OutputRingBuffer buffer = new OutputRingBuffer(3);
+        for( int i = 1; i <= 5; i++ ){
+            buffer.add("line" + i);
+        }
+
+        assertEquals(Arrays.asList("line3", "line4", "line5"), buffer.getLines());
+        assertEquals(5L, buffer.getTotalLines());
+        assertEquals(2L, buffer.getDroppedLines());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : sh -c 명령 목록 생성
+    * @title : shell
+    * @return : List<String>
+    ***************************************************/
+    private List<String> shell(String script) {
+        return Arrays.asList("sh", "-c", script);
+    }
+}
@@ -0,0 +1,105 @@
+package org.openpaas.ieda.common.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.ec2.AmazonEC2Client;
+
+public class CommonApiServiceUnitTest {
+
+    final private static String ACCESS_KEY = "unit-test-access-key";
+    final private static String OTHER_ACCESS_KEY = "unit-test-other-access-key";
+    final private static String SECRET = "unit-test-secret";
+    //SESSION_IDLE_TIMEOUT(1시간)보다 긴 시간
+    final private static long IDLE_TIME = 61 * 60 * 1000L;
+
+    private CommonApiService service;
+
+    /****************************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        service = new CommonApiService();
+        CommonApiService.invalidateAccount(ACCESS_KEY);
+        CommonApiService.invalidateAccount(OTHER_ACCESS_KEY);
+    }
+
+    /****************************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        CommonApiService.invalidateAccount(ACCESS_KEY);
+        CommonApiService.invalidateAccount(OTHER_ACCESS_KEY);
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 같은 계정/리전은 클라이언트를 재사용하고 리전이 다르면 새로 생성하는지 테스트
+    * @title : testSessionReused
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testSessionReused(){
+        int sessionCount = CommonApiService.getSessionCount();
+        AmazonEC2Client client = service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2");
+
+        assertSame(client, service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2"));
+        assertSame(client, new CommonApiService().getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2"));
+        assertNotSame(client, service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-east-1"));
+        assertEquals(sessionCount + 2, CommonApiService.getSessionCount());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 계정을 수정/삭제하면 해당 계정의 클라이언트와 lock 만 삭제되는지 테스트
+    * @title : testInvalidateAccount
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testInvalidateAccount(){
+        int sessionCount = CommonApiService.getSessionCount();
+        int lockCount = CommonApiService.getSessionLockCount();
+        AmazonEC2Client client = service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2");
+        AmazonEC2Client other = service.getAmazonEC2Client(OTHER_ACCESS_KEY, SECRET, "us-west-2");
+        assertEquals(sessionCount + 2, CommonApiService.getSessionCount());
+        assertEquals(lockCount + 2, CommonApiService.getSessionLockCount());
+
+        CommonApiService.invalidateAccount(ACCESS_KEY);
+
+        assertEquals(sessionCount + 1, CommonApiService.getSessionCount());
+        assertEquals(lockCount + 1, CommonApiService.getSessionLockCount());
+        assertSame(other, service.getAmazonEC2Client(OTHER_ACCESS_KEY, SECRET, "us-west-2"));
+        assertNotSame(client, service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2"));
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 오래 사용하지 않은 클라이언트는 lock 과 함께 정리되는지 테스트
+    * @title : testRefreshSessionsRemovesIdleSessions
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRefreshSessionsRemovesIdleSessions(){
+        AmazonEC2Client client = service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2");
+        service.getAmazonEC2Client(OTHER_ACCESS_KEY, SECRET, "us-west-2");
+
+        service.refreshSessions(System.currentTimeMillis() + IDLE_TIME);
+
+        assertEquals(0, CommonApiService.getSessionCount());
+        assertEquals(0, CommonApiService.getSessionLockCount());
+        assertNotSame(client, service.getAmazonEC2Client(ACCESS_KEY, SECRET, "us-west-2"));
+    }
+}
@@ -1,14 +1,44 @@
 package org.openpaas.ieda.controller.common;
 
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.exception.ErrorResponse;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @Controller
 public class BaseController{
-    
+
+    @Autowired private MessageSource message;
+    @Autowired private SimpMessagingTemplate messagingTemplate;
+
+    final private static String ERROR = "error";
+    private final static Logger LOGGER = LoggerFactory.getLogger(BaseController.class);
+
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 예외가 발생했을 때 예외처리 관리
@@ -18,11 +48,123 @@ public class BaseController{
     @ExceptionHandler(CommonException.class)
     public ResponseEntity<?> handleCommonException(CommonException commonE) {
         ErrorResponse errorResponse = new ErrorResponse();
-        
+
         errorResponse.setCode(commonE.getCode());
         errorResponse.setMessage(commonE.getMessage());
-        
+
         return new ResponseEntity<>(errorResponse, commonE.getStatusCode());
     }
-    
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 비동기 실행기 대기열이 가득 차 요청이 거부된 경우 예외처리
+     * @title : handleTaskRejectedException
+     * @return : ResponseEntity<?>
+    ***************************************************/
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleTaskRejectedException(TaskRejectedException rejectedE) {
+        ErrorResponse errorResponse = new ErrorResponse();
+
+        errorResponse.setCode(message.getMessage("common.serviceUnavailable.exception.code", null, Locale.KOREA));
+        errorResponse.setMessage(message.getMessage("common.async.rejected.message", null, Locale.KOREA));
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 웹소켓 요청이 비동기 실행기에서 거부된 경우 요청 메소드의 로그 endpoint로 오류 전송
+     * @title : handleTaskRejectedMessage
+     * @return : void
+    ***************************************************/
+    @MessageExceptionHandler(TaskRejectedException.class)
+    public void handleTaskRejectedMessage(TaskRejectedException rejectedE, Message<?> requestMessage, Principal principal) {
+        String destination = SimpMessageHeaderAccessor.getDestination(requestMessage.getHeaders());
+        String endpoint = getLogEndpoint(destination);
+        if( LOGGER.isWarnEnabled() ){ LOGGER.warn("async request rejected : " + destination); }
+        if( endpoint == null || principal == null ){
+            return;
+        }
+        DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, endpoint, ERROR,
+                Arrays.asList(message.getMessage("common.async.rejected.message", null, Locale.KOREA)));
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 목록 응답의 ETag/Last-Modified 설정 후 브라우저 캐시와 같은지 확인(같으면 304 응답)
+     * @title : checkNotModified
+     * @return : boolean
+    ***************************************************/
+    protected boolean checkNotModified(DirectorInventoryCache.Snapshot snapshot, HttpServletRequest request, HttpServletResponse response) {
+        if( snapshot == null ){
+            return false;
+        }
+        response.setHeader("ETag", snapshot.getEtag());
+        response.setDateHeader("Last-Modified", snapshot.getLastModified());
+        //브라우저가 저장하되 매번 검증 요청하도록 설정(기본 no-store 대체)
+        response.setHeader("Cache-Control", "private, no-cache");
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if( ifNoneMatch != null ){
+            for( String etag : ifNoneMatch.split(",") ){
+                String value = etag.trim();
+                if( value.startsWith("W/") ){
+                    value = value.substring(2);
+                }
+                if( "*".equals(value) || snapshot.getEtag().equals(value) ){
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = -1;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && snapshot.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 요청 destination에 매핑된 메소드의 @SendTo/@SendToUser 로그 endpoint 조회
+     * @title : getLogEndpoint
+     * @return : String
+    ***************************************************/
+    private String getLogEndpoint(String destination) {
+        if( destination == null ){
+            return null;
+        }
+        for( Method method : ClassUtils.getUserClass(getClass()).getMethods() ){
+            MessageMapping mapping = method.getAnnotation(MessageMapping.class);
+            if( mapping == null || !matches(destination, mapping.value()) ){
+                continue;
+            }
+            SendTo sendTo = method.getAnnotation(SendTo.class);
+            if( sendTo != null && sendTo.value().length > 0 ){
+                return sendTo.value()[0];
+            }
+            SendToUser sendToUser = method.getAnnotation(SendToUser.class);
+            if( sendToUser != null && sendToUser.value().length > 0 ){
+                return sendToUser.value()[0];
+            }
+        }
+        return null;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : destination이 애플리케이션 prefix(/send, /app)를 제외한 매핑 경로와 일치하는지 확인
+     * @title : matches
+     * @return : boolean
+    ***************************************************/
+    private boolean matches(String destination, String[] mappings) {
+        for( String mapping : mappings ){
+            if( destination.endsWith(mapping) ){
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -11,6 +11,7 @@ import javax.validation.Valid;
 import org.openpaas.ieda.controller.deploy.web.management.code.CommonCodeController;
 import org.openpaas.ieda.deploy.api.deployment.DeploymentInfoDTO;
 import org.openpaas.ieda.deploy.api.release.ReleaseInfoDTO;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
 import org.openpaas.ieda.deploy.web.common.dto.KeyInfoDTO;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
@@ -278,12 +279,38 @@ public class CommonDeployController {
      * @return : ResponseEntity<Boolean>
     *****************************************************************/
     @RequestMapping(value="/common/deploy/lockFile/{fileName:.*}", method=RequestMethod.GET)
-    public ResponseEntity<Boolean> setLockFile(@PathVariable @Valid String fileName){
+    public ResponseEntity<Boolean> setLockFile(@PathVariable @Valid String fileName, Principal principal){
         if(LOGGER.isInfoEnabled()){ LOGGER.debug("====================================> 락 파일 요청"); }
-        Boolean lock = commonService.lockFileSet(fileName);
+        Boolean lock = commonService.lockFileSet(fileName, principal == null ? null : principal.getName());
         return new ResponseEntity<Boolean>(lock, HttpStatus.OK);
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 lock 목록 조회
+     * @title : getLockList
+     * @return : ResponseEntity<List<DeploymentLockVO>>
+    *****************************************************************/
+    @RequestMapping(value="/common/deploy/locks", method=RequestMethod.GET)
+    public ResponseEntity<List<DeploymentLockVO>> getLockList(){
+        if(LOGGER.isInfoEnabled()){ LOGGER.info("====================================> 락 목록 요청"); }
+        List<DeploymentLockVO> locks = commonService.getLockList();
+        return new ResponseEntity<List<DeploymentLockVO>>(locks, HttpStatus.OK);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 강제 해제
+     * @title : releaseLock
+     * @return : ResponseEntity<?>
+    *****************************************************************/
+    @RequestMapping(value="/common/deploy/locks/{lockKey:.*}", method=RequestMethod.DELETE)
+    public ResponseEntity<?> releaseLock(@PathVariable String lockKey){
+        if(LOGGER.isInfoEnabled()){ LOGGER.info("====================================> 락 해제 요청"); }
+        commonService.releaseLock(lockKey);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+    
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 국가 코드 조회(KR 우선 정렬 조건)
@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.openpaas.ieda.controller.common.BaseController;
@@ -23,6 +24,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 @Controller
@@ -122,6 +124,33 @@ public class ReleaseManagementController extends BaseController{
         return new ResponseEntity<>(HttpStatus.OK);
         
     }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 릴리즈 파일 구간 업로드의 이어 받을 위치 조회
+     * @title : getSystemReleaseUploadOffset
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/systemRelease/regist/upload/chunk", method=RequestMethod.GET)
+    public ResponseEntity<HashMap<String, Object>> getSystemReleaseUploadOffset( @RequestParam String fileName ){
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("offset", uploadService.getReleaseUploadOffset(fileName));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 릴리즈 파일 구간 업로드(요청 본문을 디스크에 바로 기록)
+     * @title : doSystemReleaseChunkUpload
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/systemRelease/regist/upload/chunk", method=RequestMethod.PUT)
+    public ResponseEntity<HashMap<String, Object>> doSystemReleaseChunkUpload( HttpServletRequest request, Principal principal ){
+        if(LOGGER.isDebugEnabled()){ LOGGER.debug("================================> /config/systemRelease/regist/upload/chunk"); }
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("completed", uploadService.uploadReleaseChunk(request, principal));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.websocket.server.ServerEndpoint;
@@ -65,8 +66,8 @@ public class TaskController extends BaseController {
      * @return : void
      *****************************************************************/
     @RequestMapping(value = "/info/task/list/debugLog/{id}", method = RequestMethod.GET)
-    public void doDownloadTaskLog(@PathVariable("id") String taskId, HttpServletResponse response) {
-        taskService.getDownloadDebugLogFile(taskId, response);
+    public void doDownloadTaskLog(@PathVariable("id") String taskId, HttpServletRequest request, HttpServletResponse response) {
+        taskService.getDownloadDebugLogFile(taskId, request, response);
     }
 
     /****************************************************************
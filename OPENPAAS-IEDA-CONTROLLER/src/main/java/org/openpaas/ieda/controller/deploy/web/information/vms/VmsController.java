@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
@@ -96,9 +97,9 @@ public class VmsController extends BaseController{
     ***************************************************/
     @RequestMapping(value="/info/vms/download/{jobName}/{index}/{deploymentName}/{type}", method=RequestMethod.GET)
     public void doDoenwloadLog( @PathVariable String jobName, @PathVariable String index, 
-            @PathVariable String deploymentName, @PathVariable String type, HttpServletResponse response){
+            @PathVariable String deploymentName, @PathVariable String type, HttpServletRequest request, HttpServletResponse response){
         if(LOGGER.isInfoEnabled()){ LOGGER.info("==================================> VM 로그 다운로드 요청"); }
-        logService.doDownloadLog(jobName, index, deploymentName, type, response);
+        logService.doDownloadLog(jobName, index, deploymentName, type, request, response);
     }
 
     /***************************************************
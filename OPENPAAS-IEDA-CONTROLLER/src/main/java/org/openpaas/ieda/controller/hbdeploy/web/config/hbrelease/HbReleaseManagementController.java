@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.openpaas.ieda.controller.common.BaseController;
@@ -25,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 @Controller
@@ -109,6 +111,33 @@ public class HbReleaseManagementController extends BaseController{
         return new ResponseEntity<>(HttpStatus.OK);
         
     }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 릴리즈 파일 구간 업로드의 이어 받을 위치 조회
+     * @title : getHybridReleaseUploadOffset
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/hbRelease/regist/upload/chunk", method=RequestMethod.GET)
+    public ResponseEntity<HashMap<String, Object>> getHybridReleaseUploadOffset( @RequestParam String fileName ){
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("offset", uploadService.getHybridReleaseUploadOffset(fileName));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 릴리즈 파일 구간 업로드(요청 본문을 디스크에 바로 기록)
+     * @title : doHybridReleaseChunkUpload
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/hbRelease/regist/upload/chunk", method=RequestMethod.PUT)
+    public ResponseEntity<HashMap<String, Object>> doHybridReleaseChunkUpload( HttpServletRequest request, Principal principal ){
+        if(LOGGER.isDebugEnabled()){ LOGGER.debug("================================> /config/hbRelease/regist/upload/chunk"); }
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("completed", uploadService.uploadHybridReleaseChunk(request, principal));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
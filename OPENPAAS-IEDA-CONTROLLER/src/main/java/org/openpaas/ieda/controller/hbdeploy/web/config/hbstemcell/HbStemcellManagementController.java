@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.openpaas.ieda.controller.deploy.web.config.stemcell.StemcellManagementController;
@@ -27,6 +28,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 @Controller
@@ -127,4 +129,31 @@ public class HbStemcellManagementController {
         uploadService.uploadStemcellFile(request, principal);
         return new ResponseEntity<>(HttpStatus.OK);
     }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀 파일 구간 업로드의 이어 받을 위치 조회
+     * @title : getHybridStemcellUploadOffset
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/hbstemcell/regist/upload/chunk", method=RequestMethod.GET)
+    public ResponseEntity<HashMap<String, Object>> getHybridStemcellUploadOffset( @RequestParam String fileName ){
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("offset", uploadService.getStemcellUploadOffset(fileName));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀 파일 구간 업로드(요청 본문을 디스크에 바로 기록)
+     * @title : doChunkUploadHybridStemcell
+     * @return : ResponseEntity<HashMap<String, Object>>
+    *****************************************************************/
+    @RequestMapping(value="/config/hbstemcell/regist/upload/chunk", method=RequestMethod.PUT)
+    public ResponseEntity<HashMap<String, Object>> doChunkUploadHybridStemcell( HttpServletRequest request, Principal principal ){
+        if(LOGGER.isDebugEnabled()){ LOGGER.debug("================================> /config/hbstemcell/regist/upload/chunk"); }
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put("completed", uploadService.uploadStemcellChunk(request, principal));
+        return new ResponseEntity<HashMap<String, Object>>(result, HttpStatus.OK);
+    }
 }
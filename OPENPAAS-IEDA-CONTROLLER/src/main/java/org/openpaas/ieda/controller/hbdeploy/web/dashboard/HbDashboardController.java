@@ -3,6 +3,9 @@ package org.openpaas.ieda.controller.hbdeploy.web.dashboard;
 import java.util.HashMap;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.openpaas.ieda.controller.common.BaseController;
 import org.openpaas.ieda.deploy.api.deployment.DeploymentInfoDTO;
 import org.openpaas.ieda.deploy.api.release.ReleaseInfoDTO;
@@ -42,7 +45,10 @@ public class HbDashboardController extends BaseController {
      * @return : ResponseEntity<HashMap<String,Object>>
     ***************************************************/
     @RequestMapping(value="/main/hbDashboard/deployments", method=RequestMethod.GET)
-    public ResponseEntity<HashMap<String, Object>> getDploymentList(){
+    public ResponseEntity<HashMap<String, Object>> getDploymentList(HttpServletRequest request, HttpServletResponse response){
+        if( checkNotModified(deploymentService.getDeploymentListSnapshot(), request, response) ){
+            return new ResponseEntity<HashMap<String, Object>>(HttpStatus.NOT_MODIFIED);
+        }
         List<DeploymentInfoDTO> contents = deploymentService.listDeployment();
         HashMap<String, Object> result = new HashMap<String, Object>();
         if( contents != null && contents.size() > 0 ){
@@ -59,7 +65,10 @@ public class HbDashboardController extends BaseController {
      * @return : ResponseEntity<HashMap<String,Object>>
     ***************************************************/
     @RequestMapping( value="/main/hbDashboard/releases", method =RequestMethod.GET)
-    public ResponseEntity<HashMap<String, Object>> getReleaseList(){
+    public ResponseEntity<HashMap<String, Object>> getReleaseList(HttpServletRequest request, HttpServletResponse response){
+        if( checkNotModified(releaseService.getReleaseListSnapshot(), request, response) ){
+            return new ResponseEntity<HashMap<String, Object>>(HttpStatus.NOT_MODIFIED);
+        }
         List<ReleaseInfoDTO> contents = releaseService.getUploadedReleaseList();
         HashMap<String, Object> result = new HashMap<String, Object>();
         if ( contents.size() > 0 ) {
@@ -76,7 +85,10 @@ public class HbDashboardController extends BaseController {
      * @return : ResponseEntity<HashMap<String,Object>>
     ***************************************************/
     @RequestMapping(value="/main/hbDashboard/stemcells", method=RequestMethod.GET)
-    public ResponseEntity<HashMap<String, Object>> getStemcellList(){
+    public ResponseEntity<HashMap<String, Object>> getStemcellList(HttpServletRequest request, HttpServletResponse response){
+        if( checkNotModified(stemcellService.getStemcellListSnapshot(), request, response) ){
+            return new ResponseEntity<HashMap<String, Object>>(HttpStatus.NOT_MODIFIED);
+        }
         List<StemcellManagementVO> contents = stemcellService.getStemcellList();
         HashMap<String, Object> result = new HashMap<String, Object>();
         if ( contents.size() > 0 ) {
@@ -225,6 +225,7 @@ public class IaasAccountMgntController{
         if (LOGGER.isInfoEnabled()) {
             LOGGER.info("================================================>/iaasMgnt/account/"+iaasType+"/delete");
         }
+        dto.setIaasType(iaasType);
         service.deleteIaasAccountInfo(dto, principal);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
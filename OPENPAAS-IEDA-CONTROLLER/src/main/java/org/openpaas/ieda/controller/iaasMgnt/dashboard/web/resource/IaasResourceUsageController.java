@@ -14,6 +14,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 public class IaasResourceUsageController {
@@ -78,6 +79,19 @@ public String goAwsResourceUsage(){
     return new ResponseEntity<List<IaasResourceUsageVO>>(list, HttpStatus.OK);
     }
 
+/***************************************************
+ * @project : 인프라 관리 대시보드
+ * @description : 인프라 전체 리소스 사용량 이력 조회
+ * @title : getIaasResourceUsageHistoryList
+ * @return : ResponseEntity<List<IaasResourceUsageVO>>
+***************************************************/
+@RequestMapping(value="/iaasMgnt/resourceUsage/all/history", method=RequestMethod.GET)
+    public ResponseEntity<List<IaasResourceUsageVO>>  getIaasResourceUsageHistoryList(@RequestParam(value="days", defaultValue="7") int days, Principal principal){
+    if(LOGGER.isInfoEnabled()){ LOGGER.info("=====================> /iaasMgnt/resourceUsage/all/history"); }
+    List<IaasResourceUsageVO> list = service.getIaasResourceUsageHistoryList(days, principal);
+    return new ResponseEntity<List<IaasResourceUsageVO>>(list, HttpStatus.OK);
+    }
+
 /***************************************************
  * @project : 인프라 관리 대시보드
  * @description : AWS 리소스 사용량 조회
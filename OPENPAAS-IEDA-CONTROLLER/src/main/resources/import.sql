@@ -142,6 +142,7 @@ INSERT IGNORE INTO ieda_common_code VALUES ( '439', 'IAAS_RESOURCE_USAGE_LIST',
 INSERT IGNORE INTO ieda_common_code VALUES ( '440', 'AWS_RESOURCE_USAGE_MENU', '181200', 'AWS 리소스 사용량' , '/iaasMgnt/resourceUsage/aws/**', '2', 181000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
 INSERT IGNORE INTO ieda_common_code VALUES ( '441', 'OPENSTACK_RESOURCE_USAGE_MENU', '181300', 'OPENSTACK 리소스 사용량' , '/iaasMgnt/resourceUsage/openstack/**', '3', 181000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
 INSERT IGNORE INTO ieda_common_code VALUES ( '442', 'AZURE_RESOURCE_USAGE_MENU', '181400', 'AZURE 리소스 사용량' , '/iaasMgnt/resourceUsage/azure/**', '4', 181000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
+INSERT IGNORE INTO ieda_common_code VALUES ( '1238', 'IAAS_RESOURCE_USAGE_HISTORY', '181500', '인프라 전체 리소스 사용량 이력 조회' , '/iaasMgnt/resourceUsage/all/history', '5', 181000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
 INSERT IGNORE INTO ieda_common_code VALUES ( '443', 'IAAS_ACCOUNT_MENU', '182000', '계정 관리' , '/iaasMgnt/account', '0', null, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
 INSERT IGNORE INTO ieda_common_code VALUES ( '444', 'IAAS_ACCOUNT_ALL_LIST', '182100', '전체 인프라 계정 조회' , '/iaasMgnt/account/all/**', '1', 182000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
 INSERT IGNORE INTO ieda_common_code VALUES ( '445', 'IAAS_ACCOUNT_AWS_MENU', '182200', 'AWS 계정 관리' , '/iaasMgnt/account/aws', '1', 182000, null, 100000, 'SYSTEM', now(), 'SYSTEM', now() );
@@ -935,6 +936,7 @@ INSERT IGNORE INTO ieda_role_detail VALUES ( '322', '1000', '208060', 'SYSTEM',
 INSERT IGNORE INTO ieda_role_detail VALUES ( '323', '1000', '208070', 'SYSTEM', now(), 'SYSTEM', now());
 INSERT IGNORE INTO ieda_role_detail VALUES ( '324', '1000', '208080', 'SYSTEM', now(), 'SYSTEM', now());
 INSERT IGNORE INTO ieda_role_detail VALUES ( '325', '1000', '208090', 'SYSTEM', now(), 'SYSTEM', now());
+INSERT IGNORE INTO ieda_role_detail VALUES ( '326', '1000', '181500', 'SYSTEM', now(), 'SYSTEM', now());
 
 
 #manifest tamplate info
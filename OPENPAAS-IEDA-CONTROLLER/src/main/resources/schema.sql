@@ -485,6 +485,25 @@ CREATE TABLE IF NOT EXISTS ieda_iaas_config
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB ROW_FORMAT=COMPRESSED CHARSET=utf8;
 
+CREATE TABLE IF NOT EXISTS ieda_iaas_resource_usage
+(
+  id                          BIGINT(20)   NOT NULL auto_increment,
+  account_id                  INT(11)      NOT NULL,
+  iaas_type                   VARCHAR(100) NOT NULL,
+  account_name                VARCHAR(100) NOT NULL,
+  instance_cnt                BIGINT(20)   NOT NULL DEFAULT 0,
+  network_cnt                 BIGINT(20)   NOT NULL DEFAULT 0,
+  volume_size                 BIGINT(20)   NOT NULL DEFAULT 0,
+  billing                     DOUBLE       NULL,
+  status                      VARCHAR(20)  NOT NULL,
+  resolution                  VARCHAR(10)  NOT NULL,
+  collect_date                DATETIME     NOT NULL,
+  create_user_id              VARCHAR(255) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY ieda_iaas_resource_usage_uk (account_id, resolution, collect_date),
+  KEY ieda_iaas_resource_usage_user_idx (create_user_id, resolution, collect_date)
+) ENGINE=InnoDB CHARSET=utf8;
+
 CREATE TABLE IF NOT EXISTS ieda_director_credential
 (
   id                                    INT(11)      NOT NULL auto_increment,
@@ -785,6 +804,22 @@ CREATE TABLE IF NOT EXISTS ieda_hb_cfDeployment
   PRIMARY KEY (id)
 ) ENGINE=InnoDB ROW_FORMAT=COMPRESSED CHARSET=utf8;
 
+#배포/업로드 동시 실행 방지 lock(-Dieda.lock.store=mysql 인 경우 사용)
+#lock 키          LOCK_KEY           VARCHAR(255) NOT NULL
+#점유 인스턴스     OWNER_ID           VARCHAR(255) NOT NULL
+#점유 사용자      HOLDER             VARCHAR(255) NULL
+#획득 시각(ms)    ACQUIRE_TIME       BIGINT(20) NOT NULL
+#만료 시각(ms)    EXPIRE_TIME        BIGINT(20) NOT NULL
+CREATE TABLE IF NOT EXISTS ieda_deploy_lock
+(
+  lock_key                          VARCHAR(255)  NOT NULL,
+  owner_id                          VARCHAR(255)  NOT NULL,
+  holder                            VARCHAR(255)  NULL,
+  acquire_time                      BIGINT(20)    NOT NULL,
+  expire_time                       BIGINT(20)    NOT NULL,
+  PRIMARY KEY (lock_key)
+) ENGINE=InnoDB CHARSET=utf8;
+
 #Setting AUTO_INCREMENT
 ALTER TABLE ieda_role AUTO_INCREMENT=1000;
 ALTER TABLE ieda_common_code AUTO_INCREMENT=1000;
@@ -589,3 +589,78 @@ function getDirectorList(){
            }
     });
  }
+
+
+/********************************************************
+ * 설명 : 파일을 구간으로 나누어 업로드(서버는 받은 구간을 디스크에 바로 기록)
+ *        전송이 끊기면 서버가 받은 위치부터 이어서 업로드
+ * 기능 : chunkedFileUpload
+ *********************************************************/
+var UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+var UPLOAD_CHUNK_RETRY = 3;
+function chunkedFileUpload(url, file, params, onProgress, onSuccess, onError){
+    var retry = 0;
+    var uploadChunk = function(offset){
+        var end = Math.min(offset + UPLOAD_CHUNK_SIZE, file.size);
+        var query = $.param($.extend({}, params, { fileName : file.name, offset : offset, total : file.size }));
+        $.ajax({
+            type        : 'PUT',
+            url         : url + '/chunk?' + query,
+            data        : file.slice(offset, end),
+            dataType    : 'json',
+            async       : true,
+            cache       : false,
+            contentType : 'application/octet-stream',
+            processData : false,
+            xhr         : function() {
+                var myXhr = $.ajaxSettings.xhr();
+                myXhr.upload.onprogress = function(e) {
+                    if (e.lengthComputable && file.size > 0) {
+                        onProgress(parseInt(((offset + e.loaded) * 100) / file.size));
+                    }
+                }
+                return myXhr;
+            },
+            success : function(data) {
+                retry = 0;
+                if( data.completed ){
+                    onSuccess(data);
+                }else{
+                    uploadChunk(end);
+                }
+            },
+            error : function(request, status, error) {
+                //네트워크 오류, 서버 오류, 위치 불일치(이어 받기 중)인 경우 서버가 받은 위치부터 재전송
+                var resumable = request.status == 0 || request.status >= 500 || (request.status == 409 && offset > 0);
+                if( resumable && retry < UPLOAD_CHUNK_RETRY ){
+                    retry++;
+                    setTimeout(function(){ resumeUpload(); }, 1000 * retry);
+                }else if( onError ){
+                    onError(request, status, error);
+                }
+            }
+        });
+    };
+    var resumeUpload = function(){
+        $.ajax({
+            type     : 'GET',
+            url      : url + '/chunk',
+            data     : { fileName : file.name },
+            dataType : 'json',
+            cache    : false,
+            success  : function(data) {
+                var offset = data.offset > 0 && data.offset < file.size ? data.offset : 0;
+                if( offset > 0 ){
+                    onProgress(parseInt((offset * 100) / file.size));
+                }
+                uploadChunk(offset);
+            },
+            error : function(request, status, error) {
+                if( onError ){
+                    onError(request, status, error);
+                }
+            }
+        });
+    };
+    resumeUpload();
+}
@@ -337,10 +337,7 @@ function releaseRegist(){
              w2alert("릴리즈 파일을 찾을 수 없습니다. 확인해주세요.", "릴리즈 파일 업로드");
              return false;
          }
-        //file upload 하기 전 lock 파일 검사
-        if(!lockFileSet(files[0].name)){
-            return;
-        }
+        //같은 릴리즈를 다운로드/업로드 중인지는 업로드 시작 시 서버에서 검사
     }
     // 릴리즈 iaas가 필요없는 릴리즈일 경우 iaasType에 'COMMON'을 대입
     if(releaseInfo.iaasType == null){
@@ -350,24 +347,6 @@ function releaseRegist(){
     releaseInfoSave(releaseInfo);
 }
 
-/********************************************************
- * 설명 : lock 검사
- * 기능 : lockFileSet
- *********************************************************/
-var lockFile = false;
-function lockFileSet(releaseFile){
-    var fileName  ="";
-    if( releaseFile.indexOf(".") > -1 ){
-        var pathHeader = releaseFile;
-         var pathMiddle = releaseFile.lastIndexOf('.');
-        var pathEnd = releaseFile.length;
-        fileName = releaseFile.substring(pathHeader,pathMiddle)+"-download";
-    }
-    var message = "현재 다른 플랫폼 설치 관리자가 동일한 릴리즈를 등록 중 입니다."
-    lockFile = commonLockFile("<c:url value='/common/deploy/lockFile/"+fileName+"'/>", message);
-    return lockFile;
-}
-
 
 /********************************************************
  * 설명 : 공통 릴리즈 정보 저장
@@ -474,61 +453,41 @@ function socketDwonload(releaseInfo){
  * 기능 : releaseFileUpload
  *********************************************************/
 function releaseFileUpload(releaseInfo){
-    var form = $(".w2ui-msg-body #settingForm");
-    var formData = new FormData(form[0]);
-
     var files = $('.w2ui-msg-body #releasePathFile')[0].files;
-    formData.append("file", files[0]);
-    formData.append("overlay", releaseInfo.overlayCheck);
-    formData.append("id", releaseInfo.id);
-    formData.append("fileSize", files[0].size);
     
     if(files[0].size == 0){
          w2alert("릴리즈 파일을 찾을 수 없습니다. 확인해주세요.", "릴리즈 파일 업로드");
          return false;
      }
     
-    $.ajax({
-        type:'POST',
-        url: '/config/systemRelease/regist/upload',
-        enctype : 'multipart/form-data',
-        dataType: "text",
-        async : true,
-        data:formData,
-        xhr: function() {
-            var myXhr = $.ajaxSettings.xhr();
-            myXhr.onreadystatechange = function () {}
-            myXhr.upload.onprogress = function(e) {
-                if (e.lengthComputable) {
-                    var max = e.total;
-                    var current = e.loaded;
-                    var Percentage = parseInt((current * 100) / max);
-                    if (Percentage == 1) {
-                        if(releaseInfo.downloadStatus == "DOWNLOADED"  ){
-                            $("#downloaded_"+ releaseInfo.id).wrap('<div class="btn" id="isExisted_'+releaseInfo.id+'" style="position: relative;width:100px;"></div>');
-                            $("div").remove(releaseInfo.id);
-                        } else if(  releaseInfo.downloadStatus == 'DOWNLOADING'  ){
-                            $("#downloading_"+ releaseInfo.id).wrap('<div class="btn" id="isExisted_'+releaseInfo.id+'" style="position: relative;width:100px;"></div>');
-                            $("div").remove(releaseInfo.id);
-                        }
-                        $("#isExisted_" + releaseInfo.id).html(progressBarDiv);
-                    } else if (Percentage == 100){ 
-                        Percentage = 99;
-                    };
-                    $("#isExisted_"+ releaseInfo.id + " .progress .progress-bar").css(
-                            { "width" : Percentage + "%", "padding-top" : "5px", "text-align" : "center"}).text(Percentage + "%");
-                }
+    var started = false;
+    chunkedFileUpload('/config/systemRelease/regist/upload', files[0], { id : releaseInfo.id, overlay : releaseInfo.overlayCheck }, function(Percentage) {
+        if (!started) {
+            started = true;
+            if(releaseInfo.downloadStatus == "DOWNLOADED"  ){
+                $("#downloaded_"+ releaseInfo.id).wrap('<div class="btn" id="isExisted_'+releaseInfo.id+'" style="position: relative;width:100px;"></div>');
+                $("div").remove(releaseInfo.id);
+            } else if(  releaseInfo.downloadStatus == 'DOWNLOADING'  ){
+                $("#downloading_"+ releaseInfo.id).wrap('<div class="btn" id="isExisted_'+releaseInfo.id+'" style="position: relative;width:100px;"></div>');
+                $("div").remove(releaseInfo.id);
             }
-            return myXhr;
-        },
-        cache : false,
-        contentType : false,
-        processData : false,
-        success : function(data) {
-            $("#isExisted_" + releaseInfo.id + " .progress .progress-bar").css({ "width" : "100%", "padding-top" : "5px", "text-align" : "center" }).text("100%");
-            doSearch();
-        },
-        error : function(data) {}
+            $("#isExisted_" + releaseInfo.id).html(progressBarDiv);
+        }
+        if (Percentage == 100){ 
+            Percentage = 99;
+        }
+        $("#isExisted_"+ releaseInfo.id + " .progress .progress-bar")
+        .css({ "width" : Percentage + "%", "padding-top" : "5px", "text-align" : "center"}).text(Percentage + "%");
+    }, function(data) {
+        $("#isExisted_" + releaseInfo.id + " .progress .progress-bar")
+        .css({ "width" : "100%", "padding-top" : "5px", "text-align" : "center" }).text("100%");
+        doSearch();
+    }, function(request, status, error) {
+        //같은 파일을 다른 요청이 다운로드/업로드 중인 경우
+        if( request.status == 409 ){
+            w2alert(JSON.parse(request.responseText).message, "릴리즈 파일 업로드");
+        }
+        doSearch();
     });
  }
 
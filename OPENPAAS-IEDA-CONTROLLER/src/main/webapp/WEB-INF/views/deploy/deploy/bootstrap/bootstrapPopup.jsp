@@ -1247,20 +1247,6 @@ function confirmDeploy(type, data){
     }
 }
 
-/******************************************************************
- * 기능 : lockFileSet
- * 설명 : Lock 파일 생성
- ***************************************************************** */
-var lockFile = false;
-function lockFileSet(deployFile){
-    if(!checkEmpty(deployFile) ){
-        var FileName = "bootstrap";
-        var message = "현재 다른 설치 관리자가 해당 BOOTSTRAP를 설치 중 입니다.";
-        lockFile = commonLockFile("<c:url value='/common/deploy/lockFile/"+FileName+"'/>",message);
-    }
-    return lockFile;
-}
-
 /******************************************************************
  * 기능 : popupComplete
  * 설명 : 설치 화면 닫기
@@ -1295,7 +1281,6 @@ function installPopup(data){
             deploymentFile : data.deploymentFile
     }
     settingPopupTab("InstallDiv", iaas);
-    if(!lockFileSet(deploymentInfo.deploymentFile)) return;
     var message = "BOOTSTRAP ";
     var requestParameter = {
             id : bootstrapId,
@@ -1378,7 +1363,6 @@ function installPopup(data){
             }
         });
     } else {
-        if(!lockFileSet(record.deploymentFile)) return;
         var message = "BOOTSTRAP";
         var body = '<textarea id="deleteLogs" style="width:95%;height:90%;overflow-y:visible;resize:none;background-color: #FFF; margin:2%" readonly="readonly"></textarea>';
         
@@ -1493,7 +1477,6 @@ function initSetting(){
     installClient = "";
     deleteClient = "";
     installStatus = "";
-    lockFile ="";
     deployFileName="";
 }
 
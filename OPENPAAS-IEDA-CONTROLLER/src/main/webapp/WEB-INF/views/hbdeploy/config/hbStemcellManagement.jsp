@@ -633,13 +633,7 @@ function setRegistType(value){
   * 기능 : stemcellFileUpload
   **************************************************************/
  function stemcellFileUpload(stemcellInfo){
-     var form = $(".w2ui-msg-body #settingForm");
-     var formData = new FormData(form);
      var files = $('.w2ui-msg-body #stemcellPathFile')[0].files;
-     formData.append("file", files[0]);
-     formData.append("overlay", stemcellInfo.overlayCheck);
-     formData.append("id", stemcellInfo.id);
-     formData.append("fileSize", files[0].size);
      
      if(stemcellInfo.id == 'undefined' || stemcellInfo.id==null || stemcellInfo.id=="" ){
          return;
@@ -650,49 +644,34 @@ function setRegistType(value){
           return false;
       }
      
-     $.ajax({
-         type     :'POST',
-         url      : '/config/hbstemcell/regist/upload',
-         enctype  : 'multipart/form-data',
-         dataType : "text",
-         async    : true,
-         data     :formData,
-         xhr      : function() {
-             var myXhr = $.ajaxSettings.xhr();
-             myXhr.onreadystatechange = function () {}
-             myXhr.upload.onprogress = function(e) {
-                 if (e.lengthComputable) {
-                     var max = e.total;
-                     var current = e.loaded;
-                     var Percentage = parseInt((current * 100) / max);
-                     if (Percentage == 1) {
-                         if(stemcellInfo.downloadStatus == "DOWNLOADED"  ){
-                             $("#downloaded_"+ stemcellInfo.id).wrap('<div class="btn" id="isExisted_'+stemcellInfo.id+'" style="position: relative;width:100px;"></div>');
-                             $("div").remove(stemcellInfo.id);
-                         } else if(  stemcellInfo.downloadStatus == 'DOWNLOADING'  ){
-                             $("#downloading_"+ stemcellInfo.id).wrap('<div class="btn" id="isExisted_'+stemcellInfo.id+'" style="position: relative;width:100px;"></div>');
-                             $("div").remove(stemcellInfo.id);
-                         }
-                         $("#isExisted_" + stemcellInfo.id).html(progressBarDiv);
-                     } else if (Percentage == 100){ 
-                         Percentage = 99;
-                     };
-                     $("#isExisted_"+ stemcellInfo.id + " .progress .progress-bar")
-                     .css({ "width" : Percentage + "%", "padding-top" : "5px", "text-align" : "center"}).text(Percentage + "%");
-                 }
+     var started = false;
+     chunkedFileUpload('/config/hbstemcell/regist/upload', files[0], { id : stemcellInfo.id, overlay : stemcellInfo.overlayCheck }, function(Percentage) {
+         if (!started) {
+             started = true;
+             if(stemcellInfo.downloadStatus == "DOWNLOADED"  ){
+                 $("#downloaded_"+ stemcellInfo.id).wrap('<div class="btn" id="isExisted_'+stemcellInfo.id+'" style="position: relative;width:100px;"></div>');
+                 $("div").remove(stemcellInfo.id);
+             } else if(  stemcellInfo.downloadStatus == 'DOWNLOADING'  ){
+                 $("#downloading_"+ stemcellInfo.id).wrap('<div class="btn" id="isExisted_'+stemcellInfo.id+'" style="position: relative;width:100px;"></div>');
+                 $("div").remove(stemcellInfo.id);
              }
-             return myXhr;
-         },
-         cache : false,
-         contentType : false,
-         processData : false,
-         success : function(data) {
-             $("#isExisted_" + stemcellInfo.id + " .progress .progress-bar")
-             .css({ "width" : "100%", "padding-top" : "5px", "text-align" : "center" }).text("100%");
-             doSearch();
-         },
-         error : function(data) {
+             $("#isExisted_" + stemcellInfo.id).html(progressBarDiv);
+         }
+         if (Percentage == 100){ 
+             Percentage = 99;
+         }
+         $("#isExisted_"+ stemcellInfo.id + " .progress .progress-bar")
+         .css({ "width" : Percentage + "%", "padding-top" : "5px", "text-align" : "center"}).text(Percentage + "%");
+     }, function(data) {
+         $("#isExisted_" + stemcellInfo.id + " .progress .progress-bar")
+         .css({ "width" : "100%", "padding-top" : "5px", "text-align" : "center" }).text("100%");
+         doSearch();
+     }, function(request, status, error) {
+         //같은 파일을 다른 요청이 다운로드/업로드 중인 경우
+         if( request.status == 409 ){
+             w2alert(JSON.parse(request.responseText).message, "스템셀 파일 업로드");
          }
+         doSearch();
      });
  }
  /**************************************************************
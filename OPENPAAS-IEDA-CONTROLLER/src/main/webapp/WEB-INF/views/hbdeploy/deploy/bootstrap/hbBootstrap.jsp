@@ -437,7 +437,6 @@ function firstInstallPopup(bootstrapInfo){
     
     var firstDeploy = bootstrapInfo[0];
     
-    if(!lockFileSet(firstDeploy.bootstrapConfigName)) return;
     var message = firstDeploy.iaasType + " BOOTSTRAP ";
     var requestParameter = {
            id : firstDeploy.id,
@@ -502,7 +501,6 @@ function firstInstallPopup(bootstrapInfo){
  ***************************************************************** */
 function secondInstallPopup(bootstrapInfo){
     if(installStatus != "done") return;
-    if(!lockFileSet(bootstrapInfo.deploymentFile)) return;
     
     var message = bootstrapInfo.iaasType+" BOOTSTRAP ";
     var requestParameter = {
@@ -559,20 +557,6 @@ function secondInstallPopup(bootstrapInfo){
     });
 }
 
-/******************************************************************
- * 기능 : lockFileSet
- * 설명 : Lock 파일 생성
- ***************************************************************** */
-var lockFile = false;
-function lockFileSet(deployFile){
-    if(!checkEmpty(deployFile) ){
-        var FileName = "hybird_bootstrap";
-        var message = "현재 다른 설치 관리자가 BOOTSTRAP를 사용 중 입니다.";
-        lockFile = commonLockFile("<c:url value='/common/deploy/lockFile/"+FileName+"'/>",message);
-    }
-    return lockFile;
-}
-
 
 /******************************************************************
  * 기능 : getBootstrapCpiInfo
@@ -791,7 +775,6 @@ function deleteBootstrapVmInfo(record){
             }
         });
     } else {
-        if(!lockFileSet(record.deploymentFile)) return;
         var message = "BOOTSTRAP";
         var body = '<textarea id="deleteLogs" style="width:95%;height:90%;overflow-y:visible;resize:none;background-color: #FFF; margin:2%" readonly="readonly"></textarea>';
         
@@ -1168,20 +1168,6 @@ function hybridInstallInfoSetting(){
     });
 }
 
-/******************************************************************
- * 기능 : lockFileSet
- * 설명 : Lock 파일 생성
- ***************************************************************** */
-var lockFile = false;
-function lockFileSet(deployFile){
-    if(!checkEmpty(deployFile) ){
-        var FileName = "bootstrap";
-        var message = "현재 다른 설치 관리자가 BOOTSTRAP를 사용 중 입니다.";
-        lockFile = commonLockFile("<c:url value='/common/deploy/lockFile/"+FileName+"'/>",message);
-    }
-    return lockFile;
-}
-
 /******************************************************************
  * 기능 : popupComplete
  * 설명 : 설치 화면 닫기
@@ -1271,7 +1257,6 @@ function initSetting(){
     installClient = "";
     deleteClient = "";
     installStatus = "";
-    lockFile ="";
     deployFileName="";
     publicIaas = "";
     privateIaas = "";
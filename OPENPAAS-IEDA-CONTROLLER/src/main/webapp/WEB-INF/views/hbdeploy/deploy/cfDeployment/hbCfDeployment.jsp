@@ -473,7 +473,6 @@ function firstInstallPopup(cfDeploymentInfo){
     
     var firstDeploy = cfDeploymentInfo[0];
     
-    if(!lockFileSet(firstDeploy.cfDeploymentConfigName)) return;
     var message = firstDeploy.iaasType + " CF Deployment ";
     var requestParameter = {
            id : firstDeploy.id,
@@ -539,7 +538,6 @@ function firstInstallPopup(cfDeploymentInfo){
  ***************************************************************** */
 function secondInstallPopup(cfDeploymentInfo){
     if(installStatus != "done") return;
-    if(!lockFileSet(cfDeploymentInfo.deploymentFile)) return;
     
     var message = cfDeploymentInfo.iaasType+" CF Deployment ";
     var requestParameter = {
@@ -596,20 +594,6 @@ function secondInstallPopup(cfDeploymentInfo){
     });
 }
 
-/******************************************************************
- * 기능 : lockFileSet
- * 설명 : Lock 파일 생성
- ***************************************************************** */
-var lockFile = false;
-function lockFileSet(deployFile){
-    if(!checkEmpty(deployFile) ){
-        var FileName = "hybird_cfDeployment";
-        var message = "현재 다른 설치 관리자가 CF Deployment를 사용 중 입니다.";
-        lockFile = commonLockFile("<c:url value='/common/deploy/lockFile/"+FileName+"'/>",message);
-    }
-    return lockFile;
-}
-
 
 
 /******************************************************************
@@ -857,7 +841,6 @@ function deleteCfDeploymentVmInfo(record){
             }
         });
     } else {
-        if(!lockFileSet(record.cfDeploymentConfigName)) return;
         var message = "CF Deployment";
         var body = '<textarea id="deleteLogs" style="width:95%;height:90%;overflow-y:visible;resize:none;background-color: #FFF; margin:2%" readonly="readonly"></textarea>';
         w2popup.open({
@@ -61,7 +61,17 @@ function settingResourceUsageData(data){
     var awsInstance=0; var awsNetwork =0; var awsVolume =0; var awsBilling=0;
     var openstackInstance=0; var openstackNetwork=0; var openstackVolume=0;
     var azureInstance=0; var azureNetwork =0; var azureVolume =0; var azureBilling=0;
+    var failedAccounts = [];
+    var collectDate = "";
     for( var i=0; i < data.length; i++ ){
+          //가장 오래된 계정의 수집 시각을 기준 시각으로 표시
+          if( !checkEmpty(data[i].collectDate) && (collectDate == "" || data[i].collectDate < collectDate) ){
+              collectDate = data[i].collectDate;
+          }
+          //제한 시간 초과(TIMEOUT) 또는 오류(ERROR)로 일부만 조회된 계정
+          if( !checkEmpty(data[i].status) && data[i].status != 'OK' ){
+              failedAccounts.push( data[i].accountName + "(" + data[i].iaasType + " : " + data[i].status + ")" );
+          }
           if( (data[i].iaasType).toUpperCase() == 'AWS' ){
               awsInstance +=  data[i].instance;
               awsNetwork += data[i].network;
@@ -91,6 +101,12 @@ function settingResourceUsageData(data){
               
           }
     }
+    $(".resourceUsage-collectDate").html( collectDate == "" ? "" : "(기준 시각 : " + collectDate + ")" );
+    if( failedAccounts.length > 0 ){
+        $(".resourceUsage-status").html( "일부 계정의 리소스 사용량을 조회하지 못했습니다. " + failedAccounts.join(", ") );
+    }else{
+        $(".resourceUsage-status").html("");
+    }
     $(".totalInstance").html( awsInstance + openstackInstance + azureInstance);
     $(".totalNetwork").html( awsNetwork + openstackNetwork + azureNetwork);
     var totalVolume = bytesToSize(awsVolume + gbConverter(openstackVolume) + azureVolume);
@@ -122,6 +138,8 @@ $( window ).resize(function() {
 <div id="main">
     <div class="pdt20">
         <div class="title fl">인프라 전체 리소스 사용량</div>
+        <div class="fl resourceUsage-collectDate" style="margin:3px 0 0 10px; font-size:12px;"></div>
+        <div class="fl resourceUsage-status" style="margin:3px 0 0 10px; color:#d9534f; font-size:12px;"></div>
         <div class="iaasTotalResourceUsageDiv" >
             <ul>
                 <li>
@@ -3,6 +3,7 @@ package org.openpaas.ieda.deploy.web.common;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -24,6 +25,7 @@ import org.openpaas.ieda.common.BaseControllerUnitTest;
 import org.openpaas.ieda.controller.deploy.web.common.CommonDeployController;
 import org.openpaas.ieda.deploy.api.deployment.DeploymentInfoDTO;
 import org.openpaas.ieda.deploy.api.release.ReleaseInfoDTO;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
 import org.openpaas.ieda.deploy.web.common.dto.KeyInfoDTO;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
@@ -85,6 +87,8 @@ public class CommonDeployControllerUnitTest extends BaseControllerUnitTest {
     final static String SUB_CODE_INFO_URL = "/common/deploy/codes/parent/{parentCode}";
     final static String COMPLEX_CODE_INFO_URL = "/common/deploy/codes/parent/{parentCode}/subcode/{subGroupCode}";
     final static String SET_LOCAL_FILE_URL = "/common/deploy/lockFile/{FileName:.*}";
+    final static String LOCK_LIST_URL = "/common/deploy/locks";
+    final static String RELEASE_LOCK_URL = "/common/deploy/locks/{lockKey:.*}";
     final static String COUNTRY_CODE_LIST_URL = "/common/deploy/codes/countryCode/{parentCode}";
     final static String CREATE_KEY_INFO_URL = "/common/deploy/key/createKey";
     final static String RELEASE_INFO_BY_PLATFORM_URL = "/common/deploy/list/releaseInfo/{deployType}/{iaas}";
@@ -430,12 +434,43 @@ public class CommonDeployControllerUnitTest extends BaseControllerUnitTest {
     @Test
     public void testSetLockFile() throws Exception{
         String fileName = "aws-stemcell-1111.tgz";
-        when(mockCommonDeployService.lockFileSet(fileName)).thenReturn(true);
+        when(mockCommonDeployService.lockFileSet(fileName, null)).thenReturn(true);
         mockMvc.perform(get(SET_LOCAL_FILE_URL, fileName).contentType(MediaType.APPLICATION_JSON))
         .andDo(MockMvcResultHandlers.print())
         .andExpect(status().isOk());
     }
     
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 lock 목록 조회
+     * @title : testGetLockList
+     * @return : void
+    ***************************************************/
+    @Test
+    public void testGetLockList() throws Exception{
+        List<DeploymentLockVO> locks = new ArrayList<DeploymentLockVO>();
+        locks.add(new DeploymentLockVO("bootstrap", "1234@ieda/abcd1234", "admin", 1000L, 91000L));
+        when(mockCommonDeployService.getLockList()).thenReturn(locks);
+        mockMvc.perform(get(LOCK_LIST_URL).contentType(MediaType.APPLICATION_JSON))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isOk());
+    }
+    
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 강제 해제
+     * @title : testReleaseLock
+     * @return : void
+    ***************************************************/
+    @Test
+    public void testReleaseLock() throws Exception{
+        String lockKey = "bosh-openstack-cpi-release-20-download";
+        doNothing().when(mockCommonDeployService).releaseLock(lockKey);
+        mockMvc.perform(delete(RELEASE_LOCK_URL, lockKey).contentType(MediaType.APPLICATION_JSON))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isNoContent());
+    }
+    
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 국가 코드 조회(KR 우선 정렬 조건)
@@ -28,6 +28,7 @@ import org.openpaas.ieda.deploy.web.information.task.service.TaskService;
 import org.openpaas.ieda.hbdeploy.api.task.HbTaskListDTO;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
@@ -113,8 +114,9 @@ public class TaskControllerUnitTest  extends BaseControllerUnitTest {
     *****************************************************************/
     @Test
     public void testDoDownloadTaskLog() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
         MockHttpServletResponse response = new MockHttpServletResponse();
-        doNothing().when(mockTaskService).getDownloadDebugLogFile("1", response);
+        doNothing().when(mockTaskService).getDownloadDebugLogFile("1", request, response);
         mockMvc.perform(get(TASK_DEBUGLOG_LIST_URL, "1").contentType(MediaType.APPLICATION_JSON))
         .andDo(MockMvcResultHandlers.print());
     }
@@ -146,7 +146,7 @@ public class VmsControllerUnitTest extends BaseControllerUnitTest {
     ***************************************************/
     @Test
     public void testDoDoenwloadLog() throws Exception {
-        mockVmsLogDownloadService.doDownloadLog(anyString(), anyString(), anyString(), anyString(), any());
+        mockVmsLogDownloadService.doDownloadLog(anyString(), anyString(), anyString(), anyString(), any(), any());
         mockMvc.perform(get(VMS_DOWNLOAD_LOG_URL,"jobName","index","deploymentName","type").contentType(MediaType.APPLICATION_JSON)).andDo(MockMvcResultHandlers.print())
         .andExpect(status().isOk());
     }
@@ -1,6 +1,7 @@
 package org.openpaas.ieda.iaas.web.resourceUsage;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -47,6 +48,7 @@ public class IaasResourceUsageControllerUnitTest {
     final static String VIEW_AWS_URL = "/iaasMgnt/resourceUsage/aws"; //AWS 리소스 사용량  화면 요청
     final static String VIEW_OPENSTACK_URL = "/iaasMgnt/resourceUsage/openstack"; //Openstack 리소스 사용량 화면 요청
     final static String IAAS_RESOURCE_USAGE_LIST_URL = "/iaasMgnt/resourceUsage/all/list"; //전체 인프라 리소스 사용량 조회
+    final static String IAAS_RESOURCE_USAGE_HISTORY_URL = "/iaasMgnt/resourceUsage/all/history"; //전체 인프라 리소스 사용량 이력 조회
     final static String AWS_RESOURCE_USAGE_LIST_URL = "/iaasMgnt/resourceUsage/aws/list/{region}"; // AWS 리소스 사용량 조회
     final static String OPENSTACK_RESOURCE_USAGE_LIST_URL = "/iaasMgnt/resourceUsage/openstack/list"; //Openstack 리소스 사용량 조회
     
@@ -133,6 +135,24 @@ public class IaasResourceUsageControllerUnitTest {
         .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
     
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 인프라 전체 리소스 사용량 이력 조회
+     * @title : testGetIaasResourceUsageHistoryList
+     * @return : void
+    ***************************************************/
+    @Test
+    public void testGetIaasResourceUsageHistoryList() throws Exception{
+        List<IaasResourceUsageVO> list = setAwsResourceUsageInfoList();
+        list.get(0).setCollectDate("2018-05-01 10:00:00");
+        when(mockIaasResourceUsageService.getIaasResourceUsageHistoryList(eq(30), any())).thenReturn(list);
+        mockMvc.perform(get(IAAS_RESOURCE_USAGE_HISTORY_URL).param("days", "30").contentType(MediaType.APPLICATION_JSON)).andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.[0].accountName").value(list.get(0).getAccountName()))
+        .andExpect(jsonPath("$.[0].collectDate").value(list.get(0).getCollectDate()))
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+    
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : AWS 리소스 사용량 목록 조회
@@ -0,0 +1,220 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openpaas.ieda.common.process.CommandOutputCollector;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandResult;
+import org.openpaas.ieda.common.process.CommandType;
+import org.openpaas.ieda.deploy.api.task.TaskListDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BoshCliCommand {
+
+    //bosh deploy 실행 중 디렉터에 새 Task 가 생겼는지 확인하는 간격
+    final private static long TASK_LOOKUP_INTERVAL = 2 * 1000L;
+    final private static String JSON_OPTION = "--json";
+    final private static String TTY_OPTION = "--tty";
+    private final static Logger LOGGER = LoggerFactory.getLogger(BoshCliCommand.class);
+
+    public interface TaskHandler {
+        //Task 로그를 구독자에 전달하며 종료될 때까지 대기 후 상태 응답
+        String track(String taskId);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh 명령에 --json 옵션을 붙이고 --tty 옵션 제거
+     * @title : toJsonCommand
+     * @return : List<String>
+    ***************************************************/
+    public static List<String> toJsonCommand(List<String> command) {
+        List<String> jsonCommand = new ArrayList<String>(command.size() + 1);
+        for( String argument : command ){
+            if( !TTY_OPTION.equals(argument) && !JSON_OPTION.equals(argument) ){
+                jsonCommand.add(argument);
+            }
+        }
+        jsonCommand.add(1, JSON_OPTION);
+        return jsonCommand;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh 명령을 --json 으로 실행 후 종료까지 대기하여 구조화된 출력 응답
+     * @title : run
+     * @return : Result
+    ***************************************************/
+    public static Result run(CommandProcessSupervisor supervisor, CommandType type, String key, List<String> command)
+            throws IOException, InterruptedException {
+        JsonOutputCollector collector = new JsonOutputCollector();
+        CommandResult commandResult = supervisor.run(type, key, toJsonCommand(command), collector);
+        return new Result(commandResult, collector.parse(), null, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh deploy 등 디렉터 Task 를 생성하는 명령을 --json 으로 실행
+     *                (--json 출력은 종료 시 한 번에 나오므로 실행 중에는 디렉터의 진행 중 Task 목록에서 해당 배포의 새 Task 를 찾아 추적)
+     * @title : runTracked
+     * @return : Result
+    ***************************************************/
+    public static Result runTracked(CommandProcessSupervisor supervisor, CommandType type, String key, List<String> command,
+            String directorUrl, int port, String userId, String password, String deploymentName, TaskHandler handler)
+            throws IOException, InterruptedException {
+        Set<String> existingTaskIds = selectDeploymentTaskIds(directorUrl, port, userId, password, deploymentName);
+        JsonOutputCollector collector = new JsonOutputCollector();
+        Future<CommandResult> future = supervisor.submit(type, key, toJsonCommand(command), collector);
+        String taskId = null;
+        String trackedState = null;
+        CommandResult commandResult;
+        try {
+            while( taskId == null && !future.isDone() ){
+                try {
+                    future.get(TASK_LOOKUP_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    taskId = findNewTaskId(directorUrl, port, userId, password, deploymentName, existingTaskIds);
+                }
+            }
+            if( taskId != null ){
+                trackedState = handler.track(taskId);
+            }
+            commandResult = future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if( e.getCause() instanceof RuntimeException ){
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        BoshCliOutput output = collector.parse();
+        if( taskId == null && output.getTaskId() != null ){
+            //Task 가 조회 간격보다 빨리 끝난 경우 종료된 Task 로그를 이어서 전달
+            taskId = output.getTaskId();
+            trackedState = handler.track(taskId);
+        }
+        return new Result(commandResult, output, taskId, trackedState);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이전에 없던 해당 배포의 진행 중 Task 중 가장 먼저 생성된 Task Id 조회(없을 경우 null)
+     * @title : findNewTaskId
+     * @return : String
+    ***************************************************/
+    private static String findNewTaskId(String directorUrl, int port, String userId, String password, String deploymentName,
+            Set<String> existingTaskIds) {
+        String taskId = null;
+        for( String id : selectDeploymentTaskIds(directorUrl, port, userId, password, deploymentName) ){
+            if( !existingTaskIds.contains(id) && (taskId == null || Long.parseLong(id) < Long.parseLong(taskId)) ){
+                taskId = id;
+            }
+        }
+        return taskId;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 해당 배포의 진행 중 Task Id 목록 조회(조회 실패 시 빈 목록)
+     * @title : selectDeploymentTaskIds
+     * @return : Set<String>
+    ***************************************************/
+    private static Set<String> selectDeploymentTaskIds(String directorUrl, int port, String userId, String password, String deploymentName) {
+        Set<String> taskIds = new HashSet<String>();
+        try {
+            for( TaskListDTO task : DirectorTaskTracker.getInstance().selectActiveTasks(directorUrl, port, userId, password) ){
+                if( deploymentName.equals(task.getDeployment()) ){
+                    taskIds.add(task.getId());
+                }
+            }
+        } catch (IOException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("active task lookup failed : " + e.getMessage()); }
+        }
+        return taskIds;
+    }
+
+    //--json 출력(stdout)은 하나의 JSON 문서이므로 잘리지 않도록 별도로 보관
+    //(출력 펌프 스레드에서 줄을 건너뛰지 않고 전달 받으며 stdout/stderr 펌프가 동시에 호출)
+    private static class JsonOutputCollector implements CommandOutputCollector {
+        private final StringBuilder json = new StringBuilder();
+        private final List<String> errorLines = new ArrayList<String>();
+
+        @Override
+        public synchronized void onLine(String line, boolean error) {
+            if( error ){
+                errorLines.add(line);
+            } else {
+                json.append(line).append('\n');
+            }
+        }
+
+        synchronized BoshCliOutput parse() {
+            BoshCliOutput output = new BoshCliOutput();
+            if( json.length() > 0 ){
+                try {
+                    BoshCliOutputParser.parse(new StringReader(json.toString()), output);
+                } catch (IOException e) {
+                    if( LOGGER.isWarnEnabled() ){ LOGGER.warn("bosh json output parse failed : " + e.getMessage()); }
+                    output.handle(BoshCliEvent.text(BoshCliEvent.Type.ERROR, json.toString().trim()));
+                }
+            }
+            for( String line : errorLines ){
+                output.handle(BoshCliEvent.text(BoshCliEvent.Type.ERROR, line));
+            }
+            return output;
+        }
+    }
+
+    public static class Result {
+        private final CommandResult commandResult;
+        private final BoshCliOutput output;
+        private final String taskId;
+        private final String trackedState;
+
+        Result(CommandResult commandResult, BoshCliOutput output, String taskId, String trackedState) {
+            this.commandResult = commandResult;
+            this.output = output;
+            this.taskId = taskId;
+            this.trackedState = trackedState;
+        }
+
+        /***************************************************
+         * @project : Paas 플랫폼 설치 자동화
+         * @description : 종료 코드 0 이고 CLI 가 Succeeded 를 출력했는지 여부
+         * @title : isSuccess
+         * @return : boolean
+        ***************************************************/
+        public boolean isSuccess() {
+            return commandResult.isSuccess() && output.isSucceeded();
+        }
+
+        public CommandResult getCommandResult() {
+            return commandResult;
+        }
+
+        public BoshCliOutput getOutput() {
+            return output;
+        }
+
+        public String getTaskId() {
+            return taskId;
+        }
+
+        //추적한 Task 의 종료 상태(추적하지 않은 경우 null)
+        public String getTrackedState() {
+            return trackedState;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class BoshCliEvent {
+
+    public enum Type {
+        LINE,           //Lines 항목
+        BLOCK,          //Blocks 항목(한 줄 단위)
+        TABLE_ROW,      //Tables 의 Rows 항목
+        TASK_STARTED,   //"Task 123"
+        TASK_FINISHED,  //"Task 123 done|error|cancelled|timeout"
+        ERROR,          //"Exit code N" 로 끝난 경우 CLI 가 출력한 오류 메시지
+        SUCCEEDED       //"Succeeded"
+    }
+
+    private final Type type;
+    private final String text;
+    private final String taskId;
+    private final String taskState;
+    private final String table;
+    private final Map<String, String> row;
+
+    private BoshCliEvent(Type type, String text, String taskId, String taskState, String table, Map<String, String> row) {
+        this.type = type;
+        this.text = text;
+        this.taskId = taskId;
+        this.taskState = taskState;
+        this.table = table;
+        this.row = row;
+    }
+
+    public static BoshCliEvent text(Type type, String text) {
+        return new BoshCliEvent(type, text, null, null, null, null);
+    }
+
+    public static BoshCliEvent task(Type type, String text, String taskId, String taskState) {
+        return new BoshCliEvent(type, text, taskId, taskState, null, null);
+    }
+
+    public static BoshCliEvent row(String table, Map<String, String> row) {
+        return new BoshCliEvent(Type.TABLE_ROW, null, null, null, table, Collections.unmodifiableMap(row));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getTaskState() {
+        return taskState;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Map<String, String> getRow() {
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return type + (text != null ? " " + text : "") + (row != null ? " " + row : "");
+    }
+}
@@ -0,0 +1,94 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BoshCliOutput implements BoshCliOutputParser.EventHandler {
+
+    private final List<BoshCliEvent> events = new ArrayList<BoshCliEvent>();
+    private final List<String> lines = new ArrayList<String>();
+    private final List<String> errors = new ArrayList<String>();
+    private final List<Map<String, String>> rows = new ArrayList<Map<String, String>>();
+    //Task Id 별 종료 상태(시작만 확인된 경우 null)
+    private final Map<String, String> tasks = new LinkedHashMap<String, String>();
+    private boolean succeeded = false;
+
+    @Override
+    public void handle(BoshCliEvent event) {
+        events.add(event);
+        switch( event.getType() ){
+        case LINE:
+            lines.add(event.getText());
+            break;
+        case TABLE_ROW:
+            rows.add(event.getRow());
+            break;
+        case TASK_STARTED:
+            if( !tasks.containsKey(event.getTaskId()) ){
+                tasks.put(event.getTaskId(), null);
+            }
+            break;
+        case TASK_FINISHED:
+            tasks.put(event.getTaskId(), event.getTaskState());
+            break;
+        case ERROR:
+            errors.add(event.getText());
+            break;
+        case SUCCEEDED:
+            succeeded = true;
+            break;
+        default:
+            break;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 마지막으로 시작된 디렉터 Task Id(없을 경우 null)
+     * @title : getTaskId
+     * @return : String
+    ***************************************************/
+    public String getTaskId() {
+        String taskId = null;
+        for( String id : tasks.keySet() ){
+            taskId = id;
+        }
+        return taskId;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : CLI 가 보고한 Task 종료 상태(done/error/cancelled/timeout, 확인되지 않은 경우 null)
+     * @title : getTaskState
+     * @return : String
+    ***************************************************/
+    public String getTaskState(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    public List<String> getTaskIds() {
+        return new ArrayList<String>(tasks.keySet());
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public List<Map<String, String>> getRows() {
+        return rows;
+    }
+
+    public List<BoshCliEvent> getEvents() {
+        return events;
+    }
+}
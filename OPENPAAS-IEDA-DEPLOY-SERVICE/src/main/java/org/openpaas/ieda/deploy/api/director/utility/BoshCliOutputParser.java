@@ -0,0 +1,193 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openpaas.ieda.deploy.api.director.utility.BoshCliEvent.Type;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+public class BoshCliOutputParser {
+
+    final private static JsonFactory JSON_FACTORY = new JsonFactory();
+    //bosh CLI TaskReporter 가 출력하는 Task 시작/종료 줄
+    final private static Pattern TASK_STARTED = Pattern.compile("^Task (\\d+)$");
+    final private static Pattern TASK_FINISHED = Pattern.compile("^Task (\\d+) (done|error|cancelled|timeout)$");
+    //명령 실패 시 마지막 줄
+    final private static Pattern EXIT_CODE = Pattern.compile("^Exit code (\\d+)$");
+    final private static String SUCCEEDED = "Succeeded";
+    //오류 메시지가 아닌 환경 안내 줄
+    final private static Pattern PREAMBLE = Pattern.compile("^Using (environment|deployment) .*");
+
+    public interface EventHandler {
+        void handle(BoshCliEvent event);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh --json 출력 문자열을 읽어 이벤트를 모은 결과 응답
+     * @title : parse
+     * @return : BoshCliOutput
+    ***************************************************/
+    public static BoshCliOutput parse(String json) throws IOException {
+        BoshCliOutput output = new BoshCliOutput();
+        parse(new StringReader(json), output);
+        return output;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh --json 출력({"Tables":[...],"Blocks":[...],"Lines":[...]})을 스트리밍으로 읽어 이벤트 단위로 전달
+     * @title : parse
+     * @return : void
+    ***************************************************/
+    public static void parse(Reader reader, EventHandler handler) throws IOException {
+        JsonParser parser = JSON_FACTORY.createParser(reader);
+        try {
+            if( parser.nextToken() != JsonToken.START_OBJECT ){
+                throw new IOException("bosh json output must start with an object");
+            }
+            while( parser.nextToken() == JsonToken.FIELD_NAME ){
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if( token != JsonToken.START_ARRAY ){
+                    parser.skipChildren();
+                } else if( "Tables".equals(field) ){
+                    readTables(parser, handler);
+                } else if( "Blocks".equals(field) ){
+                    readBlocks(parser, handler);
+                } else if( "Lines".equals(field) ){
+                    readLines(parser, handler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } finally {
+            parser.close();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Tables 배열의 Rows 를 컬럼 key/값 Map 으로 전달
+     * @title : readTables
+     * @return : void
+    ***************************************************/
+    private static void readTables(JsonParser parser, EventHandler handler) throws IOException {
+        while( parser.nextToken() == JsonToken.START_OBJECT ){
+            String content = null;
+            while( parser.nextToken() == JsonToken.FIELD_NAME ){
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if( "Content".equals(field) && token == JsonToken.VALUE_STRING ){
+                    content = parser.getText();
+                } else if( "Rows".equals(field) && token == JsonToken.START_ARRAY ){
+                    while( parser.nextToken() == JsonToken.START_OBJECT ){
+                        handler.handle(BoshCliEvent.row(content, readRow(parser)));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 테이블 한 행 읽기(중첩 값은 건너뜀)
+     * @title : readRow
+     * @return : Map<String, String>
+    ***************************************************/
+    private static Map<String, String> readRow(JsonParser parser) throws IOException {
+        Map<String, String> row = new LinkedHashMap<String, String>();
+        while( parser.nextToken() == JsonToken.FIELD_NAME ){
+            String column = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if( token.isScalarValue() ){
+                row.put(column, token == JsonToken.VALUE_NULL ? "" : parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return row;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Blocks 배열을 줄 단위로 나누어 전달하고 Task 시작/종료 줄은 Task 이벤트로 전달
+     * @title : readBlocks
+     * @return : void
+    ***************************************************/
+    private static void readBlocks(JsonParser parser, EventHandler handler) throws IOException {
+        while( parser.nextToken() == JsonToken.VALUE_STRING ){
+            for( String line : parser.getText().split("\n") ){
+                if( line.isEmpty() ){
+                    continue;
+                }
+                handler.handle(BoshCliEvent.text(Type.BLOCK, line));
+                handleTaskLine(line, handler);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Lines 배열 전달, 마지막 줄이 "Exit code N" 이면 안내/Task 줄을 제외한 줄을 오류 이벤트로 전달
+     * @title : readLines
+     * @return : void
+    ***************************************************/
+    private static void readLines(JsonParser parser, EventHandler handler) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        while( parser.nextToken() == JsonToken.VALUE_STRING ){
+            String line = parser.getText().trim();
+            if( line.isEmpty() ){
+                continue;
+            }
+            lines.add(line);
+            handler.handle(BoshCliEvent.text(Type.LINE, line));
+            handleTaskLine(line, handler);
+        }
+        if( lines.isEmpty() ){
+            return;
+        }
+        String last = lines.get(lines.size() - 1);
+        if( SUCCEEDED.equals(last) ){
+            handler.handle(BoshCliEvent.text(Type.SUCCEEDED, last));
+        } else if( EXIT_CODE.matcher(last).matches() ){
+            for( String line : lines.subList(0, lines.size() - 1) ){
+                if( !PREAMBLE.matcher(line).matches() && !TASK_STARTED.matcher(line).matches() && !TASK_FINISHED.matcher(line).matches() ){
+                    handler.handle(BoshCliEvent.text(Type.ERROR, line));
+                }
+            }
+            handler.handle(BoshCliEvent.text(Type.ERROR, last));
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 시작/종료 줄일 경우 Task 이벤트 전달
+     * @title : handleTaskLine
+     * @return : void
+    ***************************************************/
+    private static void handleTaskLine(String line, EventHandler handler) {
+        String trimmed = line.trim();
+        Matcher started = TASK_STARTED.matcher(trimmed);
+        if( started.matches() ){
+            handler.handle(BoshCliEvent.task(Type.TASK_STARTED, trimmed, started.group(1), null));
+            return;
+        }
+        Matcher finished = TASK_FINISHED.matcher(trimmed);
+        if( finished.matches() ){
+            handler.handle(BoshCliEvent.task(Type.TASK_FINISHED, trimmed, finished.group(1), finished.group(2)));
+        }
+    }
+}
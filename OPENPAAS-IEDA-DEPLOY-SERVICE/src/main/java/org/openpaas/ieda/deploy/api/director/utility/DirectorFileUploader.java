@@ -0,0 +1,282 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class DirectorFileUploader {
+
+    //한 번에 읽어 전송할 크기
+    final private static int BUFFER_SIZE = 1024 * 1024;
+    //진행률 전송 주기
+    final private static long PROGRESS_INTERVAL = 500L;
+    final private static int MAX_RETRY = 3;
+    final private static long RETRY_DELAY = 3 * 1000L;
+    final private static int TAR_BLOCK_SIZE = 512;
+    final private static String STEMCELL_MANIFEST = "stemcell.MF";
+    final private static String RELEASE_MANIFEST = "release.MF";
+    private final static Logger LOGGER = LoggerFactory.getLogger(DirectorFileUploader.class);
+
+    //업로드 진행률을 전송하는 공용 스레드(파일 전송 스레드와 분리)
+    private final static ScheduledExecutorService PROGRESS_TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "upload-progress");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    public interface ProgressListener {
+        void onProgress(int percent);
+    }
+
+    public interface DirectorRequestFactory {
+        //파일을 전송할 업로드 요청(인증, 헤더, RequestEntity 설정)
+        HttpMethodBase createUploadMethod();
+        //디렉터에 업로드된 스템셀/릴리즈 목록 조회 요청
+        HttpMethodBase createListMethod();
+    }
+
+    private DirectorFileUploader() {
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일을 큰 버퍼(또는 transferTo)로 전송하고 진행률은 타이머로 주기적으로 전송
+     * @title : write
+     * @return : void
+    ***************************************************/
+    public static void write(File file, OutputStream out, final ProgressListener listener) throws IOException {
+        final long totalSize = file.length();
+        final AtomicLong written = new AtomicLong();
+        final AtomicInteger lastPercent = new AtomicInteger(-1);
+        ScheduledFuture<?> progress = null;
+        if( listener != null ){
+            progress = PROGRESS_TIMER.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    reportProgress(listener, lastPercent, written.get(), totalSize);
+                }
+            }, 0L, PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+        try (FileInputStream input = new FileInputStream(file); FileChannel channel = input.getChannel()) {
+            if( out instanceof WritableByteChannel ){
+                //전송 채널이 NIO 채널이면 커널에서 바로 복사
+                long position = 0L;
+                while( position < totalSize ){
+                    position += channel.transferTo(position, totalSize - position, (WritableByteChannel) out);
+                    written.set(position);
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                int read;
+                while( (read = channel.read(buffer)) >= 0 ){
+                    out.write(buffer.array(), 0, read);
+                    buffer.clear();
+                    written.addAndGet(read);
+                }
+            }
+            out.flush();
+        } finally {
+            if( progress != null ){
+                progress.cancel(false);
+                reportProgress(listener, lastPercent, written.get(), totalSize);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 업로드 요청 실행(전송 실패/5xx 시 디렉터에 이미 업로드되었는지 확인 후 재전송)
+     *                이미 업로드된 경우 null 응답, 응답한 요청은 커넥션을 반환한 상태(상태 코드와 헤더만 사용)
+     * @title : upload
+     * @return : HttpMethodBase
+    ***************************************************/
+    public static HttpMethodBase upload(HttpClient httpClient, File file, DirectorRequestFactory factory) throws IOException {
+        Map<String, Object> manifest = null;
+        boolean manifestLoaded = false;
+        for( int retry = 0; ; retry++ ){
+            HttpMethodBase method = factory.createUploadMethod();
+            IOException failure = null;
+            try {
+                int statusCode = httpClient.executeMethod(method);
+                if( statusCode < 500 || retry >= MAX_RETRY ){
+                    return method;
+                }
+            } catch (IOException e) {
+                if( retry >= MAX_RETRY ){
+                    throw e;
+                }
+                failure = e;
+            } finally {
+                //Task 추적 전에 커넥션을 풀에 반환
+                method.releaseConnection();
+            }
+            if( LOGGER.isWarnEnabled() ){
+                LOGGER.warn("upload " + file.getName() + " failed (" + (failure == null ? method.getStatusLine() : failure.getMessage()) + "), retry " + (retry + 1));
+            }
+            if( !manifestLoaded ){
+                manifest = readManifest(file);
+                manifestLoaded = true;
+            }
+            if( manifest != null && isUploaded(httpClient, factory.createListMethod(), manifest) ){
+                if( LOGGER.isInfoEnabled() ){ LOGGER.info(file.getName() + " is already uploaded to director, skip resending"); }
+                return null;
+            }
+            try {
+                Thread.sleep(RETRY_DELAY * (retry + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("upload interrupted", e);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉터 스템셀/릴리즈 목록에 manifest의 이름과 버전이 존재하는지 확인
+     * @title : isUploaded
+     * @return : boolean
+    ***************************************************/
+    static boolean isUploaded(HttpClient httpClient, HttpMethodBase listMethod, Map<String, Object> manifest) {
+        String name = String.valueOf(manifest.get("name"));
+        String version = String.valueOf(manifest.get("version"));
+        try {
+            httpClient.executeMethod(listMethod);
+            JsonNode items = new ObjectMapper().readTree(listMethod.getResponseBodyAsStream());
+            return containsVersion(items, name, version);
+        } catch (IOException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't check uploaded " + name + "/" + version + " : " + e.getMessage()); }
+            return false;
+        } finally {
+            listMethod.releaseConnection();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀(name, version) 또는 릴리즈(name, release_versions) 목록에서 버전 확인
+     * @title : containsVersion
+     * @return : boolean
+    ***************************************************/
+    static boolean containsVersion(JsonNode items, String name, String version) {
+        if( items == null || !items.isArray() ){
+            return false;
+        }
+        for( JsonNode item : items ){
+            if( !name.equals(item.path("name").asText()) ){
+                continue;
+            }
+            if( version.equals(item.path("version").asText()) ){
+                return true;
+            }
+            for( JsonNode releaseVersion : item.path("release_versions") ){
+                if( version.equals(releaseVersion.path("version").asText()) ){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 tgz 파일에서 stemcell.MF 또는 release.MF 조회(없으면 null)
+     * @title : readManifest
+     * @return : Map<String,Object>
+    ***************************************************/
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readManifest(File file) {
+        try (InputStream input = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), BUFFER_SIZE)) {
+            byte[] header = new byte[TAR_BLOCK_SIZE];
+            while( readFully(input, header) ){
+                String entryName = readString(header, 0, 100);
+                if( entryName.isEmpty() ){
+                    return null;
+                }
+                long size = Long.parseLong(readString(header, 124, 12).trim(), 8);
+                long padded = (size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE;
+                String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                if( STEMCELL_MANIFEST.equals(baseName) || RELEASE_MANIFEST.equals(baseName) ){
+                    byte[] content = new byte[(int) size];
+                    readFully(input, content);
+                    Object manifest = new Yaml().load(new String(content, StandardCharsets.UTF_8));
+                    return manifest instanceof Map ? (Map<String, Object>) manifest : null;
+                }
+                skipFully(input, padded);
+            }
+        } catch (IOException | NumberFormatException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't read manifest of " + file.getName() + " : " + e.getMessage()); }
+        }
+        return null;
+    }
+
+    private static void reportProgress(ProgressListener listener, AtomicInteger lastPercent, long written, long totalSize) {
+        int percent = totalSize == 0 ? 100 : (int) (written * 100 / totalSize);
+        if( lastPercent.getAndSet(percent) != percent ){
+            listener.onProgress(percent);
+        }
+    }
+
+    private static String readString(byte[] header, int offset, int length) {
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        for( int i = offset; i < offset + length && header[i] != 0; i++ ){
+            value.write(header[i]);
+        }
+        return new String(value.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean readFully(InputStream input, byte[] buffer) throws IOException {
+        int offset = 0;
+        while( offset < buffer.length ){
+            int read = input.read(buffer, offset, buffer.length - offset);
+            if( read < 0 ){
+                if( offset == 0 ){
+                    return false;
+                }
+                throw new EOFException();
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private static void skipFully(InputStream input, long length) throws IOException {
+        long remaining = length;
+        while( remaining > 0 ){
+            long skipped = input.skip(remaining);
+            if( skipped <= 0 ){
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpClientParams;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.httpclient.protocol.Protocol;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DirectorHttpClientPool implements PublicMetrics {
+
+    final private static String HTTPS = "https";
+    final private static int DEFAULT_HTTPS_PORT = 443;
+    final private static int MAX_CONNECTIONS_PER_DIRECTOR = 20;
+    final private static int MAX_TOTAL_CONNECTIONS = 100;
+    final private static int CONNECTION_TIMEOUT = 30 * 1000;
+    final private static int SO_TIMEOUT = 10 * 60 * 1000;
+    final private static long CONNECTION_MANAGER_TIMEOUT = 60 * 1000L;
+    final private static long IDLE_CONNECTION_TIMEOUT = 60 * 1000L;
+    final private static long IDLE_CHECK_INTERVAL = 30 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(DirectorHttpClientPool.class);
+
+    private static volatile DirectorHttpClientPool instance;
+
+    private MultiThreadedHttpConnectionManager connectionManager;
+    private IdleConnectionTimeoutThread idleConnectionTimeoutThread;
+    private final Map<String, HostConfiguration> directorHosts = new ConcurrentHashMap<String, HostConfiguration>();
+    private final AtomicLong leaseCount = new AtomicLong();
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : https 프로토콜을 1회 등록하고 설치 관리자 공용 커넥션 풀을 초기화
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public synchronized void initialize() {
+        if( connectionManager != null ){
+            return;
+        }
+        //URI에 포트가 항상 명시되므로 기본 포트는 443으로 1회만 등록
+        Protocol.registerProtocol(HTTPS, new Protocol(HTTPS, new ExSSLSocketFactory(), DEFAULT_HTTPS_PORT));
+
+        HttpConnectionManagerParams params = new HttpConnectionManagerParams();
+        params.setDefaultMaxConnectionsPerHost(MAX_CONNECTIONS_PER_DIRECTOR);
+        params.setMaxTotalConnections(MAX_TOTAL_CONNECTIONS);
+        params.setConnectionTimeout(CONNECTION_TIMEOUT);
+        params.setSoTimeout(SO_TIMEOUT);
+        params.setStaleCheckingEnabled(true);
+        connectionManager = new MultiThreadedHttpConnectionManager();
+        connectionManager.setParams(params);
+
+        //유휴 커넥션 정리
+        idleConnectionTimeoutThread = new IdleConnectionTimeoutThread();
+        idleConnectionTimeoutThread.setName("director-idle-connection-evictor");
+        idleConnectionTimeoutThread.setConnectionTimeout(IDLE_CONNECTION_TIMEOUT);
+        idleConnectionTimeoutThread.setTimeoutInterval(IDLE_CHECK_INTERVAL);
+        idleConnectionTimeoutThread.addConnectionManager(connectionManager);
+        idleConnectionTimeoutThread.start();
+
+        instance = this;
+        if( LOGGER.isInfoEnabled() ){
+            LOGGER.info("director http connection pool initialized (max per director : " + MAX_CONNECTIONS_PER_DIRECTOR + ", max total : " + MAX_TOTAL_CONNECTIONS + ")");
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 커넥션 풀 및 유휴 커넥션 정리 스레드 종료
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public synchronized void shutdown() {
+        if( idleConnectionTimeoutThread != null ){
+            idleConnectionTimeoutThread.shutdown();
+            idleConnectionTimeoutThread = null;
+        }
+        if( connectionManager != null ){
+            connectionManager.shutdown();
+            connectionManager = null;
+        }
+        if( instance == this ){
+            instance = null;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 풀을 응답(스프링 컨텍스트 밖에서 호출될 경우 자체 생성)
+     * @title : getInstance
+     * @return : DirectorHttpClientPool
+    ***************************************************/
+    public static DirectorHttpClientPool getInstance() {
+        DirectorHttpClientPool pool = instance;
+        if( pool == null ){
+            synchronized (DirectorHttpClientPool.class) {
+                pool = instance;
+                if( pool == null ){
+                    pool = new DirectorHttpClientPool();
+                    pool.initialize();
+                }
+            }
+        }
+        return pool;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 공용 커넥션 풀을 사용하는 HTTP 클라이언트 객체를 응답
+     * @title : getHttpClient
+     * @return : HttpClient
+    ***************************************************/
+    public HttpClient getHttpClient() {
+        HttpClientParams params = new HttpClientParams();
+        params.setConnectionManagerTimeout(CONNECTION_MANAGER_TIMEOUT);
+        leaseCount.incrementAndGet();
+        return new HttpClient(params, connectionManager);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 별 HTTP 클라이언트 객체를 응답(풀 통계 집계 대상으로 등록)
+     * @title : getHttpClient
+     * @return : HttpClient
+    ***************************************************/
+    public HttpClient getHttpClient(String directorUrl, int port) {
+        String key = directorUrl + ":" + port;
+        if( !directorHosts.containsKey(key) ){
+            HostConfiguration hostConfiguration = new HostConfiguration();
+            hostConfiguration.setHost(directorUrl, port, Protocol.getProtocol(HTTPS));
+            directorHosts.put(key, hostConfiguration);
+        }
+        return getHttpClient();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 커넥션 풀 현황 정보 조회
+     * @title : getPoolStats
+     * @return : Map<String, Integer>
+    ***************************************************/
+    public Map<String, Integer> getPoolStats() {
+        Map<String, Integer> stats = new ConcurrentHashMap<String, Integer>();
+        if( connectionManager == null ){
+            return stats;
+        }
+        stats.put("total", connectionManager.getConnectionsInPool());
+        for( Map.Entry<String, HostConfiguration> entry : directorHosts.entrySet() ){
+            stats.put(entry.getKey(), connectionManager.getConnectionsInPool(entry.getValue()));
+        }
+        return stats;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : actuator /metrics 에 커넥션 풀 현황 노출
+     * @title : metrics
+     * @return : Collection<Metric<?>>
+    ***************************************************/
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        for( Map.Entry<String, Integer> entry : getPoolStats().entrySet() ){
+            metrics.add(new Metric<Integer>("director.httpclient.connections." + entry.getKey(), entry.getValue()));
+        }
+        metrics.add(new Metric<Long>("director.httpclient.leases", leaseCount.get()));
+        return metrics;
+    }
+
+}
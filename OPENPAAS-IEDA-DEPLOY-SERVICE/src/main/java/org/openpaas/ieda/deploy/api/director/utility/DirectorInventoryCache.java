@@ -0,0 +1,330 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DirectorInventoryCache implements PublicMetrics {
+
+    //설치 관리자 별 배포/릴리즈/스템셀 목록 응답(JSON) 캐시
+    // - 최근 조회된 목록은 백그라운드에서 주기적으로 다시 조회
+    // - 추적 중인 Task(업로드/배포/삭제)가 종료되면 해당 설치 관리자의 목록을 무효화
+    // - 응답 내용이 바뀐 경우에만 ETag/Last-Modified 변경(브라우저 조건부 요청 응답에 사용)
+    final private static long MAX_AGE = Long.getLong("ieda.inventory.maxAge", 5 * 60 * 1000L);
+    final private static long REFRESH_INTERVAL = 60 * 1000L;
+    //이 시간 동안 조회되지 않은 목록은 백그라운드 조회 대상에서 제외
+    final private static long IDLE_TIME = 10 * 60 * 1000L;
+    final private static int SO_TIMEOUT = 30 * 1000;
+    final private static Charset UTF_8 = Charset.forName("UTF-8");
+    private final static Logger LOGGER = LoggerFactory.getLogger(DirectorInventoryCache.class);
+
+    private static volatile DirectorInventoryCache instance;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidateCount = new AtomicLong();
+
+    public enum Inventory { DEPLOYMENTS, RELEASES, STEMCELLS }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 공용 목록 캐시로 등록
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public void initialize() {
+        instance = this;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 캐시를 응답(스프링 컨텍스트 밖에서 호출될 경우 자체 생성)
+     * @title : getInstance
+     * @return : DirectorInventoryCache
+    ***************************************************/
+    public static DirectorInventoryCache getInstance() {
+        DirectorInventoryCache cache = instance;
+        if( cache == null ){
+            synchronized (DirectorInventoryCache.class) {
+                cache = instance;
+                if( cache == null ){
+                    cache = new DirectorInventoryCache();
+                    cache.initialize();
+                }
+            }
+        }
+        return cache;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자의 목록 응답 조회(캐시가 무효화되었거나 오래된 경우 설치 관리자에 조회)
+     * @title : get
+     * @return : Snapshot
+    ***************************************************/
+    public Snapshot get(DirectorConfigVO director, Inventory inventory) throws IOException {
+        return get(director.getDirectorUrl(), director.getDirectorPort(), director.getUserId(), director.getUserPassword(), inventory);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자의 목록 응답 조회
+     * @title : get
+     * @return : Snapshot
+    ***************************************************/
+    public Snapshot get(String directorUrl, int port, String userId, String password, Inventory inventory) throws IOException {
+        String key = getDirectorKey(directorUrl, port) + userId + ":" + inventory.name();
+        Entry entry = entries.get(key);
+        if( entry == null ){
+            Entry created = new Entry(directorUrl, port, inventory);
+            entry = entries.putIfAbsent(key, created);
+            if( entry == null ){
+                entry = created;
+            }
+        }
+        entry.setCredential(userId, password);
+        long now = System.currentTimeMillis();
+        entry.lastAccessTime = now;
+        Snapshot snapshot = entry.getValidSnapshot(now);
+        if( snapshot != null ){
+            hitCount.incrementAndGet();
+            return snapshot;
+        }
+        missCount.incrementAndGet();
+        return load(entry);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자의 모든 목록 무효화(다음 조회 시 설치 관리자에 다시 조회)
+     * @title : invalidate
+     * @return : void
+    ***************************************************/
+    public void invalidate(String directorUrl, int port) {
+        String prefix = getDirectorKey(directorUrl, port);
+        for( Map.Entry<String, Entry> entry : entries.entrySet() ){
+            if( entry.getKey().startsWith(prefix) ){
+                entry.getValue().version.incrementAndGet();
+            }
+        }
+        invalidateCount.incrementAndGet();
+        if( LOGGER.isDebugEnabled() ){
+            LOGGER.debug("director inventory invalidated : " + directorUrl + ":" + port);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 최근 조회된 목록 중 무효화되었거나 갱신 주기가 지난 목록을 백그라운드에서 다시 조회
+     * @title : refresh
+     * @return : void
+    ***************************************************/
+    @Scheduled(fixedDelay = REFRESH_INTERVAL, initialDelay = REFRESH_INTERVAL)
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        for( Map.Entry<String, Entry> held : entries.entrySet() ){
+            Entry entry = held.getValue();
+            if( now - entry.lastAccessTime > IDLE_TIME ){
+                entries.remove(held.getKey(), entry);
+                continue;
+            }
+            Snapshot snapshot = entry.snapshot;
+            if( snapshot != null && entry.loadedVersion == entry.version.get() && now - snapshot.getFetchTime() < REFRESH_INTERVAL ){
+                continue;
+            }
+            try {
+                load(entry);
+            } catch (IOException | RuntimeException e) {
+                if( LOGGER.isWarnEnabled() ){
+                    LOGGER.warn("director inventory refresh error (" + held.getKey() + ") : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자에 목록 조회 후 저장(동시 요청은 한 번만 조회, 내용이 같으면 ETag 유지)
+     * @title : load
+     * @return : Snapshot
+    ***************************************************/
+    private Snapshot load(Entry entry) throws IOException {
+        synchronized (entry) {
+            //대기 중 다른 요청이 조회를 마친 경우
+            long now = System.currentTimeMillis();
+            Snapshot snapshot = entry.getValidSnapshot(now);
+            if( snapshot != null ){
+                return snapshot;
+            }
+            long version = entry.version.get();
+            String body = fetch(entry.directorUrl, entry.port, entry.userId, entry.password, entry.inventory);
+            Snapshot previous = entry.snapshot;
+            if( previous != null && previous.getBody().equals(body) ){
+                snapshot = new Snapshot(body, previous.getEtag(), previous.getLastModified(), now);
+            } else {
+                snapshot = new Snapshot(body, createEtag(entry.inventory, body), now, now);
+            }
+            entry.snapshot = snapshot;
+            entry.loadedVersion = version;
+            return snapshot;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자에 목록 조회
+     * @title : fetch
+     * @return : String
+    ***************************************************/
+    protected String fetch(String directorUrl, int port, String userId, String password, Inventory inventory) throws IOException {
+        GetMethod get = new GetMethod(getInventoryURI(directorUrl, port, inventory));
+        get = (GetMethod) DirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase) get);
+        get.getParams().setSoTimeout(SO_TIMEOUT);
+        try {
+            HttpClient client = DirectorRestHelper.getHttpClient(directorUrl, port);
+            int statusCode = client.executeMethod(get);
+            if( statusCode != HttpStatus.OK.value() ){
+                throw new IOException(inventory.name().toLowerCase() + " list status code " + statusCode);
+            }
+            String body = get.getResponseBodyAsString();
+            return body == null ? "" : body;
+        } finally {
+            get.releaseConnection();
+        }
+    }
+
+    private String getInventoryURI(String directorUrl, int port, Inventory inventory) {
+        switch (inventory) {
+            case DEPLOYMENTS:
+                return DirectorRestHelper.getDeploymentListURI(directorUrl, port);
+            case RELEASES:
+                return DirectorRestHelper.getReleaseListURI(directorUrl, port);
+            default:
+                return DirectorRestHelper.getStemcellsURI(directorUrl, port);
+        }
+    }
+
+    private String getDirectorKey(String directorUrl, int port) {
+        return directorUrl + ":" + port + ":";
+    }
+
+    private String createEtag(Inventory inventory, String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(body.getBytes(UTF_8));
+            StringBuilder etag = new StringBuilder("\"").append(inventory.name().toLowerCase()).append('-');
+            for( int i = 0; i < 8; i++ ){
+                etag.append(String.format("%02x", digest[i]));
+            }
+            return etag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            return "\"" + inventory.name().toLowerCase() + "-" + Integer.toHexString(body.hashCode()) + "\"";
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : actuator /metrics 에 목록 캐시 현황 노출
+     * @title : metrics
+     * @return : Collection<Metric<?>>
+    ***************************************************/
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        metrics.add(new Metric<Integer>("director.inventory.entries", entries.size()));
+        metrics.add(new Metric<Long>("director.inventory.hits", hitCount.get()));
+        metrics.add(new Metric<Long>("director.inventory.misses", missCount.get()));
+        metrics.add(new Metric<Long>("director.inventory.invalidations", invalidateCount.get()));
+        return metrics;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 목록 응답과 검증 정보(ETag/Last-Modified)
+    ***************************************************/
+    public static class Snapshot {
+        private final String body;
+        private final String etag;
+        private final long lastModified;
+        private final long fetchTime;
+
+        Snapshot(String body, String etag, long lastModified, long fetchTime) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchTime = fetchTime;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getFetchTime() {
+            return fetchTime;
+        }
+    }
+
+    private static class Entry {
+        private final String directorUrl;
+        private final int port;
+        private final Inventory inventory;
+        //무효화 시 증가, 조회 시작 시점의 값을 loadedVersion 으로 저장
+        private final AtomicLong version = new AtomicLong();
+        private volatile long loadedVersion = -1;
+        private volatile Snapshot snapshot;
+        private volatile long lastAccessTime;
+        private volatile String userId;
+        private volatile String password;
+
+        Entry(String directorUrl, int port, Inventory inventory) {
+            this.directorUrl = directorUrl;
+            this.port = port;
+            this.inventory = inventory;
+        }
+
+        void setCredential(String userId, String password) {
+            this.userId = userId;
+            this.password = password;
+        }
+
+        Snapshot getValidSnapshot(long now) {
+            Snapshot current = snapshot;
+            if( current == null || loadedVersion != version.get() || now - current.getFetchTime() >= MAX_AGE ){
+                return null;
+            }
+            return current;
+        }
+    }
+}
@@ -4,57 +4,98 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
-import org.apache.commons.httpclient.methods.GetMethod;
-import org.apache.commons.httpclient.protocol.Protocol;
+import org.apache.commons.httpclient.methods.DeleteMethod;
 import org.apache.tomcat.util.codec.binary.Base64;
-import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.deploy.api.director.dto.ResponseTaskOuput;
-import org.openpaas.ieda.deploy.api.task.TaskInfoDTO;
-import org.openpaas.ieda.deploy.api.task.TaskOutputDTO;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.api.task.TaskListDTO;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 public class DirectorRestHelper {
     
-    final private static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir();
-    final private static int THREAD_SLEEP_TIME = 2 * 1000;
     final private static String HTTPS = "https";
     final private static String CANCELLED = "cancelled";
     final private static String STARTED = "started";
     final private static String ERROR = "error";  
     final private static String DONE = "done";
+    //Task 최대 추적 시간(추적이 끝나지 않는 경우 추적기에서 timeout 으로 종료)
+    final private static long TASK_WAIT_TIMEOUT = 24 * 60 * 60 * 1000L;
+    final private static String EVENT_LOG_ENDPOINT = "/info/task/list/eventLog/socket";
     private final static Logger LOGGER = LoggerFactory.getLogger(DirectorRestHelper.class);
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : 프로토콜을 등록하고 HTTP 클라이언트 객체를 응답
+     * @description : 설치 관리자 공용 커넥션 풀(keep-alive)을 사용하는 HTTP 클라이언트 객체를 응답
      * @title : getHttpClient
      * @return : HttpClient
     ***************************************************/
     public static HttpClient getHttpClient(int port) {
-        //프로토컬 등록
-        Protocol.registerProtocol(HTTPS, new Protocol(HTTPS, new ExSSLSocketFactory(), port));
-        return new HttpClient();
+        //https 프로토콜은 커넥션 풀 초기화 시 1회 등록
+        return DirectorHttpClientPool.getInstance().getHttpClient();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 별 커넥션 풀 현황이 집계되는 HTTP 클라이언트 객체를 응답
+     * @title : getHttpClient
+     * @return : HttpClient
+    ***************************************************/
+    public static HttpClient getHttpClient(String directorUrl, int port) {
+        return DirectorHttpClientPool.getInstance().getHttpClient(directorUrl, port);
     }
 
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 응답 본문 없이 상태 코드와 헤더(Location 등)만 사용하는 요청 실행 후 커넥션을 풀에 반환
+     *                (Task 추적 전에 반환하지 않으면 추적이 끝날 때까지 풀의 커넥션을 점유)
+     * @title : executeAndRelease
+     * @return : int
+    ***************************************************/
+    public static int executeAndRelease(HttpClient httpClient, HttpMethodBase method) throws IOException {
+        try {
+            return httpClient.executeMethod(method);
+        } finally {
+            method.releaseConnection();
+        }
+    }
     
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 해당 배포의 진행 중 디렉터 Task 취소 요청(bosh cancel-task)
+     *                (bosh CLI 프로세스를 종료해도 디렉터 Task 는 계속 실행되므로 함께 취소)
+     * @title : cancelDeploymentTasks
+     * @return : int(취소 요청한 Task 수)
+    ***************************************************/
+    public static int cancelDeploymentTasks(String directorUrl, int port, String userId, String password, String deploymentName) throws IOException {
+        int cancelled = 0;
+        for( TaskListDTO task : DirectorTaskTracker.getInstance().selectActiveTasks(directorUrl, port, userId, password) ){
+            if( !deploymentName.equals(task.getDeployment()) ){
+                continue;
+            }
+            DeleteMethod cancelMethod = new DeleteMethod(getTaskStatusURI(directorUrl, port, task.getId()));
+            cancelMethod = (DeleteMethod) setAuthorization(userId, password, (HttpMethodBase) cancelMethod);
+            int statusCode = executeAndRelease(getHttpClient(directorUrl, port), cancelMethod);
+            if( statusCode >= 200 && statusCode < 300 ){
+                cancelled++;
+            } else if( LOGGER.isWarnEnabled() ){
+                LOGGER.warn("director task " + task.getId() + " cancel failed : " + statusCode);
+            }
+        }
+        return cancelled;
+    }
+
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 계정과 비밀번호를 인코딩하여 Header를 정의하고 응답
@@ -205,6 +246,18 @@ public class DirectorRestHelper {
                 .toString();
     }
     
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 진행 중(queued/processing/cancelling) Task 목록 URI 생성
+     * @title : getActiveTaskListURI
+     * @return : String
+    ***************************************************/
+    public static String getActiveTaskListURI(String host, int port) {
+        return UriComponentsBuilder.newInstance().scheme(HTTPS).host(host).port(port).path("tasks")
+                .queryParam("state", "queued,processing,cancelling").queryParam("verbose", 2).build()
+                .toString();
+    }
+    
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : Task Id 추출
@@ -405,379 +458,153 @@ public class DirectorRestHelper {
 
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답(공용 Task 추적기에 등록 후 바로 응답)
      * @title : trackToTask
+     * @return : void
+    ***************************************************/
+    public static void trackToTask(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
+        String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
+        trackToTask(defaultDirector, messageTemplate, messageEndpoint, client, taskId, logType, userId, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답하고 Task 종료 시 callback 호출
+     *                (종료 후 처리(설치 상태 저장 등)는 callback 에서 하므로 호출 스레드는 바로 반환)
+     * @title : trackToTask
+     * @return : void
+    ***************************************************/
+    public static void trackToTask(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
+        String messageEndpoint, HttpClient client, String taskId, String logType, String userId, DirectorTaskCallback callback) {
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        //Task 이력 화면의 이벤트 로그 조회는 현재까지의 로그만 1회 응답
+        listener.setSnapshot(EVENT_LOG_ENDPOINT.equalsIgnoreCase(messageEndpoint));
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        startTracking(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), defaultDirector.getUserId(),
+                defaultDirector.getUserPassword(), listener, taskId, logType, callback);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답하며 Task 종료까지 대기 후 상태 응답
+     *                (bosh CLI 프로세스 종료를 기다리는 스레드에서만 사용, 추가 스레드를 점유하지 않음)
+     * @title : trackToTaskAndWait
      * @return : String
     ***************************************************/
-    public static String trackToTask(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
+    public static String trackToTaskAndWait(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
         String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
-        
-        String status = "";
-        String eventLog = "";
-        try {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-            String lastStage = null;
-            int offset = 0;
-            while (true) {
-                
-                //1. Task 상태 정보 요청
-                GetMethod getTaskStaus = new GetMethod(DirectorRestHelper.getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                int statusCode = client.executeMethod(getTaskStaus);
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-                //응답 결과 task 상태 정보를 가져온다.
-                TaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), TaskInfoDTO.class);
-                
-                GetMethod getTaskOutput = new GetMethod(DirectorRestHelper.getTaskOutputURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if (statusCode == HttpStatus.NO_CONTENT.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
-                    if (taskInfo.getState().equalsIgnoreCase("done")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                        status = DONE;
-                        break;
-                    }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                        status = ERROR;
-                        break;
-                    } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Canceled Task " + taskId));
-                        status = CANCELLED;
-                        break;
-                    } else{
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                }
-
-                if (statusCode == HttpStatus.OK.value() || statusCode == HttpStatus.PARTIAL_CONTENT.value()) {
-                    eventLog=DONE;
-                    Header contentRange = getTaskOutput.getResponseHeader("Content-Range");
-                    if (contentRange == null) {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                    
-                    if ( !StringUtils.isEmpty(contentRange) ) {
-                        String[] splited = contentRange.getValue().split("/");
-                        offset = Integer.parseInt(splited[1]);
-                    }
-
-                    if ( "debug".equalsIgnoreCase(logType) ) {
-                        String[] outputs = getTaskOutput.getResponseBodyAsString().split("\n");
-                        
-                        for ( String output : outputs ) {
-                            Thread.sleep(10);
-                            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList(output));
-                        }
-                    } else {
-                        
-                        String outputs1 = getTaskOutput.getResponseBodyAsString();
-                        String outputs2 = outputs1.substring(0, outputs1.length() - 1).replace("\n", ",");
-                        String outputs = "[" + outputs2 + "]";
-                        
-                        List<TaskOutputDTO> taskOutputList = mapper.readValue(outputs, new TypeReference<List<TaskOutputDTO>>() {
-                        });
-    
-                        List<String> responseMessage = new ArrayList<String>();
-                        for (TaskOutputDTO output : taskOutputList) {
-    
-                            if (output.getStage() != null && (lastStage == null || !lastStage.equalsIgnoreCase(output.getStage()))) {
-                                    responseMessage.add("");
-                                    responseMessage.add("  Started    " + output.getStage());
-                            }
-    
-                            if (output.getStage() != null) {
-    
-                                if (output.getState().equalsIgnoreCase("started")) {
-                                    responseMessage.add("  Started    " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("finished")) {
-                                    responseMessage.add("  Done       " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("failed")) {
-                                    responseMessage.add("  Failed      " + output.getStage() + " > " + output.getTask());
-                                } else {
-                                    responseMessage.add("  Processing " + output.getStage() + " > " + output.getTask() + " " + output.getProgress() + "%");
-                                }
-                            } else {
-                                HashMap<String, String> error = output.getError();
-                                if (error != null) {
-                                    responseMessage.add( "  Error Code : " + error.get("code") + ", Message :" + error.get("message"));
-                                }
-                            }
-                            lastStage = output.getStage();
-                        }
-                        Thread.sleep(3000);
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, responseMessage);
-                    }
-                }
-                
-                if(messageEndpoint.equalsIgnoreCase("/info/task/list/eventLog/socket")){ 
-                    if(eventLog.equalsIgnoreCase("done")){
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, eventLog, Arrays.asList("", "Task " + taskId));
-                        break;
-                    }else{
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "Task " + taskId));
-                        break;
-                    }
-                }
-
-                if (taskInfo.getState().equalsIgnoreCase("done")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                    status = DONE;
-                    break;
-                } 
-                else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                    status = ERROR;                    
-                } 
-                else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Task " + taskId + ""));
-                    status = DONE;
-                }
-
-                Thread.sleep(THREAD_SLEEP_TIME);
-            }
-        }catch (IOException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (InterruptedException e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch(Exception e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }
-        
-        return status;
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        return waitForTask(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), defaultDirector.getUserId(),
+                defaultDirector.getUserPassword(), listener, taskId, logType);
     }
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : Task 정보
+     * @description : Task 정보(로그 조회 없이 종료 상태만 추적)
      * @title : trackToTaskLineOne
-     * @return : String
+     * @return : void
     ***************************************************/
-    public static String trackToTaskLineOne(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
+    public static void trackToTaskLineOne(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
         String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
-        String status = "";
-        try {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-
-            int offset = 0;
-            while (true) {
-                //1. Task 상태 정보 요청
-                GetMethod getTaskStaus = new GetMethod(DirectorRestHelper.getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                
-                int statusCode = client.executeMethod(getTaskStaus);
-                
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                            Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-                
-                TaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), TaskInfoDTO.class);
-                GetMethod getTaskOutput = new GetMethod(DirectorRestHelper.getTaskOutputURI( defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if ( statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value() ) {
-                    if (taskInfo.getState().equalsIgnoreCase("done") ) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                        status = DONE;
-                        break;
-                    }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                        status = ERROR;
-                        break;
-                    } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Canceled Task " + taskId));
-                        status = CANCELLED;
-                        break;
-                    }
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                }
-            }
-        }catch (IOException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (InterruptedException e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch(Exception e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }
-        
-        return status;
+        trackToTaskLineOne(defaultDirector, messageTemplate, messageEndpoint, client, taskId, logType, userId, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 정보(로그 조회 없이 종료 상태만 추적)를 응답하고 Task 종료 시 callback 호출
+     * @title : trackToTaskLineOne
+     * @return : void
+    ***************************************************/
+    public static void trackToTaskLineOne(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate,
+        String messageEndpoint, HttpClient client, String taskId, String logType, String userId, DirectorTaskCallback callback) {
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        startTracking(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), defaultDirector.getUserId(),
+                defaultDirector.getUserPassword(), listener, taskId, null, callback);
     }
 
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 설치 관리자에 스템셀 및 릴리즈 업로드 로그 정보와 상태 응답
+     *                (업로드 lock 은 Task 종료 시 해제)
      * @title : trackToTaskWithTag
-     * @return : String
+     * @return : void
     ***************************************************/
-    public static String trackToTaskWithTag(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate, 
+    public static void trackToTaskWithTag(DirectorConfigVO defaultDirector, SimpMessagingTemplate messageTemplate, 
                                             String messageEndpoint, String tag, HttpClient client, String taskId, 
                                             String logType, String userId) {
-        String status = "";
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, tag, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        startTracking(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), defaultDirector.getUserId(),
+                defaultDirector.getUserPassword(), listener, taskId, logType, uploadLockRelease(tag));
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 업로드 Task 종료 시 업로드 lock 을 해제하는 callback
+     * @title : uploadLockRelease
+     * @return : DirectorTaskCallback
+    ***************************************************/
+    public static DirectorTaskCallback uploadLockRelease(final String tag) {
+        return new DirectorTaskCallback() {
+            @Override
+            public void onFinish(String taskId, String state) {
+                DeploymentLockManager.unlock(tag.split(".tgz")[0]+"-upload.lock");
+            }
+        };
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 공용 Task 추적기에 Task를 등록하고 바로 응답(종료 메시지는 구독자가, 종료 후 처리는 callback 이 담당)
+     * @title : startTracking
+     * @return : void
+    ***************************************************/
+    public static void startTracking(String directorUrl, int port, String directorUserId, String directorPassword,
+            TaskOutputMessageListener listener, String taskId, String logType, DirectorTaskCallback callback) {
+        DirectorTaskTracker.getInstance().track(directorUrl, port, directorUserId, directorPassword, taskId, logType, listener,
+                System.currentTimeMillis() + TASK_WAIT_TIMEOUT, callback);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 공용 Task 추적기에 Task를 등록하고 종료될 때까지 대기 후 상태 응답
+     * @title : waitForTask
+     * @return : String
+    ***************************************************/
+    public static String waitForTask(String directorUrl, int port, String directorUserId, String directorPassword,
+            TaskOutputMessageListener listener, String taskId, String logType) {
+        DirectorTaskTracker tracker = DirectorTaskTracker.getInstance();
+        Future<String> future = tracker.track(directorUrl, port, directorUserId, directorPassword, taskId, logType, listener,
+                System.currentTimeMillis() + TASK_WAIT_TIMEOUT, null);
         try {
-            LOGGER.debug("tag ::" + tag);
-            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-
-            String lastStage = null;
-            String lastState = null;
-            int offset = 0;
-            while (true) {
-                GetMethod getTaskStaus = new GetMethod(DirectorRestHelper
-                        .getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
-                        defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                int statusCode = client.executeMethod(getTaskStaus);
-                
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag, 
-                            Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-
-                TaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), TaskInfoDTO.class);
-
-                GetMethod getTaskOutput = new GetMethod(DirectorRestHelper.getTaskOutputURI(
-                        defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
-                        defaultDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if (statusCode == HttpStatus.NO_CONTENT.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.OK.value() || statusCode == HttpStatus.PARTIAL_CONTENT.value()) {
-                    Header contentRange = getTaskOutput.getResponseHeader("Content-Range");
-                    if (contentRange == null) {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                    if ( !StringUtils.isEmpty(contentRange) ) {
-                        String[] splited = contentRange.getValue().split("/");
-                        offset = Integer.parseInt(splited[1]);
-                    }
-
-                    if ( "debug".equalsIgnoreCase(logType) ) {
-                        String[] outputs = getTaskOutput.getResponseBodyAsString().split("\n");
-                        
-                        for ( String output : outputs ) {
-                            Thread.sleep(10);
-                            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, Arrays.asList(output));
-                        }
-                    } else {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        String outputs1 = getTaskOutput.getResponseBodyAsString();
-                        String outputs2 = outputs1.substring(0, outputs1.length() - 1).replace("\n", ",");
-                        String outputs = "[" + outputs2 + "]";
-    
-                        List<TaskOutputDTO> taskOutputList = mapper.readValue(outputs, new TypeReference<List<TaskOutputDTO>>() {});
-    
-                        List<String> responseMessage = new ArrayList<String>();
-                        for (TaskOutputDTO output : taskOutputList) {
-                            if (output.getStage() != null && ( lastStage == null || !lastStage.equalsIgnoreCase(output.getStage()) )) {
-                                responseMessage.add("");
-                                responseMessage.add("  Started    " + output.getStage());
-                            }
-                            if (output.getStage() != null) {
-                                if( LOGGER.isDebugEnabled() ) {
-                                    LOGGER.debug(output.getState());
-                                }
-                                if (output.getState().equalsIgnoreCase("started")) {
-                                    responseMessage.add("  Started    " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("finished") || output.getState().equalsIgnoreCase("Done") ) {
-                                    responseMessage.add("  Done       " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("failed")) {
-                                    responseMessage.add("  Failed      " + output.getStage() + " > " + output.getTask());
-                                } else {
-                                    responseMessage.add("  Processing " + output.getStage() + " > " + output.getTask() + " " + output.getProgress() + "%");
-                                }
-                            }else {
-                                HashMap<String, String> error = output.getError();
-                                if (error != null) {
-                                    responseMessage.add("  Error Code : " + error.get("code") + ", Message :" + error.get("message"));
-                                }
-                            }
-                            lastStage = output.getStage();
-                            lastState = output.getState();
-                        }
-                        //업로드 상태 및 결과 정보를 담아 subscribe에 보낸다.
-                        sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, responseMessage);
-                    }
-                }
-                // || lastState.equalsIgnoreCase("finished") 삭제
-                if (taskInfo.getState().equalsIgnoreCase("done")) {
-                    LOGGER.debug("done && taskInfo "+ taskInfo.getState());
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, DONE, tag, Arrays.asList("", "Task " + taskId + " done"));
-                    status = DONE;
-                    break;
-                }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag,  Arrays.asList("", "An error occurred while executing the task " + taskId));
-                    status = ERROR;
-                    break;
-                } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, CANCELLED, tag, Arrays.asList("", "Canceled Task " + taskId));
-                    status = CANCELLED;
-                    break;
-                }
-                Thread.sleep(THREAD_SLEEP_TIME);
+            String state = future.get();
+            if( DONE.equalsIgnoreCase(state) ){
+                return DONE;
+            } else if( CANCELLED.equalsIgnoreCase(state) ){
+                return CANCELLED;
             }
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (Exception e) {
-            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag, Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }finally {
-            CommonDeployUtils.deleteFile(LOCK_DIR, tag.split(".tgz")[0]+"-upload.lock");
+            return ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tracker.untrack(future);
+        } catch (ExecutionException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("task " + taskId + " tracking error : " + e.getMessage()); }
         }
-        return status;
+        listener.send(ERROR, Arrays.asList("", "An exception occurred while executing the task " + taskId));
+        return ERROR;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 웹소켓 응답 없이 Task 종료까지 대기 후 상태 응답(deadline 초과 시 timeout)
+     * @title : awaitTask
+     * @return : String
+    ***************************************************/
+    public static String awaitTask(DirectorConfigVO defaultDirector, String taskId, long deadline) {
+        return DirectorTaskTracker.getInstance().awaitTask(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(),
+                defaultDirector.getUserId(), defaultDirector.getUserPassword(), taskId, deadline);
     }
 
     /***************************************************
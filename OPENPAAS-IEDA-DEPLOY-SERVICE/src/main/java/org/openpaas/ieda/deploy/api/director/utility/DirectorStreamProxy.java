@@ -0,0 +1,156 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+final public class DirectorStreamProxy {
+
+    //디렉터(blobstore/Task 로그) 응답을 메모리에 적재하지 않고 고정 크기 버퍼로 브라우저에 그대로 전달
+    // - 이어 받기(Range)는 지원하지 않음 : bosh logs 는 요청마다 새 로그 묶음(blobstore)을 만들어 이전 요청과 내용이 다름
+    // - 텍스트 로그는 줄바꿈 변환(\n -> \r\n) 및 Accept-Encoding: gzip 인 경우 전송 중 압축
+    final private static int BUFFER_SIZE = 64 * 1024;
+    final private static Logger LOGGER = LoggerFactory.getLogger(DirectorStreamProxy.class);
+
+    private DirectorStreamProxy() {
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉터 응답을 다운로드 파일로 스트리밍(transform 이 true 이면 줄바꿈 변환 및 gzip 압축 허용)
+     * @title : stream
+     * @return : int(디렉터 응답 코드)
+    ***************************************************/
+    public static int stream(HttpClient httpClient, GetMethod method, HttpServletRequest request, HttpServletResponse response,
+            String fileName, boolean transform) throws IOException {
+        method.setRequestHeader("Accept-Encoding", "identity");
+        try {
+            int statusCode = httpClient.executeMethod(method);
+            if( statusCode != HttpStatus.OK.value() ){
+                return statusCode;
+            }
+            boolean gzip = transform && acceptsGzip(request.getHeader("Accept-Encoding"));
+            response.setContentType("application/octet-stream");
+            //Content-Disposition : 브라우저에서 다운로드 창을 띄우는 역할
+            response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+            response.setHeader("Accept-Ranges", "none");
+            if( !transform ){
+                Header contentLength = method.getResponseHeader("Content-Length");
+                if( contentLength != null ){
+                    response.setHeader("Content-Length", contentLength.getValue());
+                }
+            }
+            if( gzip ){
+                response.setHeader("Content-Encoding", "gzip");
+                response.setHeader("Vary", "Accept-Encoding");
+            }
+            InputStream input = method.getResponseBodyAsStream();
+            if( input == null ){
+                return statusCode;
+            }
+            long size = copy(input, response.getOutputStream(), gzip, transform);
+            if( LOGGER.isDebugEnabled() ){
+                LOGGER.debug("streamed " + fileName + " : " + size + " bytes (gzip " + gzip + ")");
+            }
+            return statusCode;
+        } finally {
+            method.releaseConnection();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 브라우저의 gzip 응답 허용 여부
+     * @title : acceptsGzip
+     * @return : boolean
+    ***************************************************/
+    static boolean acceptsGzip(String acceptEncoding) {
+        if( acceptEncoding == null ){
+            return false;
+        }
+        for( String encoding : acceptEncoding.split(",") ){
+            String[] values = encoding.trim().split(";");
+            if( "gzip".equalsIgnoreCase(values[0].trim()) ){
+                return values.length == 1 || !values[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 입력 스트림을 고정 크기 버퍼로 출력 스트림에 복사(선택적으로 gzip 압축/줄바꿈 변환)
+     * @title : copy
+     * @return : long(읽은 원본 크기)
+    ***************************************************/
+    static long copy(InputStream input, OutputStream output, boolean gzip, boolean crlf) throws IOException {
+        GZIPOutputStream gzipOutput = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        OutputStream target = gzipOutput != null ? gzipOutput : output;
+        if( crlf ){
+            target = new CrlfOutputStream(target);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0L;
+        int read;
+        while( (read = input.read(buffer)) != -1 ){
+            target.write(buffer, 0, read);
+            size += read;
+        }
+        target.flush();
+        if( gzipOutput != null ){
+            gzipOutput.finish();
+        }
+        output.flush();
+        return size;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 줄바꿈(\n)을 \r\n 으로 변환하는 스트림 필터(이미 \r\n 인 줄은 그대로, 버퍼 경계의 \r 도 유지)
+    ***************************************************/
+    static class CrlfOutputStream extends FilterOutputStream {
+        private int last = -1;
+
+        CrlfOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if( b == '\n' && last != '\r' ){
+                out.write('\r');
+            }
+            out.write(b);
+            last = b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for( int i = offset; i < end; i++ ){
+                if( bytes[i] == '\n' && (i > offset ? bytes[i - 1] : last) != '\r' ){
+                    out.write(bytes, start, i - start);
+                    out.write('\r');
+                    start = i;
+                }
+            }
+            out.write(bytes, start, end - start);
+            if( length > 0 ){
+                last = bytes[end - 1];
+            }
+        }
+    }
+}
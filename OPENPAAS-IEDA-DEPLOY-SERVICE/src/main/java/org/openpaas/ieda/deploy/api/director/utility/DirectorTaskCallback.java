@@ -0,0 +1,13 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+public interface DirectorTaskCallback {
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 추적 중인 Task 종료 시 종료 상태(done/error/cancelled/timeout) 전달
+     *                (구독자에 종료 메시지를 전달한 후 Task 조회 스레드에서 호출)
+     * @title : onFinish
+     * @return : void
+    ***************************************************/
+    void onFinish(String taskId, String state);
+}
@@ -0,0 +1,31 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DirectorTaskListener {
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 마지막 조회 이후 새로 추가된 Task 로그(delta)를 응답 스트림으로 전달(false 응답 시 추적 종료)
+     * @title : onOutput
+     * @return : boolean
+    ***************************************************/
+    boolean onOutput(String taskId, InputStream output) throws IOException;
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 종료 상태(done/error/cancelled/timeout) 전달
+     * @title : onComplete
+     * @return : void
+    ***************************************************/
+    void onComplete(String taskId, String state);
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 조회 실패가 반복되어 추적을 중단한 경우 전달
+     * @title : onError
+     * @return : void
+    ***************************************************/
+    void onError(String taskId, String message);
+}
@@ -0,0 +1,27 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+public final class DirectorTaskState {
+
+    final public static String QUEUED = "queued";
+    final public static String PROCESSING = "processing";
+    final public static String CANCELLING = "cancelling";
+    final public static String DONE = "done";
+    final public static String ERROR = "error";
+    final public static String CANCELLED = "cancelled";
+    final public static String TIMEOUT = "timeout";
+
+    private DirectorTaskState() {}
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 Task 종료 상태 여부
+     * @title : isFinished
+     * @return : boolean
+    ***************************************************/
+    public static boolean isFinished(String state) {
+        if( state == null ){
+            return false;
+        }
+        return !QUEUED.equalsIgnoreCase(state) && !PROCESSING.equalsIgnoreCase(state) && !CANCELLING.equalsIgnoreCase(state);
+    }
+}
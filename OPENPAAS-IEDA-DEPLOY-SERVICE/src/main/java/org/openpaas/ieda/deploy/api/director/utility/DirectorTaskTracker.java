@@ -0,0 +1,635 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.openpaas.ieda.deploy.api.task.TaskInfoDTO;
+import org.openpaas.ieda.deploy.api.task.TaskListDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.CountingInputStream;
+
+@Component
+public class DirectorTaskTracker implements PublicMetrics {
+
+    final private static long TICK_INTERVAL = 500L;
+    final private static long MIN_POLL_INTERVAL = 2 * 1000L;
+    final private static long MAX_POLL_INTERVAL = 10 * 1000L;
+    //종료 대기(awaitTask) Task는 짧은 주기로 시작하여 점차 늘림(짧은 Task가 끝나는 즉시 응답)
+    final private static long AWAIT_POLL_INTERVAL = TICK_INTERVAL;
+    final private static int MAX_POLL_FAILURES = 5;
+    final private static int SO_TIMEOUT = 30 * 1000;
+    //설치 관리자 조회 스레드 수(응답 없는 설치 관리자가 다른 설치 관리자의 Task 추적을 막지 않도록 설치 관리자 별로 조회)
+    final private static int POLL_THREAD_COUNT = 4;
+    private final static Logger LOGGER = LoggerFactory.getLogger(DirectorTaskTracker.class);
+
+    private static volatile DirectorTaskTracker instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Long, TrackedTask> trackedTasks = new ConcurrentHashMap<Long, TrackedTask>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong statusPollCount = new AtomicLong();
+    private final AtomicLong outputPollCount = new AtomicLong();
+    //조회 중인 설치 관리자(같은 설치 관리자는 동시에 한 스레드에서만 조회)
+    private final Set<String> pollingDirectors = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService poller;
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 조회 시간이 된 Task를 설치 관리자 별 조회 스레드에 나누어 주는 스케줄러 시작
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public synchronized void initialize() {
+        if( scheduler != null ){
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "director-task-tracker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final AtomicInteger pollerNumber = new AtomicInteger();
+        poller = Executors.newFixedThreadPool(POLL_THREAD_COUNT, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "director-task-poller-" + pollerNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
+        instance = this;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스케줄러 종료 및 추적 중인 Task 대기 해제
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public synchronized void shutdown() {
+        if( scheduler != null ){
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if( poller != null ){
+            poller.shutdownNow();
+            poller = null;
+        }
+        for( TrackedTask task : trackedTasks.values() ){
+            complete(task, DirectorTaskState.ERROR);
+        }
+        trackedTasks.clear();
+        if( instance == this ){
+            instance = null;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 추적기를 응답(스프링 컨텍스트 밖에서 호출될 경우 자체 생성)
+     * @title : getInstance
+     * @return : DirectorTaskTracker
+    ***************************************************/
+    public static DirectorTaskTracker getInstance() {
+        DirectorTaskTracker tracker = instance;
+        if( tracker == null ){
+            synchronized (DirectorTaskTracker.class) {
+                tracker = instance;
+                if( tracker == null ){
+                    tracker = new DirectorTaskTracker();
+                    tracker.initialize();
+                }
+            }
+        }
+        return tracker;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 추적 등록(logType이 null 일 경우 로그 없이 상태만 추적), 종료 상태를 Future로 응답
+     * @title : track
+     * @return : Future<String>
+    ***************************************************/
+    public Future<String> track(String directorUrl, int port, String userId, String password,
+            String taskId, String logType, DirectorTaskListener listener) {
+        return track(directorUrl, port, userId, password, taskId, logType, listener, Long.MAX_VALUE, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 추적 등록 후 바로 응답(대기하는 스레드 없이 종료 시 callback 호출)
+     *                deadline 이 지나면 timeout 상태로 종료
+     * @title : track
+     * @return : Future<String>
+    ***************************************************/
+    public Future<String> track(String directorUrl, int port, String userId, String password,
+            String taskId, String logType, DirectorTaskListener listener, long deadline, DirectorTaskCallback callback) {
+        TrackedTask task = new TrackedTask(sequence.incrementAndGet(), directorUrl, port, userId, password, taskId, logType, listener);
+        task.deadline = deadline;
+        task.callback = callback;
+        trackedTasks.put(task.id, task);
+        return task.future;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 종료 상태만 짧은 주기로 추적하여 종료 즉시 응답(deadline 초과 시 timeout 응답 후 추적 해제)
+     * @title : awaitTask
+     * @return : String
+    ***************************************************/
+    public String awaitTask(String directorUrl, int port, String userId, String password, String taskId, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if( remaining <= 0 ){
+            return DirectorTaskState.TIMEOUT;
+        }
+        TrackedTask task = new TrackedTask(sequence.incrementAndGet(), directorUrl, port, userId, password, taskId, null, STATUS_ONLY_LISTENER);
+        task.minInterval = AWAIT_POLL_INTERVAL;
+        task.interval = AWAIT_POLL_INTERVAL;
+        //VM 목록/로그 조회, 스냅샷 삭제 등 설치 관리자 목록이 바뀌지 않는 Task
+        task.invalidateInventory = false;
+        trackedTasks.put(task.id, task);
+        String state = DirectorTaskState.ERROR;
+        try {
+            return task.future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + taskId + " await error : " + e.getMessage()); }
+        } catch (TimeoutException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("director task " + taskId + " await timeout"); }
+            state = DirectorTaskState.TIMEOUT;
+        }
+        trackedTasks.remove(task.id);
+        return state;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 추적 해제(대기 중인 요청 스레드가 중단된 경우 등)
+     * @title : untrack
+     * @return : void
+    ***************************************************/
+    public void untrack(Future<String> future) {
+        for( TrackedTask task : trackedTasks.values() ){
+            if( task.future == future ){
+                trackedTasks.remove(task.id);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 조회 시간이 된 Task를 설치 관리자 별로 묶어 조회 스레드에서 조회
+     *                (이전 조회가 끝나지 않은 설치 관리자는 건너뜀)
+     * @title : poll
+     * @return : void
+    ***************************************************/
+    public void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, List<TrackedTask>> dueTasks = new LinkedHashMap<String, List<TrackedTask>>();
+            for( TrackedTask task : trackedTasks.values() ){
+                if( task.nextPollTime > now || pollingDirectors.contains(task.getDirectorKey()) ){
+                    continue;
+                }
+                List<TrackedTask> group = dueTasks.get(task.getDirectorKey());
+                if( group == null ){
+                    group = new ArrayList<TrackedTask>();
+                    dueTasks.put(task.getDirectorKey(), group);
+                }
+                group.add(task);
+            }
+            for( Map.Entry<String, List<TrackedTask>> entry : dueTasks.entrySet() ){
+                submitPoll(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            //스케줄러 스레드가 종료되지 않도록 예외를 기록만 한다.
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task tracker poll error : " + e.getMessage()); }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 조회를 조회 스레드에 등록(스케줄러가 시작되지 않은 경우 호출 스레드에서 조회)
+     * @title : submitPoll
+     * @return : void
+    ***************************************************/
+    private void submitPoll(final String directorKey, final List<TrackedTask> group) {
+        if( !pollingDirectors.add(directorKey) ){
+            return;
+        }
+        Runnable pollTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    pollDirector(group);
+                } catch (RuntimeException e) {
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error("director " + directorKey + " poll error : " + e.getMessage()); }
+                } finally {
+                    pollingDirectors.remove(directorKey);
+                }
+            }
+        };
+        ExecutorService executor = poller;
+        if( executor == null ){
+            pollTask.run();
+            return;
+        }
+        try {
+            executor.execute(pollTask);
+        } catch (RejectedExecutionException e) {
+            //종료 중
+            pollingDirectors.remove(directorKey);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자의 진행 중 Task 목록을 1회 조회하여 동일 설치 관리자의 Task 상태를 일괄 판단
+     * @title : pollDirector
+     * @return : void
+    ***************************************************/
+    private void pollDirector(List<TrackedTask> group) {
+        //추적 시간이 지난 Task는 설치 관리자 조회 없이 timeout 으로 종료
+        long now = System.currentTimeMillis();
+        List<TrackedTask> liveTasks = new ArrayList<TrackedTask>();
+        for( TrackedTask task : group ){
+            if( now >= task.deadline ){
+                expire(task);
+            } else {
+                liveTasks.add(task);
+            }
+        }
+        if( liveTasks.isEmpty() ){
+            return;
+        }
+        group = liveTasks;
+        Map<String, String> activeStates;
+        try {
+            activeStates = selectActiveTaskStates(group.get(0));
+        } catch (Exception e) {
+            for( TrackedTask task : group ){
+                fail(task, e);
+            }
+            return;
+        }
+        for( TrackedTask task : group ){
+            try {
+                pollTask(task, activeStates);
+            } catch (Exception e) {
+                fail(task, e);
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 로그 delta 전달 및 종료 여부 판단, 로그 증가가 없을 경우 조회 주기를 늘림
+     * @title : pollTask
+     * @return : void
+    ***************************************************/
+    private void pollTask(TrackedTask task, Map<String, String> activeStates) throws IOException {
+        String state = activeStates.get(task.taskId);
+        if( state == null ){
+            //진행 중 목록에 없는 Task는 개별 조회로 종료 여부 확인
+            state = selectTaskState(task);
+        }
+        boolean progressed = false;
+        if( task.logType != null ){
+            progressed = deliverTaskOutput(task);
+            if( task.stopped ){
+                finish(task, state);
+                return;
+            }
+        }
+        task.failures = 0;
+        if( DirectorTaskState.isFinished(state) ){
+            trackedTasks.remove(task.id);
+            //업로드/배포/삭제 Task 종료 시 설치 관리자 목록 캐시 무효화
+            if( task.invalidateInventory ){
+                DirectorInventoryCache.getInstance().invalidate(task.directorUrl, task.port);
+            }
+            try {
+                task.listener.onComplete(task.taskId, state);
+            } finally {
+                complete(task, state);
+            }
+            return;
+        }
+        task.interval = progressed ? task.minInterval : Math.min(task.interval * 3 / 2, MAX_POLL_INTERVAL);
+        task.nextPollTime = System.currentTimeMillis() + task.interval;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 조회 실패 횟수 누적 후 한도 초과 시 추적 종료
+     * @title : fail
+     * @return : void
+    ***************************************************/
+    private void fail(TrackedTask task, Exception e) {
+        if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + task.taskId + " poll error : " + e.getMessage()); }
+        task.failures++;
+        if( task.failures >= MAX_POLL_FAILURES ){
+            trackedTasks.remove(task.id);
+            try {
+                task.listener.onError(task.taskId, e.getMessage());
+            } finally {
+                complete(task, DirectorTaskState.ERROR);
+            }
+            return;
+        }
+        task.interval = Math.min(task.interval * 2, MAX_POLL_INTERVAL);
+        task.nextPollTime = System.currentTimeMillis() + task.interval;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 추적 목록에서 제거 후 대기 중인 Future에 종료 상태 전달
+     * @title : finish
+     * @return : void
+    ***************************************************/
+    private void finish(TrackedTask task, String state) {
+        trackedTasks.remove(task.id);
+        complete(task, state);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 추적 시간이 지난 Task 추적 해제 후 구독자와 종료 callback 에 timeout 전달
+     * @title : expire
+     * @return : void
+    ***************************************************/
+    private void expire(TrackedTask task) {
+        trackedTasks.remove(task.id);
+        if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + task.taskId + " tracking timeout"); }
+        try {
+            task.listener.onComplete(task.taskId, DirectorTaskState.TIMEOUT);
+        } catch (RuntimeException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + task.taskId + " listener error : " + e.getMessage()); }
+        } finally {
+            complete(task, DirectorTaskState.TIMEOUT);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 대기 중인 Future에 종료 상태를 전달하고 종료 callback 호출
+     *                (callback 오류가 조회 실패로 처리되어 종료가 반복 전달되지 않도록 기록만 한다)
+     * @title : complete
+     * @return : void
+    ***************************************************/
+    private void complete(TrackedTask task, String state) {
+        if( !task.future.complete(state) || task.callback == null ){
+            return;
+        }
+        try {
+            task.callback.onFinish(task.taskId, state);
+        } catch (RuntimeException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + task.taskId + " callback error : " + e.getMessage()); }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 진행 중(queued/processing/cancelling) Task 목록 조회
+     * @title : selectActiveTaskStates
+     * @return : Map<String, String>
+    ***************************************************/
+    private Map<String, String> selectActiveTaskStates(TrackedTask task) throws IOException {
+        statusPollCount.incrementAndGet();
+        GetMethod get = createMethod(task, DirectorRestHelper.getActiveTaskListURI(task.directorUrl, task.port));
+        try {
+            int statusCode = execute(task, get);
+            if( statusCode != HttpStatus.OK.value() ){
+                throw new IOException("active task list status code " + statusCode);
+            }
+            TaskListDTO[] taskList = mapper.readValue(get.getResponseBodyAsString(), TaskListDTO[].class);
+            Map<String, String> activeStates = new HashMap<String, String>();
+            for( TaskListDTO activeTask : taskList ){
+                activeStates.put(activeTask.getId(), activeTask.getState());
+            }
+            return activeStates;
+        } finally {
+            get.releaseConnection();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉터의 진행 중(queued/processing/cancelling) Task 목록 조회(배포 이름 포함)
+     * @title : selectActiveTasks
+     * @return : List<TaskListDTO>
+    ***************************************************/
+    public List<TaskListDTO> selectActiveTasks(String directorUrl, int port, String userId, String password) throws IOException {
+        statusPollCount.incrementAndGet();
+        GetMethod get = new GetMethod(DirectorRestHelper.getActiveTaskListURI(directorUrl, port));
+        get = (GetMethod) DirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase) get);
+        get.getParams().setSoTimeout(SO_TIMEOUT);
+        try {
+            int statusCode = DirectorRestHelper.getHttpClient(directorUrl, port).executeMethod(get);
+            if( statusCode != HttpStatus.OK.value() ){
+                throw new IOException("active task list status code " + statusCode);
+            }
+            return Arrays.asList(mapper.readValue(get.getResponseBodyAsString(), TaskListDTO[].class));
+        } finally {
+            get.releaseConnection();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 개별 상태 조회
+     * @title : selectTaskState
+     * @return : String
+    ***************************************************/
+    private String selectTaskState(TrackedTask task) throws IOException {
+        statusPollCount.incrementAndGet();
+        GetMethod get = createMethod(task, DirectorRestHelper.getTaskStatusURI(task.directorUrl, task.port, task.taskId));
+        try {
+            int statusCode = execute(task, get);
+            if( statusCode != HttpStatus.OK.value() ){
+                throw new IOException("task " + task.taskId + " status code " + statusCode);
+            }
+            return mapper.readValue(get.getResponseBodyAsString(), TaskInfoDTO.class).getState();
+        } finally {
+            get.releaseConnection();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 마지막 offset 이후의 Task 로그를 Range 요청으로 조회하여 응답 스트림 그대로 구독자에 전달(추가 로그가 없을 경우 false)
+     * @title : deliverTaskOutput
+     * @return : boolean
+    ***************************************************/
+    private boolean deliverTaskOutput(TrackedTask task) throws IOException {
+        outputPollCount.incrementAndGet();
+        GetMethod get = createMethod(task, DirectorRestHelper.getTaskOutputURI(task.directorUrl, task.port, task.taskId, task.logType));
+        get.setRequestHeader("Range", "bytes=" + task.offset + "-");
+        try {
+            int statusCode = execute(task, get);
+            if( statusCode != HttpStatus.OK.value() && statusCode != HttpStatus.PARTIAL_CONTENT.value() ){
+                //204(로그 없음), 416(추가 로그 없음)
+                return false;
+            }
+            Header contentRange = get.getResponseHeader("Content-Range");
+            boolean countBody = false;
+            if( contentRange != null ){
+                task.offset = Long.parseLong(contentRange.getValue().split("/")[1].trim());
+            } else if( statusCode == HttpStatus.OK.value() && task.offset == 0 ){
+                countBody = true;
+            } else {
+                return false;
+            }
+            InputStream body = get.getResponseBodyAsStream();
+            if( body == null ){
+                return false;
+            }
+            CountingInputStream output = new CountingInputStream(body);
+            task.stopped = !task.listener.onOutput(task.taskId, output);
+            if( countBody ){
+                task.offset = output.getCount();
+            }
+            return true;
+        } finally {
+            get.releaseConnection();
+        }
+    }
+
+    private GetMethod createMethod(TrackedTask task, String uri) {
+        GetMethod get = new GetMethod(uri);
+        get = (GetMethod) DirectorRestHelper.setAuthorization(task.userId, task.password, (HttpMethodBase) get);
+        get.getParams().setSoTimeout(SO_TIMEOUT);
+        return get;
+    }
+
+    private int execute(TrackedTask task, GetMethod get) throws IOException {
+        HttpClient client = DirectorRestHelper.getHttpClient(task.directorUrl, task.port);
+        return client.executeMethod(get);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 추적 중인 Task 수 조회
+     * @title : getTrackedTaskCount
+     * @return : int
+    ***************************************************/
+    public int getTrackedTaskCount() {
+        return trackedTasks.size();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : actuator /metrics 에 Task 추적 현황 노출
+     * @title : metrics
+     * @return : Collection<Metric<?>>
+    ***************************************************/
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        metrics.add(new Metric<Integer>("director.task.tracker.tasks", getTrackedTaskCount()));
+        metrics.add(new Metric<Long>("director.task.tracker.status.polls", statusPollCount.get()));
+        metrics.add(new Metric<Long>("director.task.tracker.output.polls", outputPollCount.get()));
+        return metrics;
+    }
+
+    //로그 없이 종료 상태만 대기하는 Task의 구독자
+    final private static DirectorTaskListener STATUS_ONLY_LISTENER = new DirectorTaskListener() {
+        @Override
+        public boolean onOutput(String taskId, InputStream output) {
+            return true;
+        }
+        @Override
+        public void onComplete(String taskId, String state) {
+        }
+        @Override
+        public void onError(String taskId, String errorMessage) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director task " + taskId + " : " + errorMessage); }
+        }
+    };
+
+    private static class TrackedTask {
+        private final long id;
+        private final String directorUrl;
+        private final int port;
+        private final String userId;
+        private final String password;
+        private final String taskId;
+        private final String logType;
+        private final DirectorTaskListener listener;
+        private final CompletableFuture<String> future = new CompletableFuture<String>();
+        private volatile long deadline = Long.MAX_VALUE;
+        private volatile DirectorTaskCallback callback;
+        private volatile boolean invalidateInventory = true;
+        //아래 값은 설치 관리자 조회 스레드에서만 변경(같은 설치 관리자는 한 번에 한 스레드만 조회)
+        private long offset = 0;
+        private long minInterval = MIN_POLL_INTERVAL;
+        private long interval = MIN_POLL_INTERVAL;
+        private volatile long nextPollTime = 0;
+        private int failures = 0;
+        private boolean stopped = false;
+
+        TrackedTask(long id, String directorUrl, int port, String userId, String password,
+                String taskId, String logType, DirectorTaskListener listener) {
+            this.id = id;
+            this.directorUrl = directorUrl;
+            this.port = port;
+            this.userId = userId;
+            this.password = password;
+            this.taskId = taskId;
+            this.logType = logType;
+            this.listener = listener;
+        }
+
+        String getDirectorKey() {
+            return directorUrl + ":" + port + ":" + userId;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.openpaas.ieda.deploy.api.task.TaskOutputDTO;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+public class TaskEventOutputReader {
+
+    final private static int INITIAL_BUFFER_SIZE = 8 * 1024;
+    final private static ObjectReader TASK_OUTPUT_READER = new ObjectMapper().readerFor(TaskOutputDTO.class);
+
+    //이전 Range 응답 끝에서 잘린(줄바꿈 전) event 로그
+    private byte[] pending = new byte[0];
+
+    public interface TaskOutputHandler {
+        void handle(TaskOutputDTO output);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : event 로그(NDJSON) 응답 스트림을 줄 단위로 읽어 TaskOutputDTO를 하나씩 전달, 잘린 마지막 줄은 다음 응답과 이어서 처리
+     * @title : read
+     * @return : int
+    ***************************************************/
+    public int read(InputStream in, TaskOutputHandler handler) throws IOException {
+        CompleteLineInputStream lines = new CompleteLineInputStream(pending, in);
+        int count = 0;
+        MappingIterator<TaskOutputDTO> iterator = TASK_OUTPUT_READER.readValues(lines);
+        try {
+            while( iterator.hasNextValue() ){
+                handler.handle(iterator.nextValue());
+                count++;
+            }
+        } finally {
+            pending = lines.getRemainder();
+            iterator.close();
+        }
+        return count;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다음 응답으로 이어질 미완성 줄의 크기
+     * @title : getPendingSize
+     * @return : int
+    ***************************************************/
+    public int getPendingSize() {
+        return pending.length;
+    }
+
+    //원본 스트림에서 줄바꿈으로 끝난 부분까지만 내보내고 마지막 미완성 줄은 보관(버퍼는 한 줄 크기까지만 증가)
+    private static class CompleteLineInputStream extends InputStream {
+        private final InputStream source;
+        private byte[] buffer;
+        private int position = 0; //다음에 내보낼 위치
+        private int lineEnd = 0; //마지막 줄바꿈 다음 위치
+        private int limit = 0; //버퍼에 채워진 크기
+        private boolean eof = false;
+
+        CompleteLineInputStream(byte[] pending, InputStream source) {
+            this.source = source;
+            this.buffer = new byte[Math.max(INITIAL_BUFFER_SIZE, pending.length * 2)];
+            System.arraycopy(pending, 0, buffer, 0, pending.length);
+            this.limit = pending.length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if( len == 0 ){
+                return 0;
+            }
+            if( position == lineEnd && !fill() ){
+                return -1;
+            }
+            int n = Math.min(len, lineEnd - position);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        //내보낸 부분을 비우고 다음 줄바꿈이 나올 때까지 원본을 읽는다.
+        private boolean fill() throws IOException {
+            if( eof ){
+                return false;
+            }
+            int remain = limit - lineEnd;
+            System.arraycopy(buffer, lineEnd, buffer, 0, remain);
+            position = 0;
+            lineEnd = 0;
+            limit = remain;
+            while( true ){
+                if( limit == buffer.length ){
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int n = source.read(buffer, limit, buffer.length - limit);
+                if( n == -1 ){
+                    eof = true;
+                    return false;
+                }
+                for( int i = limit + n - 1; i >= limit; i-- ){
+                    if( buffer[i] == '\n' ){
+                        lineEnd = i + 1;
+                        break;
+                    }
+                }
+                limit += n;
+                if( lineEnd > 0 ){
+                    return true;
+                }
+            }
+        }
+
+        //원본을 끝까지 읽은 경우 남은 미완성 줄을 응답(중간에 중단된 경우 빈 값)
+        byte[] getRemainder() {
+            if( !eof ){
+                return new byte[0];
+            }
+            return Arrays.copyOfRange(buffer, lineEnd, limit);
+        }
+    }
+}
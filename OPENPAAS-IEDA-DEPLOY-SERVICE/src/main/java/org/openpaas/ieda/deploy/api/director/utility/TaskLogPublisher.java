@@ -0,0 +1,192 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openpaas.ieda.common.socket.WebSocketOutboundMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+public class TaskLogPublisher {
+
+    final private static String STARTED = "started";
+    //한 번에 전송할 최대 로그 크기(문자 수) 및 최대 지연 시간
+    final private static int MAX_BATCH_SIZE = 64 * 1024;
+    final private static long MAX_BATCH_DELAY = 100L;
+    //클라이언트 전송이 밀린 경우 로그 전송을 다시 시도하는 간격
+    //(추적/전송 스레드를 공유하므로 대기하지 않고 로그를 모아 두었다가 전송)
+    final private static long BACKLOG_RETRY_DELAY = 500L;
+    //전송이 밀린 동안 모아 두는 최대 로그 크기(문자 수), 넘으면 오래된 로그부터 버림
+    final private static int MAX_BACKLOG_SIZE = 1024 * 1024;
+    private final static Logger LOGGER = LoggerFactory.getLogger(TaskLogPublisher.class);
+
+    //지연 시간이 지난 로그를 전송하는 공용 스레드
+    private final static ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "task-log-publisher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final String userId;
+    private final SimpMessagingTemplate messageTemplate;
+    private final String messageEndpoint;
+    private final String tag;
+    private List<String> buffer = new ArrayList<String>();
+    private int bufferSize = 0;
+    private boolean flushScheduled = false;
+    private int droppedLines = 0;
+
+    public TaskLogPublisher(String userId, SimpMessagingTemplate messageTemplate, String messageEndpoint) {
+        this(userId, messageTemplate, messageEndpoint, null);
+    }
+
+    public TaskLogPublisher(String userId, SimpMessagingTemplate messageTemplate, String messageEndpoint, String tag) {
+        this.userId = userId;
+        this.messageTemplate = messageTemplate;
+        this.messageEndpoint = messageEndpoint;
+        this.tag = tag;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 로그 한 줄을 버퍼에 추가(최대 크기 도달 시 즉시, 아니면 최대 지연 시간 후 일괄 전송)
+     * @title : append
+     * @return : void
+    ***************************************************/
+    public synchronized void append(String line) {
+        buffer.add(line);
+        bufferSize += line.length();
+        if( bufferSize >= MAX_BATCH_SIZE ){
+            flush();
+        } else {
+            scheduleFlush(MAX_BATCH_DELAY);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 여러 줄의 로그를 버퍼에 추가
+     * @title : appendAll
+     * @return : void
+    ***************************************************/
+    public synchronized void appendAll(List<String> lines) {
+        for( String line : lines ){
+            append(line);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 버퍼에 쌓인 로그를 하나의 메시지로 전송
+     *                (클라이언트 전송이 밀린 경우 로그를 모아 두고 나중에 다시 전송)
+     * @title : flush
+     * @return : void
+    ***************************************************/
+    public synchronized void flush() {
+        flushScheduled = false;
+        if( buffer.isEmpty() ){
+            return;
+        }
+        WebSocketOutboundMonitor monitor = WebSocketOutboundMonitor.getInstance();
+        if( monitor != null && monitor.isBackedUp() ){
+            trimBacklog();
+            scheduleFlush(BACKLOG_RETRY_DELAY);
+            return;
+        }
+        publish(STARTED, drain());
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 쌓인 로그를 먼저 전송한 뒤 상태 메시지(done/error 등)를 즉시 전송
+     *                (종료 상태는 클라이언트 전송이 밀려도 전송)
+     * @title : send
+     * @return : void
+    ***************************************************/
+    public synchronized void send(String status, List<String> messages) {
+        flushScheduled = false;
+        if( !buffer.isEmpty() ){
+            publish(STARTED, drain());
+        }
+        publish(status, messages);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 지연 시간 후 flush 예약(이미 예약된 경우 무시)
+     * @title : scheduleFlush
+     * @return : void
+    ***************************************************/
+    private void scheduleFlush(long delay) {
+        if( flushScheduled ){
+            return;
+        }
+        flushScheduled = true;
+        FLUSHER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 모아 둔 로그가 최대 크기를 넘으면 오래된 로그부터 버림(마지막 한 줄은 유지)
+     * @title : trimBacklog
+     * @return : void
+    ***************************************************/
+    private void trimBacklog() {
+        int count = 0;
+        while( bufferSize > MAX_BACKLOG_SIZE && count < buffer.size() - 1 ){
+            bufferSize -= buffer.get(count).length();
+            count++;
+        }
+        if( count > 0 ){
+            buffer.subList(0, count).clear();
+            if( droppedLines == 0 && LOGGER.isWarnEnabled() ){
+                LOGGER.warn("websocket outbound channel is backed up, dropping task logs (" + messageEndpoint + ")");
+            }
+            droppedLines += count;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 버퍼의 로그를 꺼냄(버린 로그가 있으면 버린 줄 수를 첫 줄에 표시)
+     * @title : drain
+     * @return : List<String>
+    ***************************************************/
+    private List<String> drain() {
+        List<String> messages = buffer;
+        buffer = new ArrayList<String>();
+        bufferSize = 0;
+        if( droppedLines > 0 ){
+            messages.add(0, "... " + droppedLines + " log lines dropped");
+            droppedLines = 0;
+        }
+        return messages;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 웹소켓 메시지 전송
+     * @title : publish
+     * @return : void
+    ***************************************************/
+    private void publish(String status, List<String> messages) {
+        if( tag == null ){
+            DirectorRestHelper.sendTaskOutput(userId, messageTemplate, messageEndpoint, status, messages);
+        } else {
+            DirectorRestHelper.sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, status, tag, messages);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.openpaas.ieda.deploy.api.task.TaskOutputDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+public class TaskOutputMessageListener implements DirectorTaskListener {
+
+    final private static String STARTED = "started";
+    final private static Charset UTF_8 = Charset.forName("UTF-8");
+    private final static Logger LOGGER = LoggerFactory.getLogger(TaskOutputMessageListener.class);
+
+    private final TaskEventOutputReader eventReader = new TaskEventOutputReader();
+    private final TaskLogPublisher publisher;
+    private final String logType;
+    private boolean snapshot = false;
+    private String lastStage = null;
+
+    public TaskOutputMessageListener(String userId, SimpMessagingTemplate messageTemplate, String messageEndpoint, String tag, String logType) {
+        this.publisher = new TaskLogPublisher(userId, messageTemplate, messageEndpoint, tag);
+        this.logType = logType;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 로그를 1회만 조회하고 추적을 종료하도록 설정(Task 이력 화면의 이벤트 로그 조회)
+     * @title : setSnapshot
+     * @return : TaskOutputMessageListener
+    ***************************************************/
+    public TaskOutputMessageListener setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 추가된 Task 로그를 화면 출력 형식으로 변환하여 웹소켓으로 전송
+     * @title : onOutput
+     * @return : boolean
+    ***************************************************/
+    @Override
+    public boolean onOutput(String taskId, InputStream output) throws IOException {
+        if( "debug".equalsIgnoreCase(logType) ){
+            BufferedReader reader = new BufferedReader(new InputStreamReader(output, UTF_8));
+            String line;
+            while( (line = reader.readLine()) != null ){
+                publisher.append(line);
+            }
+        } else {
+            try {
+                eventReader.read(output, new TaskEventOutputReader.TaskOutputHandler() {
+                    @Override
+                    public void handle(TaskOutputDTO taskOutput) {
+                        appendEventMessage(taskOutput);
+                    }
+                });
+            } catch (JsonProcessingException e) {
+                if( LOGGER.isErrorEnabled() ){ LOGGER.error("task " + taskId + " event output parse error : " + e.getMessage()); }
+            }
+        }
+        if( snapshot ){
+            send(DirectorTaskState.DONE, Arrays.asList("", "Task " + taskId));
+            return false;
+        }
+        return true;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 종료 상태 메시지 전송
+     * @title : onComplete
+     * @return : void
+    ***************************************************/
+    @Override
+    public void onComplete(String taskId, String state) {
+        if( DirectorTaskState.DONE.equalsIgnoreCase(state) ){
+            send(DirectorTaskState.DONE, Arrays.asList("", "Task " + taskId + " done"));
+        } else if( DirectorTaskState.CANCELLED.equalsIgnoreCase(state) ){
+            send(DirectorTaskState.CANCELLED, Arrays.asList("", "Canceled Task " + taskId));
+        } else if( DirectorTaskState.TIMEOUT.equalsIgnoreCase(state) ){
+            send(DirectorTaskState.ERROR, Arrays.asList("", "Timed out waiting for the task " + taskId));
+        } else {
+            send(DirectorTaskState.ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Task 상태 조회 오류 메시지 전송
+     * @title : onError
+     * @return : void
+    ***************************************************/
+    @Override
+    public void onError(String taskId, String message) {
+        send(DirectorTaskState.ERROR, Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 쌓인 로그 전송 후 설치/업로드 상태 메시지 전송
+     * @title : send
+     * @return : void
+    ***************************************************/
+    public void send(String status, List<String> messages) {
+        publisher.send(status, messages);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 버퍼에 쌓인 로그 즉시 전송
+     * @title : flush
+     * @return : void
+    ***************************************************/
+    public void flush() {
+        publisher.flush();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : event 로그 한 건을 화면 출력 메시지로 변환하여 발행
+     * @title : appendEventMessage
+     * @return : void
+    ***************************************************/
+    private void appendEventMessage(TaskOutputDTO taskOutput) {
+        if( taskOutput.getStage() != null && (lastStage == null || !lastStage.equalsIgnoreCase(taskOutput.getStage())) ){
+            publisher.append("");
+            publisher.append("  Started    " + taskOutput.getStage());
+        }
+        if( taskOutput.getStage() != null ){
+            if( "started".equalsIgnoreCase(taskOutput.getState()) ){
+                publisher.append("  Started    " + taskOutput.getStage() + " > " + taskOutput.getTask());
+            } else if( "finished".equalsIgnoreCase(taskOutput.getState()) || "done".equalsIgnoreCase(taskOutput.getState()) ){
+                publisher.append("  Done       " + taskOutput.getStage() + " > " + taskOutput.getTask());
+            } else if( "failed".equalsIgnoreCase(taskOutput.getState()) ){
+                publisher.append("  Failed      " + taskOutput.getStage() + " > " + taskOutput.getTask());
+            } else {
+                publisher.append("  Processing " + taskOutput.getStage() + " > " + taskOutput.getTask() + " " + taskOutput.getProgress() + "%");
+            }
+        } else {
+            HashMap<String, String> error = taskOutput.getError();
+            if( error != null ){
+                publisher.append("  Error Code : " + error.get("code") + ", Message :" + error.get("message"));
+            }
+        }
+        lastStage = taskOutput.getStage();
+    }
+}
@@ -0,0 +1,57 @@
+package org.openpaas.ieda.deploy.web.common.dao;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
+public interface DeploymentLockDAO {
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리스가 만료된 lock 삭제
+     * @title : deleteExpiredLock
+     * @return : int
+    *****************************************************************/
+    int deleteExpiredLock(@Param("lockKey") String lockKey, @Param("now") long now);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 등록(이미 있으면 등록하지 않고 0 응답)
+     * @title : insertLock
+     * @return : int
+    *****************************************************************/
+    int insertLock(@Param("vo") DeploymentLockVO vo);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 인스턴스가 점유 중인 lock 의 리스 연장
+     * @title : updateLockExpireTime
+     * @return : int
+    *****************************************************************/
+    int updateLockExpireTime(@Param("lockKey") String lockKey, @Param("ownerId") String ownerId,
+            @Param("expireTime") long expireTime, @Param("now") long now);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 인스턴스가 같은 시각에 획득한 lock 삭제
+     * @title : deleteLock
+     * @return : int
+    *****************************************************************/
+    int deleteLock(@Param("lockKey") String lockKey, @Param("ownerId") String ownerId, @Param("acquireTime") long acquireTime);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유자와 관계없이 lock 삭제
+     * @title : forceDeleteLock
+     * @return : int
+    *****************************************************************/
+    int forceDeleteLock(@Param("lockKey") String lockKey);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리스가 만료되지 않은 lock 목록 조회
+     * @title : selectLockList
+     * @return : List<DeploymentLockVO>
+    *****************************************************************/
+    List<DeploymentLockVO> selectLockList(@Param("now") long now);
+}
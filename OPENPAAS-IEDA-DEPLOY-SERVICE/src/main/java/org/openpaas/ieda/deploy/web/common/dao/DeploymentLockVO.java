@@ -0,0 +1,51 @@
+package org.openpaas.ieda.deploy.web.common.dao;
+
+public class DeploymentLockVO {
+    private String lockKey; //lock 키(디렉터/배포명, 릴리즈/스템셀 파일명 등)
+    private String ownerId; //lock 을 획득한 설치 관리자 인스턴스
+    private String holder; //lock 을 요청한 사용자
+    private Long acquireTime; //획득 시각(ms)
+    private Long expireTime; //리스 만료 시각(ms)
+    
+    public DeploymentLockVO() {
+    }
+    
+    public DeploymentLockVO(String lockKey, String ownerId, String holder, Long acquireTime, Long expireTime) {
+        this.lockKey = lockKey;
+        this.ownerId = ownerId;
+        this.holder = holder;
+        this.acquireTime = acquireTime;
+        this.expireTime = expireTime;
+    }
+    
+    public String getLockKey() {
+        return lockKey;
+    }
+    public void setLockKey(String lockKey) {
+        this.lockKey = lockKey;
+    }
+    public String getOwnerId() {
+        return ownerId;
+    }
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    public String getHolder() {
+        return holder;
+    }
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+    public Long getAcquireTime() {
+        return acquireTime;
+    }
+    public void setAcquireTime(Long acquireTime) {
+        this.acquireTime = acquireTime;
+    }
+    public Long getExpireTime() {
+        return expireTime;
+    }
+    public void setExpireTime(Long expireTime) {
+        this.expireTime = expireTime;
+    }
+}
@@ -0,0 +1,626 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.Hashing;
+
+@Component
+public class ArtifactStore {
+
+    final private static String SEPARATOR = System.getProperty("file.separator");
+    final private static String STORE_DIR = System.getProperty("user.home") + SEPARATOR + ".bosh_plugin" + SEPARATOR + "artifacts";
+    final private static String INDEX_FILE = "index";
+    final private static String OBJECT_DIR = "objects";
+    final private static String UNKNOWN_SHA1 = "-";
+    //스템셀/릴리즈 파일 전체 크기 제한(byte, 0 이하이면 제한 없음)
+    final private static long DISK_QUOTA = Long.getLong("ieda.artifact.quota", 0L);
+    final private static long RECONCILE_INTERVAL = 10 * 60 * 1000L;
+    //사용 시각만 바뀐 색인은 이 주기로 모아서 저장
+    final private static long INDEX_FLUSH_INTERVAL = 30 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(ArtifactStore.class);
+
+    private static volatile ArtifactStore instance;
+
+    private final File storeDir;
+    private final List<File> artifactDirs;
+    private final long quota;
+    //파일 경로 별 색인 정보
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private ExecutorService hasher;
+    //동기화 실행 중 여부(시작 시 동기화와 주기 동기화가 겹치지 않도록)
+    private final AtomicBoolean reconciling = new AtomicBoolean(false);
+    //저장되지 않은 사용 시각 변경 여부
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    public ArtifactStore() {
+        this(new File(STORE_DIR), new ArrayList<File>(), DISK_QUOTA);
+    }
+
+    public ArtifactStore(File storeDir, List<File> artifactDirs, long quota) {
+        this.storeDir = storeDir;
+        this.artifactDirs = artifactDirs;
+        this.quota = quota;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 색인 파일 로드 후 스템셀/릴리즈 디렉토리와 동기화
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public void initialize() {
+        if( artifactDirs.isEmpty() ){
+            artifactDirs.add(new File(LocalDirectoryConfiguration.getStemcellDir()));
+            artifactDirs.add(new File(LocalDirectoryConfiguration.getReleaseDir()));
+        }
+        hasher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "artifact-store");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        loadIndex();
+        instance = this;
+        scheduleReconcile();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if( instance == this ){
+            instance = null;
+        }
+        flushIndex();
+        if( hasher != null ){
+            hasher.shutdownNow();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Spring 빈으로 등록된 저장소 응답(스프링 컨텍스트 밖에서는 null)
+     * @title : getInstance
+     * @return : ArtifactStore
+    ***************************************************/
+    public static ArtifactStore getInstance() {
+        return instance;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 파일 존재 여부(색인된 파일은 파일 시스템을 조회하지 않음)
+     * @title : isStored
+     * @return : boolean
+    ***************************************************/
+    public static boolean isStored(File file) {
+        ArtifactStore store = instance;
+        if( store == null ){
+            return file.exists() && file.length() > 0;
+        }
+        return store.contains(file);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다운로드/업로드가 완료된 파일 등록(SHA1을 모르면 백그라운드에서 계산)
+     * @title : store
+     * @return : void
+    ***************************************************/
+    public static void store(File file, String sha1) {
+        ArtifactStore store = instance;
+        if( store != null ){
+            store.register(file, sha1);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 삭제된 파일을 색인에서 제거
+     * @title : removed
+     * @return : void
+    ***************************************************/
+    public static void removed(File file) {
+        ArtifactStore store = instance;
+        if( store != null ){
+            store.remove(file);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 사용 시각 갱신(LRU 정리 기준)
+     * @title : accessed
+     * @return : void
+    ***************************************************/
+    public static void accessed(File file) {
+        ArtifactStore store = instance;
+        if( store != null ){
+            store.touch(file);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 색인에서 파일 존재 여부 확인(색인되지 않은 경우 파일 확인 후 등록)
+     * @title : contains
+     * @return : boolean
+    ***************************************************/
+    public boolean contains(File file) {
+        String path = file.getAbsolutePath();
+        synchronized (this) {
+            Entry entry = entries.get(path);
+            if( entry != null ){
+                return entry.size > 0;
+            }
+        }
+        if( !isManaged(file) || !file.exists() || file.length() == 0 ){
+            return false;
+        }
+        register(file, null);
+        return true;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 색인 등록 후 SHA1 기준으로 동일한 파일을 하드 링크로 중복 제거
+     * @title : register
+     * @return : void
+    ***************************************************/
+    public void register(final File file, String sha1) {
+        if( !file.exists() ){
+            return;
+        }
+        final Entry entry = new Entry(file.getAbsolutePath(), file.length(), file.lastModified(), System.currentTimeMillis(), UNKNOWN_SHA1);
+        synchronized (this) {
+            entries.put(entry.path, entry);
+        }
+        if( sha1 != null ){
+            link(entry, sha1.toLowerCase());
+            evict();
+            saveIndex();
+            return;
+        }
+        saveIndex();
+        if( hasher != null ){
+            hasher.submit(new Runnable() {
+                @Override
+                public void run() {
+                    hash(entry);
+                    evict();
+                    saveIndex();
+                }
+            });
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 색인 제거(같은 내용의 다른 파일이 없으면 저장 객체도 삭제)
+     * @title : remove
+     * @return : void
+    ***************************************************/
+    public void remove(File file) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(file.getAbsolutePath());
+        }
+        if( entry == null ){
+            return;
+        }
+        deleteObjectIfUnused(entry.sha1);
+        saveIndex();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 사용 시각 갱신(색인 파일은 flushIndex 주기에 저장)
+     * @title : touch
+     * @return : void
+    ***************************************************/
+    public void touch(File file) {
+        synchronized (this) {
+            Entry entry = entries.get(file.getAbsolutePath());
+            if( entry == null ){
+                return;
+            }
+            entry.lastAccess = System.currentTimeMillis();
+        }
+        dirty.set(true);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 사용 시각이 바뀐 색인을 디스크에 저장(변경이 없으면 생략)
+     * @title : flushIndex
+     * @return : void
+    ***************************************************/
+    @Scheduled(fixedDelay = INDEX_FLUSH_INTERVAL, initialDelay = INDEX_FLUSH_INTERVAL)
+    public void flushIndex() {
+        if( dirty.get() ){
+            saveIndex();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 색인된 파일의 SHA1 조회(계산 전이면 null)
+     * @title : getSha1
+     * @return : String
+    ***************************************************/
+    public synchronized String getSha1(File file) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        return entry == null || UNKNOWN_SHA1.equals(entry.sha1) ? null : entry.sha1;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 중복 제거 후 실제 사용 중인 디스크 크기
+     * @title : getUsedSize
+     * @return : long
+    ***************************************************/
+    public synchronized long getUsedSize() {
+        long size = 0L;
+        Set<String> counted = new HashSet<String>();
+        for( Entry entry : entries.values() ){
+            if( UNKNOWN_SHA1.equals(entry.sha1) || counted.add(entry.sha1) ){
+                size += entry.size;
+            }
+        }
+        return size;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 디렉토리 동기화를 주기적으로 요청
+     *                (SHA1 계산은 공용 스케줄러 스레드가 아닌 저장소 스레드에서 실행, 실행 중이면 생략)
+     * @title : scheduleReconcile
+     * @return : void
+    ***************************************************/
+    @Scheduled(fixedDelay = RECONCILE_INTERVAL, initialDelay = RECONCILE_INTERVAL)
+    public void scheduleReconcile() {
+        if( hasher == null || reconciling.get() ){
+            return;
+        }
+        try {
+            hasher.submit(new Runnable() {
+                @Override
+                public void run() {
+                    reconcile();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if( LOGGER.isDebugEnabled() ){ LOGGER.debug("artifact store is shut down : " + e.getMessage()); }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 디렉토리와 색인을 동기화(추가/변경/삭제된 파일 반영, 이미 실행 중이면 생략)
+     * @title : reconcile
+     * @return : void
+    ***************************************************/
+    public void reconcile() {
+        if( !reconciling.compareAndSet(false, true) ){
+            return;
+        }
+        try {
+            reconcileDirectories();
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉토리의 파일 목록과 색인을 비교해 추가/변경된 파일은 SHA1 계산, 삭제된 파일은 색인에서 제거
+     * @title : reconcileDirectories
+     * @return : void
+    ***************************************************/
+    private void reconcileDirectories() {
+        Set<String> found = new HashSet<String>();
+        List<Entry> changed = new ArrayList<Entry>();
+        for( File dir : artifactDirs ){
+            File[] files = dir.listFiles();
+            if( files == null ){
+                continue;
+            }
+            for( File file : files ){
+                //받는 중인 파일(.<파일명>.upload)과 링크 임시 파일은 제외
+                if( !file.isFile() || file.getName().startsWith(".") ){
+                    continue;
+                }
+                String path = file.getAbsolutePath();
+                found.add(path);
+                synchronized (this) {
+                    Entry entry = entries.get(path);
+                    if( entry == null || entry.size != file.length() || entry.lastModified != file.lastModified() ){
+                        long lastAccess = entry == null ? file.lastModified() : entry.lastAccess;
+                        entry = new Entry(path, file.length(), file.lastModified(), lastAccess, UNKNOWN_SHA1);
+                        entries.put(path, entry);
+                        changed.add(entry);
+                    }
+                }
+            }
+        }
+        List<String> removedSha1 = new ArrayList<String>();
+        synchronized (this) {
+            List<String> paths = new ArrayList<String>(entries.keySet());
+            for( String path : paths ){
+                if( !found.contains(path) ){
+                    removedSha1.add(entries.remove(path).sha1);
+                }
+            }
+        }
+        for( String sha1 : removedSha1 ){
+            deleteObjectIfUnused(sha1);
+        }
+        for( Entry entry : changed ){
+            hash(entry);
+        }
+        deleteUnusedObjects();
+        evict();
+        saveIndex();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디스크 제한을 넘으면 가장 오래 사용하지 않은 파일부터 삭제
+     * @title : evict
+     * @return : void
+    ***************************************************/
+    public void evict() {
+        if( quota <= 0 ){
+            return;
+        }
+        List<List<Entry>> groups = new ArrayList<List<Entry>>();
+        synchronized (this) {
+            if( getUsedSize() <= quota ){
+                return;
+            }
+            Map<String, List<Entry>> bySha1 = new HashMap<String, List<Entry>>();
+            for( Entry entry : entries.values() ){
+                String key = UNKNOWN_SHA1.equals(entry.sha1) ? entry.path : entry.sha1;
+                List<Entry> group = bySha1.get(key);
+                if( group == null ){
+                    group = new ArrayList<Entry>();
+                    bySha1.put(key, group);
+                }
+                group.add(entry);
+            }
+            groups.addAll(bySha1.values());
+        }
+        Collections.sort(groups, new Comparator<List<Entry>>() {
+            @Override
+            public int compare(List<Entry> left, List<Entry> right) {
+                return Long.compare(getLastAccess(left), getLastAccess(right));
+            }
+        });
+        for( List<Entry> group : groups ){
+            if( getUsedSize() <= quota ){
+                break;
+            }
+            for( Entry entry : group ){
+                if( LOGGER.isInfoEnabled() ){ LOGGER.info("evict artifact " + entry.path + " (quota : " + quota + ")"); }
+                new File(entry.path).delete();
+                remove(new File(entry.path));
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 SHA1 계산 후 저장 객체와 연결
+     * @title : hash
+     * @return : void
+    ***************************************************/
+    private void hash(Entry entry) {
+        File file = new File(entry.path);
+        try {
+            if( !file.exists() ){
+                return;
+            }
+            link(entry, com.google.common.io.Files.hash(file, Hashing.sha1()).toString());
+        } catch (IOException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't hash artifact " + entry.path + " : " + e.getMessage()); }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 SHA1 객체가 있으면 파일을 객체의 하드 링크로 교체, 없으면 파일을 객체로 등록
+     * @title : link
+     * @return : void
+    ***************************************************/
+    private void link(Entry entry, String sha1) {
+        File file = new File(entry.path);
+        File object = getObjectFile(sha1);
+        try {
+            if( !object.exists() ){
+                object.getParentFile().mkdirs();
+                Files.createLink(object.toPath(), file.toPath());
+            } else if( !Files.isSameFile(object.toPath(), file.toPath()) ){
+                File linkFile = new File(file.getParentFile(), "." + file.getName() + ".link");
+                Files.deleteIfExists(linkFile.toPath());
+                Files.createLink(linkFile.toPath(), object.toPath());
+                Files.move(linkFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if( LOGGER.isInfoEnabled() ){ LOGGER.info("deduplicated artifact " + entry.path + " (sha1 : " + sha1 + ")"); }
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            //하드 링크를 지원하지 않는 파일 시스템은 색인만 유지
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't link artifact " + entry.path + " : " + e.getMessage()); }
+        }
+        synchronized (this) {
+            if( entries.get(entry.path) == entry ){
+                entry.sha1 = sha1;
+                entry.lastModified = file.lastModified();
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 참조하는 파일이 없는 저장 객체 삭제
+     * @title : deleteObjectIfUnused
+     * @return : void
+    ***************************************************/
+    private void deleteObjectIfUnused(String sha1) {
+        if( sha1 == null || UNKNOWN_SHA1.equals(sha1) ){
+            return;
+        }
+        synchronized (this) {
+            for( Entry entry : entries.values() ){
+                if( sha1.equals(entry.sha1) ){
+                    return;
+                }
+            }
+        }
+        getObjectFile(sha1).delete();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 색인에 없는 저장 객체 삭제
+     * @title : deleteUnusedObjects
+     * @return : void
+    ***************************************************/
+    private void deleteUnusedObjects() {
+        File[] prefixDirs = new File(storeDir, OBJECT_DIR).listFiles();
+        if( prefixDirs == null ){
+            return;
+        }
+        for( File prefixDir : prefixDirs ){
+            File[] objects = prefixDir.listFiles();
+            if( objects == null ){
+                continue;
+            }
+            for( File object : objects ){
+                deleteObjectIfUnused(object.getName());
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디스크에 저장된 색인 로드
+     * @title : loadIndex
+     * @return : void
+    ***************************************************/
+    private synchronized void loadIndex() {
+        File indexFile = new File(storeDir, INDEX_FILE);
+        if( !indexFile.exists() ){
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while( (line = reader.readLine()) != null ){
+                String[] values = line.split("\t");
+                if( values.length != 5 ){
+                    continue;
+                }
+                Entry entry = new Entry(values[4], Long.parseLong(values[1]), Long.parseLong(values[2]), Long.parseLong(values[3]), values[0]);
+                entries.put(entry.path, entry);
+            }
+        } catch (IOException | NumberFormatException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("rebuild artifact index : " + e.getMessage()); }
+            entries.clear();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 색인을 디스크에 저장(sha1, 크기, 수정 시각, 사용 시각, 경로)
+     * @title : saveIndex
+     * @return : void
+    ***************************************************/
+    private synchronized void saveIndex() {
+        dirty.set(false);
+        storeDir.mkdirs();
+        File indexFile = new File(storeDir, INDEX_FILE);
+        File tmpFile = new File(storeDir, INDEX_FILE + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+                for( Entry entry : entries.values() ){
+                    writer.write(entry.sha1 + "\t" + entry.size + "\t" + entry.lastModified + "\t" + entry.lastAccess + "\t" + entry.path);
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't save artifact index : " + e.getMessage()); }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀/릴리즈 디렉토리의 파일인지 확인
+     * @title : isManaged
+     * @return : boolean
+    ***************************************************/
+    private boolean isManaged(File file) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        for( File dir : artifactDirs ){
+            if( dir.getAbsoluteFile().equals(parent) ){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private File getObjectFile(String sha1) {
+        return new File(new File(new File(storeDir, OBJECT_DIR), sha1.substring(0, 2)), sha1);
+    }
+
+    private static long getLastAccess(List<Entry> group) {
+        long lastAccess = 0L;
+        for( Entry entry : group ){
+            lastAccess = Math.max(lastAccess, entry.lastAccess);
+        }
+        return lastAccess;
+    }
+
+    static class Entry {
+        final String path;
+        final long size;
+        long lastModified;
+        long lastAccess;
+        String sha1;
+
+        Entry(String path, long size, long lastModified, long lastAccess, String sha1) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.lastAccess = lastAccess;
+            this.sha1 = sha1;
+        }
+    }
+}
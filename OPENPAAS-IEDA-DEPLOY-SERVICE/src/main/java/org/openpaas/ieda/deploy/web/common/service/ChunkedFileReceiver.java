@@ -0,0 +1,367 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.openpaas.ieda.common.exception.CommonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class ChunkedFileReceiver {
+
+    final private static String PART_SUFFIX = ".upload";
+    final private static String LOCK_SUFFIX = "-download";
+    final private static int BUFFER_SIZE = 1024 * 1024;
+    //마지막 구간 수신 후 이 시간 동안 이어 받지 않은 업로드는 정리
+    final private static long RECEIVING_IDLE_TIMEOUT = 60 * 60 * 1000L;
+    final private static long EXPIRE_INTERVAL = 10 * 60 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(ChunkedFileReceiver.class);
+
+    @Autowired private MessageSource message;
+
+    //업로드 중인 파일 별 SHA1 계산 상태(받은 위치까지)
+    private final Map<String, Receiving> receivings = new HashMap<String, Receiving>();
+
+    public static class LockConflictException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public LockConflictException(String lockName) {
+            super("lock is held by another request : " + lockName);
+        }
+    }
+
+    public static class OffsetMismatchException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final long expectedOffset;
+
+        public OffsetMismatchException(long expectedOffset) {
+            super("expected offset " + expectedOffset);
+            this.expectedOffset = expectedOffset;
+        }
+
+        public long getExpectedOffset() {
+            return expectedOffset;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간 업로드 요청(fileName, offset, total, overlay 파라미터와 파일 구간 본문) 처리
+     *                모두 받으면 저장소에 등록한 후 SHA1 응답(받는 중이면 null)
+     * @title : receiveChunk
+     * @return : String
+    ***************************************************/
+    public String receiveChunk(HttpServletRequest request, String targetDir) {
+        File target = getTargetFile(targetDir, request.getParameter("fileName"));
+        long offset;
+        long totalSize;
+        try {
+            offset = Long.parseLong(request.getParameter("offset"));
+            totalSize = Long.parseLong(request.getParameter("total"));
+        } catch (NumberFormatException e) {
+            throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
+        }
+        if( offset == 0 && target.exists() && !"true".equalsIgnoreCase(request.getParameter("overlay")) ){
+            //파일이 존재하지만 덮어쓰기가 체크 되어있지 않을 때
+            throw new CommonException(message.getMessage("common.conflict.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.conflict.file.message", null, Locale.KOREA), HttpStatus.CONFLICT);
+        }
+        String sha1;
+        try {
+            sha1 = receive(target, offset, totalSize, request.getInputStream(), request.getUserPrincipal() == null ? null : request.getUserPrincipal().getName());
+        } catch (LockConflictException e) {
+            throw new CommonException(message.getMessage("common.conflict.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.lock.conflict.message", null, Locale.KOREA), HttpStatus.CONFLICT);
+        } catch (OffsetMismatchException e) {
+            throw new CommonException(message.getMessage("common.conflict.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.conflict.upload.offset.message", null, Locale.KOREA), HttpStatus.CONFLICT);
+        } catch (IOException e) {
+            //받은 부분은 이어 받기를 위해 유지
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
+            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        if( sha1 != null ){
+            ArtifactStore.store(target, sha1);
+        }
+        return sha1;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간 업로드 요청의 다운로드 정보 아이디(id 파라미터) 조회(없거나 숫자가 아니면 거부)
+     * @title : getUploadId
+     * @return : int
+    ***************************************************/
+    public int getUploadId(HttpServletRequest request) {
+        try {
+            return Integer.parseInt(request.getParameter("id"));
+        } catch (NumberFormatException e) {
+            throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 업로드 대상 파일(디렉토리 밖을 가리키는 파일명은 거부)
+     * @title : getTargetFile
+     * @return : File
+    ***************************************************/
+    public File getTargetFile(String targetDir, String fileName) {
+        if( StringUtils.isEmpty(fileName) || fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".") ){
+            throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                    message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
+        }
+        return new File(targetDir, fileName);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이어 받을 위치(지금까지 받은 크기) 조회
+     * @title : getReceivedSize
+     * @return : long
+    ***************************************************/
+    public long getReceivedSize(File target) {
+        File partFile = getPartFile(target);
+        return partFile.exists() ? partFile.length() : 0L;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 요청 본문을 대상 디렉토리의 임시 파일에 바로 기록하면서 SHA1 계산
+     *                전체 크기를 모두 받으면 대상 파일로 이동 후 SHA1 응답(받는 중이면 null)
+     * @title : receive
+     * @return : String
+    ***************************************************/
+    public String receive(File target, long offset, long totalSize, InputStream body) throws IOException {
+        return receive(target, offset, totalSize, body, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 업로드 요청 사용자를 기록하여 구간 수신
+     *                (같은 파일의 다운로드/업로드 lock 은 이 업로드가 획득하고 완료/취소 시 점유 토큰으로 해제)
+     * @title : receive
+     * @return : String
+    ***************************************************/
+    public String receive(File target, long offset, long totalSize, InputStream body, String holder) throws IOException {
+        File partFile = getPartFile(target);
+        Receiving receiving = getReceiving(target, partFile);
+        synchronized (receiving) {
+            if( receiving.expired ){
+                //기다리는 동안 만료 정리된 수신 정보는 새로 받아 처리
+                return receive(target, offset, totalSize, body, holder);
+            }
+            receiving.lastAccess = System.currentTimeMillis();
+            if( receiving.lockToken == null ){
+                receiving.lockToken = DeploymentLockManager.lock(getLockName(target), holder);
+                if( receiving.lockToken == null ){
+                    throw new LockConflictException(getLockName(target));
+                }
+            }
+            long received = partFile.exists() ? partFile.length() : 0L;
+            if( offset == 0 && received > 0 ){
+                //처음부터 다시 받는 경우
+                Files.delete(partFile.toPath());
+                received = 0L;
+            }
+            if( offset != received ){
+                throw new OffsetMismatchException(received);
+            }
+            if( offset == 0 ){
+                receiving.digest.reset();
+                receiving.digestedSize = 0L;
+            } else if( receiving.digestedSize != received ){
+                //서버 재시작 등으로 계산 상태가 없으면 받은 부분만 다시 계산
+                rebuildDigest(partFile, receiving);
+            }
+            target.getParentFile().mkdirs();
+            long position = received;
+            try (FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while( position < totalSize && (read = body.read(buffer, 0, (int) Math.min(buffer.length, totalSize - position))) >= 0 ){
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while( chunk.hasRemaining() ){
+                        position += channel.write(chunk, position);
+                    }
+                    receiving.digest.update(buffer, 0, read);
+                    receiving.digestedSize = position;
+                }
+            } finally {
+                receiving.lastAccess = System.currentTimeMillis();
+            }
+            if( position < totalSize ){
+                return null;
+            }
+            Files.move(partFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            String sha1 = toHex(receiving.digest.digest());
+            removeReceiving(partFile);
+            DeploymentLockManager.unlock(getLockName(target), receiving.lockToken);
+            if( LOGGER.isInfoEnabled() ){ LOGGER.info("received " + target.getName() + " (" + totalSize + " bytes, sha1 : " + sha1 + ")"); }
+            return sha1;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 받는 중인 임시 파일 삭제
+     * @title : cancel
+     * @return : void
+    ***************************************************/
+    public void cancel(File target) {
+        File partFile = getPartFile(target);
+        Receiving receiving = removeReceiving(partFile);
+        if( receiving != null ){
+            DeploymentLockManager.unlock(getLockName(target), receiving.lockToken);
+        }
+        if( partFile.exists() && !partFile.delete() && LOGGER.isWarnEnabled() ){
+            LOGGER.warn("can't delete " + partFile.getName());
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이어 받지 않고 방치된 업로드의 임시 파일 삭제 및 lock 해제
+     * @title : expireIdleReceivings
+     * @return : void
+    ***************************************************/
+    @Scheduled(fixedDelay = EXPIRE_INTERVAL, initialDelay = EXPIRE_INTERVAL)
+    public void expireIdleReceivings() {
+        expireIdleReceivings(RECEIVING_IDLE_TIMEOUT);
+    }
+
+    void expireIdleReceivings(long idleTimeout) {
+        List<Receiving> idles = new ArrayList<Receiving>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for( Receiving receiving : receivings.values() ){
+                if( now - receiving.lastAccess >= idleTimeout ){
+                    idles.add(receiving);
+                }
+            }
+        }
+        for( Receiving receiving : idles ){
+            //구간을 받는 중이면 끝날 때까지 기다린 후 다시 확인
+            synchronized (receiving) {
+                if( receiving.expired || System.currentTimeMillis() - receiving.lastAccess < idleTimeout ){
+                    continue;
+                }
+                File partFile = getPartFile(receiving.target);
+                if( !removeReceiving(partFile, receiving) ){
+                    continue;
+                }
+                if( receiving.lockToken != null ){
+                    DeploymentLockManager.unlock(getLockName(receiving.target), receiving.lockToken);
+                }
+                if( partFile.exists() && !partFile.delete() && LOGGER.isWarnEnabled() ){
+                    LOGGER.warn("can't delete " + partFile.getName());
+                }
+                if( LOGGER.isInfoEnabled() ){ LOGGER.info("expired idle upload " + receiving.target.getName()); }
+            }
+        }
+    }
+
+    private File getPartFile(File target) {
+        return new File(target.getParentFile(), "." + target.getName() + PART_SUFFIX);
+    }
+
+    //다운로드 화면과 같은 lock 이름(확장자를 뺀 파일명 + "-download")
+    private String getLockName(File target) {
+        String fileName = target.getName();
+        int index = fileName.lastIndexOf('.');
+        return (index > 0 ? fileName.substring(0, index) : fileName) + LOCK_SUFFIX;
+    }
+
+    private synchronized Receiving getReceiving(File target, File partFile) {
+        Receiving receiving = receivings.get(partFile.getAbsolutePath());
+        if( receiving == null ){
+            receiving = new Receiving(target);
+            receivings.put(partFile.getAbsolutePath(), receiving);
+        }
+        return receiving;
+    }
+
+    private synchronized Receiving removeReceiving(File partFile) {
+        Receiving receiving = receivings.remove(partFile.getAbsolutePath());
+        if( receiving != null ){
+            receiving.expired = true;
+        }
+        return receiving;
+    }
+
+    private synchronized boolean removeReceiving(File partFile, Receiving receiving) {
+        if( receivings.get(partFile.getAbsolutePath()) != receiving ){
+            return false;
+        }
+        receivings.remove(partFile.getAbsolutePath());
+        receiving.expired = true;
+        return true;
+    }
+
+    private void rebuildDigest(File partFile, Receiving receiving) throws IOException {
+        receiving.digest.reset();
+        try (InputStream input = new FileInputStream(partFile)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while( (read = input.read(buffer)) >= 0 ){
+                receiving.digest.update(buffer, 0, read);
+            }
+        }
+        receiving.digestedSize = partFile.length();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for( byte value : bytes ){
+            hex.append(String.format("%02x", value));
+        }
+        return hex.toString();
+    }
+
+    private static class Receiving {
+        final File target;
+        final MessageDigest digest;
+        long digestedSize = 0L;
+        //이 업로드가 획득한 lock 의 점유 토큰
+        String lockToken;
+        //마지막 구간 수신 시각(만료 정리 기준)
+        volatile long lastAccess = System.currentTimeMillis();
+        //목록에서 제거된 수신 정보(기다리던 요청은 새 수신 정보로 처리)
+        volatile boolean expired = false;
+
+        Receiving(File target) {
+            this.target = target;
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -11,8 +11,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -34,6 +32,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
 import org.openpaas.ieda.deploy.web.common.dto.KeyInfoDTO;
 import org.openpaas.ieda.deploy.web.deploy.cf.dao.CfDAO;
@@ -63,7 +62,6 @@ public class CommonDeployService{
     final private static String KEY_DIR = LocalDirectoryConfiguration.getKeyDir();
     final private static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir();
     final private static String HYBRID_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateHybridCredentialDir();
-    final private static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir() + SEPARATOR;
     final private static String CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateCredentialDir();
     final private static Logger LOGGER = LoggerFactory.getLogger(CommonDeployService.class);
     final private static String CF_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateCfDeploymentCredentialDir();
@@ -219,35 +217,45 @@ public class CommonDeployService{
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : Lock 파일 설정
+     * @description : Lock 설정(같은 이름의 lock 을 점유 중이면 false)
      * @title : lockFileSet
      * @return : Boolean
     *****************************************************************/
     public Boolean lockFileSet(String lockFileName){
-        File lockFile = new File(LOCK_DIR + lockFileName+".lock");
-        Writer createLockFile =null;
-        Boolean flag = null;
-        try{
-            if(!lockFile.exists()){
-                flag= true;
-                createLockFile = new OutputStreamWriter(new FileOutputStream(lockFile), "UTF-8");
-            }else {
-                flag= false;
-            }
-        }catch(IOException e){
-            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                    message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
-        }finally {
-            try {
-                if(createLockFile != null) {
-                    createLockFile.close();
-                }
-            } catch (IOException e) {
-                throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                        message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
-            }
+        return lockFileSet(lockFileName, null);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 요청 사용자를 기록하여 Lock 설정
+     * @title : lockFileSet
+     * @return : Boolean
+    *****************************************************************/
+    public Boolean lockFileSet(String lockFileName, String userId){
+        return DeploymentLockManager.tryLock(lockFileName, userId);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 Lock 목록 조회
+     * @title : getLockList
+     * @return : List<DeploymentLockVO>
+    *****************************************************************/
+    public List<DeploymentLockVO> getLockList(){
+        return DeploymentLockManager.getLocks();
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Lock 강제 해제(작업이 비정상 종료되어 남은 Lock 정리)
+     * @title : releaseLock
+     * @return : void
+    *****************************************************************/
+    public void releaseLock(String lockKey){
+        if( LOGGER.isWarnEnabled() ){
+            LOGGER.warn("force release lock : " + lockKey);
         }
-        return flag;
+        DeploymentLockManager.forceUnlock(lockKey);
     }
     
     
@@ -272,18 +280,10 @@ public class CommonDeployService{
             cfCredentialFile.delete();
         }
         try {
-            List<String> cmd = new ArrayList<String>();
-            cmd.add("bosh");
-            cmd.add("interpolate");
-            cmd.add(commonCredentialManifestPath);
-            cmd.add("-v");
-            cmd.add("system_domain="+dto.getDomain()+"");
-            cmd.add("--vars-store="+CF_CREDENTIAL_DIR + SEPARATOR + dto.getDomain()+ "-cred.yml");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            Map<String, String> vars = new HashMap<String, String>();
+            vars.put("system_domain", dto.getDomain());
+            CredentialGenerator.generate(commonCredentialManifestPath, vars, cfCredentialFile.getPath());
             keyFileName = dto.getDomain()+"-cred.yml";
-            Thread.sleep(10000);
             
             saveKeyFileName(dto, keyFileName, principal);
             
@@ -396,24 +396,33 @@ public class CommonDeployService{
      * @return : String
     *****************************************************************/
     public String getManifestInputTemplateStream(String deployType, String templateVersion, String iaasType, String inputTemplate, String openstackVersion){
-        String content ="";
+        return getManifestInputTemplate(deployType, templateVersion, iaasType, inputTemplate, openstackVersion).getSource();
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 배포 유형에 따른 Manifest Input 템플릿(치환 항목을 분리해 캐시한 템플릿)
+     * @title : getManifestInputTemplate
+     * @return : ManifestTemplate
+    *****************************************************************/
+    public ManifestTemplate getManifestInputTemplate(String deployType, String templateVersion, String iaasType, String inputTemplate, String openstackVersion){
+        ManifestTemplate template = null;
         if(!openstackVersion.isEmpty()) {
             if(openstackVersion.equalsIgnoreCase("v3")){
                 iaasType += "v3";
             }
         }
         try {
-            InputStream inputs =  this.getClass().getClassLoader().getResourceAsStream("static/deploy_template/"+deployType+"/" + templateVersion + "/"+ iaasType.toLowerCase() + "/" +inputTemplate);
-            if(inputs == null){
+            template = ManifestTemplateCache.getTemplate("static/deploy_template/"+deployType+"/" + templateVersion + "/"+ iaasType.toLowerCase() + "/" +inputTemplate);
+            if(template == null){
                 throw new CommonException(getMessageValue("common.internalServerError.exception.code"),
                         "Template 파일이 존재하지 않습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
             }
-            content = IOUtils.toString(inputs, "UTF-8");
         } catch (IOException e) {
             throw new CommonException(getMessageValue("common.internalServerError.exception.code"),
                     "Template 파일이 존재하지 않습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         }
-        return content;
+        return template;
     }
     
     /****************************************************************
@@ -1,17 +1,15 @@
 package org.openpaas.ieda.deploy.web.common.service;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
@@ -21,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.StringUtils;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.parser.ParserException;
 
 final public class CommonDeployUtils {
@@ -67,7 +66,7 @@ final public class CommonDeployUtils {
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : Manifest 템플릿 파일과 merge하여 deployment 경로에 최종 Manifest 파일 생성
+     * @description : Manifest 템플릿 파일과 merge하여 deployment 경로에 최종 Manifest 파일 생성(spiff merge 와 같은 순서로 메모리에서 merge)
      * @title : setSpiffMerge
      * @return : void
     *****************************************************************/
@@ -77,137 +76,91 @@ final public class CommonDeployUtils {
         String deploymentPath = DEPLOYMENT_FILE + settingFileName;
         String keyPath = KEY_FILE + keyFile;
 
-        File settingFile = null;
-        InputStream inputStream = null;
-        BufferedReader bufferedReader = null;
-        ProcessBuilder builder = new ProcessBuilder();
-        if (manifestTemplate.getDeployType().equalsIgnoreCase("bootstrap")) {
-            try {
-                settingFile = new File(inputFile);
-                if (settingFile.exists()) {
-                    List<String> cmd = new ArrayList<String>();
-                    cmd.add("cat");
-                    cmd.add(inputFile);
-                    builder.command(cmd);
-                    builder.redirectErrorStream(true);
-                    Process process = builder.start();
-                    inputStream = process.getInputStream();
-                    bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                    String info = null;
-                    StringBuffer deployBuffer = new StringBuffer("");
-                    while ((info = bufferedReader.readLine()) != null) {
-                        deployBuffer.append(info).append("\n");
-                    }
-                    String deloymentContent = deployBuffer.toString();
-                    if( !deloymentContent.equalsIgnoreCase("") ){
-                        IOUtils.write(deloymentContent, new FileOutputStream(deploymentPath), "UTF-8");
-                    }
-                } else {
-                    throw new CommonException("notfound.manifest.exception", "Merge할 File이 존재하지 않습니다.", HttpStatus.NOT_FOUND);
+        File settingFile = new File(inputFile);
+        if (!settingFile.exists()) {
+            throw new CommonException("notfound.manifest.exception", "Merge할 File이 존재하지 않습니다.", HttpStatus.NOT_FOUND);
+        }
+        try {
+            String deloymentContent = "";
+            if (manifestTemplate.getDeployType().equalsIgnoreCase("bootstrap")) {
+                deloymentContent = FileUtils.readFileToString(settingFile, "UTF-8");
+            } else {
+                //현재 호출(BootstrapService, HbBootstrapService)은 bootstrap 유형뿐이라 이 merge 경로는 사용되지 않음(spiff 결과와 대조 검증 전)
+                List<String> mergeFiles = new ArrayList<String>(); //spiff merge 인자와 같은 순서(템플릿, stub...)
+                // generic_manifest_mask.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getCommonBaseTemplate())) {
+                    mergeFiles.add(manifestTemplate.getCommonBaseTemplate());
                 }
-            } catch (FileNotFoundException e) {
-                throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IOException e) {
-                throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } finally {
-                try {
-                    if( bufferedReader != null) {
-                        bufferedReader.close();
-                    }
-                } catch (IOException e) {
-                    if( LOGGER.isErrorEnabled() ){
-                        LOGGER.error( e.getMessage() );
-                    }
+                // cf.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getCommonJobTemplate())) {
+                    mergeFiles.add(manifestTemplate.getCommonJobTemplate());
                 }
-            }
-        } else {
-            try {
-                settingFile = new File(inputFile);
-                if (settingFile.exists()) {
-                    List<String> cmd = new ArrayList<String>();
-                    cmd.add("spiff");
-                    cmd.add("merge");
-                    // generic_manifest_mask.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getCommonBaseTemplate())) {
-                        cmd.add(manifestTemplate.getCommonBaseTemplate());
-                    }
-                    // cf.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getCommonJobTemplate())) {
-                        cmd.add(manifestTemplate.getCommonJobTemplate());
-                    }
-                    // cf_<iaas>_setting_<version>.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getIaasPropertyTemplate())) {
-                        cmd.add(manifestTemplate.getIaasPropertyTemplate());
-                    }
-                    // paasta_option.yml
-                    if ( manifestTemplate.getDeployType().equals("BOOTSTRAP")  &&
-                            !StringUtils.isEmpty(manifestTemplate.getCommonOptionTemplate())) {
-                        if (paastaMonitoringUse.equals("true")) {
-                            cmd.add(manifestTemplate.getCommonOptionTemplate());
-                        }
-                    }
-                    // cf_<iaas>_stub_<version>.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getMetaTemplate())) {
-                        cmd.add(manifestTemplate.getMetaTemplate());
-                    }
-                    // cf_<iaas>_network_options.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getOptionNetworkTemplate())) {
-                        cmd.add(manifestTemplate.getOptionNetworkTemplate());
-                    }
-                    // cf_<iaas>_resouce_options.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getOptionResourceTemplate())) {
-                        cmd.add(manifestTemplate.getOptionResourceTemplate());
-                    }
-                    // cf_diego_option.yml
-                    if (!StringUtils.isEmpty(manifestTemplate.getOptionEtc())) {
-                        cmd.add(manifestTemplate.getOptionEtc());
-                    }
-                    // paasta_option.yml
-                    if ( !manifestTemplate.getDeployType().equals("BOOTSTRAP") && 
-                            !StringUtils.isEmpty(manifestTemplate.getCommonOptionTemplate())) {
-                        if (paastaMonitoringUse.equals("true")) {
-                            cmd.add(manifestTemplate.getCommonOptionTemplate());
-                        }
-                    }
-                    
-                    // <iaas>_<deploy_type>_key_<id>.yml
-                    if (!(keyFile.equalsIgnoreCase("")) && !StringUtils.isEmpty(keyPath)) {
-                        cmd.add(keyPath);// 생성한 key.yml파일 추가
-                    }
-                    cmd.add(inputFile);
-                    builder.command(cmd);
-                    builder.redirectErrorStream(true);
-                    
-                    Process process = builder.start();
-                    inputStream = process.getInputStream();
-                    bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                    String info = null;
-                    StringBuffer deployBuffer = new StringBuffer("");
-                    while ((info = bufferedReader.readLine()) != null) {
-                        deployBuffer.append(info).append("\n");
+                // cf_<iaas>_setting_<version>.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getIaasPropertyTemplate())) {
+                    mergeFiles.add(manifestTemplate.getIaasPropertyTemplate());
+                }
+                // paasta_option.yml
+                if ( manifestTemplate.getDeployType().equals("BOOTSTRAP")  &&
+                        !StringUtils.isEmpty(manifestTemplate.getCommonOptionTemplate())) {
+                    if (paastaMonitoringUse.equals("true")) {
+                        mergeFiles.add(manifestTemplate.getCommonOptionTemplate());
                     }
-                    String deloymentContent = deployBuffer.toString();
-                    if( !deloymentContent.equalsIgnoreCase("") ){
-                        IOUtils.write(deloymentContent, new FileOutputStream(deploymentPath), "UTF-8");
+                }
+                // cf_<iaas>_stub_<version>.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getMetaTemplate())) {
+                    mergeFiles.add(manifestTemplate.getMetaTemplate());
+                }
+                // cf_<iaas>_network_options.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getOptionNetworkTemplate())) {
+                    mergeFiles.add(manifestTemplate.getOptionNetworkTemplate());
+                }
+                // cf_<iaas>_resouce_options.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getOptionResourceTemplate())) {
+                    mergeFiles.add(manifestTemplate.getOptionResourceTemplate());
+                }
+                // cf_diego_option.yml
+                if (!StringUtils.isEmpty(manifestTemplate.getOptionEtc())) {
+                    mergeFiles.add(manifestTemplate.getOptionEtc());
+                }
+                // paasta_option.yml
+                if ( !manifestTemplate.getDeployType().equals("BOOTSTRAP") && 
+                        !StringUtils.isEmpty(manifestTemplate.getCommonOptionTemplate())) {
+                    if (paastaMonitoringUse.equals("true")) {
+                        mergeFiles.add(manifestTemplate.getCommonOptionTemplate());
                     }
-                } else {
-                    throw new CommonException("notfound.manifest.exception", "Merge할 File이 존재하지 않습니다.", HttpStatus.NOT_FOUND);
                 }
-            } catch (FileNotFoundException e){
-                throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IOException e) {
-                throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } finally {
+                
+                // <iaas>_<deploy_type>_key_<id>.yml
+                if (!(keyFile.equalsIgnoreCase("")) && !StringUtils.isEmpty(keyPath)) {
+                    mergeFiles.add(keyPath);// 생성한 key.yml파일 추가
+                }
+                mergeFiles.add(inputFile);
+                List<String> contents = new ArrayList<String>(mergeFiles.size());
+                for( String mergeFile : mergeFiles ){
+                    File file = new File(mergeFile);
+                    if( !file.exists() ){
+                        if( LOGGER.isErrorEnabled() ){ LOGGER.error("manifest merge file not found : " + mergeFile); }
+                        throw new CommonException("notfound.manifest.exception", "Merge할 File이 존재하지 않습니다.", HttpStatus.NOT_FOUND);
+                    }
+                    contents.add(FileUtils.readFileToString(file, "UTF-8"));
+                }
+                deloymentContent = ManifestMerger.mergeToYaml(contents);
+            }
+            if( !deloymentContent.equalsIgnoreCase("") ){
+                FileOutputStream outputStream = new FileOutputStream(deploymentPath);
                 try {
-                    if( bufferedReader != null) {
-                        bufferedReader.close();
-                    }
-                } catch (IOException e) {
-                    if( LOGGER.isErrorEnabled() ){
-                        LOGGER.error( e.getMessage() );
-                    }
+                    IOUtils.write(deloymentContent, outputStream, "UTF-8");
+                } finally {
+                    outputStream.close();
                 }
             }
+        } catch (FileNotFoundException e) {
+            throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IOException e) {
+            throw new CommonException("ioFileRead.manifest.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (YAMLException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("manifest merge yaml error : " + e.getMessage()); }
+            throw new CommonException("parser.yaml.exception", "Manifest 생성 중 문제가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -261,6 +214,7 @@ final public class CommonDeployUtils {
         if( file.exists() ){
             check = file.delete();
         }
+        ArtifactStore.removed(file);
         if( LOGGER.isDebugEnabled()) {
             LOGGER.debug("Make sure the "+fileName + " is deleted : " + check);
         }
@@ -0,0 +1,424 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openpaas.ieda.common.exception.CommonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.yaml.snakeyaml.Yaml;
+
+final public class CredentialGenerator {
+
+    //bosh interpolate --vars-store 대신 Manifest 의 variables 항목으로 인증 정보를 직접 생성
+    // - password : 영문 소문자/숫자 20자
+    // - rsa : private_key(PKCS#1), public_key(PKIX)
+    // - ssh : private_key(PKCS#1), public_key(ssh-rsa), public_key_fingerprint(MD5)
+    // - certificate : ca, certificate, private_key
+    // - vars-store 에 이미 있는 값은 그대로 두고 없는 값만 생성
+
+    final private static String PASSWORD_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789";
+    final private static int PASSWORD_LENGTH = 20;
+    final private static int KEY_SIZE = 2048;
+    final private static Pattern VARIABLE = Pattern.compile("\\(\\(([^()]+)\\)\\)");
+    final private static SecureRandom RANDOM = new SecureRandom();
+    private final static Logger LOGGER = LoggerFactory.getLogger(CredentialGenerator.class);
+
+    private CredentialGenerator() {
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Manifest 의 variables 항목으로 vars-store 파일 생성(기존 파일의 값은 유지)
+     * @title : generate
+     * @return : void
+    *****************************************************************/
+    public static void generate(String manifestPath, Map<String, String> vars, String varsStorePath)
+            throws IOException, InterruptedException {
+        Map<String, Object> manifest = load(new File(manifestPath));
+        if( manifest == null ){
+            throw new IOException("manifest not found : " + manifestPath);
+        }
+        File varsStore = new File(varsStorePath);
+        Map<String, Object> values = load(varsStore);
+        if( values == null ){
+            values = new LinkedHashMap<String, Object>();
+        }
+        Map<String, Object> generated = generate(manifest, vars, values);
+        write(varsStore, ManifestMerger.dump(generated));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : variables 항목 순서대로 없는 값을 생성한 vars-store 내용 응답
+     * @title : generate
+     * @return : Map<String, Object>
+    *****************************************************************/
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> generate(Map<String, Object> manifest, Map<String, String> vars, Map<String, Object> existing)
+            throws InterruptedException {
+        Map<String, Map<String, Object>> definitions = new LinkedHashMap<String, Map<String, Object>>();
+        Object variables = manifest.get("variables");
+        if( variables instanceof List ){
+            for( Object variable : (List<Object>) variables ){
+                Map<String, Object> definition = (Map<String, Object>) interpolate(variable, vars);
+                definitions.put(String.valueOf(definition.get("name")), definition);
+            }
+        }
+        Map<String, Object> values = new LinkedHashMap<String, Object>(existing);
+        KeySupply keys = new KeySupply(countKeys(definitions, values));
+        try {
+            for( String name : definitions.keySet() ){
+                generateValue(name, definitions, values, keys);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new CommonException("conflict.credentialName.exception", "인증서 생성 중 에러가 발생 하였습니다. " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } finally {
+            keys.shutdown();
+        }
+        return values;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 변수 값 생성(인증서의 ca 가 아직 없으면 ca 를 먼저 생성)
+     * @title : generateValue
+     * @return : void
+    *****************************************************************/
+    @SuppressWarnings("unchecked")
+    private static void generateValue(String name, Map<String, Map<String, Object>> definitions, Map<String, Object> values, KeySupply keys)
+            throws GeneralSecurityException, InterruptedException {
+        if( values.containsKey(name) ){
+            return;
+        }
+        Map<String, Object> definition = definitions.get(name);
+        String type = String.valueOf(definition.get("type"));
+        Map<String, Object> options = definition.get("options") instanceof Map
+                ? (Map<String, Object>) definition.get("options") : new LinkedHashMap<String, Object>();
+        if( "password".equals(type) ){
+            values.put(name, password());
+        } else if( "rsa".equals(type) ){
+            KeyPair keyPair = keys.next();
+            Map<String, Object> value = new LinkedHashMap<String, Object>();
+            value.put("private_key", pem("RSA PRIVATE KEY", X509CertificateBuilder.pkcs1((RSAPrivateCrtKey) keyPair.getPrivate())));
+            value.put("public_key", pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+            values.put(name, value);
+        } else if( "ssh".equals(type) ){
+            KeyPair keyPair = keys.next();
+            byte[] blob = sshPublicKey((RSAPublicKey) keyPair.getPublic());
+            Map<String, Object> value = new LinkedHashMap<String, Object>();
+            value.put("private_key", pem("RSA PRIVATE KEY", X509CertificateBuilder.pkcs1((RSAPrivateCrtKey) keyPair.getPrivate())));
+            value.put("public_key", "ssh-rsa " + Base64.getEncoder().encodeToString(blob));
+            value.put("public_key_fingerprint", fingerprint(blob));
+            values.put(name, value);
+        } else if( "certificate".equals(type) ){
+            values.put(name, certificate(name, options, definitions, values, keys));
+        } else {
+            throw new GeneralSecurityException("unsupported variable type : " + name + "(" + type + ")");
+        }
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : certificate 변수 생성(ca 옵션이 없으면 자체 서명)
+     * @title : certificate
+     * @return : Map<String, Object>
+    *****************************************************************/
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> certificate(String name, Map<String, Object> options, Map<String, Map<String, Object>> definitions,
+            Map<String, Object> values, KeySupply keys) throws GeneralSecurityException, InterruptedException {
+        X509Certificate issuer = null;
+        PrivateKey issuerKey = null;
+        String caPem = null;
+        Object caName = options.get("ca");
+        if( caName != null ){
+            if( !values.containsKey(caName) ){
+                if( !definitions.containsKey(caName) || caName.equals(name) ){
+                    throw new GeneralSecurityException("ca not found : " + name + "(" + caName + ")");
+                }
+                generateValue(String.valueOf(caName), definitions, values, keys);
+            }
+            Map<String, Object> ca = (Map<String, Object>) values.get(caName);
+            caPem = String.valueOf(ca.get("certificate"));
+            issuer = readCertificate(caPem);
+            issuerKey = readPrivateKey(String.valueOf(ca.get("private_key")));
+        }
+        KeyPair keyPair = keys.next();
+        X509Certificate certificate = X509CertificateBuilder.build(
+                options.get("common_name") == null ? name : String.valueOf(options.get("common_name")),
+                toStringList(options.get("alternative_names")), toStringList(options.get("extended_key_usage")),
+                Boolean.TRUE.equals(options.get("is_ca")), keyPair, issuer, issuerKey);
+        String certificatePem = pem("CERTIFICATE", certificate.getEncoded());
+        Map<String, Object> value = new LinkedHashMap<String, Object>();
+        value.put("ca", caPem == null ? certificatePem : caPem);
+        value.put("certificate", certificatePem);
+        value.put("private_key", pem("RSA PRIVATE KEY", X509CertificateBuilder.pkcs1((RSAPrivateCrtKey) keyPair.getPrivate())));
+        return value;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 생성할 키 개수(rsa/ssh/certificate 중 vars-store 에 없는 항목)
+     * @title : countKeys
+     * @return : int
+    *****************************************************************/
+    private static int countKeys(Map<String, Map<String, Object>> definitions, Map<String, Object> values) {
+        int count = 0;
+        for( Map.Entry<String, Map<String, Object>> entry : definitions.entrySet() ){
+            String type = String.valueOf(entry.getValue().get("type"));
+            if( !values.containsKey(entry.getKey()) && ("rsa".equals(type) || "ssh".equals(type) || "certificate".equals(type)) ){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 문자열 안의 ((변수)) 를 입력 값으로 치환(입력 값이 없으면 그대로 유지)
+     * @title : interpolate
+     * @return : Object
+    *****************************************************************/
+    @SuppressWarnings("unchecked")
+    private static Object interpolate(Object node, Map<String, String> vars) {
+        if( node instanceof Map ){
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            for( Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet() ){
+                map.put(entry.getKey(), interpolate(entry.getValue(), vars));
+            }
+            return map;
+        }
+        if( node instanceof List ){
+            List<Object> list = new ArrayList<Object>();
+            for( Object item : (List<Object>) node ){
+                list.add(interpolate(item, vars));
+            }
+            return list;
+        }
+        if( node instanceof String ){
+            Matcher matcher = VARIABLE.matcher((String) node);
+            StringBuffer result = new StringBuffer();
+            while( matcher.find() ){
+                String value = vars.get(matcher.group(1).trim());
+                matcher.appendReplacement(result, Matcher.quoteReplacement(value == null ? matcher.group() : value));
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+        return node;
+    }
+
+    private static List<String> toStringList(Object value) {
+        List<String> list = new ArrayList<String>();
+        if( value instanceof List ){
+            for( Object item : (List<?>) value ){
+                list.add(String.valueOf(item));
+            }
+        }
+        return list;
+    }
+
+    private static String password() {
+        char[] password = new char[PASSWORD_LENGTH];
+        for( int i = 0; i < password.length; i++ ){
+            password[i] = PASSWORD_CHARS.charAt(RANDOM.nextInt(PASSWORD_CHARS.length()));
+        }
+        return new String(password);
+    }
+
+    private static byte[] sshPublicKey(RSAPublicKey key) {
+        byte[] type = "ssh-rsa".getBytes();
+        byte[] exponent = key.getPublicExponent().toByteArray();
+        byte[] modulus = key.getModulus().toByteArray();
+        byte[] blob = new byte[12 + type.length + exponent.length + modulus.length];
+        int offset = sshString(blob, 0, type);
+        offset = sshString(blob, offset, exponent);
+        sshString(blob, offset, modulus);
+        return blob;
+    }
+
+    private static int sshString(byte[] blob, int offset, byte[] value) {
+        blob[offset] = (byte) (value.length >>> 24);
+        blob[offset + 1] = (byte) (value.length >>> 16);
+        blob[offset + 2] = (byte) (value.length >>> 8);
+        blob[offset + 3] = (byte) value.length;
+        System.arraycopy(value, 0, blob, offset + 4, value.length);
+        return offset + 4 + value.length;
+    }
+
+    private static String fingerprint(byte[] blob) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("MD5").digest(blob);
+        StringBuilder fingerprint = new StringBuilder(digest.length * 3);
+        for( byte b : digest ){
+            if( fingerprint.length() > 0 ){
+                fingerprint.append(':');
+            }
+            fingerprint.append(String.format("%02x", b & 0xFF));
+        }
+        return fingerprint.toString();
+    }
+
+    private static String pem(String type, byte[] der) {
+        String base64 = Base64.getEncoder().encodeToString(der);
+        StringBuilder pem = new StringBuilder(base64.length() + 100);
+        pem.append("-----BEGIN ").append(type).append("-----\n");
+        for( int i = 0; i < base64.length(); i += 64 ){
+            pem.append(base64, i, Math.min(base64.length(), i + 64)).append('\n');
+        }
+        pem.append("-----END ").append(type).append("-----\n");
+        return pem.toString();
+    }
+
+    private static byte[] unpem(String pem) {
+        StringBuilder base64 = new StringBuilder(pem.length());
+        for( String line : pem.split("\n") ){
+            if( !line.startsWith("-----") ){
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    private static X509Certificate readCertificate(String pem) throws GeneralSecurityException {
+        return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(unpem(pem)));
+    }
+
+    private static PrivateKey readPrivateKey(String pem) throws GeneralSecurityException {
+        byte[] der = unpem(pem);
+        if( pem.contains("BEGIN RSA PRIVATE KEY") ){
+            der = X509CertificateBuilder.pkcs8(der);
+        }
+        return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(der));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> load(File file) throws IOException {
+        if( !file.exists() || file.length() == 0 ){
+            return null;
+        }
+        InputStream input = new FileInputStream(file);
+        try {
+            Object document = new Yaml().load(input);
+            return document instanceof Map ? (Map<String, Object>) document : null;
+        } finally {
+            input.close();
+        }
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 디렉토리의 임시 파일(소유자만 읽기/쓰기)에 쓴 뒤 이동하여 중간 상태의 vars-store 가 보이지 않도록 저장
+     * @title : write
+     * @return : void
+    *****************************************************************/
+    private static void write(File target, String content) throws IOException {
+        File directory = target.getAbsoluteFile().getParentFile();
+        if( !directory.exists() && !directory.mkdirs() ){
+            throw new IOException("cannot create directory : " + directory);
+        }
+        File temp = Files.createTempFile(directory.toPath(), target.getName(), ".tmp").toFile();
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(temp), "UTF-8");
+            try {
+                writer.write(content);
+            } finally {
+                writer.close();
+            }
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if( temp.exists() && !temp.delete() && LOGGER.isWarnEnabled() ){
+                LOGGER.warn("temp vars-store not deleted : " + temp);
+            }
+        }
+    }
+
+    //필요한 RSA 키를 CPU 수만큼 병렬로 미리 생성하고 변수 순서대로 꺼내 씀
+    private static class KeySupply {
+        private final ExecutorService executor;
+        private final List<Future<KeyPair>> keys = new ArrayList<Future<KeyPair>>();
+        private int index = 0;
+
+        KeySupply(int count) {
+            if( count == 0 ){
+                executor = null;
+                return;
+            }
+            final AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.min(count, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "credential-keygen-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            for( int i = 0; i < count; i++ ){
+                keys.add(executor.submit(new Callable<KeyPair>() {
+                    @Override
+                    public KeyPair call() throws GeneralSecurityException {
+                        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                        generator.initialize(KEY_SIZE, RANDOM);
+                        return generator.generateKeyPair();
+                    }
+                }));
+            }
+        }
+
+        KeyPair next() throws GeneralSecurityException, InterruptedException {
+            if( index >= keys.size() ){
+                throw new GeneralSecurityException("key supply exhausted");
+            }
+            try {
+                return keys.get(index++).get();
+            } catch (ExecutionException e) {
+                throw new GeneralSecurityException(e.getCause());
+            }
+        }
+
+        void shutdown() {
+            if( executor != null ){
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.util.List;
+
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockDAO;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
+
+public class DatabaseDeploymentLockStore implements DeploymentLockStore {
+
+    //설치 관리자 여러 대가 같은 DB 를 사용하는 경우의 저장소(ieda_deploy_lock 테이블)
+    // - lock_key 기본 키와 INSERT IGNORE 로 한 인스턴스만 획득
+    // - 인스턴스 간 시각 차이만큼 리스 만료가 앞당겨지거나 늦어질 수 있음
+    private final DeploymentLockDAO dao;
+
+    public DatabaseDeploymentLockStore(DeploymentLockDAO dao) {
+        this.dao = dao;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 만료된 lock 삭제 후 등록(등록된 행이 있으면 획득)
+     * @title : acquire
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean acquire(DeploymentLockVO lock, long now) {
+        dao.deleteExpiredLock(lock.getLockKey(), now);
+        return dao.insertLock(lock) == 1;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리스 연장
+     * @title : renew
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean renew(String lockKey, String ownerId, long expireTime, long now) {
+        return dao.updateLockExpireTime(lockKey, ownerId, expireTime, now) == 1;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 해제(점유자와 획득 시각이 같은 행만 삭제)
+     * @title : release
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean release(String lockKey, String ownerId, long acquireTime) {
+        return dao.deleteLock(lockKey, ownerId, acquireTime) == 1;
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 강제 해제
+     * @title : forceRelease
+     * @return : void
+    *****************************************************************/
+    @Override
+    public void forceRelease(String lockKey) {
+        dao.forceDeleteLock(lockKey);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 lock 목록
+     * @title : getLocks
+     * @return : List<DeploymentLockVO>
+    *****************************************************************/
+    @Override
+    public List<DeploymentLockVO> getLocks(long now) {
+        return dao.selectLockList(now);
+    }
+}
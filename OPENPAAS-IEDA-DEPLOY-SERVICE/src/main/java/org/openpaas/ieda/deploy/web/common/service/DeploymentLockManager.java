@@ -0,0 +1,371 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockDAO;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DeploymentLockManager {
+
+    //배포/업로드 동시 실행 방지 lock(기존 ~/.bosh_plugin/lock 파일 대체)
+    // - 키 별로 원자적으로 획득하므로 서로 다른 배포/릴리즈/스템셀은 동시에 진행 가능
+    // - 리스 만료 시각을 heartbeat 로 연장하고, 인스턴스가 종료되면 리스 만료 후 자동 해제
+    // - 배포/업로드 작업은 획득 시 받은 점유 토큰으로만 해제(같은 인스턴스의 다른 요청이 해제하지 못함)
+    // - -Dieda.lock.store=mysql 이면 ieda_deploy_lock 테이블을 사용(설치 관리자 여러 대 운영)
+    final private static String LOCK_STORE = System.getProperty("ieda.lock.store", "memory");
+    final private static long LEASE_TIME = Long.getLong("ieda.lock.lease", 90 * 1000L);
+    //heartbeat 로 연장하는 최대 점유 시간(화면에서 획득 후 해제되지 않은 lock 정리)
+    final private static long MAX_HOLD_TIME = Long.getLong("ieda.lock.maxHold", 12 * 60 * 60 * 1000L);
+    final private static long HEARTBEAT_INTERVAL = 30 * 1000L;
+    final private static String LOCK_SUFFIX = ".lock";
+    final private static long LOCK_WAIT_INTERVAL = 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(DeploymentLockManager.class);
+
+    //스프링 컨텍스트 밖(단위 테스트 등)에서는 메모리 저장소 사용
+    private static volatile DeploymentLockManager instance = new DeploymentLockManager(new MemoryDeploymentLockStore(), LEASE_TIME, MAX_HOLD_TIME);
+
+    @Autowired private DeploymentLockDAO deploymentLockDao;
+
+    private DeploymentLockStore store;
+    private final long leaseTime;
+    private final long maxHoldTime;
+    private final String ownerId;
+    //이 인스턴스가 획득한 lock 키 별 점유 정보(heartbeat 대상, 해제 시 점유 확인 값)
+    private final ConcurrentMap<String, HeldLock> heldLocks = new ConcurrentHashMap<String, HeldLock>();
+    //공용 @Scheduled 스레드가 다른 작업으로 지연되어도 리스가 만료되지 않도록 전용 스레드에서 연장
+    private ScheduledExecutorService heartbeat;
+
+    public DeploymentLockManager() {
+        this(null, LEASE_TIME, MAX_HOLD_TIME);
+    }
+
+    public DeploymentLockManager(DeploymentLockStore store, long leaseTime, long maxHoldTime) {
+        this.store = store;
+        this.leaseTime = leaseTime;
+        this.maxHoldTime = maxHoldTime;
+        this.ownerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 저장소 선택 후 공용 lock 관리자로 등록
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public void initialize() {
+        if( store == null ){
+            if( "mysql".equalsIgnoreCase(LOCK_STORE) ){
+                store = new DatabaseDeploymentLockStore(deploymentLockDao);
+            } else {
+                store = new MemoryDeploymentLockStore();
+            }
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "deployment-lock-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        heartbeat.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    renewHeldLocks();
+                } catch (RuntimeException e) {
+                    //heartbeat 스레드가 종료되지 않도록 예외를 기록만 한다.
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error("deployment lock heartbeat error : " + e.getMessage()); }
+                }
+            }
+        }, HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+        instance = this;
+        if( LOGGER.isInfoEnabled() ){
+            LOGGER.info("deployment lock store : " + store.getClass().getSimpleName() + ", owner : " + ownerId);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 종료 시 이 인스턴스가 점유 중인 lock 해제
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public void shutdown() {
+        if( heartbeat != null ){
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+        for( Map.Entry<String, HeldLock> held : heldLocks.entrySet() ){
+            release(held.getKey(), held.getValue().ownerToken);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 공용 lock 관리자 응답
+     * @title : getInstance
+     * @return : DeploymentLockManager
+    ***************************************************/
+    public static DeploymentLockManager getInstance() {
+        return instance;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 화면에서 요청한 lock 획득(기존 lock 파일명의 ".lock" 은 제외하고 키로 사용)
+     * @title : tryLock
+     * @return : boolean
+    ***************************************************/
+    public static boolean tryLock(String lockName, String holder) {
+        return instance.acquire(toLockKey(lockName), holder);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 화면에서 획득한 lock 해제(작업 완료/실패 시)
+     *                (작업 단위로 획득한 lock 은 점유 토큰 없이 해제하지 않음)
+     * @title : unlock
+     * @return : void
+    ***************************************************/
+    public static void unlock(String lockName) {
+        instance.release(toLockKey(lockName));
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 작업(배포/업로드 요청) 단위 lock 획득 후 점유 토큰 응답(점유 중이면 null)
+     * @title : lock
+     * @return : String
+    ***************************************************/
+    public static String lock(String lockName, String holder) {
+        return instance.acquireOwned(toLockKey(lockName), holder);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 작업 단위 lock 을 대기 시간 동안 재시도하여 획득(취소한 작업의 lock 해제 대기)
+     * @title : lock
+     * @return : String
+    ***************************************************/
+    public static String lock(String lockName, String holder, long waitTime) {
+        long deadline = System.currentTimeMillis() + waitTime;
+        String ownerToken = lock(lockName, holder);
+        while( ownerToken == null && System.currentTimeMillis() < deadline ){
+            try {
+                Thread.sleep(LOCK_WAIT_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ownerToken = lock(lockName, holder);
+        }
+        return ownerToken;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 작업 단위 lock 해제(획득 시 받은 점유 토큰이 일치하는 경우에만 해제)
+     * @title : unlock
+     * @return : boolean
+    ***************************************************/
+    public static boolean unlock(String lockName, String ownerToken) {
+        if( ownerToken == null ){
+            return false;
+        }
+        return instance.release(toLockKey(lockName), ownerToken);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉터와 배포명으로 배포 lock 이름 생성(다른 배포는 동시에 진행 가능)
+     *                (관리자 lock 해제 URL 경로에 쓰이므로 '/' 대신 ':' 로 구분)
+     * @title : deploymentLockName
+     * @return : String
+    ***************************************************/
+    public static String deploymentLockName(String director, String deploymentName) {
+        return "deploy:" + director + ":" + deploymentName;
+    }
+    
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유자와 관계없이 lock 강제 해제(관리자 정리)
+     * @title : forceUnlock
+     * @return : void
+    ***************************************************/
+    public static void forceUnlock(String lockName) {
+        instance.forceRelease(toLockKey(lockName));
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 lock 목록(관리자 조회)
+     * @title : getLocks
+     * @return : List<DeploymentLockVO>
+    ***************************************************/
+    public static List<DeploymentLockVO> getLocks() {
+        return instance.getHolders();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 화면 요청 lock 획득 후 heartbeat 대상으로 등록
+     * @title : acquire
+     * @return : boolean
+    ***************************************************/
+    public boolean acquire(String lockKey, String holder) {
+        return acquire(lockKey, holder, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 작업 단위 lock 획득 후 점유 토큰 응답(점유 중이면 null)
+     * @title : acquireOwned
+     * @return : String
+    ***************************************************/
+    public String acquireOwned(String lockKey, String holder) {
+        String ownerToken = UUID.randomUUID().toString();
+        return acquire(lockKey, holder, ownerToken) ? ownerToken : null;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 화면 요청 lock 해제
+     * @title : release
+     * @return : boolean
+    ***************************************************/
+    public boolean release(String lockKey) {
+        return release(lockKey, null);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 해제(리스를 잃었거나 점유 토큰이 다른 lock 은 다른 요청의 lock 이므로 해제하지 않음)
+     * @title : release
+     * @return : boolean
+    ***************************************************/
+    public boolean release(String lockKey, String ownerToken) {
+        HeldLock held = heldLocks.get(lockKey);
+        if( held == null || !isSameOwner(held.ownerToken, ownerToken) || !heldLocks.remove(lockKey, held) ){
+            if( LOGGER.isDebugEnabled() ){
+                LOGGER.debug("lock is not held by this request : " + lockKey);
+            }
+            return false;
+        }
+        if( !store.release(lockKey, ownerId, held.acquireTime) ){
+            if( LOGGER.isWarnEnabled() ){
+                LOGGER.warn("lock lease was lost before release : " + lockKey);
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 강제 해제
+     * @title : forceRelease
+     * @return : void
+    ***************************************************/
+    public void forceRelease(String lockKey) {
+        heldLocks.remove(lockKey);
+        store.forceRelease(lockKey);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유 중인 lock 목록
+     * @title : getHolders
+     * @return : List<DeploymentLockVO>
+    ***************************************************/
+    public List<DeploymentLockVO> getHolders() {
+        return store.getLocks(System.currentTimeMillis());
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이 인스턴스가 점유 중인 lock 리스 연장
+     *                (최대 점유 시간을 넘었거나 연장에 실패한 lock 은 heartbeat 중단)
+     * @title : renewHeldLocks
+     * @return : void
+    ***************************************************/
+    public void renewHeldLocks() {
+        long now = System.currentTimeMillis();
+        for( Map.Entry<String, HeldLock> held : heldLocks.entrySet() ){
+            if( now - held.getValue().acquireTime > maxHoldTime ){
+                heldLocks.remove(held.getKey(), held.getValue());
+                if( LOGGER.isWarnEnabled() ){
+                    LOGGER.warn("lock exceeded max hold time and will expire : " + held.getKey());
+                }
+            } else if( !store.renew(held.getKey(), ownerId, now + leaseTime, now) ){
+                heldLocks.remove(held.getKey(), held.getValue());
+                if( LOGGER.isWarnEnabled() ){
+                    LOGGER.warn("lock lease was lost : " + held.getKey());
+                }
+            }
+        }
+    }
+
+    private boolean acquire(String lockKey, String holder, String ownerToken) {
+        long now = System.currentTimeMillis();
+        if( !store.acquire(new DeploymentLockVO(lockKey, ownerId, holder, now, now + leaseTime), now) ){
+            if( LOGGER.isDebugEnabled() ){
+                LOGGER.debug("lock is held by another request : " + lockKey);
+            }
+            return false;
+        }
+        heldLocks.put(lockKey, new HeldLock(ownerToken, now));
+        return true;
+    }
+
+    private static boolean isSameOwner(String heldToken, String ownerToken) {
+        return heldToken == null ? ownerToken == null : heldToken.equals(ownerToken);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 파일명을 lock 키로 변환
+     * @title : toLockKey
+     * @return : String
+    ***************************************************/
+    private static String toLockKey(String lockName) {
+        if( lockName.endsWith(LOCK_SUFFIX) ){
+            return lockName.substring(0, lockName.length() - LOCK_SUFFIX.length());
+        }
+        return lockName;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    //점유 토큰(화면 요청 lock 은 null)과 획득 시각
+    private static class HeldLock {
+        final String ownerToken;
+        final long acquireTime;
+
+        HeldLock(String ownerToken, long acquireTime) {
+            this.ownerToken = ownerToken;
+            this.acquireTime = acquireTime;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.util.List;
+
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
+
+public interface DeploymentLockStore {
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 획득(같은 키의 lock 이 없거나 리스가 만료된 경우에만 성공)
+     * @title : acquire
+     * @return : boolean
+    *****************************************************************/
+    boolean acquire(DeploymentLockVO lock, long now);
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 인스턴스가 점유 중인 lock 의 리스 연장(heartbeat)
+     * @title : renew
+     * @return : boolean
+    *****************************************************************/
+    boolean renew(String lockKey, String ownerId, long expireTime, long now);
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 같은 인스턴스가 같은 시각에 획득한 lock 만 해제(리스 만료 후 다른 요청이 획득한 lock 은 유지)
+     * @title : release
+     * @return : boolean
+    *****************************************************************/
+    boolean release(String lockKey, String ownerId, long acquireTime);
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점유자와 관계없이 lock 강제 해제(관리자 정리)
+     * @title : forceRelease
+     * @return : void
+    *****************************************************************/
+    void forceRelease(String lockKey);
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리스가 만료되지 않은 lock 목록(획득 시각 순)
+     * @title : getLocks
+     * @return : List<DeploymentLockVO>
+    *****************************************************************/
+    List<DeploymentLockVO> getLocks(long now);
+}
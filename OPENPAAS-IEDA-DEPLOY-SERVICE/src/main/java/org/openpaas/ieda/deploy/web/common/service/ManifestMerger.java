@@ -0,0 +1,328 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openpaas.ieda.common.exception.CommonException;
+import org.springframework.http.HttpStatus;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+final public class ManifestMerger {
+
+    //spiff merge 대신 사용하는 Manifest merge(템플릿 + stub 순서, 사용 중인 merge 문법만 지원)
+    // - 템플릿의 값은 stub 의 같은 경로 값으로 덮어씀(뒤의 stub 이 우선)
+    // - (( merge )), (( merge replace )), (( merge || 기본값 )), (( merge 경로 ))
+    // - map 의 "<<: (( merge ))", list 의 "- <<: (( merge ))"
+    // - name 이 있는 list 항목은 name 으로 경로를 찾음
+    // - 그 밖의 (( )) 값(bosh 변수 등)은 그대로 둠
+    //현재 호출하는 Bootstrap 설치는 모두 bootstrap 유형이라 merge 없이 설정 파일을 그대로 사용하므로 실제 배포에서 쓰이지 않음
+    //실제 spiff 결과와 비교 검증하지 않았으므로 다른 유형 배포에 사용하기 전 spiff 결과와 대조 필요
+
+    final private static String MERGE_KEY = "<<";
+    final private static String NAME_KEY = "name";
+    final private static Pattern MERGE_EXPRESSION =
+            Pattern.compile("^\\(\\(\\s*merge(\\s+replace)?(\\s+(?!\\|\\|)([^\\s|]+))?\\s*(\\|\\|\\s*(.*?))?\\s*\\)\\)$");
+    final private static Pattern NUMBER = Pattern.compile("^-?\\d+(\\.\\d+)?$");
+    //stub 에 경로가 없음을 나타냄(값이 null 인 경우와 구분)
+    final private static Object NOT_FOUND = new Object();
+
+    private ManifestMerger() {
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : YAML 문서(첫 번째는 템플릿, 나머지는 stub)를 merge 하여 YAML 문자열 응답
+     * @title : mergeToYaml
+     * @return : String
+    *****************************************************************/
+    public static String mergeToYaml(List<String> contents) {
+        List<Object> documents = new ArrayList<Object>(contents.size());
+        Yaml yaml = new Yaml(new Constructor(), new Representer(), new DumperOptions(), new SpiffResolver());
+        for( String content : contents ){
+            documents.add(yaml.load(content));
+        }
+        return dump(merge(documents));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 로드된 YAML 문서(첫 번째는 템플릿, 나머지는 stub)를 merge
+     * @title : merge
+     * @return : Object
+    *****************************************************************/
+    public static Object merge(List<Object> documents) {
+        if( documents.isEmpty() ){
+            return null;
+        }
+        //spiff 와 같이 각 stub 을 뒤의 stub 으로 먼저 merge(뒤의 stub 값이 우선)
+        List<Object> stubs = new ArrayList<Object>(documents.subList(1, documents.size()));
+        for( int i = stubs.size() - 1; i >= 0; i-- ){
+            stubs.set(i, new Flow(stubs.get(i), stubs.subList(i + 1, stubs.size())).flow());
+        }
+        return new Flow(documents.get(0), stubs).flow();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : merge 결과를 block 형식 YAML 로 변환
+     * @title : dump
+     * @return : String
+    *****************************************************************/
+    public static String dump(Object document) {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setIndent(2);
+        options.setWidth(Integer.MAX_VALUE);
+        return new Yaml(options).dump(document);
+    }
+
+    //"<<" 를 YAML merge key 가 아닌 문자열 key 로 읽음("<<: (( merge ))" 은 spiff 문법)
+    private static class SpiffResolver extends Resolver {
+        @Override
+        protected void addImplicitResolvers() {
+            addImplicitResolver(Tag.BOOL, BOOL, "yYnNtTfFoO");
+            addImplicitResolver(Tag.INT, INT, "-+0123456789");
+            addImplicitResolver(Tag.FLOAT, FLOAT, "-+0123456789.");
+            addImplicitResolver(Tag.NULL, NULL, "~nN\0");
+            addImplicitResolver(Tag.NULL, EMPTY, null);
+            addImplicitResolver(Tag.TIMESTAMP, TIMESTAMP, "0123456789");
+        }
+    }
+
+    //템플릿 하나를 stub 목록으로 merge
+    private static class Flow {
+        private final Object template;
+        private final List<Object> stubs;
+
+        Flow(Object template, List<Object> stubs) {
+            this.template = template;
+            this.stubs = stubs;
+        }
+
+        Object flow() {
+            return flow(template, new ArrayList<String>(), false);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object flow(Object node, List<String> path, boolean override) {
+            if( node instanceof Map ){
+                return flowMap((Map<Object, Object>) node, path);
+            }
+            if( node instanceof List ){
+                return flowList((List<Object>) node, path);
+            }
+            if( node instanceof String ){
+                Matcher expression = MERGE_EXPRESSION.matcher(((String) node).trim());
+                if( expression.matches() ){
+                    return evaluate(expression, path);
+                }
+            }
+            if( override ){
+                Object stubValue = findInStubs(path);
+                if( stubValue != NOT_FOUND ){
+                    return stubValue;
+                }
+            }
+            return node;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object flowMap(Map<Object, Object> map, List<String> path) {
+            Matcher expression = null;
+            if( map.containsKey(MERGE_KEY) && map.get(MERGE_KEY) instanceof String ){
+                expression = MERGE_EXPRESSION.matcher(((String) map.get(MERGE_KEY)).trim());
+                if( !expression.matches() ){
+                    expression = null;
+                }
+            }
+            if( expression != null && expression.group(1) != null ){
+                //<<: (( merge replace )) : stub 의 map 을 그대로 사용
+                return evaluate(expression, path);
+            }
+            Map<Object, Object> result = new LinkedHashMap<Object, Object>();
+            for( Map.Entry<Object, Object> entry : map.entrySet() ){
+                if( expression != null && MERGE_KEY.equals(entry.getKey()) ){
+                    continue;
+                }
+                result.put(entry.getKey(), flow(entry.getValue(), child(path, String.valueOf(entry.getKey())), true));
+            }
+            if( expression != null ){
+                Object stubValue = evaluate(expression, path);
+                if( stubValue instanceof Map ){
+                    for( Map.Entry<Object, Object> entry : ((Map<Object, Object>) stubValue).entrySet() ){
+                        if( !result.containsKey(entry.getKey()) ){
+                            result.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object flowList(List<Object> list, List<String> path) {
+            List<Object> result = new ArrayList<Object>(list.size());
+            for( int i = 0; i < list.size(); i++ ){
+                Object item = list.get(i);
+                if( item instanceof Map && ((Map<Object, Object>) item).size() == 1 && ((Map<Object, Object>) item).get(MERGE_KEY) instanceof String ){
+                    Matcher expression = MERGE_EXPRESSION.matcher(((String) ((Map<Object, Object>) item).get(MERGE_KEY)).trim());
+                    if( expression.matches() ){
+                        //- <<: (( merge )) : 이 위치에 stub 의 list 항목 삽입(템플릿에 같은 name 이 있는 항목은 제외)
+                        Object stubValue = evaluate(expression, path);
+                        if( stubValue instanceof List ){
+                            for( Object stubItem : (List<Object>) stubValue ){
+                                if( !(stubItem instanceof Map) || ((Map<Object, Object>) stubItem).get(NAME_KEY) == null
+                                        || findElement(list, String.valueOf(((Map<Object, Object>) stubItem).get(NAME_KEY))) == NOT_FOUND ){
+                                    result.add(stubItem);
+                                }
+                            }
+                        }
+                        continue;
+                    }
+                }
+                result.add(flow(item, child(path, elementKey(item, i)), true));
+            }
+            return result;
+        }
+
+        /****************************************************************
+         * @project : Paas 플랫폼 설치 자동화
+         * @description : merge 식을 stub 값(없으면 기본값)으로 계산
+         * @title : evaluate
+         * @return : Object
+        *****************************************************************/
+        private Object evaluate(Matcher expression, List<String> path) {
+            List<String> mergePath = expression.group(3) != null ? Arrays.asList(expression.group(3).split("\\.")) : path;
+            Object stubValue = findInStubs(mergePath);
+            if( stubValue != NOT_FOUND ){
+                return stubValue;
+            }
+            if( expression.group(4) != null ){
+                return defaultValue(expression.group(5).trim());
+            }
+            throw new CommonException("merge.manifest.exception", "Manifest merge 중 " + join(mergePath) + " 값을 찾을 수 없습니다.",
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        /****************************************************************
+         * @project : Paas 플랫폼 설치 자동화
+         * @description : "||" 뒤의 기본값(nil/문자열/숫자/boolean/빈 list·map 또는 템플릿 경로) 계산
+         * @title : defaultValue
+         * @return : Object
+        *****************************************************************/
+        private Object defaultValue(String value) {
+            if( "nil".equals(value) || "~".equals(value) ){
+                return null;
+            }
+            if( value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"") ){
+                return value.substring(1, value.length() - 1);
+            }
+            if( "true".equals(value) || "false".equals(value) ){
+                return Boolean.valueOf(value);
+            }
+            if( "[]".equals(value) ){
+                return new ArrayList<Object>();
+            }
+            if( "{}".equals(value) ){
+                return new LinkedHashMap<Object, Object>();
+            }
+            if( NUMBER.matcher(value).matches() ){
+                return value.contains(".") ? (Object) Double.valueOf(value) : (Object) Long.valueOf(value);
+            }
+            Object reference = find(template, Arrays.asList(value.split("\\.")));
+            if( reference == NOT_FOUND ){
+                throw new CommonException("merge.manifest.exception", "Manifest merge 중 " + value + " 값을 찾을 수 없습니다.",
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return reference;
+        }
+
+        private Object findInStubs(List<String> path) {
+            for( Object stub : stubs ){
+                Object value = find(stub, path);
+                if( value != NOT_FOUND ){
+                    return value;
+                }
+            }
+            return NOT_FOUND;
+        }
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 문서에서 경로 값 조회(list 는 name 또는 [index] 로 조회)
+     * @title : find
+     * @return : Object
+    *****************************************************************/
+    @SuppressWarnings("unchecked")
+    private static Object find(Object node, List<String> path) {
+        Object current = node;
+        for( String key : path ){
+            if( current instanceof Map ){
+                Map<Object, Object> map = (Map<Object, Object>) current;
+                if( !map.containsKey(key) ){
+                    return NOT_FOUND;
+                }
+                current = map.get(key);
+            } else if( current instanceof List ){
+                current = findElement((List<Object>) current, key);
+                if( current == NOT_FOUND ){
+                    return NOT_FOUND;
+                }
+            } else {
+                return NOT_FOUND;
+            }
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object findElement(List<Object> list, String key) {
+        if( key.startsWith("[") && key.endsWith("]") ){
+            int index = Integer.parseInt(key.substring(1, key.length() - 1));
+            return index < list.size() ? list.get(index) : NOT_FOUND;
+        }
+        for( Object item : list ){
+            if( item instanceof Map && key.equals(String.valueOf(((Map<Object, Object>) item).get(NAME_KEY))) ){
+                return item;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String elementKey(Object item, int index) {
+        if( item instanceof Map && ((Map<Object, Object>) item).get(NAME_KEY) != null ){
+            return String.valueOf(((Map<Object, Object>) item).get(NAME_KEY));
+        }
+        return "[" + index + "]";
+    }
+
+    private static List<String> child(List<String> path, String key) {
+        List<String> child = new ArrayList<String>(path.size() + 1);
+        child.addAll(path);
+        child.add(key);
+        return child;
+    }
+
+    private static String join(List<String> path) {
+        StringBuffer buffer = new StringBuffer();
+        for( String key : path ){
+            if( buffer.length() > 0 ){
+                buffer.append(".");
+            }
+            buffer.append(key);
+        }
+        return buffer.toString();
+    }
+}
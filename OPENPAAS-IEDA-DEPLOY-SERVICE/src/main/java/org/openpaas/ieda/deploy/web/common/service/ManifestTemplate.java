@@ -0,0 +1,184 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openpaas.ieda.deploy.web.common.dto.ReplaceItemDTO;
+
+final public class ManifestTemplate {
+
+    //"[항목명]" 치환 항목을 미리 분리한 Manifest 템플릿(문자열 조각 + 치환 위치)
+    // - 항목명은 영문/숫자/_ 로만 구성(YAML 의 [dns, gateway], [((ip))] 등은 문자열로 유지)
+    // - 값이 없는 치환 항목은 기존 String.replace 와 같이 "[항목명]" 그대로 출력
+    // - 주석(#) 줄의 치환 항목은 치환은 하되 미입력 확인에서 제외
+
+    private final String name;
+    private final long lastModified;
+    private final String source;
+    //literals[i] 다음에 slots[i] 값이 오고 마지막 조각은 literals[slots.length]
+    private final String[] literals;
+    private final String[] slots;
+    private final boolean[] commented;
+    private final int literalLength;
+
+    private ManifestTemplate(String name, long lastModified, String source, String[] literals, String[] slots, boolean[] commented) {
+        this.name = name;
+        this.lastModified = lastModified;
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.commented = commented;
+        int length = 0;
+        for( String literal : literals ){
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 템플릿 내용을 문자열 조각과 치환 항목으로 분리
+     * @title : compile
+     * @return : ManifestTemplate
+    *****************************************************************/
+    public static ManifestTemplate compile(String name, String source, long lastModified) {
+        List<String> literals = new ArrayList<String>();
+        List<String> slots = new ArrayList<String>();
+        List<Boolean> commented = new ArrayList<Boolean>();
+        int start = 0;
+        int index = source.indexOf('[');
+        while( index >= 0 ){
+            int end = index + 1;
+            if( end < source.length() && isNameStart(source.charAt(end)) ){
+                end++;
+                while( end < source.length() && isNamePart(source.charAt(end)) ){
+                    end++;
+                }
+            }
+            if( end > index + 1 && end < source.length() && source.charAt(end) == ']' ){
+                literals.add(source.substring(start, index));
+                slots.add(source.substring(index + 1, end));
+                commented.add(isCommentLine(source, index));
+                start = end + 1;
+                index = source.indexOf('[', start);
+            } else {
+                //"[[static]" 와 같이 다음 '[' 부터 치환 항목일 수 있으므로 다음 '[' 위치에서 다시 확인
+                index = source.indexOf('[', index + 1);
+            }
+        }
+        literals.add(source.substring(start));
+        boolean[] commentedSlots = new boolean[commented.size()];
+        for( int i = 0; i < commentedSlots.length; i++ ){
+            commentedSlots[i] = commented.get(i);
+        }
+        return new ManifestTemplate(name, lastModified, source,
+                literals.toArray(new String[literals.size()]), slots.toArray(new String[slots.size()]), commentedSlots);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 치환 목록을 항목명/값 Map 으로 변환
+     *                (같은 항목이 여러 번 있으면 기존 순차 치환과 같이 처음 값을 사용, null 은 빈 문자열)
+     * @title : toValues
+     * @return : Map<String, String>
+    *****************************************************************/
+    public static Map<String, String> toValues(List<ReplaceItemDTO> items) {
+        Map<String, String> values = new HashMap<String, String>(items.size() * 2);
+        for( ReplaceItemDTO item : items ){
+            String target = item.getTargetItem();
+            if( target == null || target.length() < 3 || target.charAt(0) != '[' || target.charAt(target.length() - 1) != ']' ){
+                continue;
+            }
+            String slot = target.substring(1, target.length() - 1);
+            if( !values.containsKey(slot) ){
+                values.put(slot, item.getSourceItem() == null ? "" : item.getSourceItem());
+            }
+        }
+        return values;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 치환 목록의 값으로 템플릿을 한 번에 출력
+     * @title : render
+     * @return : String
+    *****************************************************************/
+    public String render(List<ReplaceItemDTO> items) {
+        return render(toValues(items));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 항목명/값 Map 으로 템플릿을 한 번에 출력(결과 길이만큼 미리 할당)
+     * @title : render
+     * @return : String
+    *****************************************************************/
+    public String render(Map<String, String> values) {
+        String[] rendered = new String[slots.length];
+        int length = literalLength;
+        for( int i = 0; i < slots.length; i++ ){
+            String value = values.get(slots[i]);
+            rendered[i] = value == null ? "[" + slots[i] + "]" : value;
+            length += rendered[i].length();
+        }
+        StringBuilder content = new StringBuilder(length);
+        for( int i = 0; i < slots.length; i++ ){
+            content.append(literals[i]).append(rendered[i]);
+        }
+        content.append(literals[slots.length]);
+        return content.toString();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 치환 목록에 값이 없는 템플릿 치환 항목명 목록(주석 줄 제외)
+     * @title : getUnfilledPlaceholders
+     * @return : List<String>
+    *****************************************************************/
+    public List<String> getUnfilledPlaceholders(List<ReplaceItemDTO> items) {
+        Map<String, String> values = toValues(items);
+        Set<String> unfilled = new LinkedHashSet<String>();
+        for( int i = 0; i < slots.length; i++ ){
+            if( !commented[i] && !values.containsKey(slots[i]) ){
+                unfilled.add(slots[i]);
+            }
+        }
+        return new ArrayList<String>(unfilled);
+    }
+
+    private static boolean isCommentLine(String source, int index) {
+        int i = source.lastIndexOf('\n', index) + 1;
+        while( i < index && (source.charAt(i) == ' ' || source.charAt(i) == '\t') ){
+            i++;
+        }
+        return source.charAt(i) == '#';
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return isNameStart(c) || (c >= '0' && c <= '9');
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getPlaceholderCount() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,81 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final public class ManifestTemplateCache {
+
+    //classpath 의 Manifest 템플릿을 한 번만 읽고 분리해 두는 캐시(리소스 경로 + 수정 시각 기준)
+    final private static ConcurrentMap<String, ManifestTemplate> TEMPLATES = new ConcurrentHashMap<String, ManifestTemplate>();
+    //jar 내부 리소스 등 수정 시각을 알 수 없는 경우
+    final private static long UNKNOWN_MODIFIED = 0L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(ManifestTemplateCache.class);
+
+    private ManifestTemplateCache() {
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : classpath 리소스의 Manifest 템플릿 조회(없을 경우 null, 파일이 수정된 경우 다시 읽음)
+     * @title : getTemplate
+     * @return : ManifestTemplate
+    *****************************************************************/
+    public static ManifestTemplate getTemplate(String resourcePath) throws IOException {
+        URL url = ManifestTemplateCache.class.getClassLoader().getResource(resourcePath);
+        if( url == null ){
+            return null;
+        }
+        long lastModified = getLastModified(url);
+        ManifestTemplate template = TEMPLATES.get(resourcePath);
+        if( template != null && template.getLastModified() == lastModified ){
+            return template;
+        }
+        InputStream inputs = url.openStream();
+        try {
+            template = ManifestTemplate.compile(resourcePath, IOUtils.toString(inputs, "UTF-8"), lastModified);
+        } finally {
+            inputs.close();
+        }
+        TEMPLATES.put(resourcePath, template);
+        if( LOGGER.isDebugEnabled() ){
+            LOGGER.debug("manifest template compiled : " + resourcePath + " (" + template.getPlaceholderCount() + " placeholders)");
+        }
+        return template;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 캐시 비우기
+     * @title : clear
+     * @return : void
+    *****************************************************************/
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 디렉토리에 있는 리소스는 파일 수정 시각, 그 외(jar 내부)는 실행 중 바뀌지 않으므로 고정 값
+     * @title : getLastModified
+     * @return : long
+    *****************************************************************/
+    private static long getLastModified(URL url) {
+        if( !"file".equals(url.getProtocol()) ){
+            return UNKNOWN_MODIFIED;
+        }
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException e) {
+            return new File(url.getPath()).lastModified();
+        }
+    }
+}
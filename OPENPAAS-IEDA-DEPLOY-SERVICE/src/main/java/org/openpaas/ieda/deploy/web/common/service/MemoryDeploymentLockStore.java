@@ -0,0 +1,109 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
+
+public class MemoryDeploymentLockStore implements DeploymentLockStore {
+
+    //설치 관리자 한 대로 운영하는 경우의 기본 저장소(키 별 lock 을 원자적으로 교체)
+    private final ConcurrentMap<String, DeploymentLockVO> locks = new ConcurrentHashMap<String, DeploymentLockVO>();
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 획득(만료된 lock 은 새 lock 으로 교체)
+     * @title : acquire
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean acquire(DeploymentLockVO lock, long now) {
+        while( true ){
+            DeploymentLockVO current = locks.putIfAbsent(lock.getLockKey(), lock);
+            if( current == null ){
+                return true;
+            }
+            if( current.getExpireTime() >= now ){
+                return false;
+            }
+            if( locks.replace(lock.getLockKey(), current, lock) ){
+                return true;
+            }
+        }
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리스 연장(다른 인스턴스가 다시 획득한 lock 은 연장하지 않음)
+     * @title : renew
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean renew(String lockKey, String ownerId, long expireTime, long now) {
+        while( true ){
+            DeploymentLockVO current = locks.get(lockKey);
+            if( current == null || !current.getOwnerId().equals(ownerId) || current.getExpireTime() < now ){
+                return false;
+            }
+            DeploymentLockVO renewed = new DeploymentLockVO(lockKey, ownerId, current.getHolder(), current.getAcquireTime(), expireTime);
+            if( locks.replace(lockKey, current, renewed) ){
+                return true;
+            }
+        }
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 해제(점유자와 획득 시각이 같은 lock 만 제거)
+     * @title : release
+     * @return : boolean
+    *****************************************************************/
+    @Override
+    public boolean release(String lockKey, String ownerId, long acquireTime) {
+        DeploymentLockVO current = locks.get(lockKey);
+        if( current == null || !current.getOwnerId().equals(ownerId) || current.getAcquireTime() != acquireTime ){
+            return false;
+        }
+        return locks.remove(lockKey, current);
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : lock 강제 해제
+     * @title : forceRelease
+     * @return : void
+    *****************************************************************/
+    @Override
+    public void forceRelease(String lockKey) {
+        locks.remove(lockKey);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 만료된 lock 은 정리하고 점유 중인 lock 목록 응답
+     * @title : getLocks
+     * @return : List<DeploymentLockVO>
+    *****************************************************************/
+    @Override
+    public List<DeploymentLockVO> getLocks(long now) {
+        List<DeploymentLockVO> list = new ArrayList<DeploymentLockVO>();
+        for( DeploymentLockVO lock : locks.values() ){
+            if( lock.getExpireTime() < now ){
+                locks.remove(lock.getLockKey(), lock);
+            } else {
+                list.add(lock);
+            }
+        }
+        Collections.sort(list, new Comparator<DeploymentLockVO>() {
+            @Override
+            public int compare(DeploymentLockVO o1, DeploymentLockVO o2) {
+                return o1.getAcquireTime().compareTo(o2.getAcquireTime());
+            }
+        });
+        return list;
+    }
+}
@@ -0,0 +1,516 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+
+public class RangedFileDownloader {
+
+    final private static int DEFAULT_MAX_SEGMENTS = 4;
+    final private static long DEFAULT_MIN_SEGMENT_SIZE = 16 * 1024 * 1024L;
+    final private static int BUFFER_SIZE = 64 * 1024;
+    final private static int CONNECT_TIMEOUT = 30 * 1000;
+    final private static int READ_TIMEOUT = 60 * 1000;
+    final private static int MAX_REDIRECTS = 5;
+    final private static int MAX_RETRY = 5;
+    final private static long RETRY_INTERVAL = 2 * 1000L;
+    final private static long PROGRESS_INTERVAL = 1000L;
+    final private static String DOWNLOAD_SUFFIX = ".download";
+    final private static String SEGMENT_SUFFIX = ".segments";
+    final private static Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes\\s+\\d+-\\d+/(\\d+)");
+    final private static Logger LOGGER = LoggerFactory.getLogger(RangedFileDownloader.class);
+
+    private final File stateDir;
+    private final int maxSegments;
+    private final long minSegmentSize;
+
+    public RangedFileDownloader() {
+        this(new File(LocalDirectoryConfiguration.getTempDir()), DEFAULT_MAX_SEGMENTS, DEFAULT_MIN_SEGMENT_SIZE);
+    }
+
+    public RangedFileDownloader(File stateDir, int maxSegments, long minSegmentSize) {
+        this.stateDir = stateDir;
+        this.maxSegments = maxSegments;
+        this.minSegmentSize = minSegmentSize;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다운로드 진행률(%) 전달
+    ***************************************************/
+    public interface ProgressListener {
+        void onProgress(int percent);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일을 Range 구간으로 나누어 병렬 다운로드(중단 시 구간 정보로 이어 받기) 후 크기/SHA1 검증
+     * @title : download
+     * @return : String(다운로드 파일 SHA1)
+    ***************************************************/
+    public String download(String url, File target, String expectedSha1, ProgressListener listener) throws IOException {
+        RemoteFile remote = resolve(url);
+        File partFile = new File(target.getParentFile(), target.getName() + DOWNLOAD_SUFFIX);
+        File stateFile = new File(stateDir, target.getName() + SEGMENT_SUFFIX);
+        if( remote.length > 0 && remote.acceptRanges ){
+            List<Segment> segments = loadSegments(stateFile, url, remote, partFile);
+            if( segments == null ){
+                Files.deleteIfExists(partFile.toPath());
+                segments = createSegments(remote.length);
+            } else if( LOGGER.isInfoEnabled() ){
+                LOGGER.info("resume download " + target.getName() + " from " + getDownloadedSize(segments) + " bytes");
+            }
+            downloadSegments(url, remote, partFile, stateFile, segments, listener);
+        } else {
+            downloadSingle(remote, partFile, listener);
+        }
+        if( remote.length > 0 && partFile.length() != remote.length ){
+            Files.deleteIfExists(stateFile.toPath());
+            Files.deleteIfExists(partFile.toPath());
+            throw new IOException("size mismatch " + target.getName() + " : expected " + remote.length + ", actual " + partFile.length());
+        }
+        String sha1 = com.google.common.io.Files.hash(partFile, Hashing.sha1()).toString();
+        if( !StringUtils.isEmpty(expectedSha1) && !expectedSha1.equalsIgnoreCase(sha1) ){
+            Files.deleteIfExists(stateFile.toPath());
+            Files.deleteIfExists(partFile.toPath());
+            throw new IOException("sha1 mismatch " + target.getName() + " : expected " + expectedSha1 + ", actual " + sha1);
+        }
+        Files.move(partFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(stateFile.toPath());
+        if( listener != null ){
+            listener.onProgress(100);
+        }
+        return sha1;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 리다이렉트를 따라가 실제 다운로드 위치, 파일 크기, Range 지원 여부 조회
+     * @title : resolve
+     * @return : RemoteFile
+    ***************************************************/
+    RemoteFile resolve(String url) throws IOException {
+        String location = url;
+        for( int i = 0; i <= MAX_REDIRECTS; i++ ){
+            HttpURLConnection connection = open(location);
+            try {
+                connection.setRequestProperty("Range", "bytes=0-0");
+                int code = connection.getResponseCode();
+                if( code >= 300 && code < 400 && connection.getHeaderField("Location") != null ){
+                    location = new URL(new URL(location), connection.getHeaderField("Location")).toString();
+                    continue;
+                }
+                RemoteFile remote = new RemoteFile();
+                remote.location = location;
+                remote.etag = connection.getHeaderField("ETag");
+                if( code == HttpURLConnection.HTTP_PARTIAL ){
+                    Matcher matcher = CONTENT_RANGE_PATTERN.matcher(StringUtils.defaultString(connection.getHeaderField("Content-Range")));
+                    remote.acceptRanges = matcher.find();
+                    remote.length = remote.acceptRanges ? Long.parseLong(matcher.group(1)) : -1L;
+                } else if( code == HttpURLConnection.HTTP_OK ){
+                    remote.acceptRanges = false;
+                    remote.length = connection.getContentLengthLong();
+                } else {
+                    throw new IOException("download request failed (" + code + ") : " + location);
+                }
+                return remote;
+            } finally {
+                connection.disconnect();
+            }
+        }
+        throw new IOException("too many redirects : " + url);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간별 다운로드 스레드 실행 및 진행률/구간 정보 주기적 저장
+     * @title : downloadSegments
+     * @return : void
+    ***************************************************/
+    private void downloadSegments(String url, final RemoteFile remote, File partFile, File stateFile, final List<Segment> segments,
+            ProgressListener listener) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(partFile, "rw");
+        ExecutorService workers = Executors.newFixedThreadPool(segments.size(), new DownloadThreadFactory(partFile.getName()));
+        try {
+            if( file.length() != remote.length ){
+                file.setLength(remote.length);
+            }
+            final FileChannel channel = file.getChannel();
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for( final Segment segment : segments ){
+                if( segment.isDone() ){
+                    continue;
+                }
+                futures.add(workers.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        downloadSegment(remote.location, segment, channel);
+                        return null;
+                    }
+                }));
+            }
+            int lastPercent = -1;
+            for( Future<?> future : futures ){
+                while( true ){
+                    try {
+                        future.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        lastPercent = reportProgress(segments, remote.length, lastPercent, listener);
+                        saveSegments(stateFile, url, remote, segments);
+                    }
+                }
+            }
+            channel.force(false);
+        } catch (ExecutionException e) {
+            saveSegments(stateFile, url, remote, segments);
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            saveSegments(stateFile, url, remote, segments);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("download interrupted : " + partFile.getName());
+        } finally {
+            workers.shutdownNow();
+            file.close();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 구간을 Range 요청으로 다운로드하여 파일의 해당 위치에 기록(연결 오류 시 받은 위치부터 재시도)
+     * @title : downloadSegment
+     * @return : void
+    ***************************************************/
+    private void downloadSegment(String location, Segment segment, FileChannel channel) throws IOException {
+        int retry = 0;
+        while( !segment.isDone() ){
+            long before = segment.position.get();
+            try {
+                fetchRange(location, segment, channel);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                retry = segment.position.get() > before ? 1 : retry + 1;
+                if( retry > MAX_RETRY ){
+                    throw e;
+                }
+                if( LOGGER.isWarnEnabled() ){ LOGGER.warn("retry segment " + segment.start + "-" + segment.end + " (" + retry + ") : " + e.getMessage()); }
+                try {
+                    Thread.sleep(RETRY_INTERVAL * retry);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("download interrupted");
+                }
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간의 남은 범위를 요청하여 FileChannel 위치 쓰기로 기록
+     * @title : fetchRange
+     * @return : void
+    ***************************************************/
+    private void fetchRange(String location, Segment segment, FileChannel channel) throws IOException {
+        HttpURLConnection connection = open(location);
+        try {
+            connection.setRequestProperty("Range", "bytes=" + segment.position.get() + "-" + segment.end);
+            int code = connection.getResponseCode();
+            if( code != HttpURLConnection.HTTP_PARTIAL ){
+                throw new IOException("range request failed (" + code + ") : " + location);
+            }
+            InputStream input = connection.getInputStream();
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while( !segment.isDone() && (read = input.read(buffer, 0, (int) Math.min(buffer.length, segment.getRemaining()))) != -1 ){
+                    if( Thread.currentThread().isInterrupted() ){
+                        throw new InterruptedIOException("download interrupted");
+                    }
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    long position = segment.position.get();
+                    while( byteBuffer.hasRemaining() ){
+                        position += channel.write(byteBuffer, position);
+                    }
+                    segment.position.set(position);
+                }
+            } finally {
+                input.close();
+            }
+            if( !segment.isDone() ){
+                throw new IOException("connection closed before segment end : " + segment.position.get() + "/" + segment.end);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : Range 요청을 지원하지 않는 서버에서 단일 스트림으로 다운로드
+     * @title : downloadSingle
+     * @return : void
+    ***************************************************/
+    private void downloadSingle(RemoteFile remote, File partFile, ProgressListener listener) throws IOException {
+        HttpURLConnection connection = open(remote.location);
+        try {
+            int code = connection.getResponseCode();
+            if( code != HttpURLConnection.HTTP_OK ){
+                throw new IOException("download request failed (" + code + ") : " + remote.location);
+            }
+            InputStream input = connection.getInputStream();
+            OutputStream output = new FileOutputStream(partFile);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long downloaded = 0L;
+                long lastReport = System.currentTimeMillis();
+                int lastPercent = -1;
+                int read;
+                while( (read = input.read(buffer)) != -1 ){
+                    output.write(buffer, 0, read);
+                    downloaded += read;
+                    if( remote.length > 0 && System.currentTimeMillis() - lastReport >= PROGRESS_INTERVAL ){
+                        lastReport = System.currentTimeMillis();
+                        lastPercent = notifyProgress(downloaded, remote.length, lastPercent, listener);
+                    }
+                }
+            } finally {
+                output.close();
+                input.close();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 파일 크기를 구간으로 분할
+     * @title : createSegments
+     * @return : List<Segment>
+    ***************************************************/
+    List<Segment> createSegments(long length) {
+        int count = (int) Math.max(1L, Math.min(maxSegments, length / minSegmentSize));
+        long size = length / count;
+        List<Segment> segments = new ArrayList<Segment>();
+        for( int i = 0; i < count; i++ ){
+            long start = i * size;
+            long end = (i == count - 1) ? length - 1 : start + size - 1;
+            segments.add(new Segment(start, end, start));
+        }
+        return segments;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이전 다운로드의 구간 정보 조회(원격 파일이 변경되었거나 임시 파일이 없으면 null)
+     * @title : loadSegments
+     * @return : List<Segment>
+    ***************************************************/
+    private List<Segment> loadSegments(File stateFile, String url, RemoteFile remote, File partFile) {
+        if( !stateFile.exists() || !partFile.exists() ){
+            return null;
+        }
+        Properties state = new Properties();
+        InputStream input = null;
+        try {
+            input = new FileInputStream(stateFile);
+            state.load(input);
+            if( !url.equals(state.getProperty("url")) || remote.length != Long.parseLong(state.getProperty("length", "-1"))
+                    || !StringUtils.defaultString(remote.etag).equals(state.getProperty("etag", "")) ){
+                return null;
+            }
+            List<Segment> segments = new ArrayList<Segment>();
+            int count = Integer.parseInt(state.getProperty("segments", "0"));
+            for( int i = 0; i < count; i++ ){
+                String[] values = state.getProperty("segment." + i).split(",");
+                segments.add(new Segment(Long.parseLong(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2])));
+            }
+            return segments.isEmpty() ? null : segments;
+        } catch (IOException | RuntimeException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("ignore download state " + stateFile.getName() + " : " + e.getMessage()); }
+            return null;
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 이어 받기를 위해 구간별 다운로드 위치 저장
+     * @title : saveSegments
+     * @return : void
+    ***************************************************/
+    private void saveSegments(File stateFile, String url, RemoteFile remote, List<Segment> segments) {
+        Properties state = new Properties();
+        state.setProperty("url", url);
+        state.setProperty("length", String.valueOf(remote.length));
+        state.setProperty("etag", StringUtils.defaultString(remote.etag));
+        state.setProperty("segments", String.valueOf(segments.size()));
+        for( int i = 0; i < segments.size(); i++ ){
+            Segment segment = segments.get(i);
+            state.setProperty("segment." + i, segment.start + "," + segment.end + "," + segment.position.get());
+        }
+        File tmpStateFile = new File(stateFile.getParentFile(), stateFile.getName() + ".tmp");
+        OutputStream output = null;
+        try {
+            output = new FileOutputStream(tmpStateFile);
+            state.store(output, null);
+            output.close();
+            output = null;
+            Files.move(tmpStateFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("can't save download state " + stateFile.getName() + " : " + e.getMessage()); }
+        } finally {
+            closeQuietly(output);
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간별 다운로드 크기 합계로 진행률 전달
+     * @title : reportProgress
+     * @return : int
+    ***************************************************/
+    private int reportProgress(List<Segment> segments, long length, int lastPercent, ProgressListener listener) {
+        return notifyProgress(getDownloadedSize(segments), length, lastPercent, listener);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 진행률이 바뀐 경우에만 전달(100%는 검증 완료 후 전달)
+     * @title : notifyProgress
+     * @return : int
+    ***************************************************/
+    private int notifyProgress(long downloaded, long length, int lastPercent, ProgressListener listener) {
+        int percent = (int) Math.min(99L, downloaded * 100L / length);
+        if( listener != null && percent != lastPercent ){
+            listener.onProgress(percent);
+        }
+        return percent;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 구간별 다운로드 크기 합계
+     * @title : getDownloadedSize
+     * @return : long
+    ***************************************************/
+    private long getDownloadedSize(List<Segment> segments) {
+        long downloaded = 0L;
+        for( Segment segment : segments ){
+            downloaded += segment.position.get() - segment.start;
+        }
+        return downloaded;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다운로드 연결 생성
+     * @title : open
+     * @return : HttpURLConnection
+    ***************************************************/
+    private HttpURLConnection open(String location) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(location).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        return connection;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스트림 닫기(오류 무시)
+     * @title : closeQuietly
+     * @return : void
+    ***************************************************/
+    private void closeQuietly(Closeable closeable) {
+        if( closeable == null ){
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            if( LOGGER.isDebugEnabled() ){ LOGGER.debug(e.getMessage()); }
+        }
+    }
+
+    static class RemoteFile {
+        String location;
+        long length;
+        boolean acceptRanges;
+        String etag;
+    }
+
+    static class Segment {
+        final long start;
+        final long end;
+        final AtomicLong position;
+
+        Segment(long start, long end, long position) {
+            this.start = start;
+            this.end = end;
+            this.position = new AtomicLong(position);
+        }
+
+        boolean isDone() {
+            return position.get() > end;
+        }
+
+        long getRemaining() {
+            return end - position.get() + 1;
+        }
+    }
+
+    private static class DownloadThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DownloadThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "download-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+final class X509CertificateBuilder {
+
+    //bosh interpolate(--vars-store) 와 같은 형식의 인증서를 JDK 만으로 생성(DER 직접 인코딩)
+    // - 주체 : C=USA, O=Cloud Foundry, CN=<common_name>
+    // - SHA256withRSA 서명, 유효 기간 1년
+    // - CA : basicConstraints(CA) + keyCertSign/cRLSign
+    // - 인증서 : digitalSignature/keyEncipherment + extended_key_usage + alternative_names(IP/DNS)
+
+    final private static Charset UTF_8 = Charset.forName("UTF-8");
+    final private static String COUNTRY = "USA";
+    final private static String ORGANIZATION = "Cloud Foundry";
+    final private static long VALIDITY = 365L * 24 * 60 * 60 * 1000;
+    final private static Pattern IPV4 = Pattern.compile("^\\d{1,3}(\\.\\d{1,3}){3}$");
+
+    final private static String OID_COUNTRY = "2.5.4.6";
+    final private static String OID_ORGANIZATION = "2.5.4.10";
+    final private static String OID_COMMON_NAME = "2.5.4.3";
+    final private static String OID_RSA_ENCRYPTION = "1.2.840.113549.1.1.1";
+    final private static String OID_SHA256_WITH_RSA = "1.2.840.113549.1.1.11";
+    final private static String OID_SUBJECT_KEY_ID = "2.5.29.14";
+    final private static String OID_KEY_USAGE = "2.5.29.15";
+    final private static String OID_SUBJECT_ALT_NAME = "2.5.29.17";
+    final private static String OID_BASIC_CONSTRAINTS = "2.5.29.19";
+    final private static String OID_AUTHORITY_KEY_ID = "2.5.29.35";
+    final private static String OID_EXT_KEY_USAGE = "2.5.29.37";
+    final private static String OID_SERVER_AUTH = "1.3.6.1.5.5.7.3.1";
+    final private static String OID_CLIENT_AUTH = "1.3.6.1.5.5.7.3.2";
+
+    //keyCertSign, cRLSign
+    final private static byte[] CA_KEY_USAGE = { 0x01, 0x06 };
+    //digitalSignature, keyEncipherment
+    final private static byte[] LEAF_KEY_USAGE = { 0x05, (byte) 0xA0 };
+
+    final private static SecureRandom RANDOM = new SecureRandom();
+
+    private X509CertificateBuilder() {
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 인증서 생성(issuer/issuerKey 가 null 이면 자체 서명)
+     * @title : build
+     * @return : X509Certificate
+    *****************************************************************/
+    static X509Certificate build(String commonName, List<String> alternativeNames, List<String> extendedKeyUsages, boolean isCa,
+            KeyPair keyPair, X509Certificate issuer, PrivateKey issuerKey) throws GeneralSecurityException {
+        byte[] subject = name(commonName);
+        byte[] subjectKeyId = keyIdentifier(keyPair.getPublic());
+        byte[] issuerName = subject;
+        byte[] authorityKeyId = subjectKeyId;
+        PrivateKey signingKey = keyPair.getPrivate();
+        if( issuer != null ){
+            issuerName = issuer.getSubjectX500Principal().getEncoded();
+            //issuer 가 bosh 등 외부에서 생성된 CA 일 수 있으므로 계산하지 않고 issuer 의 SKI 를 그대로 사용
+            authorityKeyId = issuerKeyIdentifier(issuer);
+            signingKey = issuerKey;
+        }
+
+        List<byte[]> extensions = new ArrayList<byte[]>();
+        extensions.add(extension(OID_BASIC_CONSTRAINTS, true, isCa ? sequence(tlv(0x01, new byte[] { (byte) 0xFF })) : sequence()));
+        extensions.add(extension(OID_KEY_USAGE, true, tlv(0x03, isCa ? CA_KEY_USAGE : LEAF_KEY_USAGE)));
+        if( extendedKeyUsages != null && !extendedKeyUsages.isEmpty() ){
+            List<byte[]> usages = new ArrayList<byte[]>();
+            for( String usage : extendedKeyUsages ){
+                if( "server_auth".equals(usage) ){
+                    usages.add(oid(OID_SERVER_AUTH));
+                } else if( "client_auth".equals(usage) ){
+                    usages.add(oid(OID_CLIENT_AUTH));
+                } else {
+                    throw new GeneralSecurityException("unsupported extended_key_usage : " + usage);
+                }
+            }
+            extensions.add(extension(OID_EXT_KEY_USAGE, false, sequence(usages)));
+        }
+        if( alternativeNames != null && !alternativeNames.isEmpty() ){
+            List<byte[]> names = new ArrayList<byte[]>();
+            for( String alternativeName : alternativeNames ){
+                names.add(generalName(alternativeName));
+            }
+            extensions.add(extension(OID_SUBJECT_ALT_NAME, false, sequence(names)));
+        }
+        extensions.add(extension(OID_SUBJECT_KEY_ID, false, tlv(0x04, subjectKeyId)));
+        extensions.add(extension(OID_AUTHORITY_KEY_ID, false, sequence(tlv(0x80, authorityKeyId))));
+
+        long now = System.currentTimeMillis();
+        byte[] algorithm = sequence(oid(OID_SHA256_WITH_RSA), tlv(0x05, new byte[0]));
+        byte[] tbs = sequence(
+                tlv(0xA0, integer(BigInteger.valueOf(2))),
+                integer(new BigInteger(128, RANDOM)),
+                algorithm,
+                issuerName,
+                sequence(time(new Date(now)), time(new Date(now + VALIDITY))),
+                subject,
+                keyPair.getPublic().getEncoded(),
+                tlv(0xA3, sequence(extensions)));
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKey);
+        signature.update(tbs);
+        byte[] signed = signature.sign();
+        byte[] bits = new byte[signed.length + 1];
+        System.arraycopy(signed, 0, bits, 1, signed.length);
+
+        byte[] certificate = sequence(tbs, algorithm, tlv(0x03, bits));
+        return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(certificate));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : RSA 개인키를 PKCS#1(RSA PRIVATE KEY) 형식으로 인코딩
+     * @title : pkcs1
+     * @return : byte[]
+    *****************************************************************/
+    static byte[] pkcs1(RSAPrivateCrtKey key) {
+        return sequence(integer(BigInteger.ZERO), integer(key.getModulus()), integer(key.getPublicExponent()),
+                integer(key.getPrivateExponent()), integer(key.getPrimeP()), integer(key.getPrimeQ()),
+                integer(key.getPrimeExponentP()), integer(key.getPrimeExponentQ()), integer(key.getCrtCoefficient()));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : PKCS#1 개인키를 JDK KeyFactory 가 읽는 PKCS#8 형식으로 감싸기
+     * @title : pkcs8
+     * @return : byte[]
+    *****************************************************************/
+    static byte[] pkcs8(byte[] pkcs1) {
+        return sequence(integer(BigInteger.ZERO), sequence(oid(OID_RSA_ENCRYPTION), tlv(0x05, new byte[0])), tlv(0x04, pkcs1));
+    }
+
+    private static byte[] name(String commonName) {
+        return sequence(
+                rdn(OID_COUNTRY, tlv(0x13, COUNTRY.getBytes(UTF_8))),
+                rdn(OID_ORGANIZATION, tlv(0x0C, ORGANIZATION.getBytes(UTF_8))),
+                rdn(OID_COMMON_NAME, tlv(0x0C, commonName.getBytes(UTF_8))));
+    }
+
+    private static byte[] rdn(String type, byte[] value) {
+        return tlv(0x31, sequence(oid(type), value));
+    }
+
+    private static byte[] generalName(String name) throws GeneralSecurityException {
+        if( IPV4.matcher(name).matches() || name.indexOf(':') >= 0 ){
+            try {
+                //IP 문자열이므로 DNS 조회 없이 변환
+                return tlv(0x87, InetAddress.getByName(name).getAddress());
+            } catch (UnknownHostException e) {
+                throw new GeneralSecurityException("invalid ip address : " + name);
+            }
+        }
+        return tlv(0x82, name.getBytes(UTF_8));
+    }
+
+    private static byte[] extension(String type, boolean critical, byte[] value) {
+        if( critical ){
+            return sequence(oid(type), tlv(0x01, new byte[] { (byte) 0xFF }), tlv(0x04, value));
+        }
+        return sequence(oid(type), tlv(0x04, value));
+    }
+
+    //RFC 5280 4.2.1.2 (1) : subjectPublicKey BIT STRING 값(tag, 길이, unused bits 제외)의 SHA-1
+    private static byte[] keyIdentifier(PublicKey key) throws GeneralSecurityException {
+        //SubjectPublicKeyInfo ::= SEQUENCE { algorithm AlgorithmIdentifier, subjectPublicKey BIT STRING }
+        byte[] spki = key.getEncoded();
+        int[] info = content(spki, 0, 0x30);
+        int[] algorithm = content(spki, info[0], 0x30);
+        int[] bits = content(spki, algorithm[0] + algorithm[1], 0x03);
+        return MessageDigest.getInstance("SHA-1").digest(Arrays.copyOfRange(spki, bits[0] + 1, bits[0] + bits[1]));
+    }
+
+    private static byte[] issuerKeyIdentifier(X509Certificate issuer) throws GeneralSecurityException {
+        //getExtensionValue 는 extnValue OCTET STRING 을, extnValue 는 KeyIdentifier OCTET STRING 을 담고 있다.
+        byte[] extension = issuer.getExtensionValue(OID_SUBJECT_KEY_ID);
+        if( extension == null ){
+            return keyIdentifier(issuer.getPublicKey());
+        }
+        int[] value = content(extension, 0, 0x04);
+        int[] keyId = content(extension, value[0], 0x04);
+        return Arrays.copyOfRange(extension, keyId[0], keyId[0] + keyId[1]);
+    }
+
+    //tag 를 확인한 DER 항목의 값 시작 위치와 길이
+    private static int[] content(byte[] der, int offset, int tag) throws GeneralSecurityException {
+        if( offset + 2 > der.length || (der[offset] & 0xFF) != tag ){
+            throw new GeneralSecurityException("invalid DER encoding : expected tag " + tag);
+        }
+        int position = offset + 1;
+        int length = der[position++] & 0xFF;
+        if( length > 0x7F ){
+            int count = length & 0x7F;
+            if( count > 4 || position + count > der.length ){
+                throw new GeneralSecurityException("invalid DER length");
+            }
+            length = 0;
+            for( int i = 0; i < count; i++ ){
+                length = (length << 8) | (der[position++] & 0xFF);
+            }
+        }
+        if( length < 0 || position + length > der.length ){
+            throw new GeneralSecurityException("invalid DER length");
+        }
+        return new int[] { position, length };
+    }
+
+    private static byte[] time(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("yyMMddHHmmss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return tlv(0x17, format.format(date).getBytes(UTF_8));
+    }
+
+    private static byte[] integer(BigInteger value) {
+        return tlv(0x02, value.toByteArray());
+    }
+
+    private static byte[] oid(String oid) {
+        String[] parts = oid.split("\\.");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(Integer.parseInt(parts[0]) * 40 + Integer.parseInt(parts[1]));
+        for( int i = 2; i < parts.length; i++ ){
+            long value = Long.parseLong(parts[i]);
+            int shift = 63 - Long.numberOfLeadingZeros(value | 1);
+            for( int bits = shift / 7 * 7; bits > 0; bits -= 7 ){
+                out.write((int) ((value >>> bits) & 0x7F) | 0x80);
+            }
+            out.write((int) (value & 0x7F));
+        }
+        return tlv(0x06, out.toByteArray());
+    }
+
+    private static byte[] sequence(byte[]... values) {
+        List<byte[]> list = new ArrayList<byte[]>(values.length);
+        for( byte[] value : values ){
+            list.add(value);
+        }
+        return sequence(list);
+    }
+
+    private static byte[] sequence(List<byte[]> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for( byte[] value : values ){
+            out.write(value, 0, value.length);
+        }
+        return tlv(0x30, out.toByteArray());
+    }
+
+    private static byte[] tlv(int tag, byte[] value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+        out.write(tag);
+        int length = value.length;
+        if( length < 0x80 ){
+            out.write(length);
+        } else {
+            int size = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | size);
+            for( int i = size - 1; i >= 0; i-- ){
+                out.write((length >>> (i * 8)) & 0xFF);
+            }
+        }
+        out.write(value, 0, value.length);
+        return out.toByteArray();
+    }
+}
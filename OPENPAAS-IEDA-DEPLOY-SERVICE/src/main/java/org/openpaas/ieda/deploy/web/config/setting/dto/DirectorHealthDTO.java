@@ -0,0 +1,87 @@
+package org.openpaas.ieda.deploy.web.config.setting.dto;
+
+import org.openpaas.ieda.deploy.api.director.dto.DirectorInfoDTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class DirectorHealthDTO {
+
+    private String directorUrl; //URL
+    private int directorPort; //포트번호
+    @JsonIgnore
+    private String userId; //관리자 계정
+    @JsonIgnore
+    private String userPassword; //패스워드
+    private boolean connect; //연결 여부
+    private DirectorInfoDTO directorInfo; // /info 응답 정보
+    private long checkTime; //마지막 점검 시간(ms)
+
+    public DirectorHealthDTO() {}
+
+    public DirectorHealthDTO(String directorUrl, int directorPort, String userId, String userPassword) {
+        this.directorUrl = directorUrl;
+        this.directorPort = directorPort;
+        this.userId = userId;
+        this.userPassword = userPassword;
+    }
+
+    public String getKey() {
+        return directorUrl + ":" + directorPort;
+    }
+
+    public String getDirectorUrl() {
+        return directorUrl;
+    }
+
+    public void setDirectorUrl(String directorUrl) {
+        this.directorUrl = directorUrl;
+    }
+
+    public int getDirectorPort() {
+        return directorPort;
+    }
+
+    public void setDirectorPort(int directorPort) {
+        this.directorPort = directorPort;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserPassword() {
+        return userPassword;
+    }
+
+    public void setUserPassword(String userPassword) {
+        this.userPassword = userPassword;
+    }
+
+    public boolean isConnect() {
+        return connect;
+    }
+
+    public void setConnect(boolean connect) {
+        this.connect = connect;
+    }
+
+    public DirectorInfoDTO getDirectorInfo() {
+        return directorInfo;
+    }
+
+    public void setDirectorInfo(DirectorInfoDTO directorInfo) {
+        this.directorInfo = directorInfo;
+    }
+
+    public long getCheckTime() {
+        return checkTime;
+    }
+
+    public void setCheckTime(long checkTime) {
+        this.checkTime = checkTime;
+    }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.GetMethod;
-import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
@@ -36,6 +35,7 @@ import java.util.Map;
 public class DirectorConfigService  {
     
     @Autowired private DirectorConfigDAO dao;
+    @Autowired private DirectorHealthRegistry directorHealthRegistry;
     
     final private static String BASE_DIR = System.getProperty("user.home");
     final private static String SEPARATOR = System.getProperty("file.separator");
@@ -50,10 +50,11 @@ public class DirectorConfigService  {
     ***************************************************/
     @Transactional
     public DirectorConfigVO getDefaultDirector() {
-        //기본 설치 관리자 존재 여부 조회
-        DirectorConfigVO directorConfig = dao.selectDirectorConfigByDefaultYn("Y");
+        //기본 설치 관리자 존재 여부 조회(메모리 캐시, 변경 시 무효화)
+        DirectorConfigVO directorConfig = directorHealthRegistry.getDefaultDirector();
         if( directorConfig != null ){
-            boolean flag = checkDirectorConnect(directorConfig.getDirectorUrl(), directorConfig.getDirectorPort(), directorConfig.getUserId(), directorConfig.getUserPassword());
+            //연결 상태는 백그라운드 점검 결과를 사용
+            boolean flag = directorHealthRegistry.isConnected(directorConfig.getDirectorUrl(), directorConfig.getDirectorPort(), directorConfig.getUserId(), directorConfig.getUserPassword());
             if(flag)
                 directorConfig.setConnect(flag);
             else {
@@ -61,7 +62,8 @@ public class DirectorConfigService  {
                 SessionInfoDTO session = new SessionInfoDTO();
                 directorConfig.setUpdateUserId(session.getUserId());
                 dao.updateDirector(directorConfig);
-                directorConfig = dao.selectDirectorConfigByDefaultYn("Y");
+                directorHealthRegistry.invalidateDefaultDirector();
+                directorConfig = directorHealthRegistry.getDefaultDirector();
             }
         }
         return directorConfig;
@@ -92,9 +94,10 @@ public class DirectorConfigService  {
     ***************************************************/
     public DirectorInfoDTO getDirectorInfo(String directorUrl, int port, String userId, String password) {
         DirectorInfoDTO info = null;
+        GetMethod get = null;
         try {
-            HttpClient client = DirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(DirectorRestHelper.getInfoURI(directorUrl, port)); 
+            HttpClient client = DirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(DirectorRestHelper.getInfoURI(directorUrl, port)); 
             get = (GetMethod)DirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             client.executeMethod(get);
         
@@ -104,6 +107,10 @@ public class DirectorConfigService  {
             if( LOGGER.isErrorEnabled() ){
                 LOGGER.error( e.getMessage() );
             }
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         
         return info;
@@ -117,17 +124,16 @@ public class DirectorConfigService  {
     ***************************************************/
     public boolean checkDirectorConnect(String directorUrl, int port, String userId, String password) {
         boolean flag = true;
+        GetMethod get = null;
         try {
-            HttpClient client = DirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(DirectorRestHelper.getInfoURI(directorUrl, port)); 
+            HttpClient client = DirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(DirectorRestHelper.getInfoURI(directorUrl, port)); 
             get = (GetMethod)DirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             ////////////////////////////////////////////////////////////////////////
             //[20190508] Director connet Timeout
             ////////////////////////////////////////////////////////////////////////
-            HttpConnectionManagerParams params = new HttpConnectionManagerParams();
-            params.setConnectionTimeout(30000);
-            params.setSoTimeout(30000);
-            client.getHttpConnectionManager().setParams(params);
+            //공용 커넥션 풀의 설정을 변경하지 않도록 요청 단위로 응답 대기 시간 지정(연결 Timeout은 풀 설정 30초)
+            get.getParams().setSoTimeout(30000);
             ////////////////////////////////////////////////////////////////////////
             client.executeMethod(get);
         } catch (RuntimeException e) {
@@ -138,6 +144,11 @@ public class DirectorConfigService  {
             return false;
         } catch (Exception e) {
             return false;
+        } finally {
+            //응답 본문을 읽지 않으므로 커넥션을 풀에 반환
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         return flag;
     }
@@ -226,6 +237,7 @@ public class DirectorConfigService  {
             // stemcell 조회 > httpStatus > 조건 200 이 아닐경우 Exception >> database update
             if(httpStatus.equals("200")){
                 dao.insertDirector(directorConfig);
+                directorHealthRegistry.invalidateDefaultDirector();
             }else{
                 throw new CommonException("unAuthorized.director.exception",
                         "실행 권한이 없습니다.", HttpStatus.UNAUTHORIZED);
@@ -279,7 +291,8 @@ public class DirectorConfigService  {
                 throw new CommonException("notfound.directorFile.exception",
                         "기본 디렉터로 설정 중 에러가 발생 했습니다. 정보를 확인 해주세요.", HttpStatus.NOT_FOUND);
             }
-            Thread.sleep(10000);
+            //alias-env 가 bosh config 파일 저장을 마치고 종료할 때까지 대기
+            process.waitFor();
             
             String boshConfigFile = BASE_DIR+SEPARATOR+".bosh"+SEPARATOR+"config";
             input = new FileInputStream(new File(boshConfigFile));
@@ -351,6 +364,7 @@ public class DirectorConfigService  {
                     "해당하는 설치관리자는 존재하지 않습니다.", HttpStatus.NOT_FOUND);
         }
         dao.deleteDirector(seq);
+        directorHealthRegistry.invalidate(directorConfig.getDirectorUrl(), directorConfig.getDirectorPort());
     }
 
     
@@ -419,10 +433,12 @@ public class DirectorConfigService  {
             if(httpStatus.equals("200")){
                 dao.updateDirector(oldDefaultDiretor);
                 dao.updateDirector(directorConfig);
+                directorHealthRegistry.invalidateDefaultDirector();
             }else{
                 oldDefaultDiretor.setDefaultYn("Y");
                 oldDefaultDiretor.setUpdateUserId(sessionInfo.getUserId());
                 dao.updateDirector(oldDefaultDiretor);
+                directorHealthRegistry.invalidateDefaultDirector();
                 throw new CommonException("unAuthorized.director.exception",
                         "로그인 되지 않아 실행 권한이 없습니다.", HttpStatus.UNAUTHORIZED);
             }
@@ -459,14 +475,19 @@ public class DirectorConfigService  {
     *****************************************************************/
     public int isExistBoshEnvLogin(String directorUrl, int port, String userId, String password){
         int statusResult = 0;
+        GetMethod get = null;
         try {
-            HttpClient client = DirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(DirectorRestHelper.getStemcellsURI(directorUrl, port)); 
+            HttpClient client = DirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(DirectorRestHelper.getStemcellsURI(directorUrl, port)); 
             get = (GetMethod)DirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             statusResult = client.executeMethod(get);
         } catch (Exception e) {
             if( LOGGER.isErrorEnabled() ){ LOGGER.error( e.getMessage() );}
-        } 
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
+        }
         return statusResult;
     }
     
@@ -484,28 +505,16 @@ public class DirectorConfigService  {
             LOGGER.debug("Credential key path file directory create :: " + result);
         }        
         if(itr.hasNext()) {
-            BufferedOutputStream stream = null;
             MultipartFile mpf = request.getFile(itr.next());
             try { 
                 String keyFilePath = CREDENTIAL_DIR + mpf.getOriginalFilename();
-                byte[] bytes = mpf.getBytes();
                 File isKeyFile = new File(keyFilePath);
-                stream = new BufferedOutputStream(new FileOutputStream(isKeyFile));
-                stream.write(bytes); 
-                        
+                //메모리에 올리지 않고 임시 파일을 그대로 이동(또는 복사)
+                mpf.transferTo(isKeyFile);
             } catch (IOException e) {
                 e.printStackTrace();
                 throw new CommonException("notfound.keyFile.exception",
                         "Key 입력 정보를 확인해 주세요.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } finally {
-                try {
-                    if( stream != null ) {
-                        stream.close();
-                    }
-                } catch (IOException e) {
-                    throw new CommonException("notfound.keyFile.exception",
-                            "Key 입력 정보를 확인해 주세요.", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
             }
         }
     }
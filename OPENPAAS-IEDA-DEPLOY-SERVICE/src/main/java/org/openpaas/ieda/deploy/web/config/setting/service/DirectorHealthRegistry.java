@@ -0,0 +1,350 @@
+package org.openpaas.ieda.deploy.web.config.setting.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.SimpleHttpConnectionManager;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.openpaas.ieda.deploy.api.director.dto.DirectorInfoDTO;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigDAO;
+import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
+import org.openpaas.ieda.deploy.web.config.setting.dto.DirectorHealthDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Component
+public class DirectorHealthRegistry {
+
+    @Autowired private DirectorConfigDAO dao;
+    @Autowired(required = false) private List<DirectorHealthTargetSource> targetSources;
+
+    final private static long REFRESH_INTERVAL = 30 * 1000L;
+    //백그라운드 점검이 지연될 경우 이 시간이 지난 상태 정보는 요청 시 다시 점검
+    final private static long STALE_TIME = 3 * REFRESH_INTERVAL;
+    //응답하지 않는 설치 관리자 점검이 오래 걸리지 않도록 연결/응답 대기 시간을 짧게 지정
+    final private static int PROBE_CONNECT_TIMEOUT = 5 * 1000;
+    final private static int PROBE_SO_TIMEOUT = 10 * 1000;
+    //점검 이력이 없는 설치 관리자 요청 시 점검 결과를 기다리는 최대 시간(초과 시 연결 실패로 응답)
+    final private static long PROBE_WAIT_TIME = 5 * 1000L;
+    final private static int PROBE_THREAD_COUNT = 8;
+    private final static Logger LOGGER = LoggerFactory.getLogger(DirectorHealthRegistry.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, DirectorHealthDTO> healthMap = new ConcurrentHashMap<String, DirectorHealthDTO>();
+    private final AtomicLong defaultDirectorVersion = new AtomicLong();
+    private volatile DirectorConfigVO defaultDirector;
+    private volatile boolean defaultDirectorLoaded = false;
+    //설치 관리자 별 진행 중인 점검(같은 설치 관리자는 한 번에 하나만 점검)
+    private final ConcurrentMap<String, Future<DirectorHealthDTO>> probing = new ConcurrentHashMap<String, Future<DirectorHealthDTO>>();
+    //설치 관리자 점검은 공용 스케줄러가 아닌 전용 스레드에서 동시에 실행
+    private ExecutorService probeExecutor;
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 점검 전용 실행기 시작
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public synchronized void initialize() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        probeExecutor = Executors.newFixedThreadPool(PROBE_THREAD_COUNT, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "director-health-probe-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 점검 전용 실행기 종료
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public synchronized void shutdown() {
+        if( probeExecutor != null ){
+            probeExecutor.shutdownNow();
+            probeExecutor = null;
+        }
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 메모리에 보관된 기본 설치 관리자 정보를 복사하여 응답(없을 경우 DB 조회)
+     * @title : getDefaultDirector
+     * @return : DirectorConfigVO
+    ***************************************************/
+    public DirectorConfigVO getDefaultDirector() {
+        if( !defaultDirectorLoaded ){
+            long version = defaultDirectorVersion.get();
+            DirectorConfigVO directorConfig = dao.selectDirectorConfigByDefaultYn("Y");
+            synchronized (this) {
+                //조회 중 무효화 되었다면 캐시하지 않는다.
+                if( version == defaultDirectorVersion.get() ){
+                    defaultDirector = directorConfig;
+                    defaultDirectorLoaded = true;
+                }
+            }
+            return copyOf(directorConfig);
+        }
+        return copyOf(defaultDirector);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 정보 변경(추가/수정/삭제/기본 설정) 시 기본 설치 관리자 캐시 무효화
+     * @title : invalidateDefaultDirector
+     * @return : void
+    ***************************************************/
+    public synchronized void invalidateDefaultDirector() {
+        defaultDirectorVersion.incrementAndGet();
+        defaultDirector = null;
+        defaultDirectorLoaded = false;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 연결 상태 정보 무효화
+     * @title : invalidate
+     * @return : void
+    ***************************************************/
+    public void invalidate(String directorUrl, Integer port) {
+        healthMap.remove(directorUrl + ":" + port);
+        invalidateDefaultDirector();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 캐시된 설치 관리자 연결 여부 응답(점검 이력이 없거나 오래된 경우 즉시 점검)
+     * @title : isConnected
+     * @return : boolean
+    ***************************************************/
+    public boolean isConnected(String directorUrl, int port, String userId, String password) {
+        return getHealth(directorUrl, port, userId, password).isConnect();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 캐시된 설치 관리자 /info 정보 응답
+     * @title : getDirectorInfo
+     * @return : DirectorInfoDTO
+    ***************************************************/
+    public DirectorInfoDTO getDirectorInfo(String directorUrl, int port, String userId, String password) {
+        return getHealth(directorUrl, port, userId, password).getDirectorInfo();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 별 연결 상태 정보 조회
+     *                오래된 정보는 그대로 응답하고 백그라운드에서 다시 점검,
+     *                점검 이력이 없으면 PROBE_WAIT_TIME 까지만 점검 결과를 기다림
+     * @title : getHealth
+     * @return : DirectorHealthDTO
+    ***************************************************/
+    public DirectorHealthDTO getHealth(String directorUrl, int port, String userId, String password) {
+        DirectorHealthDTO health = healthMap.get(directorUrl + ":" + port);
+        if( health != null ){
+            if( System.currentTimeMillis() - health.getCheckTime() > STALE_TIME ){
+                submitProbe(new DirectorHealthDTO(directorUrl, port, userId, password));
+            }
+            return health;
+        }
+        DirectorHealthDTO target = new DirectorHealthDTO(directorUrl, port, userId, password);
+        Future<DirectorHealthDTO> future = submitProbe(target);
+        try {
+            return future.get(PROBE_WAIT_TIME, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director health check error (" + target.getKey() + ") : " + e.getMessage()); }
+        } catch (TimeoutException e) {
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("director health check timeout (" + target.getKey() + ")"); }
+        }
+        //점검이 끝나면 healthMap 에 저장되므로 이번 요청에는 연결 실패로 응답
+        target.setConnect(false);
+        target.setCheckTime(System.currentTimeMillis());
+        return target;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 전체 설치 관리자 연결 상태 목록 조회
+     * @title : getHealthList
+     * @return : List<DirectorHealthDTO>
+    ***************************************************/
+    public List<DirectorHealthDTO> getHealthList() {
+        return new ArrayList<DirectorHealthDTO>(healthMap.values());
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : ieda_director_config 및 등록된 대상(이종 디렉터 등)의 연결 상태를 주기적으로 점검
+     *                (점검은 전용 실행기에서 동시에 실행하고 스케줄러 스레드는 바로 반환)
+     * @title : refresh
+     * @return : void
+    ***************************************************/
+    @Scheduled(initialDelay = REFRESH_INTERVAL, fixedDelay = REFRESH_INTERVAL)
+    public void refresh() {
+        List<DirectorHealthDTO> targets = new ArrayList<DirectorHealthDTO>();
+        try {
+            for( DirectorConfigVO director : dao.selectDirectorConfig() ){
+                if( director.getDirectorPort() == null ){
+                    continue;
+                }
+                targets.add(new DirectorHealthDTO(director.getDirectorUrl(), director.getDirectorPort(), director.getUserId(), director.getUserPassword()));
+            }
+            if( targetSources != null ){
+                for( DirectorHealthTargetSource source : targetSources ){
+                    targets.addAll(source.getHealthTargets());
+                }
+            }
+        } catch (RuntimeException e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director health target select error : " + e.getMessage()); }
+            return;
+        }
+        Set<String> keys = new HashSet<String>();
+        for( DirectorHealthDTO target : targets ){
+            if( target.getDirectorUrl() == null || !keys.add(target.getKey()) ){
+                continue;
+            }
+            submitProbe(target);
+        }
+        //삭제된 설치 관리자 정보 제거
+        healthMap.keySet().retainAll(keys);
+        //외부에서 변경된 기본 설치 관리자 정보가 반영되도록 주기적으로 다시 조회
+        invalidateDefaultDirector();
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 전용 실행기에 설치 관리자 점검 요청(이미 점검 중이면 진행 중인 점검 응답)
+     *                실행기가 시작되지 않은 경우 호출 스레드에서 점검
+     * @title : submitProbe
+     * @return : Future<DirectorHealthDTO>
+    ***************************************************/
+    public Future<DirectorHealthDTO> submitProbe(final DirectorHealthDTO target) {
+        final String key = target.getKey();
+        FutureTask<DirectorHealthDTO> task = new FutureTask<DirectorHealthDTO>(new Callable<DirectorHealthDTO>() {
+            @Override
+            public DirectorHealthDTO call() {
+                try {
+                    return probe(target);
+                } finally {
+                    probing.remove(key);
+                }
+            }
+        });
+        Future<DirectorHealthDTO> running = probing.putIfAbsent(key, task);
+        if( running != null ){
+            return running;
+        }
+        ExecutorService executor = probeExecutor;
+        try {
+            if( executor == null ){
+                task.run();
+            } else {
+                executor.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            //종료 중인 경우 호출 스레드에서 점검
+            task.run();
+        }
+        return task;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 설치 관리자 /info 요청을 통해 연결 상태 점검 후 저장
+     *                (공용 커넥션 풀 대기 없이 짧은 연결/응답 대기 시간의 단일 연결로 점검)
+     * @title : probe
+     * @return : DirectorHealthDTO
+    ***************************************************/
+    public DirectorHealthDTO probe(DirectorHealthDTO target) {
+        boolean connect = true;
+        DirectorInfoDTO info = null;
+        GetMethod get = null;
+        try {
+            HttpClient client = createProbeClient();
+            get = new GetMethod(DirectorRestHelper.getInfoURI(target.getDirectorUrl(), target.getDirectorPort()));
+            get = (GetMethod)DirectorRestHelper.setAuthorization(target.getUserId(), target.getUserPassword(), (HttpMethodBase)get);
+            int statusCode = client.executeMethod(get);
+            if( statusCode == HttpStatus.OK.value() ){
+                info = mapper.readValue(get.getResponseBodyAsString(), DirectorInfoDTO.class);
+            }
+        } catch (Exception e) {
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("director health check fail (" + target.getKey() + ") : " + e.getMessage()); }
+            connect = false;
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
+        }
+        target.setConnect(connect);
+        target.setDirectorInfo(info);
+        target.setCheckTime(System.currentTimeMillis());
+        healthMap.put(target.getKey(), target);
+        return target;
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 점검 요청마다 연결을 닫는 짧은 대기 시간의 HTTP 클라이언트 생성
+     * @title : createProbeClient
+     * @return : HttpClient
+    ***************************************************/
+    private HttpClient createProbeClient() {
+        SimpleHttpConnectionManager connectionManager = new SimpleHttpConnectionManager(true);
+        connectionManager.getParams().setConnectionTimeout(PROBE_CONNECT_TIMEOUT);
+        connectionManager.getParams().setSoTimeout(PROBE_SO_TIMEOUT);
+        return new HttpClient(connectionManager);
+    }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 호출한 서비스에서 값을 변경해도 캐시에 영향이 없도록 복사
+     * @title : copyOf
+     * @return : DirectorConfigVO
+    ***************************************************/
+    private DirectorConfigVO copyOf(DirectorConfigVO directorConfig) {
+        if( directorConfig == null ){
+            return null;
+        }
+        DirectorConfigVO copy = new DirectorConfigVO();
+        BeanUtils.copyProperties(directorConfig, copy);
+        return copy;
+    }
+}
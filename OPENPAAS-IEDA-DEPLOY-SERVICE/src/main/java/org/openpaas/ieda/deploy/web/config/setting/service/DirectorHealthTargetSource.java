@@ -0,0 +1,16 @@
+package org.openpaas.ieda.deploy.web.config.setting.service;
+
+import java.util.List;
+
+import org.openpaas.ieda.deploy.web.config.setting.dto.DirectorHealthDTO;
+
+public interface DirectorHealthTargetSource {
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 백그라운드 연결 점검 대상 설치 관리자 목록 조회
+     * @title : getHealthTargets
+     * @return : List<DirectorHealthDTO>
+    ***************************************************/
+    List<DirectorHealthDTO> getHealthTargets();
+}
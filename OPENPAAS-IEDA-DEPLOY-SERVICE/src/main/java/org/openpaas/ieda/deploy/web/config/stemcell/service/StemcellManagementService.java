@@ -13,8 +13,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.service.CommonUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.stemcell.dao.StemcellManagementDAO;
 import org.openpaas.ieda.deploy.web.config.stemcell.dao.StemcellManagementVO;
 import org.openpaas.ieda.deploy.web.config.stemcell.dto.StemcellManagementDTO;
@@ -34,7 +36,6 @@ public class StemcellManagementService {
     
     final private static String TMPDIRECTORY = LocalDirectoryConfiguration.getTmpDir();
     final private static String STEMCELLDIR = LocalDirectoryConfiguration.getStemcellDir();
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String SEPARATOR = System.getProperty("file.separator");
     final static private String PUBLIC_STEMCELLS_NEWEST_URL = "https://s3.amazonaws.com"; 
     final static private String PUBLIC_STEMCELLS_WINDOWS_URL = "https://bosh-windows-stemcells-production.";
@@ -53,7 +54,7 @@ public class StemcellManagementService {
                 if( stemcell.getDownloadStatus() != null ){
                     if( stemcell.getDownloadStatus().toUpperCase().equalsIgnoreCase("DOWNLOADED") ){
                         File stemcellFile = new File(STEMCELLDIR+SEPARATOR +stemcell.getStemcellFileName());
-                        if(!stemcellFile.exists() || stemcellFile.length() == 0){
+                        if(!ArtifactStore.isStored(stemcellFile)){
                             StemcellManagementDTO.Delete dto = new StemcellManagementDTO.Delete();
                             dto.setId(stemcell.getId());
                             dto.setStemcellFileName(stemcell.getStemcellFileName());
@@ -435,7 +436,7 @@ public class StemcellManagementService {
             if( !StringUtils.isEmpty(fileName) ){
                 int index = fileName.lastIndexOf(".");
                 String lockFileName = fileName.substring(0, index)+"-download.lock";
-                CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName);
+                DeploymentLockManager.unlock(lockFileName);
             }
         }
     }
@@ -452,7 +453,7 @@ public class StemcellManagementService {
         //2. lock 파일 삭제
         int index = dto.getStemcellFileName().indexOf(".tgz");
         String lockFileName = dto.getStemcellFileName().substring(0, index) + "-download.lock";
-        CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName); //lock 파일 삭제
+        DeploymentLockManager.unlock(lockFileName); //lock 해제
         
         //스템셀 파일 삭제
         File file = new File(STEMCELLDIR + SEPARATOR + dto.getStemcellFileName());
@@ -474,7 +475,7 @@ public class StemcellManagementService {
             for( StemcellManagementVO stemcell : list ){
                 if( stemcell.getDownloadStatus() != null && stemcell.getDownloadStatus().equalsIgnoreCase("DOWNLOADED")  ){
                     File stemcellFile = new File(STEMCELLDIR + SEPARATOR + stemcell.getStemcellFileName());
-                    if(!stemcellFile.exists() || stemcellFile.length() == 0){
+                    if(!ArtifactStore.isStored(stemcellFile)){
                         StemcellManagementDTO.Delete dto = new StemcellManagementDTO.Delete();
                         dto.setId(stemcell.getId());
                         dto.setStemcellFileName(stemcell.getStemcellFileName());
@@ -1,20 +1,19 @@
 package org.openpaas.ieda.deploy.web.config.systemRelease.service;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
+import org.openpaas.ieda.deploy.web.common.service.RangedFileDownloader;
 import org.openpaas.ieda.deploy.web.config.systemRelease.dao.ReleaseManagementDAO;
 import org.openpaas.ieda.deploy.web.config.systemRelease.dao.ReleaseManagementVO;
 import org.openpaas.ieda.deploy.web.config.systemRelease.dto.ReleaseManagementDTO;
@@ -36,18 +35,27 @@ public class ReleaseManagementDownloadService {
     
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String RELEASEDIRECTORY = LocalDirectoryConfiguration.getReleaseDir();
-    final private static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir();
     final private static String TMPDIRECTORY = LocalDirectoryConfiguration.getTmpDir();
     final private static String MESSAGE_ENDPOINT = "/config/systemRelease/regist/download/logs"; 
     final private static Logger LOGGER = LoggerFactory.getLogger(ReleaseManagementDownloadService.class);
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : wget을 이용하여 시스템 릴리즈 다운로드 파일 검사
+     * @description : 다운로드된 시스템 릴리즈 파일 검사
      * @title : checkSystemReleaseDownloadFile
      * @return : void
     *****************************************************************/
     public void checkSystemReleaseDownloadFile(ReleaseManagementDTO.Regist dto, ReleaseManagementVO result, Principal principal, Boolean downloadFlag) {
+        checkSystemReleaseDownloadFile(dto, result, principal, downloadFlag, null);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다운로드된 시스템 릴리즈 파일 검사(다운로드 시 계산한 SHA1로 저장소 색인 등록)
+     * @title : checkSystemReleaseDownloadFile
+     * @return : void
+    *****************************************************************/
+    public void checkSystemReleaseDownloadFile(ReleaseManagementDTO.Regist dto, ReleaseManagementVO result, Principal principal, Boolean downloadFlag, String sha1) {
         File tmpFile = new File(TMPDIRECTORY+ SEPARATOR + result.getReleaseFileName());
         File releseFile = new File(RELEASEDIRECTORY + SEPARATOR + result.getReleaseFileName());
         if(downloadFlag){
@@ -72,6 +80,7 @@ public class ReleaseManagementDownloadService {
         }else{//덮어쓰기 가능.
             try {
                 FileUtils.moveFile(tmpFile,releseFile);
+                ArtifactStore.store(releseFile, sha1);//저장소 색인 등록(SHA1을 모르면 계산, 중복 제거)
                 saveSystemReleseInfo(dto, principal);
             } catch (IOException e) {
                 CommonDeployUtils.deleteFile(RELEASEDIRECTORY, result.getReleaseFileName());
@@ -102,53 +111,30 @@ public class ReleaseManagementDownloadService {
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : wget을 통한 릴리즈 다운로드
-     * @title : doDownloadReleaseByWget
+     * @description : 구간 병렬 다운로드(Range)를 통한 릴리즈 다운로드(중단된 다운로드는 이어 받기)
+     * @title : doDownloadRelease
      * @return : void
     *****************************************************************/
-    public void doDownloadReleaseByWget(ReleaseManagementDTO.Regist dto, Principal principal){
+    public void doDownloadRelease(final ReleaseManagementDTO.Regist dto, final Principal principal){
         ReleaseManagementVO result = getSystemReleaseInfo(dto);
         Boolean downloadFlag = false;
-        InputStream inputStream = null;
-        BufferedReader bufferedReader = null;
-        String info = null;
+        String sha1 = null;
         try{
-            //2. wget을 통해 릴리즈 다운로드
-            ProcessBuilder builder = new ProcessBuilder("wget", "-d", "-P", TMPDIRECTORY, "--content-disposition", result.getDownloadLink());
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            
-            inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            
-            //2.2 실행 출력하는 로그를 읽어온다.
-            while ((info = bufferedReader.readLine()) != null){ 
-                Pattern pattern = Pattern.compile("\\d+\\%");
-                Matcher m = pattern.matcher(info);
-                if(m.find()){
-                    messagingTemplate.convertAndSendToUser(principal.getName() ,MESSAGE_ENDPOINT, dto.getId()+"/"+m.group());
-                    if( m.group().equals("100%") ){
-                        downloadFlag = true;
-                        dto.setDownloadStatus("DOWNLOADED");
-                        break;
-                    }
+            //2. 릴리즈 다운로드 후 진행률 전송
+            File tmpFile = new File(TMPDIRECTORY + SEPARATOR + result.getReleaseFileName());
+            sha1 = new RangedFileDownloader().download(result.getDownloadLink(), tmpFile, null, new RangedFileDownloader.ProgressListener() {
+                @Override
+                public void onProgress(int percent) {
+                    messagingTemplate.convertAndSendToUser(principal.getName() ,MESSAGE_ENDPOINT, dto.getId()+"/"+percent+"%");
                 }
-            }
+            });
+            if(LOGGER.isInfoEnabled()){ LOGGER.info("downloaded " + result.getReleaseFileName() + " (sha1 : " + sha1 + ")"); }
+            downloadFlag = true;
+            dto.setDownloadStatus("DOWNLOADED");
         } catch(IOException e){
-            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                    message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
-        } finally {
-            try {
-                if(bufferedReader != null){
-                    bufferedReader.close();
-                }
-            } catch (IOException e) {
-                if(LOGGER.isErrorEnabled()) {
-                    LOGGER.error( e.getMessage() );
-                }
-            }
+            if(LOGGER.isErrorEnabled()){ LOGGER.error(e.getMessage()); }
         }
-        checkSystemReleaseDownloadFile(dto, result,principal, downloadFlag);
+        checkSystemReleaseDownloadFile(dto, result, principal, downloadFlag, sha1);
     }
     
     /****************************************************************
@@ -160,7 +146,7 @@ public class ReleaseManagementDownloadService {
     public void deleteLockFile(String fileName){
         int index = fileName.indexOf(".tgz");
         String lockFile = fileName.substring(0,index) + "-download.lock";
-        CommonDeployUtils.deleteFile(LOCK_DIR, lockFile);
+        DeploymentLockManager.unlock(lockFile);
     }
     
     /****************************************************************
@@ -189,8 +175,8 @@ public class ReleaseManagementDownloadService {
      * @title : releaseDownloadAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR)
     public void releaseDownloadAsync(ReleaseManagementDTO.Regist dto, Principal principal){
-        doDownloadReleaseByWget(dto, principal);
+        doDownloadRelease(dto, principal);
     }
 }
@@ -1,10 +1,6 @@
 package org.openpaas.ieda.deploy.web.deploy.bootstrap.service;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -12,12 +8,19 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.common.process.CommandOutputListener;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandResult;
+import org.openpaas.ieda.common.process.CommandType;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.TaskLogPublisher;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigDAO;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
+import org.openpaas.ieda.deploy.web.config.setting.service.DirectorHealthRegistry;
 import org.openpaas.ieda.deploy.web.deploy.bootstrap.dao.BootstrapDAO;
 import org.openpaas.ieda.deploy.web.deploy.bootstrap.dao.BootstrapVO;
 import org.openpaas.ieda.deploy.web.deploy.bootstrap.dto.BootStrapDeployDTO;
@@ -35,13 +38,14 @@ public class BootstrapDeleteDeployAsyncService{
 
     @Autowired private SimpMessagingTemplate messagingTemplate;
     @Autowired private DirectorConfigDAO directorDao;
+    @Autowired private DirectorHealthRegistry directorHealthRegistry;
     @Autowired private BootstrapDAO bootstrapDao;
     @Autowired private CommonDeployDAO commonDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     @Autowired MessageSource message;
     
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir() + SEPARATOR;
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String MESSAGE_ENDPOINT = "/deploy/bootstrap/delete/logs";
     final private static String CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateCredentialDir() + SEPARATOR;
     final private static String RELEASE_DIR = LocalDirectoryConfiguration.getReleaseDir();
@@ -49,6 +53,8 @@ public class BootstrapDeleteDeployAsyncService{
     final private static String MANIFEST_TEMPLATE_PATH = LocalDirectoryConfiguration.getManifastTemplateDir() + SEPARATOR +"bootstrap";
     final private static String PRIVATE_KEY_PATH = LocalDirectoryConfiguration.getSshDir()+SEPARATOR;
     final private static String JSON_KEY_DIR = LocalDirectoryConfiguration.getKeyDir()+SEPARATOR;
+    //취소한 설치 작업이 lock 을 해제할 때까지 대기하는 시간
+    final private static long CANCEL_LOCK_WAIT_TIME = 60 * 1000L;
     private final static Logger LOGGER = LoggerFactory.getLogger(BootstrapDeleteDeployAsyncService.class);
     
     /****************************************************************
@@ -64,6 +70,11 @@ public class BootstrapDeleteDeployAsyncService{
         String accumulatedLog = "";
         String versionNumber = "";
 
+        //설치 중인 create-env 가 있으면 중단 후 삭제
+        boolean cancelled = commandSupervisor.cancel(BootstrapDeployAsyncService.bootstrapCommandKey(Integer.parseInt(dto.getId())));
+        if( cancelled ){
+            DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList("진행 중인 BOOTSTRAP 설치를 중단했습니다."));
+        }
         BootstrapVO vo = bootstrapDao.selectBootstrapInfo(Integer.parseInt(dto.getId()));
         if( vo == null ){
             bootstrapDao.deleteBootstrapInfo(Integer.parseInt(dto.getId()));
@@ -81,11 +92,19 @@ public class BootstrapDeleteDeployAsyncService{
 
         String status = "";
         String resultMessage = "";
-        BufferedReader bufferedReader = null;
 
         ManifestTemplateVO result = commonDao.selectManifetTemplate(vo.getIaasType(), releaseVersion , "BOOTSTRAP", "bosh");
+        String lockName = null;
+        String lockToken = null;
 
         try {
+            //취소한 설치 작업이 lock 을 해제할 때까지 대기
+            lockName = BootstrapDeployAsyncService.bootstrapLockName(vo);
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName(), cancelled ? CANCEL_LOCK_WAIT_TIME : 0L);
+            if( lockToken == null ){
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("현재 다른 설치 관리자가 해당 BOOTSTRAP를 설치 중 입니다."));
+                return;
+            }
             String deployStateFile = DEPLOYMENT_DIR +vo.getDeploymentFile().split(".yml")[0] + "-state.json";
             File stateFile = new File(deployStateFile);
             if ( !stateFile.exists() ) {
@@ -127,24 +146,23 @@ public class BootstrapDeleteDeployAsyncService{
                     
                     cmd.add("--tty");
                     
-                    ProcessBuilder builder = new ProcessBuilder(cmd);
-                    builder.redirectErrorStream(true);
-                    Process process = builder.start();
-                    
                        //배포 상태
                     vo.setDeployStatus( message.getMessage("common.deploy.status.deleting", null, Locale.KOREA) );
                     saveDeployStatus(vo, principal);
                     
                     //Delete log...
-                    InputStream inputStream = process.getInputStream();
-                    bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                    StringBuffer accumulatedBuffer = new StringBuffer("");
-                    String info = null;
-                    while ((info = bufferedReader.readLine()) != null){
-                        accumulatedBuffer.append(info).append("\n");
-                        DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList(info));
+                    final TaskLogPublisher logPublisher = new TaskLogPublisher(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT);
+                    CommandResult commandResult = commandSupervisor.run(CommandType.DEPLOY, cmd, new CommandOutputListener() {
+                        @Override
+                        public void onLine(String line, boolean error) {
+                            logPublisher.append(line);
+                        }
+                    });
+                    logPublisher.flush();
+                    accumulatedLog = commandResult.getCombinedOutput();
+                    if( !commandResult.isSuccess() ){
+                        status = "error";
                     }
-                    accumulatedLog = accumulatedBuffer.toString();
                 } else {
                     status = "error";
                     resultMessage = "배포 파일(" + deployFile + ")이 존재하지 않습니다.";
@@ -178,16 +196,7 @@ public class BootstrapDeleteDeployAsyncService{
                 vo.setDeployStatus(message.getMessage("common.deploy.status.failed", null, Locale.KOREA));
                 saveDeployStatus(vo, principal);
             }
-            if(bufferedReader!=null){
-                try {
-                    bufferedReader.close();
-                } catch (IOException e) {
-                    if( LOGGER.isErrorEnabled() ){
-                        LOGGER.error( e.getMessage() );
-                    }
-                }
-            }
-            CommonDeployUtils.deleteFile(LOCK_DIR, "bootstrap.lock");
+            DeploymentLockManager.unlock(lockName, lockToken);
         }
     }
     /****************************************************************
@@ -414,6 +423,7 @@ public class BootstrapDeleteDeployAsyncService{
         DirectorConfigVO vo = directorDao.selectDirectorConfigInfoByDirectorNameAndCPI(cpi, directorName);
         if( vo != null ) {
             directorDao.deleteDirector(vo.getIedaDirectorConfigSeq());
+            directorHealthRegistry.invalidate(vo.getDirectorUrl(), vo.getDirectorPort());
         }
     }
 
@@ -423,7 +433,7 @@ public class BootstrapDeleteDeployAsyncService{
      * @title : deleteDeployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deleteDeployAsync(BootStrapDeployDTO.Delete dto, Principal principal) {
             deleteBootstrapDeploy(dto, principal);
     }    
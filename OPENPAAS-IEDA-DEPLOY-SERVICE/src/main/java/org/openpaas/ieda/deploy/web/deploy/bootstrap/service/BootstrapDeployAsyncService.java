@@ -1,10 +1,17 @@
 package org.openpaas.ieda.deploy.web.deploy.bootstrap.service;
 
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.common.process.CommandOutputListener;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandResult;
+import org.openpaas.ieda.common.process.CommandType;
 import org.openpaas.ieda.deploy.api.director.dto.DirectorInfoDTO;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.TaskLogPublisher;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.deploy.bootstrap.dao.BootstrapDAO;
 import org.openpaas.ieda.deploy.web.deploy.bootstrap.dao.BootstrapVO;
@@ -18,10 +25,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,10 +40,10 @@ public class BootstrapDeployAsyncService {
     @Autowired private BootstrapDAO bootstrapDao;
     @Autowired private MessageSource message;
     @Autowired private CommonDeployDAO commonDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir() + SEPARATOR;
-    final private static String KEY_DIR = LocalDirectoryConfiguration.getLockDir()+SEPARATOR;
     final private static String CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateCredentialDir() + SEPARATOR;
     final private static String MESSAGE_ENDPOINT = "/deploy/bootstrap/install/logs"; 
     final private static String RELEASE_DIR = LocalDirectoryConfiguration.getReleaseDir();
@@ -63,12 +67,20 @@ public class BootstrapDeployAsyncService {
         String accumulatedLog= null;
         String releaseVersion = "";
         String versionNumber = "";
-        String temp = "";
+        boolean cancelled = false;
 
-        BufferedReader bufferedReader = null;
         BootstrapVO bootstrapInfo = new BootstrapVO();
+        String lockName = null;
+        String lockToken = null;
         try {
             bootstrapInfo = bootstrapDao.selectBootstrapInfo(Integer.parseInt(dto.getId()));
+            //같은 디렉터/배포명의 BOOTSTRAP 만 동시 설치 방지
+            lockName = bootstrapLockName(bootstrapInfo);
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName());
+            if( lockToken == null ){
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("현재 다른 설치 관리자가 해당 BOOTSTRAP를 설치 중 입니다."));
+                return;
+            }
 
             // 릴리즈명/버전 추출
             String boshRelease = bootstrapInfo.getBoshRelease();
@@ -120,25 +132,18 @@ public class BootstrapDeployAsyncService {
                 }
                 
                 cmd.add("--tty");
-                System.out.println(cmd);
-                ProcessBuilder builder = new ProcessBuilder(cmd);
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
 
                 //실행 출력하는 로그를 읽어온다.
-                InputStream inputStream = process.getInputStream();
-                bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                String info = null;
-                StringBuffer accumulatedBuffer = new StringBuffer();
-                while ((info = bufferedReader.readLine()) != null){
-                    System.out.println(info);
-                    temp = info;
-                    accumulatedBuffer.append(info).append("\n");
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList(info));
-                }
-                if( accumulatedBuffer != null ) {
-                    accumulatedLog = accumulatedBuffer.toString();
-                }
+                final TaskLogPublisher logPublisher = new TaskLogPublisher(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT);
+                CommandResult commandResult = commandSupervisor.run(CommandType.DEPLOY, bootstrapCommandKey(bootstrapInfo.getId()), cmd, new CommandOutputListener() {
+                    @Override
+                    public void onLine(String line, boolean error) {
+                        logPublisher.append(line);
+                    }
+                });
+                logPublisher.flush();
+                accumulatedLog = commandResult.getCombinedOutput();
+                cancelled = commandResult.isCancelled();
             } else {
                 status = "error";
             }
@@ -149,6 +154,11 @@ public class BootstrapDeployAsyncService {
                 bootstrapInfo.setDeployStatus( message.getMessage("common.deploy.status.failed", null, Locale.KOREA) );
                 saveDeployStatus(bootstrapInfo);
                 DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList( "설치할 배포 파일(" + deployFile + ")이 존재하지 않습니다."));
+            } else if ( cancelled ) {
+                status = "cancelled";
+                bootstrapInfo.setDeployStatus(message.getMessage("common.deploy.status.cancelled", null, Locale.KOREA) );
+                saveDeployStatus(bootstrapInfo);
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "cancelled", Arrays.asList("", "BOOTSTRAP 설치가 취소되었습니다."));
             } else {
                 if (!accumulatedLog.contains("Succeeded")) {
                     status = "error";
@@ -215,40 +225,31 @@ public class BootstrapDeployAsyncService {
             }
             saveDeployStatus(bootstrapInfo);
         }finally {
-            try {
-                if(bufferedReader!=null) {
-                    /*
-                    if(accumulatedLog.contains("Succeeded") && bootstrapInfo.getIaasType().equalsIgnoreCase("warden")){
-                        status = "done";
-                        bootstrapInfo.setDeployStatus( message.getMessage("common.deploy.status.done", null,  Locale.KOREA ) );
-                        saveDeployStatus(bootstrapInfo);
-                        DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "done", Arrays.asList("", "BOOTSTRAP 설치가 완료되었습니다."));
-                    }
-                    */
-                    /*
-                    if(temp.equals("Succeeded") && bootstrapInfo.getIaasType().equalsIgnoreCase("warden")){
-                        System.out.println("GOOD WARDEN2");
-                    }*/
-
-                    bufferedReader.close();
-                    
-                }
-            } catch (Exception e) {
-                if( LOGGER.isErrorEnabled() ) {
-                    LOGGER.error( e.getMessage() );
-                }
-            }
-            //동시 설치 방지 lock 파일 삭제
-            File lockFile = new File(KEY_DIR + "bootstrap.lock");
-            if(lockFile.exists()){
-                Boolean check = lockFile.delete();
-                if( LOGGER.isDebugEnabled() ) {
-                    LOGGER.debug("check delete lock File  : "  + check); 
-                }
-            }
+            //동시 설치 방지 lock 해제
+            DeploymentLockManager.unlock(lockName, lockToken);
         }
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : BOOTSTRAP 설치/삭제 lock 이름(디렉터명 + 배포명)
+     * @title : bootstrapLockName
+     * @return : String
+    *****************************************************************/
+    public static String bootstrapLockName(BootstrapVO vo) {
+        return DeploymentLockManager.deploymentLockName(vo.getDirectorName(), vo.getDeploymentName());
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행 중인 create-env 를 취소할 때 사용하는 키
+     * @title : bootstrapCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String bootstrapCommandKey(Integer id) {
+        return "bootstrap/" + id;
+    }
+
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description :  BOSH Release 관련 CMD 정의 
@@ -534,7 +535,7 @@ public class BootstrapDeployAsyncService {
      * @title : deployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deployAsync(BootStrapDeployDTO.Install dto, Principal principal) {
             deployBootstrap(dto, principal);
     }
@@ -13,8 +13,13 @@ import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandType;
+import org.openpaas.ieda.deploy.api.director.utility.BoshCliCommand;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskCallback;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.deploy.cf.dao.CfDAO;
@@ -22,6 +27,8 @@ import org.openpaas.ieda.deploy.web.deploy.cf.dao.CfVO;
 import org.openpaas.ieda.deploy.web.deploy.cf.dto.CfParamDTO;
 import org.openpaas.ieda.deploy.web.deploy.common.dao.network.NetworkDAO;
 import org.openpaas.ieda.deploy.web.deploy.common.dao.resource.ResourceDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
@@ -39,6 +46,7 @@ public class CfDeleteDeployAsyncService {
     @Autowired private CfDAO cfDao;
     @Autowired private NetworkDAO networkDao;
     @Autowired private ResourceDAO resourceDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     @Autowired private MessageSource message;
     
     private final static String SEPARATOR = System.getProperty("file.separator");
@@ -46,6 +54,7 @@ public class CfDeleteDeployAsyncService {
     final private static String CF_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateCfDeploymentCredentialDir();
     final static private String CF_MESSAGE_ENDPOINT =  "/deploy/cf/delete/logs";
     final static private String CF_DIEGO_MESSAGE_ENDPOINT =  "/deploy/cfDiego/delete/logs";
+    private final static Logger LOGGER = LoggerFactory.getLogger(CfDeleteDeployAsyncService.class);
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -58,7 +67,7 @@ public class CfDeleteDeployAsyncService {
         String messageEndpoint = platform.equalsIgnoreCase("cf") ? CF_MESSAGE_ENDPOINT : CF_DIEGO_MESSAGE_ENDPOINT;
         String deploymentName = "";
         String deploymentFileName = "";
-        CfVO vo  = cfDao.selectCfInfoById(Integer.parseInt(dto.getId()));
+        final CfVO vo  = cfDao.selectCfInfoById(Integer.parseInt(dto.getId()));
         deploymentName = vo != null ?vo.getDeploymentName() : "";
         deploymentFileName = vo != null ? vo.getDeploymentFile() : "";
         if ( StringUtils.isEmpty(deploymentName) ) {
@@ -74,6 +83,12 @@ public class CfDeleteDeployAsyncService {
         String cloudConfigFile = DEPLOYMENT_DIR + SEPARATOR + deploymentFileName; 
         try {
             DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
+            //설치 중인 bosh deploy 가 있으면 CLI 프로세스와 디렉터 Task 를 중단 후 삭제
+            if( commandSupervisor.cancel(CfDeployAsyncService.cfCommandKey(deploymentName)) ){
+                DirectorRestHelper.cancelDeploymentTasks(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(),
+                        defaultDirector.getUserId(), defaultDirector.getUserPassword(), deploymentName);
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("진행 중인 CF 설치를 중단했습니다."));
+            }
             
             List<String> cmd = new ArrayList<String>(); //bosh cloud config 명령어 실행 줄 Cloud Config 관련 Rest API를 아직 지원 안하는 것 같음 2018.08.01
             cmd.add("bosh");
@@ -82,24 +97,33 @@ public class CfDeleteDeployAsyncService {
             cmd.add("update-cloud-config");
             cmd.add(cloudConfigFile);
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            //삭제 요청 전에 cloud config 반영이 끝나도록 대기
+            BoshCliCommand.Result cloudConfigResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, cfDeleteCommandKey(deploymentName), cmd);
+            if( !cloudConfigResult.isSuccess() && LOGGER.isWarnEnabled() ){
+                LOGGER.warn("update-cloud-config before deleting " + deploymentName + " failed : " + cloudConfigResult.getOutput().getErrors());
+            }
             
             HttpClient httpClient = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
             
             DeleteMethod deleteMethod = new DeleteMethod(DirectorRestHelper.getDeleteDeploymentURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), deploymentName));
             deleteMethod = (DeleteMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)deleteMethod);
             
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = DirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             if( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value() ) {
                 Header location = deleteMethod.getResponseHeader("Location");
                 String taskId = DirectorRestHelper.getTaskId(location.getValue());
-                DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName());
+                //삭제 Task 종료 후 CF 정보 삭제
+                DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName(),
+                        new DirectorTaskCallback() {
+                            @Override
+                            public void onFinish(String taskId, String state) {
+                                deleteCfInfo(vo);
+                            }
+                        });
             }else {
                 DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "done", Arrays.asList("CF 삭제에 실패 하였습니다."));
+                deleteCfInfo(vo);
             }
-            deleteCfInfo(vo);
         } catch(RuntimeException e){
             DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(errorMsg));
         } catch ( Exception e) {
@@ -107,6 +131,16 @@ public class CfDeleteDeployAsyncService {
         }
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 삭제 전 실행하는 bosh 명령을 취소할 때 사용하는 키
+     * @title : cfDeleteCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String cfDeleteCommandKey(String deploymentName) {
+        return "cf/" + deploymentName + "/delete";
+    }
+    
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : CF 정보 삭제
@@ -155,7 +189,7 @@ public class CfDeleteDeployAsyncService {
      * @title : deleteDeployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deleteDeployAsync(CfParamDTO.Delete dto, String platform, Principal principal) {
         deleteDeploy(dto, platform, principal);
     }    
@@ -1,9 +1,6 @@
 package org.openpaas.ieda.deploy.web.deploy.cf.service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -12,7 +9,11 @@ import java.util.Locale;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandType;
+import org.openpaas.ieda.deploy.api.director.utility.BoshCliCommand;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
@@ -40,6 +41,7 @@ public class CfDeployAsyncService {
     @Autowired private CfService cfService;
     @Autowired private MessageSource message;
     @Autowired private CommonDeployDAO commonDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     
     private final static String SEPARATOR = System.getProperty("file.separator");
     private final static String MANIFEST_TEMPLATE_DIR = LocalDirectoryConfiguration.getManifastTemplateDir();
@@ -78,7 +80,6 @@ public class CfDeployAsyncService {
         String errorMessage = message.getMessage("common.internalServerError.message", null, Locale.KOREA);
         String status = "";
         try {
-            BufferedReader bufferedReader = null;
             DirectorConfigVO directorInfo = directorConfigService.getDefaultDirector();
             // 2019. 08. CF v9.3.0, PaaS-TA v4.6 지원 추가.
             // 2019. 10. CF v9.5.0, PaaS-TA v5.0 지원 추가.
@@ -95,9 +96,13 @@ public class CfDeployAsyncService {
             cmd.add("update-cloud-config");
             cmd.add(cloudConfigFile);
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            //Cloud Config 반영이 끝난 뒤 배포
+            BoshCliCommand.Result cloudConfigResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            if( !cloudConfigResult.isSuccess() ){
+                if( LOGGER.isErrorEnabled() ){ LOGGER.error("update-cloud-config failed : " + cloudConfigResult.getOutput().getErrors()); }
+                throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                        "Cloud Config 적용 중 에러가 발생 했습니다.", HttpStatus.BAD_REQUEST);
+            }
             if ( vo != null ) {
                 String deployStatus = message.getMessage("common.deploy.status.processing", null, Locale.KOREA);
                 vo.setDeployStatus(deployStatus);
@@ -144,47 +149,13 @@ public class CfDeployAsyncService {
                     setWindowsCellUse(cmd, vo, result);
                 }
             }
-            cmd.add("--tty");
             cmd.add("-n");
 
             //cmd.add("--no-redact");
-            System.out.println(cmd.toString());
-            builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-                Thread.sleep(20);
-
-//                LOGGER.debug("#### LOG : " + info);
-                if(info.contains("invalid argument") || info.contains("error") || info.contains("fail") || info.contains("Error") || info.contains("Expected")){
-                    status = "error";
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                }
-                
-                if(info.contains("Release")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Release Download Check:::"+info));
-                }
-                
-                if(info.contains("cancelled")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "cancelled", Arrays.asList("Cancel Task:::"+info));
-                }
-                
-                if(info.contains("no such file or directory")){
-                    status = "error";
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                }
-                
-                if(info.contains("Preparing deployment: Preparing deployment")){
-                    String taskId = info.split(" ")[1];
-                    HttpClient httpClient = DirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
-                    status = DirectorRestHelper.trackToTask(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName());
-                }
-            }
+            BoshCliCommand.Result deployResult = BoshCliCommand.runTracked(commandSupervisor, CommandType.DEPLOY, cfCommandKey(vo.getDeploymentName()), cmd,
+                    directorInfo.getDirectorUrl(), directorInfo.getDirectorPort(), directorInfo.getUserId(), directorInfo.getUserPassword(),
+                    vo.getDeploymentName(), new DeployTaskHandler(principal.getName(), messageEndpoint, directorInfo));
+            status = deployStatus(deployResult, status, principal.getName(), messageEndpoint);
         }catch (RuntimeException e) {
             status = "error";
             DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> 설정을 확인 해주세요."));
@@ -204,6 +175,16 @@ public class CfDeployAsyncService {
         }
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행 중인 bosh deploy 를 취소할 때 사용하는 키
+     * @title : cfCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String cfCommandKey(String deploymentName) {
+        return "cf/" + deploymentName;
+    }
+    
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : CF-Deploymnt 5.0.0/PaaS-TA 4.0 이상 BOSH Runtime Config 삭제 명령어 설정
@@ -234,8 +215,6 @@ public class CfDeployAsyncService {
      * @return : void
     *****************************************************************/
     private void deleteRuntimeConfig(CfVO vo, DirectorConfigVO directorInfo, Principal principal, String messageEndpoint, ManifestTemplateVO result) {
-        String accumulatedLog= null;
-        BufferedReader bufferedReader = null;
         try {
             List<String> cmd = new ArrayList<String>();
             cmd.add("bosh");
@@ -244,23 +223,10 @@ public class CfDeployAsyncService {
             cmd.add("delete-config");
             cmd.add("--type=runtime");
             cmd.add("--name=default");
-            cmd.add("--tty");
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList(info));
-            }
-            if( accumulatedBuffer != null ) {
-                accumulatedLog = accumulatedBuffer.toString();
-            }
-            if ( !accumulatedLog.contains("Succeeded") ) {
+            BoshCliCommand.Result result = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", result.getOutput().getLines());
+            if ( !result.isSuccess() ) {
                 String status = "error";
                 vo.setDeployStatus(status);
                 vo.setUpdateUserId(principal.getName());
@@ -269,6 +235,9 @@ public class CfDeployAsyncService {
             }
         } catch (IOException e) {
             DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
         }
     }
 
@@ -279,8 +248,6 @@ public class CfDeployAsyncService {
      * @return : void
     *****************************************************************/
     private String settingRuntimeConfig(CfVO vo, DirectorConfigVO directorInfo, Principal principal, String messageEndpoint, ManifestTemplateVO result) {
-        String accumulatedLog= null;
-        BufferedReader bufferedReader = null;
         String status = "";
         try {
             List<String> cmd = new ArrayList<String>();
@@ -293,43 +260,13 @@ public class CfDeployAsyncService {
             cmd.add(CF_CREDENTIAL_DIR+ SEPARATOR +vo.getDeploymentName()+"-runtime-cred.yml");
             cmd.add("-v");
             cmd.add("deployment_name="+vo.getDeploymentName()+"");
-            cmd.add("--tty");
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-                if(info.contains("invalid argument") || info.contains("error") || info.contains("fail") || info.contains("Error") || info.contains("Expected")){
-                    status = "error";
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                }
-                
-                if(info.contains("Downloading remote release")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new packages:::"+info));
-                }
-                
-                if(info.contains("Creating new packages")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new packages:::"+info));
-                }
-                
-                if(info.contains("Creating new jobs")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new jobs:::"+info));
-                }
-                if(info.contains("Succeeded")){
-                    DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Bosh Runtime Config Succeeded:::"+info));
-                }
-            }
-            if( accumulatedBuffer != null ) {
-                accumulatedLog = accumulatedBuffer.toString();
-            }
-            
-            if ( !accumulatedLog.contains("Succeeded") ) {
+            BoshCliCommand.Result result = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            if ( result.isSuccess() ) {
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Bosh Runtime Config Succeeded:::Succeeded"));
+            } else {
                 status = "error";
+                DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", result.getOutput().getErrors());
                 vo.setDeployStatus(status);
                 vo.setUpdateUserId(principal.getName());
                 saveDeployStatus(vo);
@@ -337,6 +274,9 @@ public class CfDeployAsyncService {
             }
         } catch (IOException e) {
             DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
         }
         return status;
     }
@@ -479,9 +419,58 @@ public class CfDeployAsyncService {
      * @title : deployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deployAsync(CfParamDTO.Install dto, Principal principal, String platform) {
     	deploy(dto, principal, platform);
     }
 
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh deploy 실행 결과(취소/시간 초과/Task 상태/CLI 오류)로 설치 상태 결정
+     * @title : deployStatus
+     * @return : String
+    *****************************************************************/
+    private String deployStatus(BoshCliCommand.Result deployResult, String status, String userId, String messageEndpoint) {
+        if( deployResult.getCommandResult().isCancelled() ){
+            DirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "cancelled", Arrays.asList("CF-Deployment 설치가 취소 되었습니다."));
+            return "cancelled";
+        }
+        if( deployResult.getCommandResult().isTimedOut() ){
+            DirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 시간이 초과 되었습니다."));
+            return "error";
+        }
+        if( deployResult.getTrackedState() != null ){
+            status = deployResult.getTrackedState();
+        }
+        if( !deployResult.isSuccess() && !"cancelled".equals(status) ){
+            DirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "error", deployResult.getOutput().getErrors());
+            return "error";
+        }
+        return deployResult.isSuccess() && deployResult.getTrackedState() == null ? "done" : status;
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : bosh deploy 가 생성한 디렉터 Task 로그 및 상태 추적
+     * @title : DeployTaskHandler
+     * @return :
+    *****************************************************************/
+    private class DeployTaskHandler implements BoshCliCommand.TaskHandler {
+        private final String userId;
+        private final String messageEndpoint;
+        private final DirectorConfigVO directorInfo;
+
+        DeployTaskHandler(String userId, String messageEndpoint, DirectorConfigVO directorInfo) {
+            this.userId = userId;
+            this.messageEndpoint = messageEndpoint;
+            this.directorInfo = directorInfo;
+        }
+
+        @Override
+        public String track(String taskId) {
+            HttpClient httpClient = DirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
+            return DirectorRestHelper.trackToTaskAndWait(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", userId);
+        }
+    }
+
 }
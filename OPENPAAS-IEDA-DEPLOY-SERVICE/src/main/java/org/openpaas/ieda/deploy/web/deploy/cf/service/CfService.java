@@ -2,7 +2,6 @@ package org.openpaas.ieda.deploy.web.deploy.cf.service;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -14,6 +13,8 @@ import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
 import org.openpaas.ieda.deploy.web.common.dto.ReplaceItemDTO;
+import org.openpaas.ieda.deploy.web.common.service.ManifestTemplate;
+import org.openpaas.ieda.deploy.web.common.service.ManifestTemplateCache;
 import org.openpaas.ieda.deploy.web.deploy.cf.dao.CfDAO;
 import org.openpaas.ieda.deploy.web.deploy.cf.dao.CfVO;
 import org.openpaas.ieda.deploy.web.deploy.cf.dto.CfListDTO;
@@ -240,7 +241,7 @@ public class CfService {
         ManifestTemplateVO result = commonDao.selectManifetTemplate(vo.getIaasType(), vo.getReleaseVersion(), "CFDEPLOYMENT", vo.getReleaseName());
         String content = "";
         String cloudConfigType = "";
-        InputStream inputs  = null;
+        ManifestTemplate template = null;
         if(result == null) {
             throw new CommonException(setMessageSourceValue("common.badRequest.exception.code"), 
                   "설치 가능한 CF Deployment 버전을 확인하세요.", HttpStatus.BAD_REQUEST);
@@ -251,18 +252,20 @@ public class CfService {
             else if(vo.getNetworks().size() == 3) cloudConfigType = "/cloud-config-network-2.yml";
         }
         
-        inputs =  this.getClass().getClassLoader().getResourceAsStream("static/deploy_template/cf-deployment/"+ vo.getIaasType().toLowerCase() + cloudConfigType);
-        
-        if(inputs == null) {
-            throw new CommonException(setMessageSourceValue("common.badRequest.exception.code"), 
-                  "배포 파일 정보가 존재 하지 않습니다.", HttpStatus.BAD_REQUEST);
-        }
         try {
-            content = IOUtils.toString(inputs, "UTF-8");
+            template = ManifestTemplateCache.getTemplate("static/deploy_template/cf-deployment/"+ vo.getIaasType().toLowerCase() + cloudConfigType);
+            if(template == null) {
+                throw new CommonException(setMessageSourceValue("common.badRequest.exception.code"), 
+                      "배포 파일 정보가 존재 하지 않습니다.", HttpStatus.BAD_REQUEST);
+            }
             List<ReplaceItemDTO> replaceItems = makeReplaceItems(vo);
-            for (ReplaceItemDTO item : replaceItems) {
-                content = content.replace(item.getTargetItem(), item.getSourceItem() == null ? "":item.getSourceItem());
+            //bosh 에 전달하기 전에 입력되지 않은 항목 확인
+            List<String> unfilled = template.getUnfilledPlaceholders(replaceItems);
+            if( !unfilled.isEmpty() ){
+                throw new CommonException(setMessageSourceValue("common.badRequest.exception.code"), 
+                        "Cloud Config 입력 정보가 부족합니다. " + unfilled, HttpStatus.BAD_REQUEST);
             }
+            content = template.render(replaceItems);
             IOUtils.write(content, new FileOutputStream(DEPLOYMENT_FILE + SEPARATOR + vo.getDeploymentFile()), "UTF-8");
         } catch (IOException e) {
             throw new CommonException(setMessageSourceValue("common.badRequest.exception.code"), 
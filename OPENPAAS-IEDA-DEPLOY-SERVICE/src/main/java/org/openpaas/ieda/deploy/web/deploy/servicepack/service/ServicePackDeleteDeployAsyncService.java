@@ -7,8 +7,10 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskCallback;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.deploy.servicepack.dao.ServicePackDAO;
@@ -39,14 +41,14 @@ public class ServicePackDeleteDeployAsyncService {
      * @return : void
     ***************************************************/
     private void deleteDeploy(ServicePackParamDTO dto, Principal principal) {
-        ServicePackVO vo = null;
-        ManifestVO manifestVo = null;
+        final ServicePackVO vo = dao.selectServicePackDetailInfo(dto.getId());
+        ManifestVO manifestInfo = null;
         String deploymentName = null;
-        vo = dao.selectServicePackDetailInfo(dto.getId());
         if ( vo != null ) {
-            manifestVo = manifestDao.selectManifestInfoByDeployName(vo.getDeploymentName());
+            manifestInfo = manifestDao.selectManifestInfoByDeployName(vo.getDeploymentName());
             deploymentName = vo.getDeploymentName();
         }
+        final ManifestVO manifestVo = manifestInfo;
         if ( StringUtils.isEmpty(deploymentName) ) {
             throw new CommonException("notfound.diegodelete.exception",
                     "배포정보가 존재하지 않습니다..", HttpStatus.NOT_FOUND);
@@ -59,22 +61,25 @@ public class ServicePackDeleteDeployAsyncService {
             DeleteMethod deleteMethod = new DeleteMethod(DirectorRestHelper.getDeleteDeploymentURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), deploymentName));
             deleteMethod = (DeleteMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)deleteMethod);
             
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = DirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value()
               || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 
                 Header location = deleteMethod.getResponseHeader("Location");
                 String taskId = DirectorRestHelper.getTaskId(location.getValue());
                 
-                DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, httpClient, taskId, "event", principal.getName());
+                //삭제 Task 종료 후 서비스팩 정보 삭제
+                DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, httpClient, taskId, "event", principal.getName(),
+                        new DirectorTaskCallback() {
+                            @Override
+                            public void onFinish(String taskId, String state) {
+                                deleteServicePackInfo(vo, manifestVo);
+                            }
+                        });
                 
             }else{
                 DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("배포삭제 중 Exception이 발생하였습니다."));
-            }
-            if ( vo != null ) {
-                dao.deleteServicePackInfoRecord(vo.getId());
-                manifestVo.setDeployStatus(null);
-                manifestDao.updateManifestInfo(manifestVo);
+                deleteServicePackInfo(vo, manifestVo);
             }
         } catch(RuntimeException e){
             DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("배포삭제 중 Exception이 발생하였습니다."));
@@ -83,6 +88,19 @@ public class ServicePackDeleteDeployAsyncService {
         }
     }
     
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 서비스팩 정보 삭제 및 Manifest 배포 상태 초기화
+     * @title : deleteServicePackInfo
+     * @return : void
+    ***************************************************/
+    private void deleteServicePackInfo(ServicePackVO vo, ManifestVO manifestVo) {
+        if ( vo != null ) {
+            dao.deleteServicePackInfoRecord(vo.getId());
+            manifestVo.setDeployStatus(null);
+            manifestDao.updateManifestInfo(manifestVo);
+        }
+    }
 
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -90,7 +108,7 @@ public class ServicePackDeleteDeployAsyncService {
      * @title : deleteDeployAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deleteDeployAsync(ServicePackParamDTO dto, Principal principal) {
         deleteDeploy(dto, principal);
     }
@@ -14,8 +14,10 @@ import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskCallback;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.deploy.servicepack.dao.ServicePackDAO;
@@ -52,15 +54,14 @@ public class ServicePackDeployAsyncService {
      * @title : deploy
      * @return : void
     ***************************************************/
-    private void deploy(ServicePackParamDTO dto, Principal principal) {
-        ServicePackVO vo = null;
-        ManifestVO manifestVo = null;
+    private void deploy(ServicePackParamDTO dto, final Principal principal) {
+        final ServicePackVO vo = dao.selectServicePackDetailInfo(dto.getId());
+        ManifestVO manifestInfo = null;
         String deploymentFileName = null;
-        vo = dao.selectServicePackDetailInfo(dto.getId());
 
         if ( vo != null){
-            manifestVo = manifestDao.selectManifestInfoByDeployName(vo.getDeploymentName());
-            if(manifestVo == null){
+            manifestInfo = manifestDao.selectManifestInfoByDeployName(vo.getDeploymentName());
+            if(manifestInfo == null){
                 throw new CommonException("notfound.diegodelete.exception",
                         "배포파일 정보가 존재하지 않습니다..", HttpStatus.NOT_FOUND);
             }else {
@@ -71,6 +72,7 @@ public class ServicePackDeployAsyncService {
             throw new CommonException("notfound.diegodelete.exception",
                     "배포파일 정보가 존재하지 않습니다..", HttpStatus.NOT_FOUND);
         }
+        final ManifestVO manifestVo = manifestInfo;
         
         if ( vo != null ) {
             String deployStatus = message.getMessage("common.deploy.status.processing", null, Locale.KOREA);
@@ -80,6 +82,8 @@ public class ServicePackDeployAsyncService {
         }
         
         String status = "";
+        //Task 추적을 시작하면 설치 상태는 Task 종료 시 저장
+        boolean tracking = false;
         StringBuffer content = new StringBuffer(); 
         String temp = "";
         String taskId = "";
@@ -106,11 +110,18 @@ public class ServicePackDeployAsyncService {
             
             postMethod.setRequestEntity(new StringRequestEntity(content.toString(), "text/yaml", "UTF-8"));
             //HTTP 요청 및 요청 결과
-            int statusCode = httpClient.executeMethod(postMethod);
+            int statusCode = DirectorRestHelper.executeAndRelease(httpClient, postMethod);
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 Header location = postMethod.getResponseHeader("Location");
                 taskId = DirectorRestHelper.getTaskId(location.getValue());
-                status = DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, httpClient, taskId, "event", principal.getName());
+                DirectorRestHelper.trackToTask(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, httpClient, taskId, "event", principal.getName(),
+                        new DirectorTaskCallback() {
+                            @Override
+                            public void onFinish(String taskId, String state) {
+                                saveDeployStatus(vo, manifestVo, state, principal.getName());
+                            }
+                        });
+                tracking = true;
             } else {
                 DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("배포 중 오류가 발생하였습니다.[" + statusCode + "]"));
             }
@@ -139,25 +150,37 @@ public class ServicePackDeployAsyncService {
                     LOGGER.error( e.getMessage() );
                 }
             }
-            
-            String deployStatus = "";
-            if( status.equalsIgnoreCase("done") ){
-                deployStatus = message.getMessage("common.deploy.status.done", null, Locale.KOREA);
-            } else if( status.equalsIgnoreCase("error") ){
-                deployStatus = message.getMessage("common.deploy.status.failed", null, Locale.KOREA);
-            } else if( status.equalsIgnoreCase("cancelled") ){
-                deployStatus = message.getMessage("common.deploy.status.cancelled", null, Locale.KOREA);
-            }
-            
-            if ( vo != null ) {
-                vo.setDeployStatus(deployStatus);
-                vo.setUpdateUserId(principal.getName());
-                dao.updateServicePackInfo(vo);
-                manifestVo.setDeployStatus(deployStatus);
-                manifestDao.updateManifestInfo(manifestVo);
+            if( !tracking ){
+                saveDeployStatus(vo, manifestVo, status, principal.getName());
             }
         }
     }
+
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 서비스팩 및 Manifest 설치 상태 저장
+     * @title : saveDeployStatus
+     * @return : void
+    ***************************************************/
+    private void saveDeployStatus(ServicePackVO vo, ManifestVO manifestVo, String status, String userId) {
+        String deployStatus = "";
+        if( status.equalsIgnoreCase("done") ){
+            deployStatus = message.getMessage("common.deploy.status.done", null, Locale.KOREA);
+        } else if( status.equalsIgnoreCase("cancelled") ){
+            deployStatus = message.getMessage("common.deploy.status.cancelled", null, Locale.KOREA);
+        } else if( !status.isEmpty() ){
+            //error, timeout
+            deployStatus = message.getMessage("common.deploy.status.failed", null, Locale.KOREA);
+        }
+        
+        if ( vo != null ) {
+            vo.setDeployStatus(deployStatus);
+            vo.setUpdateUserId(userId);
+            dao.updateServicePackInfo(vo);
+            manifestVo.setDeployStatus(deployStatus);
+            manifestDao.updateManifestInfo(manifestVo);
+        }
+    }
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -165,7 +188,7 @@ public class ServicePackDeployAsyncService {
      * @title : deployAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deployAsync(ServicePackParamDTO dto, Principal principal) {
         deploy(dto, principal);
     }
@@ -6,13 +6,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import org.apache.commons.httpclient.HttpClient;
-import org.apache.commons.httpclient.HttpMethodBase;
-import org.apache.commons.httpclient.methods.GetMethod;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.deployment.DeploymentDTO;
 import org.openpaas.ieda.deploy.api.deployment.DeploymentInfoDTO;
-import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,21 +31,14 @@ public class DeploymentService {
      * @return : List<DeploymentInfoDTO>
     ***************************************************/
     public List<DeploymentInfoDTO> listDeployment(){
-        DirectorConfigVO defaultDirector = directroConfigService.getDefaultDirector();
-        if ( defaultDirector == null ) {
-            throw new CommonException("notfound.director.exception", "기본 설치관리자 존재하지 않습니다.", HttpStatus.BAD_REQUEST);
-        }
         List<DeploymentInfoDTO> deploymentInfoList = null;
         
         try {
-            HttpClient httpClient = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
-            GetMethod get = new GetMethod(DirectorRestHelper.getDeploymentListURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
-            get = (GetMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
-            httpClient.executeMethod(get);
-            if ( !StringUtils.isEmpty(get.getResponseBodyAsString()) ) {
+            String responseBody = getDeploymentListSnapshot().getBody();
+            if ( !StringUtils.isEmpty(responseBody) ) {
                 
                 ObjectMapper mapper = new ObjectMapper();
-                DeploymentDTO[] deploymentList = mapper.readValue(get.getResponseBodyAsString(), DeploymentDTO[].class);
+                DeploymentDTO[] deploymentList = mapper.readValue(responseBody, DeploymentDTO[].class);
                 
                 int idx = 0;
                 for ( DeploymentDTO deployment : deploymentList ) {
@@ -76,12 +66,30 @@ public class DeploymentService {
                     deploymentInfoList.add(deploymentInfo);
                 }
             }
-        } catch (NoRouteToHostException e){
-            throw new CommonException("noRouteToHost.deployment.exception", "네트워크 연결에 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (IOException e) {
             throw new CommonException("io.deployment.exception", " 배포 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         }
         
         return deploymentInfoList;
     }
+    
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 기본 설치관리자의 배포 목록 응답 조회(설치 관리자 목록 캐시 사용)
+     * @title : getDeploymentListSnapshot
+     * @return : DirectorInventoryCache.Snapshot
+    ***************************************************/
+    public DirectorInventoryCache.Snapshot getDeploymentListSnapshot(){
+        DirectorConfigVO defaultDirector = directroConfigService.getDefaultDirector();
+        if ( defaultDirector == null ) {
+            throw new CommonException("notfound.director.exception", "기본 설치관리자 존재하지 않습니다.", HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return DirectorInventoryCache.getInstance().get(defaultDirector, DirectorInventoryCache.Inventory.DEPLOYMENTS);
+        } catch (NoRouteToHostException e){
+            throw new CommonException("noRouteToHost.deployment.exception", "네트워크 연결에 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IOException e) {
+            throw new CommonException("io.deployment.exception", " 배포 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
@@ -38,7 +39,7 @@ public class ReleaseDeleteAsyncService {
             DeleteMethod deleteMethod = new DeleteMethod(DirectorRestHelper.getDeleteReleaseURI( defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), releaseName, releaseVersion));
             deleteMethod = (DeleteMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)deleteMethod);
             //실행
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = DirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value()  || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 Header location = deleteMethod.getResponseHeader("Location");
@@ -60,7 +61,7 @@ public class ReleaseDeleteAsyncService {
      * @title : deleteReleaseAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void deleteReleaseAsync(String releaseName, String releaseVersion, Principal principal) {
         deleteRelease(releaseName, releaseVersion, principal);
     }
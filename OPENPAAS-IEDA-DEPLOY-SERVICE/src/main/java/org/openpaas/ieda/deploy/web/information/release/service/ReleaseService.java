@@ -9,12 +9,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
 
-import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
-import org.apache.commons.httpclient.HttpMethodBase;
-import org.apache.commons.httpclient.methods.GetMethod;
 import org.openpaas.ieda.common.exception.CommonException;
-import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache;
 import org.openpaas.ieda.deploy.api.release.ReleaseDTO;
 import org.openpaas.ieda.deploy.api.release.ReleaseInfoDTO;
 import org.openpaas.ieda.deploy.api.release.ReleaseVersionDTO;
@@ -43,16 +40,24 @@ public class ReleaseService {
      * @return : List<ReleaseInfoDTO>
     ***************************************************/
     public List<ReleaseInfoDTO> getUploadedReleaseList() {
-        DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
         List<ReleaseInfoDTO> releaseInfoList =  new ArrayList<ReleaseInfoDTO>();
-        HttpClient client = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
+        String responseBody = getReleaseListSnapshot().getBody();
+        if ( !StringUtils.isEmpty(responseBody)) {
+            releaseInfoList= setUploadedReleaseList(responseBody);
+        }
+        return releaseInfoList; 
+    }
+    
+    /***************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 기본 설치관리자의 릴리즈 목록 응답 조회(설치 관리자 목록 캐시 사용)
+     * @title : getReleaseListSnapshot
+     * @return : DirectorInventoryCache.Snapshot
+    ***************************************************/
+    public DirectorInventoryCache.Snapshot getReleaseListSnapshot() {
+        DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
         try {
-            GetMethod get = new GetMethod(DirectorRestHelper.getReleaseListURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
-            get = (GetMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
-            client.executeMethod(get);
-            if ( !StringUtils.isEmpty(get.getResponseBodyAsString())) {
-                releaseInfoList= setUploadedReleaseList(get.getResponseBodyAsString());
-            }
+            return DirectorInventoryCache.getInstance().get(defaultDirector, DirectorInventoryCache.Inventory.RELEASES);
         } catch (HttpException e) {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -60,7 +65,6 @@ public class ReleaseService {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
         }
-        return releaseInfoList; 
     }
     
     /****************************************************************
@@ -113,22 +117,10 @@ public class ReleaseService {
      * @return : List<ReleaseInfoDTO>
     ***************************************************/
     public List<ReleaseInfoDTO> getFilteredReleseList(String type) {
-        DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
         List<ReleaseInfoDTO> releaseInfoList = null;
-        try {
-            HttpClient client = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
-            GetMethod get = new GetMethod(DirectorRestHelper.getReleaseListURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
-            get = (GetMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
-            client.executeMethod(get);
-            if ( !StringUtils.isEmpty(get.getResponseBodyAsString()) ) {
-                releaseInfoList=setFilteredReleseInfo(get.getResponseBodyAsString(), type); 
-            }
-        } catch (HttpException e) {
-            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                    message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (IOException e) {
-            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                    message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
+        String responseBody = getReleaseListSnapshot().getBody();
+        if ( !StringUtils.isEmpty(responseBody) ) {
+            releaseInfoList=setFilteredReleseInfo(responseBody, type); 
         }
                 
         return releaseInfoList; 
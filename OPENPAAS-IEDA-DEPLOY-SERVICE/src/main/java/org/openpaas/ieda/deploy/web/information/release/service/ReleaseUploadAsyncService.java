@@ -9,10 +9,14 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
 import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorFileUploader;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.information.stemcell.dto.FileUploadRequestDTO;
@@ -32,7 +36,6 @@ public class ReleaseUploadAsyncService {
     private DirectorConfigService directorService;
     @Autowired MessageSource message;
     
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String RELEASE_DIR=LocalDirectoryConfiguration.getReleaseDir();
     final private static String SEPARATOR= System.getProperty("file.separator");
     final private static String MESSAGE_ENDPOINT  = "/info/release/upload/socket/logs"; 
@@ -43,23 +46,43 @@ public class ReleaseUploadAsyncService {
      * @title : uploadRelease
      * @return : void
     ***************************************************/
-    public void uploadRelease( String release, String user) {
-        DirectorConfigVO director = directorService.getDefaultDirector();
+    public void uploadRelease( String release, final String user) {
+        final DirectorConfigVO director = directorService.getDefaultDirector();
+        //Task 추적을 시작하면 업로드 lock 은 Task 종료 시 해제
+        boolean tracking = false;
         try {
             HttpClient httpClient = DirectorRestHelper.getHttpClient(director.getDirectorPort());
-            PostMethod postMethod = new PostMethod(DirectorRestHelper.getUploadReleaseURI(director.getDirectorUrl(), director.getDirectorPort()));
-            postMethod = (PostMethod)DirectorRestHelper.setAuthorization(director.getUserId(), director.getUserPassword(), (HttpMethodBase)postMethod);
-            postMethod.setRequestHeader("Content-Type", "application/x-compressed");
+            final File uploadFile = new File(RELEASE_DIR + SEPARATOR + release);
             
-            String uploadFile = RELEASE_DIR + SEPARATOR + release;
-            postMethod.setRequestEntity(new FileUploadRequestDTO(new File(uploadFile), "application/x-compressed", messagingTemplate, MESSAGE_ENDPOINT, user));
+            ArtifactStore.accessed(uploadFile);//사용 시각 갱신
             DirectorRestHelper.sendTaskOutputWithTag(user, messagingTemplate, MESSAGE_ENDPOINT, "Started", release, Arrays.asList("Uploading Release ...", ""));
             
-            int statusCode = httpClient.executeMethod(postMethod);
+            HttpMethodBase postMethod = DirectorFileUploader.upload(httpClient, uploadFile, new DirectorFileUploader.DirectorRequestFactory() {
+                @Override
+                public HttpMethodBase createUploadMethod() {
+                    PostMethod postMethod = new PostMethod(DirectorRestHelper.getUploadReleaseURI(director.getDirectorUrl(), director.getDirectorPort()));
+                    postMethod = (PostMethod)DirectorRestHelper.setAuthorization(director.getUserId(), director.getUserPassword(), (HttpMethodBase)postMethod);
+                    postMethod.setRequestHeader("Content-Type", "application/x-compressed");
+                    postMethod.setRequestEntity(new FileUploadRequestDTO(uploadFile, "application/x-compressed", messagingTemplate, MESSAGE_ENDPOINT, user));
+                    return postMethod;
+                }
+                @Override
+                public HttpMethodBase createListMethod() {
+                    GetMethod get = new GetMethod(DirectorRestHelper.getReleaseListURI(director.getDirectorUrl(), director.getDirectorPort()));
+                    return DirectorRestHelper.setAuthorization(director.getUserId(), director.getUserPassword(), (HttpMethodBase)get);
+                }
+            });
+            if ( postMethod == null ) {
+                //재전송 전 디렉터에 이미 업로드된 것을 확인한 경우
+                DirectorRestHelper.sendTaskOutputWithTag(user, messagingTemplate, MESSAGE_ENDPOINT, "done", release, Arrays.asList("이미 업로드된 릴리즈입니다."));
+                return;
+            }
+            int statusCode = postMethod.getStatusCode();
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value()|| statusCode == HttpStatus.MOVED_TEMPORARILY.value() ){
                 Header location = postMethod.getResponseHeader("Location");
                 String taskId = DirectorRestHelper.getTaskId(location.getValue());
                 DirectorRestHelper.trackToTaskWithTag(director, messagingTemplate, MESSAGE_ENDPOINT, release, httpClient, taskId, "event", user);
+                tracking = true;
             } else {
                 DirectorRestHelper.sendTaskOutputWithTag(user, messagingTemplate, MESSAGE_ENDPOINT, "error", release, Arrays.asList("릴리즈 업로드 중 오류가 발생하였습니다."));
             }
@@ -69,7 +92,9 @@ public class ReleaseUploadAsyncService {
         } catch (IOException e) {
             DirectorRestHelper.sendTaskOutput(user, messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("릴리즈 업로드 중 오류가 발생하였습니다."));
         } finally{
-            CommonDeployUtils.deleteFile(LOCK_DIR, release.split(".tgz")[0]+"-upload.lock");
+            if( !tracking ){
+                DeploymentLockManager.unlock(release.split(".tgz")[0]+"-upload.lock");
+            }
         }
     }
     
@@ -79,7 +104,7 @@ public class ReleaseUploadAsyncService {
      * @title : uploadReleaseAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR)
     public void uploadReleaseAsync(String releaseFileName, String userId) {
         uploadRelease(releaseFileName, userId);
     }
@@ -12,7 +12,7 @@ import org.apache.commons.httpclient.methods.DeleteMethod;
 import org.apache.commons.httpclient.methods.GetMethod;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
-import org.openpaas.ieda.deploy.api.task.TaskInfoDTO;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskState;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.information.snapshot.dto.SnapshotListDTO;
@@ -31,7 +31,8 @@ public class SnapshotService {
     
     @Autowired private DirectorConfigService directorConfigService;
     final private static Logger LOGGER = LoggerFactory.getLogger(SnapshotService.class);
-    final private static int THREAD_SLEEP_TIME = 2 * 1000;
+    //스냅샷 삭제 Task 최대 대기 시간
+    final private static long DELETE_TASK_TIMEOUT = 10 * 60 * 1000L;
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -62,8 +63,6 @@ public class SnapshotService {
                         " 스냅샷 조회 중 오류가 발생하였습니다.", HttpStatus.NOT_FOUND);
             }
             
-            Thread.sleep(THREAD_SLEEP_TIME);
-            
             ObjectMapper mapper = new ObjectMapper();
             SnapshotListDTO[] snapshotList = mapper.readValue(getMethod.getResponseBodyAsString(), SnapshotListDTO[].class);
             int idx = 0;
@@ -76,8 +75,6 @@ public class SnapshotService {
             }
         }catch (HttpException e){
             throw new CommonException("HttpException.snapshot.exception", " 스냅샷 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (InterruptedException e) {
-            throw new CommonException("InterruptedException.snapshot.exception", " 스냅샷 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (JsonParseException e) {
             throw new CommonException("JsonParseException.snapshot.exception", " 스냅샷 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (JsonMappingException e) {
@@ -110,7 +107,6 @@ public class SnapshotService {
         String taskId = "";
         HttpClient client = null;
         DeleteMethod deleteMethod= null;
-        GetMethod getTaskStaus = null;
         try{
             client = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
             if( "all".equalsIgnoreCase(type) ){
@@ -126,41 +122,13 @@ public class SnapshotService {
                 Header location = deleteMethod.getResponseHeader("Location");
                 taskId = DirectorRestHelper.getTaskId(location.getValue());
                 
-                Thread.sleep(THREAD_SLEEP_TIME);
-                
-                ObjectMapper mapper = new ObjectMapper();
-                while (true) {
-                    if( getTaskStaus != null ){
-                        getTaskStaus.releaseConnection();
-                    }
-                    //1. Task 상태 정보 요청
-                    getTaskStaus = new GetMethod(DirectorRestHelper
-                            .getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
-                    getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
-                            defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                    
-                    statusCode = client.executeMethod(getTaskStaus);
-                    
-                    if (HttpStatus.valueOf(statusCode) == HttpStatus.OK) {
-                    
-                        TaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), TaskInfoDTO.class);
-                        if( LOGGER.isDebugEnabled()){
-                            LOGGER.debug(taskInfo.getState());
-                        }
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        
-                        if (taskInfo.getState().equalsIgnoreCase("done")) {
-                            status = "done";
-                            break;
-                        }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                            status =  "error";
-                            break;
-                        } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                            status = "cancelled";
-                            break;
-                        }
-                    }
-                    Thread.sleep(THREAD_SLEEP_TIME);
+                //Task 종료 대기(고정 주기 sleep 대신 공용 Task 추적기가 종료 즉시 응답)
+                status = DirectorRestHelper.awaitTask(defaultDirector, taskId, System.currentTimeMillis() + DELETE_TASK_TIMEOUT);
+                if( LOGGER.isDebugEnabled() ){
+                    LOGGER.debug("snapshot delete task " + taskId + " : " + status);
+                }
+                if( DirectorTaskState.TIMEOUT.equals(status) ){
+                    throw new CommonException("timeout.snapshot.exception", " 스냅샷 삭제 중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
                 }
             } else {
                 throw new CommonException("badRequest.snapshot.exception", " 스냅샷 삭제 중 오류가 발생하였습니다.", HttpStatus.BAD_REQUEST);
@@ -168,9 +136,6 @@ public class SnapshotService {
         }catch (IOException e) {
             throw new CommonException("ioFileRead.snapshot.exception", 
                     " 스냅샷 삭제 중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
-        }catch (InterruptedException e){
-            throw new CommonException("Interrupted.snapshot.exception", 
-                    " 스냅샷 삭제 중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         }catch(RuntimeException e){
             throw new CommonException("runtime.snapshot.exception", 
                     " 스냅샷 삭제 중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -178,9 +143,6 @@ public class SnapshotService {
             if( deleteMethod  != null){
                 deleteMethod.releaseConnection();
             }
-            if( getTaskStaus != null ){
-                getTaskStaus.releaseConnection();
-            }
         }
         return status;
     }
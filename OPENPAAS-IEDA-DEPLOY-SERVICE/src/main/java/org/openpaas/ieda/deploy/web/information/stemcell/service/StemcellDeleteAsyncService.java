@@ -7,6 +7,7 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
@@ -39,7 +40,7 @@ public class StemcellDeleteAsyncService {
             deleteMethod = (DeleteMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)deleteMethod);
             
             //Request에 대한 응답
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = DirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 
                 Header location = deleteMethod.getResponseHeader("Location");
@@ -63,7 +64,7 @@ public class StemcellDeleteAsyncService {
      * @title : deleteStemcellAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void deleteStemcellAsync(String stemcellName, String stemcellVersion, Principal principal) {
         deleteStemcell(stemcellName, stemcellVersion, principal);
     }    
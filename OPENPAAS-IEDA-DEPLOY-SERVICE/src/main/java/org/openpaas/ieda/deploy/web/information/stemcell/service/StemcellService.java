@@ -5,12 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
-import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
-import org.apache.commons.httpclient.HttpMethodBase;
-import org.apache.commons.httpclient.methods.GetMethod;
 import org.openpaas.ieda.common.exception.CommonException;
-import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache;
 import org.openpaas.ieda.deploy.api.stemcell.StemcellListDTO;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
@@ -39,14 +36,19 @@ public class StemcellService {
      * @return : List<StemcellManagementVO>
     *****************************************************************/
     public List<StemcellManagementVO> getStemcellList() {
+        return setUploadedStemcellList(getStemcellListSnapshot().getBody());
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 기본 설치관리자의 스템셀 목록 응답 조회(설치 관리자 목록 캐시 사용)
+     * @title : getStemcellListSnapshot
+     * @return : DirectorInventoryCache.Snapshot
+    *****************************************************************/
+    public DirectorInventoryCache.Snapshot getStemcellListSnapshot() {
         DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
-        List<StemcellManagementVO> stemcellInfoList= new ArrayList<StemcellManagementVO>();
         try {
-            HttpClient client = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
-            GetMethod get = new GetMethod(DirectorRestHelper.getStemcellsURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
-            get = (GetMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
-            client.executeMethod(get);
-            stemcellInfoList= setUploadedStemcellList(get.getResponseBodyAsString());
+            return DirectorInventoryCache.getInstance().get(defaultDirector, DirectorInventoryCache.Inventory.STEMCELLS);
         } catch (HttpException e) {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -54,7 +56,6 @@ public class StemcellService {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
         }
-        return stemcellInfoList;
     }
     
     /****************************************************************
@@ -8,10 +8,13 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
 import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
-import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorFileUploader;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.information.stemcell.dto.FileUploadRequestDTO;
@@ -27,9 +30,9 @@ public class StemcellUploadAsyncService {
     @Autowired private SimpMessagingTemplate messagingTemplate;
     @Autowired private DirectorConfigService directorConfigService;
     
-    final private static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir();
     final private static String MESSAGE_ENDPOINT  = "/info/stemcell/upload/logs"; 
     final private static String EXCEPTION_MESSAGE = "스템셀 업로드 중 오류가 발생하였습니다.";
+    final private static String ALREADY_UPLOADED_MESSAGE = "이미 업로드된 스템셀입니다.";
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -37,23 +40,43 @@ public class StemcellUploadAsyncService {
      * @title : uploadStemcell
      * @return : void
     ***************************************************/
-    public void uploadStemcell(String stemcellDir, String stemcellFileName, String userId) {
-        DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
+    public void uploadStemcell(String stemcellDir, String stemcellFileName, final String userId) {
+        final DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
+        //Task 추적을 시작하면 업로드 lock 은 Task 종료 시 해제
+        boolean tracking = false;
         try {
             HttpClient httpClient = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
-            PostMethod postMethod  = new PostMethod(DirectorRestHelper.getUploadStemcellURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
-            postMethod = (PostMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)postMethod);
-            postMethod.setRequestHeader("Content-Type", "application/x-compressed");
+            final File uploadFile = new File(stemcellDir + System.getProperty("file.separator") + stemcellFileName);
             
-            String uploadFile = stemcellDir + System.getProperty("file.separator") + stemcellFileName;
-            postMethod.setRequestEntity(new FileUploadRequestDTO(new File(uploadFile), "application/x-compressed", messagingTemplate, MESSAGE_ENDPOINT, userId));
+            ArtifactStore.accessed(uploadFile);//사용 시각 갱신
             DirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, MESSAGE_ENDPOINT, "Started", stemcellFileName, Arrays.asList("Uploading Stemcell ...", ""));
             
-            int statusCode = httpClient.executeMethod(postMethod);
+            HttpMethodBase postMethod = DirectorFileUploader.upload(httpClient, uploadFile, new DirectorFileUploader.DirectorRequestFactory() {
+                @Override
+                public HttpMethodBase createUploadMethod() {
+                    PostMethod postMethod  = new PostMethod(DirectorRestHelper.getUploadStemcellURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
+                    postMethod = (PostMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)postMethod);
+                    postMethod.setRequestHeader("Content-Type", "application/x-compressed");
+                    postMethod.setRequestEntity(new FileUploadRequestDTO(uploadFile, "application/x-compressed", messagingTemplate, MESSAGE_ENDPOINT, userId));
+                    return postMethod;
+                }
+                @Override
+                public HttpMethodBase createListMethod() {
+                    GetMethod get = new GetMethod(DirectorRestHelper.getStemcellsURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
+                    return DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
+                }
+            });
+            if ( postMethod == null ) {
+                //재전송 전 디렉터에 이미 업로드된 것을 확인한 경우
+                DirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, MESSAGE_ENDPOINT, "done", stemcellFileName, Arrays.asList(ALREADY_UPLOADED_MESSAGE));
+                return;
+            }
+            int statusCode = postMethod.getStatusCode();
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value() ) {
                 Header location = postMethod.getResponseHeader("Location");
                 String taskId = DirectorRestHelper.getTaskId(location.getValue());
                 DirectorRestHelper.trackToTaskWithTag(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, stemcellFileName , httpClient, taskId, "event", userId);
+                tracking = true;
             } else {
                 DirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, MESSAGE_ENDPOINT, "error", stemcellFileName, Arrays.asList(EXCEPTION_MESSAGE));
             }
@@ -62,7 +85,9 @@ public class StemcellUploadAsyncService {
         } catch ( IOException e) {
             DirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, MESSAGE_ENDPOINT, "error", stemcellFileName, Arrays.asList(EXCEPTION_MESSAGE));
         }finally{
-            CommonDeployUtils.deleteFile(LOCK_DIR, stemcellFileName.split(".tgz")[0]+"-upload.lock");
+            if( !tracking ){
+                DeploymentLockManager.unlock(stemcellFileName.split(".tgz")[0]+"-upload.lock");
+            }
         }
     }
 
@@ -72,7 +97,7 @@ public class StemcellUploadAsyncService {
      * @title : uploadStemcellAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR)
     public void uploadStemcellAsync(String stemcellDir, String stemcellFileName, String userId) {
         uploadStemcell(stemcellDir, stemcellFileName, userId);
     }
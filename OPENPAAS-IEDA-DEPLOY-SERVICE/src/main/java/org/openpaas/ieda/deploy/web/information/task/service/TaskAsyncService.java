@@ -4,6 +4,7 @@ import java.security.Principal;
 import java.util.Arrays;
 
 import org.apache.commons.httpclient.HttpClient;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
@@ -55,7 +56,7 @@ public class TaskAsyncService {
      * @title : doGetTaskLogAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void doGetTaskLogAsync(TaskDTO.GetLog dto,  Principal principal) {
         doGetTaskLog(dto, principal);
     }
@@ -8,14 +8,15 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.GetMethod;
-import org.apache.commons.io.IOUtils;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorStreamProxy;
 import org.openpaas.ieda.deploy.api.task.TaskListDTO;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
@@ -49,9 +50,10 @@ public class TaskService {
         DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
         TaskListDTO[] tasks = null;
         List<TaskListDTO> contents = new ArrayList<TaskListDTO>();
+        GetMethod get = null;
         try {
             HttpClient client = DirectorRestHelper.getHttpClient(defaultDirector.getDirectorPort());
-            GetMethod get = new GetMethod(DirectorRestHelper.getTaskListURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
+            get = new GetMethod(DirectorRestHelper.getTaskListURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort()));
             get = (GetMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)get);
             client.executeMethod(get);
             ObjectMapper mapper = new ObjectMapper();
@@ -72,6 +74,10 @@ public class TaskService {
             throw new CommonException("jsonMapping.tasks.exception", " Task정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (IOException e) {
             throw new CommonException("internalServer.tasks.exception", " Task정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
 
         return contents;
@@ -79,12 +85,11 @@ public class TaskService {
 
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : 디버그 로그 다운로드 요청
+     * @description : 디버그 로그 다운로드 요청(줄바꿈 변환/gzip 압축하며 스트리밍)
      * @title : getDownloadDebugLogFile
      * @return : void
     ***************************************************/
-    public void getDownloadDebugLogFile(String taskId, HttpServletResponse response) {
-        String content = "";
+    public void getDownloadDebugLogFile(String taskId, HttpServletRequest request, HttpServletResponse response) {
         String fileName = "";
         int statusCode = 0;
         try {
@@ -96,24 +101,14 @@ public class TaskService {
                     defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId, "debug"));
             getTaskOutputMethod = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
                     defaultDirector.getUserPassword(), (HttpMethodBase) getTaskOutputMethod);
-            String range = "bytes=" + 0 + "-";
-            getTaskOutputMethod.setRequestHeader("Range", range);
-            //요청
-            statusCode = httpClient.executeMethod(getTaskOutputMethod);
-            if( LOGGER.isDebugEnabled() ) { 
-                LOGGER.debug( "status Code : " + statusCode);
-            }
-            //요청 결과 정보
-            content = getTaskOutputMethod.getResponseBodyAsString().replace("\n", "\r\n");
             Date now = new Date();
             SimpleDateFormat dataformat = new SimpleDateFormat("yyyymmdd_HHmmss", Locale.KOREA);
             fileName = dataformat.format(now)+"_task_debug_"+ taskId + ".log"; //로그 파일명
-            response.setContentType("application/octet-stream");
-            //Content-Disposition : 브라우저에서 다운로드 창을 띄우는 역할
-            response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
-            //문자열 데이터를 파일에 쓴다.
-            IOUtils.write(content, response.getOutputStream());
-            
+            //요청 결과를 응답 스트림으로 전달
+            statusCode = DirectorStreamProxy.stream(httpClient, getTaskOutputMethod, request, response, fileName, true);
+            if( LOGGER.isDebugEnabled() ) { 
+                LOGGER.debug( "status Code : " + statusCode);
+            }
         } catch (IOException e) {
             if( LOGGER.isErrorEnabled() ){
                 LOGGER.error( e.getMessage() );  
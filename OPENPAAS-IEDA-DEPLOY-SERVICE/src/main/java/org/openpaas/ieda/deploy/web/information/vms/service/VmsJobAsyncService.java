@@ -11,6 +11,7 @@ import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PutMethod;
 import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.json.JSONObject;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
@@ -31,7 +32,6 @@ public class VmsJobAsyncService {
     @Autowired MessageSource message;
     
     final private static String MESSAGE_ENDPOINT = "/info/vms/vmLogs/socket"; 
-    final private static int THREAD_SLEEP_TIME = 1 * 1000;
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -61,8 +61,6 @@ public class VmsJobAsyncService {
             JSONObject obj = new JSONObject(getMethod.getResponseBodyAsString());
             content = obj.get("manifest").toString();
             
-            Thread.sleep(THREAD_SLEEP_TIME);
-            
             //1.2 put job state
             putMehotd  = new PutMethod(DirectorRestHelper
                     .getJobStateURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), dto.getDeploymentName(), dto.getJobName(), dto.getIndex(),  dto.getState()));
@@ -101,7 +99,7 @@ public class VmsJobAsyncService {
      * @title : doGetJobLogAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void doGetJobLogAsync(VmsListDTO dto, Principal principal) {
         doGetJobLog(dto, principal);
     }
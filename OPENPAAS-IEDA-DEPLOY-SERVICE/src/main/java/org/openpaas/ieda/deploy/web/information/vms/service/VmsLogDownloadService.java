@@ -5,6 +5,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.httpclient.HttpClient;
@@ -14,28 +15,30 @@ import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorStreamProxy;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskState;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.unitils.thirdparty.org.apache.commons.io.IOUtils;
 
 @Service
 public class VmsLogDownloadService {
     
     @Autowired private DirectorConfigService directorConfigService;
     @Autowired MessageSource message;
-    final private static int THREAD_SLEEP_TIME = 2 * 1000;
+    //bosh logs Task(로그 수집/압축) 최대 대기 시간
+    final private static long LOG_TASK_TIMEOUT = 10 * 60 * 1000L;
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : Agent 및 Job 로그 다운로드 요청
+     * @description : Agent 및 Job 로그 다운로드 요청(로그 Task 종료 후 blobstore 응답을 브라우저로 스트리밍)
      * @title : doDownloadLog
      * @return : void
     ***************************************************/
-    public void  doDownloadLog(String jobName, String index, String deploymentName, String type, HttpServletResponse response){
+    public void  doDownloadLog(String jobName, String index, String deploymentName, String type, HttpServletRequest request, HttpServletResponse response){
         int statusCode = 0;
         String taskId = "";
         String logFile = "";
@@ -56,39 +59,48 @@ public class VmsLogDownloadService {
             //get taskId
             String[] segments  = getLogMethod.getPath().split("/");
             taskId = segments[segments.length - 1];
+            getLogMethod.releaseConnection();
             
-            Thread.sleep(THREAD_SLEEP_TIME);
+            //로그 Task 종료 대기
+            String state = DirectorRestHelper.awaitTask(defaultDirector, taskId, System.currentTimeMillis() + LOG_TASK_TIMEOUT);
+            if( !DirectorTaskState.DONE.equalsIgnoreCase(state) ){
+                throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                        message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
+            }
             
             //Task status Info
             GetMethod getTaskStaus = new GetMethod(DirectorRestHelper.getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
             getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-            statusCode = httpClient.executeMethod(getTaskStaus);
-            
-            Thread.sleep(THREAD_SLEEP_TIME);
+            String result = "";
+            try {
+                statusCode = httpClient.executeMethod(getTaskStaus);
+                if ( statusCode == HttpStatus.OK.value() ){
+                    JSONObject obj = new JSONObject(getTaskStaus.getResponseBodyAsString());
+                    result = obj.get("result").toString();
+                }
+            } finally {
+                getTaskStaus.releaseConnection();
+            }
             
             if ( statusCode == HttpStatus.OK.value() ){
-                JSONObject obj = new JSONObject(getTaskStaus.getResponseBodyAsString());
-                String result = obj.get("result").toString();
                 // download log by result
                 GetMethod getResultOutput = new GetMethod(DirectorRestHelper.getResultOutputURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), result));
                 getResultOutput = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase) getResultOutput);
-                String range = "bytes=" + 0 + "-";
-                getResultOutput.setRequestHeader("Range", range);
                 
-                statusCode = httpClient.executeMethod(getResultOutput);
-                if ( statusCode == HttpStatus.OK.value() || statusCode == HttpStatus.PARTIAL_CONTENT.value()){
-                    byte[] content = getResultOutput.getResponseBody();
-                    Date now = new Date();
-                    SimpleDateFormat dataformat = new SimpleDateFormat("yyyymmdd_HHmmss", Locale.KOREA);
-                    logFile = jobName+"_"+index+"_"+dataformat.format(now)+"_"+type;
-                    response.setContentType("application/octet-stream");
-                    response.setHeader("Content-Disposition", "attachment; filename=" + logFile+".tgz");
-                    IOUtils.write(content, response.getOutputStream());
-                }else{
+                Date now = new Date();
+                SimpleDateFormat dataformat = new SimpleDateFormat("yyyymmdd_HHmmss", Locale.KOREA);
+                logFile = jobName+"_"+index+"_"+dataformat.format(now)+"_"+type;
+                //tgz 는 이미 압축된 파일이므로 원본 그대로 전달
+                //(요청마다 새 로그 묶음이 생성되어 이전 다운로드를 이어 받을 수 없으므로 Range 는 전달하지 않음)
+                statusCode = DirectorStreamProxy.stream(httpClient, getResultOutput, request, response, logFile+".tgz", false);
+                if ( statusCode != HttpStatus.OK.value() ){
                     throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                             message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
                 }
             }
+        }catch(CommonException e){
+            //다운로드 중 판단한 오류(설치 관리자 없음, Task 실패, 응답 코드)는 그대로 응답
+            throw e;
         }catch(RuntimeException e){
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -98,9 +110,6 @@ public class VmsLogDownloadService {
         } catch (JSONException e) {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.file.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (InterruptedException e) {
-            throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
-                    message.getMessage("common.file.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
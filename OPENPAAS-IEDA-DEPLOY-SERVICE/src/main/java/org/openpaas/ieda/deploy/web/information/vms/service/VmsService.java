@@ -16,6 +16,7 @@ import org.json.JSONObject;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.service.CommonUtils;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskState;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
 import org.openpaas.ieda.deploy.web.config.setting.service.DirectorConfigService;
 import org.openpaas.ieda.deploy.web.information.vms.dto.VmsListDTO;
@@ -29,7 +30,8 @@ import org.springframework.stereotype.Service;
 public class VmsService {
     
     @Autowired private DirectorConfigService directorConfigService;
-    final private static int THREAD_SLEEP_TIME = 1 * 1000;
+    //VM 정보(vitals) 조회 Task 최대 대기 시간
+    final private static long VM_LIST_TASK_TIMEOUT = 5 * 60 * 1000L;
     private final static Logger LOGGER = LoggerFactory.getLogger(DirectorConfigService.class);
     
     /***************************************************
@@ -53,7 +55,7 @@ public class VmsService {
         String logType = "result";
         HttpClient client = null;
         GetMethod getMethod= null;
-        GetMethod getTaskStaus = null;
+        GetMethod getTaskOutput = null;
         int offset = 0;
         try{
             //1.1 task Info by deployment
@@ -69,18 +71,14 @@ public class VmsService {
             String[] segments  = getMethod.getPath().split("/");
             taskId = segments[segments.length - 1];
             
-            Thread.sleep(THREAD_SLEEP_TIME);
-            
-            //1.2 Task 상태 정보 요청
-            getTaskStaus = new GetMethod(DirectorRestHelper
-                    .getTaskStatusURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId));
-            getTaskStaus = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
-                    defaultDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-            client.executeMethod(getTaskStaus);
-            Thread.sleep(THREAD_SLEEP_TIME);
+            //1.2 Task 종료 대기(종료 즉시 결과 조회)
+            String state = DirectorRestHelper.awaitTask(defaultDirector, taskId, System.currentTimeMillis() + VM_LIST_TASK_TIMEOUT);
+            if( !DirectorTaskState.DONE.equalsIgnoreCase(state) ){
+                throw new CommonException("notfound.vm.exception",  " VM 정보 조회 Task가 완료되지 않았습니다.(" + state + ")", HttpStatus.BAD_REQUEST);
+            }
             
             //1.3 Vms vitals Info by taskId
-            GetMethod getTaskOutput = new GetMethod(DirectorRestHelper.getTaskOutputURI(
+            getTaskOutput = new GetMethod(DirectorRestHelper.getTaskOutputURI(
                     defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), taskId, logType));
             getTaskOutput = (GetMethod) DirectorRestHelper.setAuthorization(defaultDirector.getUserId(),
                     defaultDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
@@ -148,13 +146,16 @@ public class VmsService {
                     vmInfoList.add(dto);
                 }
             }    
+        }catch(CommonException e){
+            //조회 중 판단한 오류(응답 코드, Task 미완료)는 그대로 응답
+            throw e;
         }catch(RuntimeException e){
             throw new CommonException("runtime.vm.exception", "VM 정보를 가져올 수 없습니다. ", HttpStatus.INTERNAL_SERVER_ERROR);
         }catch(Exception e){
             throw new CommonException("notfound.vm.exception", "VM 정보를 가져올 수 없습니다. ", HttpStatus.NOT_FOUND);
         }finally{
-            if( getTaskStaus  != null){
-                getTaskStaus.releaseConnection();
+            if( getTaskOutput  != null){
+                getTaskOutput.releaseConnection();
             }
             if( getMethod  != null){
                 getMethod.releaseConnection();
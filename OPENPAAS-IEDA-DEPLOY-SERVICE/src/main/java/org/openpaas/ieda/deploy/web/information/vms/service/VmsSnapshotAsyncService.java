@@ -11,6 +11,7 @@ import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.json.JSONObject;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
 import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
@@ -31,21 +32,19 @@ public class VmsSnapshotAsyncService {
     @Autowired MessageSource message;
     
     final private static String MESSAGE_ENDPOINT = "/info/vms/snapshotLog/socket"; 
-    final private static int THREAD_SLEEP_TIME = 2 * 1000;
     
     /***************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 스냅샷 생성 요청 로그를 웹소켓을 통해 전달
      * @title : doGetSnapshotLog
-     * @return : String
+     * @return : void
     ***************************************************/
-    public String doGetSnapshotLog(VmsListDTO dto, Principal principal ){
+    public void doGetSnapshotLog(VmsListDTO dto, Principal principal ){
         
         //1.1 director Info
         DirectorConfigVO defaultDirector = directorConfigService.getDefaultDirector();
         String content = "";
         String taskId = "";
-        String status = "";
         HttpClient client = null;
         GetMethod getMethod = null;
         PostMethod postMethod  = null;
@@ -62,8 +61,6 @@ public class VmsSnapshotAsyncService {
             JSONObject obj = new JSONObject(getMethod.getResponseBodyAsString());
             content = obj.get("manifest").toString();
             
-            Thread.sleep(THREAD_SLEEP_TIME);
-            
             //1.2 POST take_snapshot
             postMethod = new PostMethod(DirectorRestHelper.getTakeSnapshotURI(defaultDirector.getDirectorUrl(), defaultDirector.getDirectorPort(), dto.getDeploymentName(), dto.getJobName(), dto.getIndex()));
             postMethod = (PostMethod)DirectorRestHelper.setAuthorization(defaultDirector.getUserId(), defaultDirector.getUserPassword(), (HttpMethodBase)postMethod);
@@ -76,9 +73,7 @@ public class VmsSnapshotAsyncService {
                 
                 Header location = postMethod.getResponseHeader("Location");
                 taskId = DirectorRestHelper.getTaskId(location.getValue());
-                Thread.sleep(THREAD_SLEEP_TIME);
-                
-                status = DirectorRestHelper.trackToTaskLineOne(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, client, taskId, "event", principal.getName());
+                DirectorRestHelper.trackToTaskLineOne(defaultDirector, messagingTemplate, MESSAGE_ENDPOINT, client, taskId, "event", principal.getName());
             }else {
                 DirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("스냅샷 생성 중 오류가 발생하였습니다."));
             }
@@ -94,7 +89,6 @@ public class VmsSnapshotAsyncService {
                 postMethod.releaseConnection();
             }
         }
-        return status;
     }
     
     /***************************************************
@@ -103,7 +97,7 @@ public class VmsSnapshotAsyncService {
      * @title : doGetSnapshotLogAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void doGetSnapshotLogAsync(VmsListDTO dto, Principal principal) {
         doGetSnapshotLog(dto, principal);
     }
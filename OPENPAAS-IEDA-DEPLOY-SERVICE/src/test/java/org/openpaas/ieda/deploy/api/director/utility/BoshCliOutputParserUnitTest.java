@@ -0,0 +1,121 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class BoshCliOutputParserUnitTest {
+
+    final private static String DEPLOY_SUCCEEDED = "{\n"
+            + "    \"Tables\": [],\n"
+            + "    \"Blocks\": [\n"
+            + "        \"\\nTask 1234\\n\",\n"
+            + "        \"\\nTask 1234 | 01:00:00 | Preparing deployment: Preparing deployment (00:00:02)\",\n"
+            + "        \"\\nTask 1234 | 01:00:05 | Updating instance api: api/0 (canary) (00:01:10)\",\n"
+            + "        \"\\n\\nTask 1234 Started  Mon Jan  1 01:00:00 UTC 2019\\nTask 1234 Finished Mon Jan  1 01:01:15 UTC 2019\",\n"
+            + "        \"\\nTask 1234 done\\n\"\n"
+            + "    ],\n"
+            + "    \"Lines\": [\n"
+            + "        \"Using environment '10.0.0.6' as client 'admin'\",\n"
+            + "        \"Using deployment 'cf'\",\n"
+            + "        \"Succeeded\"\n"
+            + "    ]\n"
+            + "}\n";
+
+    final private static String DEPLOY_FAILED = "{\n"
+            + "    \"Tables\": [],\n"
+            + "    \"Blocks\": [\"\\nTask 1235\\n\", \"\\nTask 1235 error\\n\"],\n"
+            + "    \"Lines\": [\n"
+            + "        \"Using environment '10.0.0.6' as client 'admin'\",\n"
+            + "        \"Using deployment 'cf'\",\n"
+            + "        \"Expected task '1235' to succeed but state is 'error'\",\n"
+            + "        \"Exit code 1\"\n"
+            + "    ]\n"
+            + "}\n";
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 배포 성공 출력에서 Task Id/종료 상태/Succeeded 를 읽는지 테스트
+    * @title : testParseSucceededDeploy
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testParseSucceededDeploy() throws Exception{
+        BoshCliOutput output = BoshCliOutputParser.parse(DEPLOY_SUCCEEDED);
+
+        assertTrue(output.isSucceeded());
+        assertEquals("1234", output.getTaskId());
+        assertEquals(Arrays.asList("1234"), output.getTaskIds());
+        assertEquals("done", output.getTaskState("1234"));
+        assertTrue(output.getErrors().isEmpty());
+        assertEquals(3, output.getLines().size());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : "Exit code" 로 끝난 출력에서 안내 줄을 제외한 오류 메시지만 읽는지 테스트
+    * @title : testParseFailedDeploy
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testParseFailedDeploy() throws Exception{
+        BoshCliOutput output = BoshCliOutputParser.parse(DEPLOY_FAILED);
+
+        assertFalse(output.isSucceeded());
+        assertEquals("error", output.getTaskState("1235"));
+        assertEquals(Arrays.asList("Expected task '1235' to succeed but state is 'error'", "Exit code 1"), output.getErrors());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 출력 내용에 "error" 문자열이 있어도 성공한 경우 오류로 보지 않는지 테스트
+    * @title : testParseErrorWordInSucceededOutput
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testParseErrorWordInSucceededOutput() throws Exception{
+        BoshCliOutput output = BoshCliOutputParser.parse("{\"Blocks\":[\"Task 7 | 01:00:00 | Updating instance error-reporter/0\"],"
+                + "\"Lines\":[\"Using environment 'bosh' as client 'admin'\",\"Task 7\",\"Succeeded\"]}");
+
+        assertTrue(output.isSucceeded());
+        assertTrue(output.getErrors().isEmpty());
+        assertEquals("7", output.getTaskId());
+        assertNull(output.getTaskState("7"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : Tables 의 Rows 를 컬럼별 값으로 읽는지 테스트
+    * @title : testParseTableRows
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testParseTableRows() throws Exception{
+        BoshCliOutput output = BoshCliOutputParser.parse("{\"Tables\":[{\"Content\":\"deployments\",\"Header\":{\"name\":\"Name\"},"
+                + "\"Rows\":[{\"name\":\"cf\",\"release_s\":\"cf/9.5.0\",\"tags\":[\"a\"]},{\"name\":\"paasta\",\"release_s\":null}],"
+                + "\"Notes\":[\"2 deployments\"]}],\"Blocks\":null,\"Lines\":[\"Succeeded\"]}");
+
+        assertEquals(2, output.getRows().size());
+        assertEquals("cf/9.5.0", output.getRows().get(0).get("release_s"));
+        assertFalse(output.getRows().get(0).containsKey("tags"));
+        assertEquals("", output.getRows().get(1).get("release_s"));
+        assertEquals("deployments", output.getEvents().get(0).getTable());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : --tty 를 제거하고 --json 을 추가한 명령을 만드는지 테스트
+    * @title : testToJsonCommand
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testToJsonCommand(){
+        assertEquals(Arrays.asList("bosh", "--json", "-e", "director", "deploy", "-n"),
+                BoshCliCommand.toJsonCommand(Arrays.asList("bosh", "-e", "director", "deploy", "--tty", "-n")));
+    }
+}
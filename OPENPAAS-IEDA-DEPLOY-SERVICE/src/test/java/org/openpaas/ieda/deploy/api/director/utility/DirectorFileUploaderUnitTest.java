@@ -0,0 +1,157 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class DirectorFileUploaderUnitTest {
+
+    private File workDir;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("director-upload").toFile();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        for( File file : workDir.listFiles() ){
+            file.delete();
+        }
+        workDir.delete();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 파일 내용을 그대로 전송하고 진행률은 변경된 경우에만 100%로 끝나는지 테스트
+    * @title : testWriteWithProgress
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testWriteWithProgress() throws Exception{
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(3).nextBytes(content);
+        File file = new File(workDir, "bosh-stemcell.tgz");
+        Files.write(file.toPath(), content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final List<Integer> progress = new ArrayList<Integer>();
+
+        DirectorFileUploader.write(file, out, new DirectorFileUploader.ProgressListener() {
+            @Override
+            public void onProgress(int percent) {
+                progress.add(percent);
+            }
+        });
+
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(Integer.valueOf(100), progress.get(progress.size() - 1));
+        assertEquals(progress.size(), new HashSet<Integer>(progress).size());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : tgz 파일에서 큰 파일 다음에 있는 stemcell.MF 이름과 버전을 조회하는지 테스트
+    * @title : testReadStemcellManifest
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReadStemcellManifest() throws Exception{
+        File file = new File(workDir, "bosh-stemcell.tgz");
+        writeTgz(file, "image", new byte[70000], "stemcell.MF", "name: bosh-openstack-kvm-ubuntu-trusty-go_agent\nversion: '3421.11'\n".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> manifest = DirectorFileUploader.readManifest(file);
+
+        assertEquals("bosh-openstack-kvm-ubuntu-trusty-go_agent", manifest.get("name"));
+        assertEquals("3421.11", String.valueOf(manifest.get("version")));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : manifest가 없는 파일은 null을 응답하는지 테스트
+    * @title : testReadManifestNotFound
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReadManifestNotFound() throws Exception{
+        File file = new File(workDir, "other.tgz");
+        writeTgz(file, "image", new byte[1000], "apply_spec.yml", new byte[10]);
+
+        assertNull(DirectorFileUploader.readManifest(file));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 디렉터 스템셀/릴리즈 목록 응답에서 이름과 버전으로 업로드 여부를 확인하는지 테스트
+    * @title : testContainsVersion
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testContainsVersion() throws Exception{
+        ObjectMapper mapper = new ObjectMapper();
+        String stemcells = "[{\"name\":\"bosh-aws-xen-hvm-ubuntu-trusty-go_agent\",\"version\":\"3421.11\",\"cid\":\"ami-1\"}]";
+        String releases = "[{\"name\":\"cf\",\"release_versions\":[{\"version\":\"272\"},{\"version\":\"275\"}]}]";
+
+        assertTrue(DirectorFileUploader.containsVersion(mapper.readTree(stemcells), "bosh-aws-xen-hvm-ubuntu-trusty-go_agent", "3421.11"));
+        assertFalse(DirectorFileUploader.containsVersion(mapper.readTree(stemcells), "bosh-aws-xen-hvm-ubuntu-trusty-go_agent", "3421.9"));
+        assertTrue(DirectorFileUploader.containsVersion(mapper.readTree(releases), "cf", "275"));
+        assertFalse(DirectorFileUploader.containsVersion(mapper.readTree(releases), "diego", "275"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 이름/내용 쌍으로 tar.gz 파일 생성
+    * @title : writeTgz
+    * @return : void
+    ***************************************************/
+    private void writeTgz(File file, Object... entries) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            for( int i = 0; i < entries.length; i += 2 ){
+                byte[] content = (byte[]) entries[i + 1];
+                byte[] header = new byte[512];
+                byte[] name = ("./" + entries[i]).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(name, 0, header, 0, name.length);
+                byte[] size = String.format("%011o", content.length).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(size, 0, header, 124, size.length);
+                header[156] = '0';
+                out.write(header);
+                out.write(content);
+                out.write(new byte[(512 - content.length % 512) % 512]);
+            }
+            out.write(new byte[1024]);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache.Inventory;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorInventoryCache.Snapshot;
+
+public class DirectorInventoryCacheUnitTest {
+
+    final private static String DIRECTOR_URL = "10.0.0.6";
+    final private static int DIRECTOR_PORT = 25555;
+    final private static int THREAD_COUNT = 8;
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 두 번째 조회부터는 설치 관리자에 조회하지 않고 캐시 응답을 사용하는지 테스트
+    * @title : testCacheHit
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCacheHit() throws Exception{
+        CountingInventoryCache cache = new CountingInventoryCache();
+        cache.body = "[{\"name\":\"cf\"}]";
+
+        Snapshot first = cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.DEPLOYMENTS);
+        Snapshot second = cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.DEPLOYMENTS);
+        cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.RELEASES);
+
+        assertEquals(2, cache.fetchCount.get());
+        assertTrue(first == second);
+        assertEquals("[{\"name\":\"cf\"}]", second.getBody());
+        assertTrue(first.getEtag().startsWith("\"deployments-"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : Task 종료로 무효화되면 다시 조회하고 내용이 같으면 ETag/Last-Modified 를 유지하는지 테스트
+    * @title : testInvalidate
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testInvalidate() throws Exception{
+        CountingInventoryCache cache = new CountingInventoryCache();
+        cache.body = "[]";
+        Snapshot first = cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.STEMCELLS);
+
+        cache.invalidate("10.0.0.7", DIRECTOR_PORT);
+        cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.STEMCELLS);
+        assertEquals(1, cache.fetchCount.get());
+
+        cache.invalidate(DIRECTOR_URL, DIRECTOR_PORT);
+        Snapshot unchanged = cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.STEMCELLS);
+        assertEquals(2, cache.fetchCount.get());
+        assertEquals(first.getEtag(), unchanged.getEtag());
+        assertEquals(first.getLastModified(), unchanged.getLastModified());
+
+        cache.body = "[{\"name\":\"bosh-openstack-kvm-ubuntu-xenial-go_agent\"}]";
+        cache.invalidate(DIRECTOR_URL, DIRECTOR_PORT);
+        Snapshot changed = cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.STEMCELLS);
+        assertEquals(3, cache.fetchCount.get());
+        assertFalse(first.getEtag().equals(changed.getEtag()));
+        assertEquals(cache.body, changed.getBody());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 조회 중 무효화된 경우 조회 결과를 유효한 캐시로 사용하지 않는지 테스트
+    * @title : testInvalidateWhileLoading
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testInvalidateWhileLoading() throws Exception{
+        final CountingInventoryCache cache = new CountingInventoryCache();
+        cache.body = "[]";
+        cache.invalidateOnFetch = true;
+        cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.RELEASES);
+        cache.invalidateOnFetch = false;
+        cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.RELEASES);
+        assertEquals(2, cache.fetchCount.get());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 여러 요청이 동시에 같은 목록을 조회하면 설치 관리자에는 한 번만 조회하는지 테스트
+    * @title : testConcurrentLoad
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testConcurrentLoad() throws Exception{
+        final CountingInventoryCache cache = new CountingInventoryCache();
+        cache.body = "[]";
+        cache.fetchDelay = 200L;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for( int i = 0; i < THREAD_COUNT; i++ ){
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        cache.get(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", Inventory.DEPLOYMENTS);
+                    } catch (InterruptedException | IOException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for( Thread thread : threads ){
+            thread.join();
+        }
+        assertEquals(0, errors.get());
+        assertEquals(1, cache.fetchCount.get());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 설치 관리자 대신 고정 응답을 돌려주고 조회 횟수를 세는 캐시
+    ***************************************************/
+    private static class CountingInventoryCache extends DirectorInventoryCache {
+        private final AtomicInteger fetchCount = new AtomicInteger();
+        private volatile String body;
+        private volatile long fetchDelay = 0L;
+        private volatile boolean invalidateOnFetch = false;
+
+        @Override
+        protected String fetch(String directorUrl, int port, String userId, String password, Inventory inventory) throws IOException {
+            fetchCount.incrementAndGet();
+            if( invalidateOnFetch ){
+                invalidate(directorUrl, port);
+            }
+            if( fetchDelay > 0 ){
+                try {
+                    Thread.sleep(fetchDelay);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return body;
+        }
+    }
+}
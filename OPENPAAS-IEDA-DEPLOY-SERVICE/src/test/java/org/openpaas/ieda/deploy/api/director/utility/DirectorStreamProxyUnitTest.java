@@ -0,0 +1,108 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+public class DirectorStreamProxyUnitTest {
+
+    final private static Charset UTF_8 = Charset.forName("UTF-8");
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 줄바꿈 변환 시 \n 만 \r\n 으로 바꾸고 쓰기 경계에 걸친 \r\n 은 중복 변환하지 않는지 테스트
+    * @title : testCrlfOutputStream
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCrlfOutputStream() throws Exception{
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DirectorStreamProxy.CrlfOutputStream crlf = new DirectorStreamProxy.CrlfOutputStream(output);
+        byte[] first = "D, [2018] DEBUG\nI, [2018] INFO\r".getBytes(UTF_8);
+        byte[] second = "\nE, [2018] ERROR\n\n".getBytes(UTF_8);
+        crlf.write(first, 0, first.length);
+        crlf.write(second, 0, second.length);
+        crlf.write('x');
+        crlf.write('\n');
+        crlf.flush();
+        assertEquals("D, [2018] DEBUG\r\nI, [2018] INFO\r\nE, [2018] ERROR\r\n\r\nx\r\n", new String(output.toByteArray(), UTF_8));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 버퍼보다 큰 로그를 gzip 압축/줄바꿈 변환하며 복사한 결과가 기존 방식(replace)과 같은지 테스트
+    * @title : testCopyWithGzip
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCopyWithGzip() throws Exception{
+        StringBuilder log = new StringBuilder();
+        for( int i = 0; i < 20000; i++ ){
+            log.append("I, [2018-01-01T00:00:00 #").append(i).append("] INFO -- DirectorJobRunner: task line\n");
+        }
+        byte[] content = log.toString().getBytes(UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(content.length, DirectorStreamProxy.copy(new ByteArrayInputStream(content), output, true, true));
+        assertTrue(output.size() < content.length);
+        byte[] expected = log.toString().replace("\n", "\r\n").getBytes(UTF_8);
+        assertArrayEquals(expected, read(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 변환 없이 복사하면 바이너리(tgz) 내용이 그대로 전달되는지 테스트
+    * @title : testCopyIdentity
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCopyIdentity() throws Exception{
+        byte[] content = new byte[300 * 1024 + 17];
+        new Random(3).nextBytes(content);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(content.length, DirectorStreamProxy.copy(new ByteArrayInputStream(content), output, false, false));
+        assertArrayEquals(content, output.toByteArray());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : Accept-Encoding 헤더의 gzip 허용 여부 판단 테스트
+    * @title : testAcceptsGzip
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(DirectorStreamProxy.acceptsGzip("gzip, deflate, br"));
+        assertTrue(DirectorStreamProxy.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertFalse(DirectorStreamProxy.acceptsGzip("gzip;q=0"));
+        assertFalse(DirectorStreamProxy.acceptsGzip("identity"));
+        assertFalse(DirectorStreamProxy.acceptsGzip(null));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 스트림 전체 읽기
+    * @title : read
+    * @return : byte[]
+    ***************************************************/
+    private byte[] read(InputStream input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while( (read = input.read(buffer)) != -1 ){
+            output.write(buffer, 0, read);
+        }
+        input.close();
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class DirectorTaskTrackerUnitTest {
+
+    final private static String DIRECTOR_URL = "10.0.0.6";
+    final private static int DIRECTOR_PORT = 25555;
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : deadline 이 지난 경우 추적 등록 없이 timeout 을 응답하는지 테스트
+    * @title : testAwaitTaskExpiredDeadline
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testAwaitTaskExpiredDeadline() {
+        DirectorTaskTracker tracker = new DirectorTaskTracker();
+        String state = tracker.awaitTask(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", "1", System.currentTimeMillis() - 1);
+        assertEquals(DirectorTaskState.TIMEOUT, state);
+        assertEquals(0, tracker.getTrackedTaskCount());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : deadline 까지 종료되지 않은 Task 는 timeout 응답 후 추적 목록에서 제거되는지 테스트
+    * @title : testAwaitTaskTimeout
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testAwaitTaskTimeout() {
+        //스케줄러를 시작하지 않아 설치 관리자 조회 없이 대기만 한다.
+        DirectorTaskTracker tracker = new DirectorTaskTracker();
+        long start = System.currentTimeMillis();
+        String state = tracker.awaitTask(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", "2", start + 300L);
+        assertEquals(DirectorTaskState.TIMEOUT, state);
+        assertTrue(System.currentTimeMillis() - start >= 300L);
+        assertEquals(0, tracker.getTrackedTaskCount());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 대기 중인 Task 가 종료되면 deadline 전이라도 즉시 응답하는지 테스트
+    * @title : testAwaitTaskCompletedBeforeDeadline
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testAwaitTaskCompletedBeforeDeadline() throws Exception {
+        final DirectorTaskTracker tracker = new DirectorTaskTracker();
+        Thread stopper = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while( tracker.getTrackedTaskCount() == 0 ){
+                        Thread.sleep(10L);
+                    }
+                    tracker.shutdown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        stopper.start();
+        long start = System.currentTimeMillis();
+        String state = tracker.awaitTask(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", "3", start + 60 * 1000L);
+        stopper.join();
+        assertEquals(DirectorTaskState.ERROR, state);
+        assertTrue(System.currentTimeMillis() - start < 10 * 1000L);
+        assertEquals(0, tracker.getTrackedTaskCount());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 추적 시간이 지난 Task는 설치 관리자 조회 없이 구독자와 종료 callback 에 timeout 을 1회 전달하는지 테스트
+    * @title : testTrackCallbackOnDeadline
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testTrackCallbackOnDeadline() throws Exception {
+        DirectorTaskTracker tracker = new DirectorTaskTracker();
+        RecordingListener listener = new RecordingListener();
+        RecordingCallback callback = new RecordingCallback();
+        Future<String> future = tracker.track(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", "4", "event", listener,
+                System.currentTimeMillis() - 1, callback);
+        //스케줄러를 시작하지 않아 호출 스레드에서 조회
+        tracker.poll();
+        tracker.poll();
+        assertEquals(DirectorTaskState.TIMEOUT, future.get());
+        assertEquals(1, listener.states.size());
+        assertEquals(DirectorTaskState.TIMEOUT, listener.states.get(0));
+        assertEquals(1, callback.states.size());
+        assertEquals(DirectorTaskState.TIMEOUT, callback.states.get(0));
+        assertEquals(0, tracker.getTrackedTaskCount());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 추적 중 종료되면 대기 스레드 없이 종료 callback 으로 error 를 전달하는지 테스트
+    * @title : testTrackCallbackOnShutdown
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testTrackCallbackOnShutdown() throws Exception {
+        DirectorTaskTracker tracker = new DirectorTaskTracker();
+        RecordingCallback callback = new RecordingCallback();
+        Future<String> future = tracker.track(DIRECTOR_URL, DIRECTOR_PORT, "admin", "admin", "5", "event", new RecordingListener(),
+                System.currentTimeMillis() + 60 * 1000L, callback);
+        assertEquals(1, tracker.getTrackedTaskCount());
+        tracker.shutdown();
+        assertEquals(DirectorTaskState.ERROR, future.get());
+        assertEquals(1, callback.states.size());
+        assertEquals(DirectorTaskState.ERROR, callback.states.get(0));
+    }
+
+    private static class RecordingListener implements DirectorTaskListener {
+        final List<String> states = new ArrayList<String>();
+
+        @Override
+        public boolean onOutput(String taskId, InputStream output) {
+            return true;
+        }
+
+        @Override
+        public void onComplete(String taskId, String state) {
+            states.add(state);
+        }
+
+        @Override
+        public void onError(String taskId, String errorMessage) {
+        }
+    }
+
+    private static class RecordingCallback implements DirectorTaskCallback {
+        final List<String> states = new ArrayList<String>();
+
+        @Override
+        public void onFinish(String taskId, String state) {
+            states.add(state);
+        }
+    }
+}
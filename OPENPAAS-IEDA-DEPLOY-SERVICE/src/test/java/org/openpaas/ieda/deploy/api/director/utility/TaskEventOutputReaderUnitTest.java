@@ -0,0 +1,96 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openpaas.ieda.deploy.api.task.TaskOutputDTO;
+
+public class TaskEventOutputReaderUnitTest {
+
+    final private static String STARTED_LINE = "{\"time\":1,\"stage\":\"Updating instance\",\"task\":\"api/0\",\"state\":\"started\",\"progress\":0}\n";
+    final private static String FINISHED_LINE = "{\"time\":2,\"stage\":\"Updating instance\",\"task\":\"api/0\",\"state\":\"finished\",\"progress\":100}\n";
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 줄 단위 event 로그를 순서대로 전달하는지 테스트
+    * @title : testReadCompleteLines
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReadCompleteLines() throws Exception{
+        TaskEventOutputReader reader = new TaskEventOutputReader();
+        List<TaskOutputDTO> outputs = new ArrayList<TaskOutputDTO>();
+        assertEquals(2, reader.read(toStream(STARTED_LINE + FINISHED_LINE), collect(outputs)));
+        assertEquals("started", outputs.get(0).getState());
+        assertEquals("finished", outputs.get(1).getState());
+        assertEquals(0, reader.getPendingSize());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : Range 응답 경계에서 잘린 줄을 다음 응답과 이어서 처리하는지 테스트
+    * @title : testReadPartialLine
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReadPartialLine() throws Exception{
+        TaskEventOutputReader reader = new TaskEventOutputReader();
+        List<TaskOutputDTO> outputs = new ArrayList<TaskOutputDTO>();
+        int cut = 20;
+        assertEquals(1, reader.read(toStream(STARTED_LINE + FINISHED_LINE.substring(0, cut)), collect(outputs)));
+        assertEquals(cut, reader.getPendingSize());
+        assertEquals(1, reader.read(toStream(FINISHED_LINE.substring(cut)), collect(outputs)));
+        assertEquals("finished", outputs.get(1).getState());
+        assertEquals(0, reader.getPendingSize());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 버퍼보다 긴 줄을 처리하는지 테스트
+    * @title : testReadLongLine
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReadLongLine() throws Exception{
+        StringBuilder task = new StringBuilder();
+        for( int i = 0; i < 20000; i++ ){
+            task.append('a');
+        }
+        String longLine = "{\"time\":1,\"stage\":\"Compiling packages\",\"task\":\"" + task + "\",\"state\":\"started\",\"progress\":0}\n";
+        TaskEventOutputReader reader = new TaskEventOutputReader();
+        List<TaskOutputDTO> outputs = new ArrayList<TaskOutputDTO>();
+        assertEquals(2, reader.read(toStream(longLine + STARTED_LINE), collect(outputs)));
+        assertEquals(20000, outputs.get(0).getTask().length());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 전달 받은 TaskOutputDTO를 목록에 저장
+    * @title : collect
+    * @return : TaskEventOutputReader.TaskOutputHandler
+    ***************************************************/
+    private TaskEventOutputReader.TaskOutputHandler collect(final List<TaskOutputDTO> outputs){
+        return new TaskEventOutputReader.TaskOutputHandler() {
+            @Override
+            public void handle(TaskOutputDTO output) {
+                outputs.add(output);
+            }
+        };
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 응답 스트림 생성
+    * @title : toStream
+    * @return : InputStream
+    ***************************************************/
+    private InputStream toStream(String output){
+        return new ByteArrayInputStream(output.getBytes(Charset.forName("UTF-8")));
+    }
+}
@@ -0,0 +1,195 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.common.socket.WebSocketOutboundMonitor;
+import org.openpaas.ieda.deploy.api.director.dto.ResponseTaskOuput;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TaskLogPublisherUnitTest {
+
+    @Mock SimpMessagingTemplate mockMessagingTemplate;
+
+    final private static String MESSAGE_ENDPOINT = "/deploy/bootstrap/install/logs";
+    //WebSocketOutboundMonitor 의 전송 대기 한도(500)를 넘는 메시지 수
+    final private static int BACKLOG_MESSAGES = 501;
+
+    private final CountDownLatch outboundBlocker = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor outboundExecutor;
+    private WebSocketOutboundMonitor monitor;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        outboundBlocker.countDown();
+        if( monitor != null ){
+            monitor.shutdown();
+        }
+        if( outboundExecutor != null ){
+            outboundExecutor.shutdown();
+        }
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 상태 메시지 전송 전 쌓인 로그를 하나의 메시지로 전송하는지 테스트
+    * @title : testSendFlushBufferedLines
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testSendFlushBufferedLines(){
+        TaskLogPublisher publisher = new TaskLogPublisher("admin", mockMessagingTemplate, MESSAGE_ENDPOINT);
+        publisher.append("line1");
+        publisher.append("line2");
+        publisher.send("done", Arrays.asList("", "Task 1 done"));
+        List<ResponseTaskOuput> responses = captureMessages(2);
+        assertEquals("started", responses.get(0).getState());
+        assertEquals(Arrays.asList("line1", "line2"), responses.get(0).getMessages());
+        assertEquals("done", responses.get(1).getState());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 최대 크기를 넘으면 지연 시간 전에 전송하는지 테스트
+    * @title : testAppendFlushOnMaxSize
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testAppendFlushOnMaxSize(){
+        StringBuilder line = new StringBuilder();
+        for( int i = 0; i < 1024; i++ ){
+            line.append('a');
+        }
+        TaskLogPublisher publisher = new TaskLogPublisher("admin", mockMessagingTemplate, MESSAGE_ENDPOINT);
+        for( int i = 0; i < 64; i++ ){
+            publisher.append(line.toString());
+        }
+        verify(mockMessagingTemplate, atLeast(1)).convertAndSendToUser(eq("admin"), eq(MESSAGE_ENDPOINT), any(ResponseTaskOuput.class));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 클라이언트 전송이 밀려도 대기하지 않고 로그를 모아 두며 종료 상태는 바로 전송하는지 테스트
+    * @title : testBackedUpChannelDoesNotBlock
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testBackedUpChannelDoesNotBlock(){
+        backUpOutboundChannel();
+        TaskLogPublisher publisher = new TaskLogPublisher("admin", mockMessagingTemplate, MESSAGE_ENDPOINT);
+        long start = System.currentTimeMillis();
+        publisher.append("line1");
+        publisher.flush();
+        assertTrue(System.currentTimeMillis() - start < 1000L);
+        verify(mockMessagingTemplate, never()).convertAndSendToUser(eq("admin"), eq(MESSAGE_ENDPOINT), any(ResponseTaskOuput.class));
+
+        publisher.append("line2");
+        publisher.send("done", Arrays.asList("", "Task 1 done"));
+        List<ResponseTaskOuput> responses = captureMessages(2);
+        assertEquals(Arrays.asList("line1", "line2"), responses.get(0).getMessages());
+        assertEquals("done", responses.get(1).getState());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 전송이 밀린 동안 최대 크기를 넘은 로그는 오래된 것부터 버리고 버린 줄 수를 알리는지 테스트
+    * @title : testBackedUpChannelDropsOldestLines
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testBackedUpChannelDropsOldestLines(){
+        backUpOutboundChannel();
+        StringBuilder line = new StringBuilder();
+        for( int i = 0; i < 1024; i++ ){
+            line.append('a');
+        }
+        TaskLogPublisher publisher = new TaskLogPublisher("admin", mockMessagingTemplate, MESSAGE_ENDPOINT);
+        for( int i = 0; i < 1100; i++ ){
+            publisher.append(line.toString());
+        }
+        publisher.append("last");
+        verify(mockMessagingTemplate, never()).convertAndSendToUser(eq("admin"), eq(MESSAGE_ENDPOINT), any(ResponseTaskOuput.class));
+
+        publisher.send("done", Arrays.asList("", "Task 1 done"));
+        List<String> messages = captureMessages(2).get(0).getMessages();
+        assertTrue(messages.get(0).matches("\\.\\.\\. [0-9]+ log lines dropped"));
+        assertEquals("last", messages.get(messages.size() - 1));
+        assertTrue(messages.size() < 1100);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 클라이언트 전송 스레드를 멈추고 대기 메시지를 한도 이상 쌓음
+    * @title : backUpOutboundChannel
+    * @return : void
+    ***************************************************/
+    private void backUpOutboundChannel(){
+        outboundExecutor = new ThreadPoolTaskExecutor();
+        outboundExecutor.setCorePoolSize(1);
+        outboundExecutor.setMaxPoolSize(1);
+        outboundExecutor.initialize();
+        for( int i = 0; i <= BACKLOG_MESSAGES; i++ ){
+            outboundExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        outboundBlocker.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        monitor = new WebSocketOutboundMonitor();
+        ReflectionTestUtils.setField(monitor, "clientOutboundChannelExecutor", outboundExecutor);
+        monitor.initialize();
+        assertTrue(monitor.isBackedUp());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 웹소켓 전송 메시지 캡처
+    * @title : captureMessages
+    * @return : List<ResponseTaskOuput>
+    ***************************************************/
+    private List<ResponseTaskOuput> captureMessages(int count){
+        ArgumentCaptor<ResponseTaskOuput> captor = ArgumentCaptor.forClass(ResponseTaskOuput.class);
+        verify(mockMessagingTemplate, times(count)).convertAndSendToUser(eq("admin"), eq(MESSAGE_ENDPOINT), captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,127 @@
+package org.openpaas.ieda.deploy.api.director.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.deploy.api.director.dto.ResponseTaskOuput;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+public class TaskOutputMessageListenerUnitTest {
+
+    @Mock SimpMessagingTemplate mockMessagingTemplate;
+
+    final private static String MESSAGE_ENDPOINT = "/deploy/cf/install/logs";
+    final private static String EVENT_OUTPUT = "{\"time\":1,\"stage\":\"Preparing deployment\",\"tags\":[],\"total\":1,\"task\":\"Binding releases\",\"index\":1,\"state\":\"started\",\"progress\":0}\n"
+            + "{\"time\":2,\"stage\":\"Preparing deployment\",\"tags\":[],\"total\":1,\"task\":\"Binding releases\",\"index\":1,\"state\":\"finished\",\"progress\":100}\n";
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : event 로그 delta를 화면 출력 형식으로 변환하는지 테스트
+    * @title : testOnOutputEvent
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOnOutputEvent() throws Exception{
+        TaskOutputMessageListener listener = new TaskOutputMessageListener("admin", mockMessagingTemplate, MESSAGE_ENDPOINT, null, "event");
+        assertTrue(listener.onOutput("10", toStream(EVENT_OUTPUT)));
+        listener.flush();
+        List<String> messages = captureMessages(1).get(0).getMessages();
+        assertEquals(4, messages.size());
+        assertEquals("  Started    Preparing deployment", messages.get(1));
+        assertEquals("  Started    Preparing deployment > Binding releases", messages.get(2));
+        assertEquals("  Done       Preparing deployment > Binding releases", messages.get(3));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 이어서 전달된 delta를 하나의 메시지로 묶고 동일 단계의 시작 메시지를 반복하지 않는지 테스트
+    * @title : testOnOutputSameStage
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOnOutputSameStage() throws Exception{
+        TaskOutputMessageListener listener = new TaskOutputMessageListener("admin", mockMessagingTemplate, MESSAGE_ENDPOINT, null, "event");
+        listener.onOutput("10", toStream(EVENT_OUTPUT));
+        listener.onOutput("10", toStream(EVENT_OUTPUT));
+        listener.flush();
+        assertEquals(6, captureMessages(1).get(0).getMessages().size());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 1회 조회 설정 시 로그 전송 후 추적을 종료하는지 테스트
+    * @title : testOnOutputSnapshot
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOnOutputSnapshot() throws Exception{
+        TaskOutputMessageListener listener = new TaskOutputMessageListener("admin", mockMessagingTemplate, MESSAGE_ENDPOINT, null, "debug").setSnapshot(true);
+        assertFalse(listener.onOutput("10", toStream("line1\nline2\n")));
+        List<ResponseTaskOuput> responses = captureMessages(2);
+        assertEquals(2, responses.get(0).getMessages().size());
+        assertEquals("done", responses.get(1).getState());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 종료 상태에 따른 메시지 및 태그 전송 테스트
+    * @title : testOnCompleteWithTag
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOnCompleteWithTag(){
+        TaskOutputMessageListener listener = new TaskOutputMessageListener("admin", mockMessagingTemplate, MESSAGE_ENDPOINT, "bosh-stemcell.tgz", "event");
+        listener.onComplete("10", "cancelled");
+        ResponseTaskOuput response = captureMessages(1).get(0);
+        assertEquals("cancelled", response.getState());
+        assertEquals("bosh-stemcell.tgz", response.getTag());
+        assertEquals("Canceled Task 10", response.getMessages().get(1));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 웹소켓 전송 메시지 캡처
+    * @title : captureMessages
+    * @return : List<ResponseTaskOuput>
+    ***************************************************/
+    private List<ResponseTaskOuput> captureMessages(int count){
+        ArgumentCaptor<ResponseTaskOuput> captor = ArgumentCaptor.forClass(ResponseTaskOuput.class);
+        verify(mockMessagingTemplate, times(count)).convertAndSendToUser(eq("admin"), eq(MESSAGE_ENDPOINT), captor.capture());
+        return captor.getAllValues();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 응답 스트림 생성
+    * @title : toStream
+    * @return : InputStream
+    ***************************************************/
+    private InputStream toStream(String output){
+        return new ByteArrayInputStream(output.getBytes(Charset.forName("UTF-8")));
+    }
+}
@@ -0,0 +1,198 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+
+public class ArtifactStoreUnitTest {
+
+    final private static int FILE_SIZE = 4096;
+
+    private File workDir;
+    private File storeDir;
+    private File stemcellDir;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("artifact-store").toFile();
+        storeDir = new File(workDir, "artifacts");
+        stemcellDir = new File(workDir, "stemcell");
+        stemcellDir.mkdirs();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        delete(workDir);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 내용이 같은 파일은 하나의 하드 링크로 저장되고 색인으로 존재 여부를 확인하는지 테스트
+    * @title : testDeduplicateSameContent
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testDeduplicateSameContent() throws Exception{
+        File first = createFile("bosh-stemcell-1.tgz", 1, 0L);
+        File second = createFile("light-bosh-stemcell-1.tgz", 1, 0L);
+        File other = createFile("bosh-stemcell-2.tgz", 2, 0L);
+        ArtifactStore store = newStore(0L);
+        store.reconcile();
+
+        assertTrue(Files.isSameFile(first.toPath(), second.toPath()));
+        assertFalse(Files.isSameFile(first.toPath(), other.toPath()));
+        assertEquals(2L * FILE_SIZE, store.getUsedSize());
+        assertEquals(Hashing.sha1().hashBytes(content(1)).toString(), store.getSha1(second));
+        assertTrue(store.contains(first));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 같은 내용의 파일이 모두 삭제되었을 때만 저장 객체를 삭제하는지 테스트
+    * @title : testRemoveUnusedObject
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRemoveUnusedObject() throws Exception{
+        File first = createFile("bosh-stemcell-1.tgz", 1, 0L);
+        File second = createFile("light-bosh-stemcell-1.tgz", 1, 0L);
+        ArtifactStore store = newStore(0L);
+        store.reconcile();
+        String sha1 = store.getSha1(first);
+        File object = new File(new File(new File(storeDir, "objects"), sha1.substring(0, 2)), sha1);
+
+        first.delete();
+        store.remove(first);
+        assertFalse(store.contains(first));
+        assertTrue(object.exists());
+
+        second.delete();
+        store.remove(second);
+        assertFalse(object.exists());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 디스크 제한을 넘으면 가장 오래 사용하지 않은 파일부터 삭제하는지 테스트
+    * @title : testEvictLeastRecentlyUsed
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception{
+        long now = System.currentTimeMillis();
+        File oldest = createFile("bosh-stemcell-1.tgz", 1, now - 30000L);
+        File older = createFile("bosh-stemcell-2.tgz", 2, now - 20000L);
+        File recent = createFile("bosh-stemcell-3.tgz", 3, now - 10000L);
+        ArtifactStore store = newStore(2L * FILE_SIZE);
+        store.reconcile();
+        store.touch(older);
+        createFile("bosh-stemcell-4.tgz", 4, now);
+        store.register(new File(stemcellDir, "bosh-stemcell-4.tgz"), Hashing.sha1().hashBytes(content(4)).toString());
+
+        assertFalse(oldest.exists());
+        assertFalse(recent.exists());
+        assertTrue(older.exists());
+        assertFalse(store.contains(oldest));
+        assertEquals(2L * FILE_SIZE, store.getUsedSize());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 사용 시각 갱신은 바로 색인 파일에 쓰지 않고 flushIndex 에서 한 번에 저장하는지 테스트
+    * @title : testTouchFlushedLater
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testTouchFlushedLater() throws Exception{
+        File stemcell = createFile("bosh-stemcell-1.tgz", 1, 0L);
+        ArtifactStore store = newStore(0L);
+        store.register(stemcell, Hashing.sha1().hashBytes(content(1)).toString());
+        File indexFile = new File(storeDir, "index");
+        String saved = new String(Files.readAllBytes(indexFile.toPath()), "UTF-8");
+
+        Thread.sleep(5);
+        store.touch(stemcell);
+        store.touch(stemcell);
+        assertEquals(saved, new String(Files.readAllBytes(indexFile.toPath()), "UTF-8"));
+
+        store.flushIndex();
+        assertNotEquals(saved, new String(Files.readAllBytes(indexFile.toPath()), "UTF-8"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트 디렉토리를 사용하는 저장소 생성
+    * @title : newStore
+    * @return : ArtifactStore
+    ***************************************************/
+    private ArtifactStore newStore(long quota) {
+        return new ArtifactStore(storeDir, Arrays.asList(stemcellDir), quota);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 시드 값으로 채운 테스트 파일 생성
+    * @title : createFile
+    * @return : File
+    ***************************************************/
+    private File createFile(String fileName, int seed, long lastModified) throws IOException {
+        File file = new File(stemcellDir, fileName);
+        Files.write(file.toPath(), content(seed));
+        if( lastModified > 0 ){
+            file.setLastModified(lastModified);
+        }
+        return file;
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 시드 값으로 채운 파일 내용
+    * @title : content
+    * @return : byte[]
+    ***************************************************/
+    private byte[] content(int seed) {
+        byte[] content = new byte[FILE_SIZE];
+        Arrays.fill(content, (byte) seed);
+        return content;
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트 디렉토리 삭제
+    * @title : delete
+    * @return : void
+    ***************************************************/
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if( children != null ){
+            for( File child : children ){
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
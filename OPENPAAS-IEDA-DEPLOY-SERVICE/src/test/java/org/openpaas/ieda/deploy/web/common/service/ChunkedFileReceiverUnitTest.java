@@ -0,0 +1,195 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+
+public class ChunkedFileReceiverUnitTest {
+
+    final private static int CHUNK_SIZE = 1024 * 1024 + 7;
+
+    private File workDir;
+    private byte[] content;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("chunked-upload").toFile();
+        content = new byte[3 * CHUNK_SIZE - 100];
+        new Random(7).nextBytes(content);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        for( File file : workDir.listFiles() ){
+            file.delete();
+        }
+        workDir.delete();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 구간으로 나누어 받은 파일이 원본과 같고 SHA1을 함께 계산하는지 테스트
+    * @title : testReceiveInChunks
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReceiveInChunks() throws Exception{
+        ChunkedFileReceiver receiver = new ChunkedFileReceiver();
+        File target = new File(workDir, "bosh-stemcell.tgz");
+
+        assertNull(receive(receiver, target, 0));
+        assertEquals(CHUNK_SIZE, receiver.getReceivedSize(target));
+        assertFalse(target.exists());
+        assertNull(receive(receiver, target, CHUNK_SIZE));
+        String sha1 = receive(receiver, target, 2 * CHUNK_SIZE);
+
+        assertEquals(Hashing.sha1().hashBytes(content).toString(), sha1);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(0L, receiver.getReceivedSize(target));
+        //완료되면 업로드가 획득한 lock 해제
+        assertTrue(DeploymentLockManager.tryLock("bosh-stemcell-download", "admin"));
+        DeploymentLockManager.unlock("bosh-stemcell-download");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 서버 재시작 후 이어 받아도 받은 부분으로 SHA1을 다시 계산하는지 테스트
+    * @title : testResumeWithNewReceiver
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testResumeWithNewReceiver() throws Exception{
+        File target = new File(workDir, "cf-release.tgz");
+        receive(new ChunkedFileReceiver(), target, 0);
+        //재시작으로 이전 인스턴스의 lock 이 해제된 상태
+        DeploymentLockManager.forceUnlock("cf-release-download");
+
+        ChunkedFileReceiver receiver = new ChunkedFileReceiver();
+        long offset = receiver.getReceivedSize(target);
+        receive(receiver, target, offset);
+        String sha1 = receive(receiver, target, offset + CHUNK_SIZE);
+
+        assertEquals(Hashing.sha1().hashBytes(content).toString(), sha1);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 받은 크기와 다른 위치의 구간은 거부하고 이어 받을 위치를 알려주는지 테스트
+    * @title : testOffsetMismatch
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOffsetMismatch() throws Exception{
+        ChunkedFileReceiver receiver = new ChunkedFileReceiver();
+        File target = new File(workDir, "bosh-stemcell.tgz");
+        receive(receiver, target, 0);
+
+        try {
+            receive(receiver, target, 2 * CHUNK_SIZE);
+            fail();
+        } catch (ChunkedFileReceiver.OffsetMismatchException e) {
+            assertEquals(CHUNK_SIZE, e.getExpectedOffset());
+        }
+        assertEquals(CHUNK_SIZE, receiver.getReceivedSize(target));
+        receiver.cancel(target);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 같은 파일을 다른 요청이 다운로드/업로드 중이면 거부하고 다른 요청의 lock 은 해제하지 않는지 테스트
+    * @title : testLockConflict
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testLockConflict() throws Exception{
+        File target = new File(workDir, "paasta-release.tgz");
+        assertTrue(DeploymentLockManager.tryLock("paasta-release-download", "admin"));
+        try {
+            receive(new ChunkedFileReceiver(), target, 0);
+            fail();
+        } catch (ChunkedFileReceiver.LockConflictException e) {
+            assertFalse(new File(workDir, ".paasta-release.tgz.upload").exists());
+        }
+        DeploymentLockManager.unlock("paasta-release-download");
+
+        ChunkedFileReceiver receiver = new ChunkedFileReceiver();
+        receive(receiver, target, 0);
+        assertFalse(DeploymentLockManager.tryLock("paasta-release-download", "admin"));
+        //업로드가 점유한 lock 은 화면 요청 해제로 풀리지 않고 취소 시 해제
+        DeploymentLockManager.unlock("paasta-release-download");
+        assertFalse(DeploymentLockManager.tryLock("paasta-release-download", "admin"));
+        receiver.cancel(target);
+        assertTrue(DeploymentLockManager.tryLock("paasta-release-download", "admin"));
+        DeploymentLockManager.unlock("paasta-release-download");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 이어 받지 않은 업로드는 만료 정리 시 임시 파일을 삭제하고 lock 을 해제하는지 테스트
+    * @title : testExpireIdleReceivings
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testExpireIdleReceivings() throws Exception{
+        File target = new File(workDir, "bosh-release.tgz");
+        ChunkedFileReceiver receiver = new ChunkedFileReceiver();
+        receive(receiver, target, 0);
+        receiver.expireIdleReceivings(60 * 1000L);
+        assertEquals(CHUNK_SIZE, receiver.getReceivedSize(target));
+        assertFalse(DeploymentLockManager.tryLock("bosh-release-download", "admin"));
+
+        receiver.expireIdleReceivings(0L);
+        assertFalse(new File(workDir, ".bosh-release.tgz.upload").exists());
+        assertTrue(DeploymentLockManager.tryLock("bosh-release-download", "admin"));
+        DeploymentLockManager.unlock("bosh-release-download");
+
+        //만료 후 다시 올리면 처음부터 받음
+        try {
+            receive(receiver, target, CHUNK_SIZE);
+            fail();
+        } catch (ChunkedFileReceiver.OffsetMismatchException e) {
+            assertEquals(0L, e.getExpectedOffset());
+        }
+        receiver.cancel(target);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : offset 위치부터 한 구간 전송
+    * @title : receive
+    * @return : String
+    ***************************************************/
+    private String receive(ChunkedFileReceiver receiver, File target, long offset) throws Exception {
+        int from = (int) offset;
+        int to = Math.min(from + CHUNK_SIZE, content.length);
+        return receiver.receive(target, offset, content.length, new ByteArrayInputStream(Arrays.copyOfRange(content, from, to)));
+    }
+}
@@ -0,0 +1,206 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openpaas.ieda.deploy.web.common.dao.DeploymentLockVO;
+
+public class DeploymentLockManagerUnitTest {
+
+    final private static long LEASE_TIME = 60 * 1000L;
+    final private static long MAX_HOLD_TIME = 60 * 60 * 1000L;
+    final private static int THREAD_COUNT = 8;
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 같은 키는 한 번만 획득되고 다른 키는 동시에 획득되며 ".lock" 이름으로도 해제되는지 테스트
+    * @title : testLockAndUnlock
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testLockAndUnlock(){
+        DeploymentLockManager manager = new DeploymentLockManager(new MemoryDeploymentLockStore(), LEASE_TIME, MAX_HOLD_TIME);
+
+        assertTrue(manager.acquire("bosh-270.2.0-download", "admin"));
+        assertFalse(manager.acquire("bosh-270.2.0-download", "user"));
+        assertTrue(manager.acquire("garden-runc-1.19.10-download", "user"));
+
+        List<DeploymentLockVO> locks = manager.getHolders();
+        assertEquals(2, locks.size());
+        for( DeploymentLockVO lock : locks ){
+            assertEquals(manager.getOwnerId(), lock.getOwnerId());
+            assertEquals("bosh-270.2.0-download".equals(lock.getLockKey()) ? "admin" : "user", lock.getHolder());
+        }
+
+        manager.release("bosh-270.2.0-download");
+        assertTrue(manager.acquire("bosh-270.2.0-download", "user"));
+
+        assertTrue(DeploymentLockManager.tryLock("unit-test-upload", "admin"));
+        assertFalse(DeploymentLockManager.tryLock("unit-test-upload", "admin"));
+        DeploymentLockManager.unlock("unit-test-upload.lock");
+        assertTrue(DeploymentLockManager.tryLock("unit-test-upload", "admin"));
+        DeploymentLockManager.unlock("unit-test-upload");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 작업 단위 lock 은 획득한 요청의 점유 토큰으로만 해제되는지 테스트
+    * @title : testOwnedLock
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testOwnedLock(){
+        DeploymentLockManager manager = new DeploymentLockManager(new MemoryDeploymentLockStore(), LEASE_TIME, MAX_HOLD_TIME);
+        String lockKey = DeploymentLockManager.deploymentLockName("10.0.0.6", "paasta");
+
+        String ownerToken = manager.acquireOwned(lockKey, "admin");
+        assertNotNull(ownerToken);
+        assertNull(manager.acquireOwned(lockKey, "user"));
+        assertTrue(manager.acquireOwned(DeploymentLockManager.deploymentLockName("10.0.0.6", "paasta-monitoring"), "user") != null);
+
+        //같은 인스턴스의 다른 요청(화면 요청 해제, 다른 토큰)은 해제하지 못함
+        assertFalse(manager.release(lockKey));
+        assertFalse(manager.release(lockKey, "another-request"));
+        assertFalse(manager.acquire(lockKey, "user"));
+        assertTrue(manager.release(lockKey, ownerToken));
+        assertFalse(manager.release(lockKey, ownerToken));
+
+        //화면 요청 lock 은 토큰으로 해제하지 못함
+        assertTrue(manager.acquire(lockKey, "user"));
+        assertFalse(manager.release(lockKey, ownerToken));
+        assertTrue(manager.release(lockKey));
+
+        ownerToken = DeploymentLockManager.lock("unit-test-deploy", "admin");
+        assertNull(DeploymentLockManager.lock("unit-test-deploy", "user", 0L));
+        assertFalse(DeploymentLockManager.unlock("unit-test-deploy", null));
+        assertTrue(DeploymentLockManager.unlock("unit-test-deploy", ownerToken));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 리스가 만료된 lock 은 다른 인스턴스가 획득하고 이전 인스턴스는 연장하지 못하는지 테스트
+    * @title : testExpiredLease
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testExpiredLease(){
+        MemoryDeploymentLockStore store = new MemoryDeploymentLockStore();
+
+        assertTrue(store.acquire(new DeploymentLockVO("bootstrap", "ieda-1", "admin", 1000L, 2000L), 1000L));
+        assertFalse(store.acquire(new DeploymentLockVO("bootstrap", "ieda-2", "user", 1500L, 2500L), 1500L));
+        assertTrue(store.renew("bootstrap", "ieda-1", 3000L, 1900L));
+        assertFalse(store.acquire(new DeploymentLockVO("bootstrap", "ieda-2", "user", 2500L, 3500L), 2500L));
+
+        assertTrue(store.acquire(new DeploymentLockVO("bootstrap", "ieda-2", "user", 3001L, 4001L), 3001L));
+        assertFalse(store.renew("bootstrap", "ieda-1", 5000L, 3002L));
+        assertEquals("ieda-2", store.getLocks(3002L).get(0).getOwnerId());
+        assertTrue(store.getLocks(4002L).isEmpty());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 리스가 만료된 이전 점유자의 해제 요청이 새 점유자의 lock 을 삭제하지 않는지 테스트
+    * @title : testReleaseScopedToOwner
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testReleaseScopedToOwner(){
+        MemoryDeploymentLockStore store = new MemoryDeploymentLockStore();
+        DeploymentLockManager expired = new DeploymentLockManager(store, -1L, MAX_HOLD_TIME);
+        DeploymentLockManager current = new DeploymentLockManager(store, LEASE_TIME, MAX_HOLD_TIME);
+
+        assertTrue(expired.acquire("cfDeployment", "admin"));
+        assertTrue(current.acquire("cfDeployment", "user"));
+        assertFalse(expired.release("cfDeployment"));
+        assertFalse(current.release("bootstrap"));
+        assertEquals(current.getOwnerId(), current.getHolders().get(0).getOwnerId());
+
+        assertFalse(store.release("cfDeployment", expired.getOwnerId(), store.getLocks(0L).get(0).getAcquireTime()));
+        assertTrue(current.release("cfDeployment"));
+        assertTrue(current.getHolders().isEmpty());
+
+        assertTrue(current.acquire("cfDeployment", "user"));
+        expired.forceRelease("cfDeployment");
+        assertTrue(current.getHolders().isEmpty());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : heartbeat 는 리스를 연장하고 최대 점유 시간을 넘은 lock 은 연장하지 않는지 테스트
+    * @title : testHeartbeat
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testHeartbeat(){
+        MemoryDeploymentLockStore store = new MemoryDeploymentLockStore();
+        DeploymentLockManager manager = new DeploymentLockManager(store, LEASE_TIME, MAX_HOLD_TIME);
+        manager.acquire("hybird_cfDeployment", "admin");
+        long expireTime = expireTime(store);
+        store.renew("hybird_cfDeployment", manager.getOwnerId(), expireTime - 1, 0L);
+        manager.renewHeldLocks();
+        assertTrue(expireTime(store) >= expireTime);
+
+        store = new MemoryDeploymentLockStore();
+        manager = new DeploymentLockManager(store, LEASE_TIME, -1L);
+        manager.acquire("hybird_bootstrap", "admin");
+        expireTime = expireTime(store);
+        store.renew("hybird_bootstrap", manager.getOwnerId(), expireTime - 1, 0L);
+        manager.renewHeldLocks();
+        assertEquals(expireTime - 1, expireTime(store));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 여러 요청이 동시에 같은 lock 을 요청하면 하나만 획득하는지 테스트
+    * @title : testConcurrentAcquire
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testConcurrentAcquire() throws Exception{
+        final DeploymentLockManager manager = new DeploymentLockManager(new MemoryDeploymentLockStore(), LEASE_TIME, MAX_HOLD_TIME);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger acquired = new AtomicInteger();
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for( int i = 0; i < THREAD_COUNT; i++ ){
+            final String holder = "user" + i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if( manager.acquire("bootstrap", holder) ){
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for( Thread thread : threads ){
+            thread.join();
+        }
+        assertEquals(1, acquired.get());
+        assertEquals(1, manager.getHolders().size());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 저장소의 첫 번째 lock 만료 시각
+    * @title : expireTime
+    * @return : long
+    ***************************************************/
+    private long expireTime(MemoryDeploymentLockStore store) {
+        return store.getLocks(System.currentTimeMillis()).get(0).getExpireTime();
+    }
+}
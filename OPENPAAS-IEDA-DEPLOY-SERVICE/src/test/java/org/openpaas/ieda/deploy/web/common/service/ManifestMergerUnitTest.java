@@ -0,0 +1,113 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.openpaas.ieda.common.exception.CommonException;
+import org.yaml.snakeyaml.Yaml;
+
+public class ManifestMergerUnitTest {
+
+    //src/test/resources/manifest-merge/<case>/ 의 템플릿/stub 과 기대 결과(expected.yml)
+    //expected.yml 은 spiff 문서의 동작을 보고 직접 작성한 값으로 spiff 를 실행하여 만든 결과가 아님
+    final private static String GOLDEN_DIR = "/manifest-merge/";
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 템플릿 값을 stub 값으로 덮어쓰고(뒤의 stub 우선) stub 에만 있는 key 는 추가하지 않는지 테스트
+    * @title : testLeafOverride
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testLeafOverride() throws Exception{
+        assertGolden("leaf-override", "01-template.yml", "02-stub.yml", "03-stub.yml");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : (( merge )), (( merge replace )), (( merge || 기본값 )), (( merge 경로 )) 계산 및 bosh 변수 유지 테스트
+    * @title : testMergeExpression
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testMergeExpression() throws Exception{
+        assertGolden("merge-expression", "01-template.yml", "02-stub.yml");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : map 의 "<<: (( merge ))" 로 stub 의 key 를 추가하는지 테스트
+    * @title : testMapMerge
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testMapMerge() throws Exception{
+        assertGolden("map-merge", "01-template.yml", "02-stub.yml");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : name 으로 list 항목을 찾아 덮어쓰고 "- <<: (( merge ))" 위치에 새 항목을 넣는지 테스트
+    * @title : testListMerge
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testListMerge() throws Exception{
+        assertGolden("list-merge", "01-template.yml", "02-stub.yml");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : stub 에 값이 없는 (( merge )) 는 spiff 와 같이 실패하는지 테스트
+    * @title : testMissingMergeValue
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testMissingMergeValue(){
+        try {
+            ManifestMerger.mergeToYaml(Arrays.asList("meta:\n  zone: (( merge ))\n", "meta:\n  other: z1\n"));
+            fail("merge value must exist in stubs");
+        } catch (CommonException e) {
+            assertTrue(e.getMessage().contains("meta.zone"));
+        }
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : golden 디렉터리의 파일을 merge 한 결과가 expected.yml 과 같은지 비교
+    * @title : assertGolden
+    * @return : void
+    ***************************************************/
+    private void assertGolden(String name, String... files) throws IOException {
+        List<String> contents = new ArrayList<String>();
+        for( String file : files ){
+            contents.add(read(name + "/" + file));
+        }
+        Yaml yaml = new Yaml();
+        assertEquals(yaml.load(read(name + "/expected.yml")), yaml.load(ManifestMerger.mergeToYaml(contents)));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트 리소스 읽기
+    * @title : read
+    * @return : String
+    ***************************************************/
+    private String read(String path) throws IOException {
+        InputStream in = getClass().getResourceAsStream(GOLDEN_DIR + path);
+        try {
+            return IOUtils.toString(in, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openpaas.ieda.deploy.web.common.dto.ReplaceItemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ManifestTemplateUnitTest {
+
+    //src/test/resources 의 aws cloud-config-network-2.yml 사본(주석 줄의 치환 항목 포함)
+    final private static String CLOUD_CONFIG = "manifest-template/cloud-config.yml";
+    final private static int BENCHMARK_COUNT = 2000;
+    private final static Logger LOGGER = LoggerFactory.getLogger(ManifestTemplateUnitTest.class);
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 기존 순차 String.replace 치환과 같은 결과를 출력하는지 테스트
+    * @title : testRenderSameAsReplace
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRenderSameAsReplace() throws Exception{
+        ManifestTemplate template = ManifestTemplateCache.getTemplate(CLOUD_CONFIG);
+        List<ReplaceItemDTO> items = makeReplaceItems();
+
+        assertEquals(replace(template.getSource(), items), template.render(items));
+        assertTrue(template.render(items).contains("static: [10.0.1.100 - 10.0.1.200]"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : YAML list 는 그대로 두고 값이 없는 항목은 "[항목명]" 그대로 출력하는지 테스트
+    * @title : testRenderKeepsYamlList
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRenderKeepsYamlList(){
+        ManifestTemplate template = ManifestTemplate.compile("test", "dns: [[dns]]\ngroups: [bosh.admin, dns]\nips: [((internal_ip))]\nzone: [zone]\n", 0L);
+        List<ReplaceItemDTO> items = Arrays.asList(new ReplaceItemDTO("[dns]", "8.8.8.8"), new ReplaceItemDTO("[dns]", "1.1.1.1"));
+
+        assertEquals(2, template.getPlaceholderCount());
+        assertEquals("dns: [8.8.8.8]\ngroups: [bosh.admin, dns]\nips: [((internal_ip))]\nzone: [zone]\n", template.render(items));
+        assertEquals("dns: []\ngroups: [bosh.admin, dns]\nips: [((internal_ip))]\nzone: [zone]\n",
+                template.render(Arrays.asList(new ReplaceItemDTO("[dns]", null))));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 값이 없는 항목 중 주석 줄을 제외한 항목만 미입력으로 확인하는지 테스트
+    * @title : testUnfilledPlaceholders
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testUnfilledPlaceholders() throws Exception{
+        ManifestTemplate template = ManifestTemplateCache.getTemplate(CLOUD_CONFIG);
+        List<ReplaceItemDTO> items = makeReplaceItems();
+
+        assertTrue(template.getUnfilledPlaceholders(items).isEmpty());
+        items.remove(0);
+        assertEquals(Arrays.asList("availabilityzone"), template.getUnfilledPlaceholders(items));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 같은 리소스는 한 번만 읽고 없는 리소스는 null 응답하는지 테스트
+    * @title : testTemplateCache
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testTemplateCache() throws Exception{
+        assertSame(ManifestTemplateCache.getTemplate(CLOUD_CONFIG), ManifestTemplateCache.getTemplate(CLOUD_CONFIG));
+        assertNull(ManifestTemplateCache.getTemplate("manifest-template/not-exist.yml"));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 순차 String.replace 치환과 템플릿 치환 시간 비교(결과 동일 여부만 확인)
+    * @title : testRenderBenchmark
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRenderBenchmark() throws Exception{
+        ManifestTemplate template = ManifestTemplateCache.getTemplate(CLOUD_CONFIG);
+        List<ReplaceItemDTO> items = makeReplaceItems();
+        String source = template.getSource();
+        String replaced = null;
+        String rendered = null;
+
+        long start = System.nanoTime();
+        for( int i = 0; i < BENCHMARK_COUNT; i++ ){
+            replaced = replace(source, items);
+        }
+        long replaceTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for( int i = 0; i < BENCHMARK_COUNT; i++ ){
+            rendered = template.render(items);
+        }
+        long renderTime = System.nanoTime() - start;
+
+        assertEquals(replaced, rendered);
+        if( LOGGER.isInfoEnabled() ){
+            LOGGER.info("manifest render x" + BENCHMARK_COUNT + " : String.replace " + replaceTime / 1000000 + "ms, template " + renderTime / 1000000 + "ms");
+        }
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 기존 방식(순차 String.replace) 치환
+    * @title : replace
+    * @return : String
+    ***************************************************/
+    private String replace(String content, List<ReplaceItemDTO> items) {
+        for (ReplaceItemDTO item : items) {
+            content = content.replace(item.getTargetItem(), item.getSourceItem() == null ? "":item.getSourceItem());
+        }
+        return content;
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : aws 2 네트워크 Cloud Config 치환 목록
+    * @title : makeReplaceItems
+    * @return : List<ReplaceItemDTO>
+    ***************************************************/
+    private List<ReplaceItemDTO> makeReplaceItems() {
+        List<ReplaceItemDTO> items = new ArrayList<ReplaceItemDTO>();
+        items.add(new ReplaceItemDTO("[availabilityzone]", "ap-northeast-2a"));
+        items.add(new ReplaceItemDTO("[availabilityzone2]", "ap-northeast-2c"));
+        items.add(new ReplaceItemDTO("[small_instance_type]", "t2.small"));
+        items.add(new ReplaceItemDTO("[medium_instance_type]", "m4.large"));
+        items.add(new ReplaceItemDTO("[large_instance_type]", "m4.xlarge"));
+        items.add(new ReplaceItemDTO("[net_id]", "subnet-1111"));
+        items.add(new ReplaceItemDTO("[security_group]", "cf-security"));
+        items.add(new ReplaceItemDTO("[range]", "10.0.1.0/24"));
+        items.add(new ReplaceItemDTO("[gateway]", "10.0.1.1"));
+        items.add(new ReplaceItemDTO("[reserved]", "10.0.1.2 - 10.0.1.9"));
+        items.add(new ReplaceItemDTO("[static]", "10.0.1.100 - 10.0.1.200"));
+        items.add(new ReplaceItemDTO("[dns]", "8.8.8.8"));
+        items.add(new ReplaceItemDTO("[net_id2]", "subnet-2222"));
+        items.add(new ReplaceItemDTO("[security_group2]", null));
+        items.add(new ReplaceItemDTO("[range2]", "10.0.2.0/24"));
+        items.add(new ReplaceItemDTO("[gateway2]", "10.0.2.1"));
+        items.add(new ReplaceItemDTO("[reserved2]", "10.0.2.2 - 10.0.2.9"));
+        items.add(new ReplaceItemDTO("[static2]", "10.0.2.100 - 10.0.2.200"));
+        items.add(new ReplaceItemDTO("[dns2]", "8.8.8.8"));
+        return items;
+    }
+}
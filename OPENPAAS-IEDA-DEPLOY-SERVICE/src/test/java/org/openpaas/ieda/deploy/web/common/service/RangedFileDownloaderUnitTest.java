@@ -0,0 +1,239 @@
+package org.openpaas.ieda.deploy.web.common.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class RangedFileDownloaderUnitTest {
+
+    final private static int FILE_SIZE = 1024 * 1024 + 123;
+    final private static Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private HttpServer server;
+    private byte[] content;
+    private File workDir;
+    private AtomicInteger rangeRequests = new AtomicInteger();
+    private volatile int failAfterBytes = -1;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        content = new byte[FILE_SIZE];
+        new Random(7).nextBytes(content);
+        workDir = Files.createTempDirectory("ranged-download").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/d/stemcell", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Location", "/files/stemcell.tgz");
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+            }
+        });
+        server.createContext("/files/stemcell.tgz", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serveRange(exchange);
+            }
+        });
+        server.start();
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        server.stop(0);
+        for( File file : workDir.listFiles() ){
+            file.delete();
+        }
+        workDir.delete();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 리다이렉트 후 여러 구간으로 나누어 받은 파일의 내용과 SHA1이 원본과 같은지 테스트
+    * @title : testDownloadSegments
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testDownloadSegments() throws Exception{
+        File target = new File(workDir, "stemcell.tgz");
+        final List<Integer> progress = new ArrayList<Integer>();
+        String sha1 = newDownloader().download(getUrl("/d/stemcell"), target, getSha1(), new RangedFileDownloader.ProgressListener() {
+            @Override
+            public void onProgress(int percent) {
+                progress.add(percent);
+            }
+        });
+        assertEquals(getSha1(), sha1);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(Integer.valueOf(100), progress.get(progress.size() - 1));
+        assertEquals(4, rangeRequests.get() - 1);
+        assertFalse(new File(workDir, "stemcell.tgz.segments").exists());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 저장된 구간 정보가 있으면 받은 위치부터 이어 받는지 테스트
+    * @title : testResumeDownload
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testResumeDownload() throws Exception{
+        File target = new File(workDir, "stemcell.tgz");
+        RangedFileDownloader downloader = newDownloader();
+        RangedFileDownloader.RemoteFile remote = downloader.resolve(getUrl("/d/stemcell"));
+        List<RangedFileDownloader.Segment> segments = downloader.createSegments(FILE_SIZE);
+        File partFile = new File(workDir, "stemcell.tgz.download");
+        byte[] partial = new byte[FILE_SIZE];
+        StringBuilder state = new StringBuilder();
+        state.append("url=").append(getUrl("/d/stemcell").replace(":", "\\:")).append('\n');
+        state.append("length=").append(FILE_SIZE).append('\n');
+        state.append("etag=").append(remote.etag == null ? "" : remote.etag).append('\n');
+        state.append("segments=").append(segments.size()).append('\n');
+        for( int i = 0; i < segments.size(); i++ ){
+            RangedFileDownloader.Segment segment = segments.get(i);
+            long position = i == 0 ? segment.end + 1 : segment.start + 100;
+            System.arraycopy(content, (int) segment.start, partial, (int) segment.start, (int) (position - segment.start));
+            state.append("segment.").append(i).append('=').append(segment.start).append(',').append(segment.end).append(',').append(position).append('\n');
+        }
+        Files.write(partFile.toPath(), partial);
+        Files.write(new File(workDir, "stemcell.tgz.segments").toPath(), state.toString().getBytes("ISO-8859-1"));
+        rangeRequests.set(0);
+
+        assertEquals(getSha1(), downloader.download(getUrl("/d/stemcell"), target, null, null));
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(segments.size() - 1, rangeRequests.get() - 1);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 연결이 끊어지면 받은 위치부터 다시 요청하는지 테스트
+    * @title : testRetryBrokenConnection
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testRetryBrokenConnection() throws Exception{
+        failAfterBytes = 1000;
+        File target = new File(workDir, "stemcell.tgz");
+        newDownloader().download(getUrl("/files/stemcell.tgz"), target, getSha1(), null);
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : SHA1이 다르면 오류를 발생하고 임시 파일을 삭제하는지 테스트
+    * @title : testSha1Mismatch
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testSha1Mismatch() throws Exception{
+        File target = new File(workDir, "stemcell.tgz");
+        try {
+            newDownloader().download(getUrl("/d/stemcell"), target, "0000000000000000000000000000000000000000", null);
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("sha1 mismatch"));
+        }
+        assertFalse(target.exists());
+        assertFalse(new File(workDir, "stemcell.tgz.download").exists());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : Range 요청 응답(연결 끊김 설정 시 첫 요청만 일부 전송 후 종료)
+    * @title : serveRange
+    * @return : void
+    ***************************************************/
+    private void serveRange(HttpExchange exchange) throws IOException {
+        Matcher matcher = RANGE_PATTERN.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Range")));
+        if( !matcher.find() ){
+            exchange.sendResponseHeaders(200, content.length);
+            OutputStream output = exchange.getResponseBody();
+            output.write(content);
+            exchange.close();
+            return;
+        }
+        rangeRequests.incrementAndGet();
+        int start = Integer.parseInt(matcher.group(1));
+        int end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+        int length = end - start + 1;
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        exchange.getResponseHeaders().add("ETag", "\"stemcell\"");
+        exchange.sendResponseHeaders(206, length);
+        OutputStream output = exchange.getResponseBody();
+        int failAfter = failAfterBytes;
+        if( failAfter > 0 && length > failAfter ){
+            failAfterBytes = -1;
+            output.write(content, start, failAfter);
+            output.flush();
+            exchange.close();
+            return;
+        }
+        output.write(content, start, length);
+        exchange.close();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트용 작은 구간 크기의 다운로더 생성
+    * @title : newDownloader
+    * @return : RangedFileDownloader
+    ***************************************************/
+    private RangedFileDownloader newDownloader() {
+        return new RangedFileDownloader(workDir, 4, 64 * 1024L);
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 테스트 서버 URL
+    * @title : getUrl
+    * @return : String
+    ***************************************************/
+    private String getUrl(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 원본 파일 SHA1
+    * @title : getSha1
+    * @return : String
+    ***************************************************/
+    private String getSha1() {
+        return Hashing.sha1().hashBytes(content).toString();
+    }
+}
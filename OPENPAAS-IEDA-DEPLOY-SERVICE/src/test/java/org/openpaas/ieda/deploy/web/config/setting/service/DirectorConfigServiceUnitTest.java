@@ -34,6 +34,7 @@ public class DirectorConfigServiceUnitTest extends BaseDeployControllerUnitTest{
     final private static String BOSHCONFIGTESTFILE = ".bosh_config_test";
     @InjectMocks DirectorConfigService mockDirectorConfigService;
     @Mock DirectorConfigDAO mockDirectorConfigDAO;
+    @Mock DirectorHealthRegistry mockDirectorHealthRegistry;
 
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
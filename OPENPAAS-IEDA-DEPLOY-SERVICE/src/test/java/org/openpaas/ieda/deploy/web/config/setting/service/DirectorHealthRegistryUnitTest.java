@@ -0,0 +1,144 @@
+package org.openpaas.ieda.deploy.web.config.setting.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ServerSocket;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigDAO;
+import org.openpaas.ieda.deploy.web.config.setting.dao.DirectorConfigVO;
+import org.openpaas.ieda.deploy.web.config.setting.dto.DirectorHealthDTO;
+
+public class DirectorHealthRegistryUnitTest {
+
+    @InjectMocks DirectorHealthRegistry directorHealthRegistry;
+    @Mock DirectorConfigDAO mockDirectorConfigDAO;
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        directorHealthRegistry.shutdown();
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 기본 설치 관리자 정보를 메모리에서 응답하는지 테스트
+    * @title : testGetDefaultDirectorCached
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetDefaultDirectorCached(){
+        when(mockDirectorConfigDAO.selectDirectorConfigByDefaultYn(anyString())).thenReturn(setDirectorInfo());
+        DirectorConfigVO first = directorHealthRegistry.getDefaultDirector();
+        DirectorConfigVO second = directorHealthRegistry.getDefaultDirector();
+        assertEquals(first.getDirectorUrl(), second.getDirectorUrl());
+        verify(mockDirectorConfigDAO, times(1)).selectDirectorConfigByDefaultYn("Y");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 무효화 후 기본 설치 관리자 정보를 다시 조회하는지 테스트
+    * @title : testInvalidateDefaultDirector
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testInvalidateDefaultDirector(){
+        when(mockDirectorConfigDAO.selectDirectorConfigByDefaultYn(anyString())).thenReturn(setDirectorInfo()).thenReturn(null);
+        directorHealthRegistry.getDefaultDirector();
+        directorHealthRegistry.invalidateDefaultDirector();
+        assertNull(directorHealthRegistry.getDefaultDirector());
+        verify(mockDirectorConfigDAO, times(2)).selectDirectorConfigByDefaultYn("Y");
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 응답 값을 변경해도 캐시에 영향이 없는지 테스트
+    * @title : testGetDefaultDirectorReturnCopy
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetDefaultDirectorReturnCopy(){
+        when(mockDirectorConfigDAO.selectDirectorConfigByDefaultYn(anyString())).thenReturn(setDirectorInfo());
+        directorHealthRegistry.getDefaultDirector().setDefaultYn("N");
+        assertEquals("Y", directorHealthRegistry.getDefaultDirector().getDefaultYn());
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 응답하지 않는 설치 관리자를 점검해도 주기 점검은 바로 반환하고
+    *                점검 이력이 없는 요청은 대기 시간 후 연결 실패로 응답하는지 테스트
+    * @title : testProbeDoesNotBlockCaller
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testProbeDoesNotBlockCaller() throws Exception {
+        //연결은 되지만 응답하지 않는 설치 관리자
+        ServerSocket server = new ServerSocket(0);
+        try {
+            directorHealthRegistry.initialize();
+            DirectorConfigVO vo = setDirectorInfo();
+            vo.setDirectorUrl("127.0.0.1");
+            vo.setDirectorPort(server.getLocalPort());
+            when(mockDirectorConfigDAO.selectDirectorConfig()).thenReturn(Arrays.asList(vo));
+
+            long start = System.currentTimeMillis();
+            directorHealthRegistry.refresh();
+            assertTrue(System.currentTimeMillis() - start < 1000L);
+
+            start = System.currentTimeMillis();
+            DirectorHealthDTO health = directorHealthRegistry.getHealth("127.0.0.1", server.getLocalPort(), "admin", "admin");
+            assertFalse(health.isConnect());
+            assertTrue(System.currentTimeMillis() - start < 8 * 1000L);
+        } finally {
+            server.close();
+        }
+    }
+
+    /***************************************************
+    * @project : Paas 플랫폼 설치 자동화
+    * @description : 설치 관리자 조회 리턴 값 설정
+    * @title : setDirectorInfo
+    * @return : DirectorConfigVO
+    ***************************************************/
+    private DirectorConfigVO setDirectorInfo(){
+        DirectorConfigVO vo = new DirectorConfigVO();
+        vo.setIedaDirectorConfigSeq(1);
+        vo.setUserId("admin");
+        vo.setDefaultYn("Y");
+        vo.setDirectorCpi("openstack-cpi");
+        vo.setDirectorName("my-bosh");
+        vo.setDirectorPort(25555);
+        vo.setDirectorUrl("123125-asdasb31123");
+        vo.setUserPassword("admin");
+        return vo;
+    }
+}
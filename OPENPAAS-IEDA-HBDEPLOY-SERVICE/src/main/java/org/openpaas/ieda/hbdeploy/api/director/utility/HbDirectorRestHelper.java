@@ -4,58 +4,61 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 
-import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
-import org.apache.commons.httpclient.methods.GetMethod;
-import org.apache.commons.httpclient.protocol.Protocol;
 import org.apache.tomcat.util.codec.binary.Base64;
-import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.hbdeploy.api.director.dto.ResponseTaskOuput;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
-import org.openpaas.ieda.hbdeploy.api.director.utility.ExSSLSocketFactory;
-import org.openpaas.ieda.hbdeploy.api.task.HbTaskInfoDTO;
-import org.openpaas.ieda.hbdeploy.api.task.HbTaskOutputDTO;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorHttpClientPool;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskCallback;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.TaskOutputMessageListener;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 public class HbDirectorRestHelper {
     
-    final private static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir();
-    final private static int THREAD_SLEEP_TIME = 2 * 1000;
     final private static String HTTPS = "https";
-    final private static String CANCELLED = "cancelled";
     final private static String STARTED = "started";
-    final private static String ERROR = "error";  
-    final private static String DONE = "done";
     private final static Logger LOGGER = LoggerFactory.getLogger(HbDirectorRestHelper.class);
     
     /***************************************************
      * @project : Paas 이종 플랫폼 설치 자동화
-     * @description : 프로토콜을 등록하고 HTTP 클라이언트 객체를 응답
+     * @description : 설치 관리자 공용 커넥션 풀(keep-alive)을 사용하는 HTTP 클라이언트 객체를 응답
      * @title : getHttpClient
      * @return : HttpClient
     ***************************************************/
     public static HttpClient getHttpClient(int port) {
-        //프로토컬 등록
-        Protocol.registerProtocol(HTTPS, new Protocol(HTTPS, new ExSSLSocketFactory(), port));
-        return new HttpClient();
+        //https 프로토콜은 커넥션 풀 초기화 시 1회 등록
+        return DirectorHttpClientPool.getInstance().getHttpClient();
+    }
+
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 디렉터 별 커넥션 풀 현황이 집계되는 HTTP 클라이언트 객체를 응답
+     * @title : getHttpClient
+     * @return : HttpClient
+    ***************************************************/
+    public static HttpClient getHttpClient(String directorUrl, int port) {
+        return DirectorHttpClientPool.getInstance().getHttpClient(directorUrl, port);
     }
 
+
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 상태 코드와 헤더만 사용하는 요청 실행 후 커넥션을 풀에 반환
+     * @title : executeAndRelease
+     * @return : int
+    ***************************************************/
+    public static int executeAndRelease(HttpClient httpClient, HttpMethodBase method) throws IOException {
+        return DirectorRestHelper.executeAndRelease(httpClient, method);
+    }
     
     /***************************************************
      * @project : Paas 이종 플랫폼 설치 자동화
@@ -218,379 +221,83 @@ public class HbDirectorRestHelper {
 
     /***************************************************
      * @project : Paas 이종 플랫폼 설치 자동화
-     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답(공용 Task 추적기에 등록 후 바로 응답)
      * @title : trackToTask
-     * @return : String
+     * @return : void
     ***************************************************/
-    public static String trackToTask(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
+    public static void trackToTask(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
         String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
-        
-        String status = "";
-        String eventLog = "";
-        try {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-            String lastStage = null;
-            int offset = 0;
-            while (true) {
-                
-                //1. Task 상태 정보 요청
-                GetMethod getTaskStaus = new GetMethod(HbDirectorRestHelper.getTaskStatusURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(),selectedDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                int statusCode = client.executeMethod(getTaskStaus);
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-                //응답 결과 task 상태 정보를 가져온다.
-                HbTaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), HbTaskInfoDTO.class);
-                
-                GetMethod getTaskOutput = new GetMethod(HbDirectorRestHelper.getTaskOutputURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(), selectedDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if (statusCode == HttpStatus.NO_CONTENT.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
-                    if (taskInfo.getState().equalsIgnoreCase("done")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                        status = DONE;
-                        break;
-                    }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                        status = ERROR;
-                        break;
-                    } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Canceled Task " + taskId));
-                        status = CANCELLED;
-                        break;
-                    } else{
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                }
-
-                if (statusCode == HttpStatus.OK.value() || statusCode == HttpStatus.PARTIAL_CONTENT.value()) {
-                    eventLog=DONE;
-                    Header contentRange = getTaskOutput.getResponseHeader("Content-Range");
-                    if (contentRange == null) {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                    
-                    if ( !StringUtils.isEmpty(contentRange) ) {
-                        String[] splited = contentRange.getValue().split("/");
-                        offset = Integer.parseInt(splited[1]);
-                    }
-
-                    if ( "debug".equalsIgnoreCase(logType) ) {
-                        String[] outputs = getTaskOutput.getResponseBodyAsString().split("\n");
-                        
-                        for ( String output : outputs ) {
-                            Thread.sleep(10);
-                            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList(output));
-                        }
-                    } else {
-                        
-                        String outputs1 = getTaskOutput.getResponseBodyAsString();
-                        String outputs2 = outputs1.substring(0, outputs1.length() - 1).replace("\n", ",");
-                        String outputs = "[" + outputs2 + "]";
-                        
-                        List<HbTaskOutputDTO> taskOutputList = mapper.readValue(outputs, new TypeReference<List<HbTaskOutputDTO>>() {
-                        });
-    
-                        List<String> responseMessage = new ArrayList<String>();
-                        for (HbTaskOutputDTO output : taskOutputList) {
-    
-                            if (output.getStage() != null && (lastStage == null || !lastStage.equalsIgnoreCase(output.getStage()))) {
-                                    responseMessage.add("");
-                                    responseMessage.add("  Started    " + output.getStage());
-                            }
-    
-                            if (output.getStage() != null) {
-    
-                                if (output.getState().equalsIgnoreCase("started")) {
-                                    responseMessage.add("  Started    " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("finished")) {
-                                    responseMessage.add("  Done       " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("failed")) {
-                                    responseMessage.add("  Failed      " + output.getStage() + " > " + output.getTask());
-                                } else {
-                                    responseMessage.add("  Processing " + output.getStage() + " > " + output.getTask() + " " + output.getProgress() + "%");
-                                }
-                            } else {
-                                HashMap<String, String> error = output.getError();
-                                if (error != null) {
-                                    responseMessage.add( "  Error Code : " + error.get("code") + ", Message :" + error.get("message"));
-                                }
-                            }
-                            lastStage = output.getStage();
-                        }
-                        Thread.sleep(3000);
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, responseMessage);
-                    }
-                }
-                
-                if(messageEndpoint.equalsIgnoreCase("/info/task/list/eventLog/socket")){ 
-                    if(eventLog.equalsIgnoreCase("done")){
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, eventLog, Arrays.asList("", "Task " + taskId));
-                        break;
-                    }else{
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "Task " + taskId));
-                        break;
-                    }
-                }
+        trackToTask(selectedDirector, messageTemplate, messageEndpoint, client, taskId, logType, userId, null);
+    }
 
-                if (taskInfo.getState().equalsIgnoreCase("done")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                    status = DONE;
-                    break;
-                } 
-                else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                    status = ERROR;
-                } 
-                else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Task " + taskId + ""));
-                    status = CANCELLED;
-                }
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답하고 Task 종료 시 callback 호출
+     * @title : trackToTask
+     * @return : void
+    ***************************************************/
+    public static void trackToTask(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
+        String messageEndpoint, HttpClient client, String taskId, String logType, String userId, DirectorTaskCallback callback) {
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        DirectorRestHelper.startTracking(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), selectedDirector.getUserId(),
+                selectedDirector.getUserPassword(), listener, taskId, logType, callback);
+    }
 
-                Thread.sleep(THREAD_SLEEP_TIME);
-            }
-        }catch (IOException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (InterruptedException e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch(Exception e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }
-        
-        return status;
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 배포 로그 및 상태 정보를 웹소캣을 통해 응답하며 Task 종료까지 대기 후 상태 응답
+     *                (bosh CLI 프로세스 종료를 기다리는 스레드에서만 사용, 추가 스레드를 점유하지 않음)
+     * @title : trackToTaskAndWait
+     * @return : String
+    ***************************************************/
+    public static String trackToTaskAndWait(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
+        String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        return DirectorRestHelper.waitForTask(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), selectedDirector.getUserId(),
+                selectedDirector.getUserPassword(), listener, taskId, logType);
     }
     
     /***************************************************
      * @project : Paas 이종 플랫폼 설치 자동화
-     * @description : Task 정보
+     * @description : 해당 배포의 진행 중 디렉터 Task 취소 요청
+     * @title : cancelDeploymentTasks
+     * @return : int(취소 요청한 Task 수)
+    ***************************************************/
+    public static int cancelDeploymentTasks(HbDirectorConfigVO selectedDirector, String deploymentName) throws IOException {
+        return DirectorRestHelper.cancelDeploymentTasks(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(),
+                selectedDirector.getUserId(), selectedDirector.getUserPassword(), deploymentName);
+    }
+
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : Task 정보(로그 조회 없이 종료 상태만 추적)
      * @title : trackToTaskLineOne
-     * @return : String
+     * @return : void
     ***************************************************/
-    public static String trackToTaskLineOne(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
+    public static void trackToTaskLineOne(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate,
         String messageEndpoint, HttpClient client, String taskId, String logType, String userId) {
-        String status = "";
-        try {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, STARTED, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-
-            int offset = 0;
-            while (true) {
-                //1. Task 상태 정보 요청
-                GetMethod getTaskStaus = new GetMethod(HbDirectorRestHelper.getTaskStatusURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(),selectedDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                
-                int statusCode = client.executeMethod(getTaskStaus);
-                
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                            Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-                
-                HbTaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), HbTaskInfoDTO.class);
-                GetMethod getTaskOutput = new GetMethod(HbDirectorRestHelper.getTaskOutputURI( selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(), selectedDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if ( statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value() ) {
-                    if (taskInfo.getState().equalsIgnoreCase("done") ) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, DONE, Arrays.asList("", "Task " + taskId + " done"));
-                        status = DONE;
-                        break;
-                    }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An error occurred while executing the task " + taskId));
-                        status = ERROR;
-                        break;
-                    } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                        sendTaskOutput(userId, messageTemplate, messageEndpoint, CANCELLED, Arrays.asList("", "Canceled Task " + taskId));
-                        status = CANCELLED;
-                        break;
-                    }
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                }
-            }
-        }catch (IOException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (InterruptedException e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch(Exception e){
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR,
-                    Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }
-        
-        return status;
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, null, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        DirectorRestHelper.startTracking(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), selectedDirector.getUserId(),
+                selectedDirector.getUserPassword(), listener, taskId, null, null);
     }
 
     /***************************************************
      * @project : Paas 이종 플랫폼 설치 자동화
      * @description : 설치 관리자에 스템셀 및 릴리즈 업로드 로그 정보와 상태 응답
+     *                (업로드 lock 은 Task 종료 시 해제)
      * @title : trackToTaskWithTag
-     * @return : String
+     * @return : void
     ***************************************************/
-    public static String trackToTaskWithTag(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate, 
+    public static void trackToTaskWithTag(HbDirectorConfigVO selectedDirector, SimpMessagingTemplate messageTemplate, 
                                             String messageEndpoint, String tag, HttpClient client, String taskId, 
                                             String logType, String userId) {
-        String status = "";
-        try {
-            LOGGER.debug("tag ::" + tag);
-            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, Arrays.asList("Director task " + taskId));
-            ObjectMapper mapper = new ObjectMapper();
-
-            String lastStage = null;
-            String lastState = null;
-            int offset = 0;
-            while (true) {
-                GetMethod getTaskStaus = new GetMethod(HbDirectorRestHelper
-                        .getTaskStatusURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId));
-                getTaskStaus = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(),
-                        selectedDirector.getUserPassword(), (HttpMethodBase) getTaskStaus);
-                int statusCode = client.executeMethod(getTaskStaus);
-                
-                if (HttpStatus.valueOf(statusCode) != HttpStatus.OK) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag, 
-                            Arrays.asList("Task " + taskId + " : 상태 조회 중 오류가 발생하였습니다."));
-                    break;
-                }
-
-                HbTaskInfoDTO taskInfo = mapper.readValue(getTaskStaus.getResponseBodyAsString(), HbTaskInfoDTO.class);
-
-                GetMethod getTaskOutput = new GetMethod(HbDirectorRestHelper.getTaskOutputURI(
-                        selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), taskId, logType));
-                getTaskOutput = (GetMethod) HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(),
-                        selectedDirector.getUserPassword(), (HttpMethodBase) getTaskOutput);
-                String range = "bytes=" + offset + "-";
-                getTaskOutput.setRequestHeader("Range", range);
-                statusCode = client.executeMethod(getTaskOutput);
-
-                if (statusCode == HttpStatus.NO_CONTENT.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
-                    Thread.sleep(THREAD_SLEEP_TIME);
-                    continue;
-                }
-
-                if (statusCode == HttpStatus.OK.value() || statusCode == HttpStatus.PARTIAL_CONTENT.value()) {
-                    Header contentRange = getTaskOutput.getResponseHeader("Content-Range");
-                    if (contentRange == null) {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        continue;
-                    }
-                    if ( !StringUtils.isEmpty(contentRange) ) {
-                        String[] splited = contentRange.getValue().split("/");
-                        offset = Integer.parseInt(splited[1]);
-                    }
-
-                    if ( "debug".equalsIgnoreCase(logType) ) {
-                        String[] outputs = getTaskOutput.getResponseBodyAsString().split("\n");
-                        
-                        for ( String output : outputs ) {
-                            Thread.sleep(10);
-                            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, Arrays.asList(output));
-                        }
-                    } else {
-                        Thread.sleep(THREAD_SLEEP_TIME);
-                        String outputs1 = getTaskOutput.getResponseBodyAsString();
-                        String outputs2 = outputs1.substring(0, outputs1.length() - 1).replace("\n", ",");
-                        String outputs = "[" + outputs2 + "]";
-    
-                        List<HbTaskOutputDTO> taskOutputList = mapper.readValue(outputs, new TypeReference<List<HbTaskOutputDTO>>() {});
-    
-                        List<String> responseMessage = new ArrayList<String>();
-                        for (HbTaskOutputDTO output : taskOutputList) {
-                            if (output.getStage() != null && ( lastStage == null || !lastStage.equalsIgnoreCase(output.getStage()) )) {
-                                responseMessage.add("");
-                                responseMessage.add("  Started    " + output.getStage());
-                            }
-                            if (output.getStage() != null) {
-                                if( LOGGER.isDebugEnabled() ) {
-                                    LOGGER.debug(output.getState());
-                                }
-                                if (output.getState().equalsIgnoreCase("started")) {
-                                    responseMessage.add("  Started    " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("finished") || output.getState().equalsIgnoreCase("Done") ) {
-                                    responseMessage.add("  Done       " + output.getStage() + " > " + output.getTask());
-                                } else if (output.getState().equalsIgnoreCase("failed")) {
-                                    responseMessage.add("  Failed      " + output.getStage() + " > " + output.getTask());
-                                } else {
-                                    responseMessage.add("  Processing " + output.getStage() + " > " + output.getTask() + " " + output.getProgress() + "%");
-                                }
-                            }else {
-                                HashMap<String, String> error = output.getError();
-                                if (error != null) {
-                                    responseMessage.add("  Error Code : " + error.get("code") + ", Message :" + error.get("message"));
-                                }
-                            }
-                            lastStage = output.getStage();
-                            lastState = output.getState();
-                        }
-                        //업로드 상태 및 결과 정보를 담아 subscribe에 보낸다.
-                        sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, STARTED, tag, responseMessage);
-                    }
-                }
-                //lastState.equalsIgnoreCase("finished") 삭제
-                if (taskInfo.getState().equalsIgnoreCase("done") ) {
-                    LOGGER.debug("done && taskInfo "+ taskInfo.getState());
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, DONE, tag, Arrays.asList("", "Task " + taskId + " done"));
-                    status = DONE;
-                    break;
-                }else if (taskInfo.getState().equalsIgnoreCase("error")) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag,  Arrays.asList("", "An error occurred while executing the task " + taskId));
-                    status = ERROR;
-                    break;
-                } else if (taskInfo.getState().equalsIgnoreCase("cancelled")) {
-                    sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, CANCELLED, tag, Arrays.asList("", "Canceled Task " + taskId));
-                    status = CANCELLED;
-                    break;
-                }
-                Thread.sleep(THREAD_SLEEP_TIME);
-            }
-        }catch (RuntimeException e) {
-            sendTaskOutput(userId, messageTemplate, messageEndpoint, ERROR, Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }catch (Exception e) {
-            sendTaskOutputWithTag(userId, messageTemplate, messageEndpoint, ERROR, tag, Arrays.asList("", "An exception occurred while executing the task " + taskId));
-            status = ERROR;
-        }finally {
-            CommonDeployUtils.deleteFile(LOCK_DIR, tag.split(".tgz")[0]+"-upload.lock");
-        }
-        return status;
+        TaskOutputMessageListener listener = new TaskOutputMessageListener(userId, messageTemplate, messageEndpoint, tag, logType);
+        listener.send(STARTED, Arrays.asList("Director task " + taskId));
+        DirectorRestHelper.startTracking(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), selectedDirector.getUserId(),
+                selectedDirector.getUserPassword(), listener, taskId, logType, DirectorRestHelper.uploadLockRelease(tag));
     }
 
     /***************************************************
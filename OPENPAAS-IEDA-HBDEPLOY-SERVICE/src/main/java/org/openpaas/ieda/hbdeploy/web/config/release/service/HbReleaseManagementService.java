@@ -14,8 +14,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.service.CommonUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.deploy.web.management.code.dao.CommonCodeDAO;
 import org.openpaas.ieda.hbdeploy.web.config.release.dao.HbReleaseManagementDAO;
 import org.openpaas.ieda.hbdeploy.web.config.release.dao.HbReleaseManagementVO;
@@ -39,7 +41,6 @@ public class HbReleaseManagementService {
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String TMPDIRECTORY = LocalDirectoryConfiguration.getTmpDir();
     final private static String RELEASEDIRECTORY = LocalDirectoryConfiguration.getReleaseDir();
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -54,7 +55,7 @@ public class HbReleaseManagementService {
                 if( release.getDownloadStatus() != null ){
                     if( release.getDownloadStatus().toUpperCase().equalsIgnoreCase("DOWNLOADED") ){
                         File releaseFile = new File( RELEASEDIRECTORY +SEPARATOR + release.getReleaseFileName());
-                        if(!releaseFile.exists()){
+                        if(!ArtifactStore.isStored(releaseFile)){
                             HbReleaseManagementDTO.Delete dto = new HbReleaseManagementDTO.Delete();
                             dto.setId( String.valueOf(release.getId()) );
                             dto.setReleaseFileName(release.getReleaseFileName());
@@ -120,13 +121,13 @@ public class HbReleaseManagementService {
         HbReleaseManagementVO vo = null;
         if( fileName.indexOf(".tgz") < 0 && fileName.indexOf(".zip") < 0 ){
             status = "error";
-            CommonDeployUtils.deleteFile(LOCK_DIR, fileName.split(".tgz")[0]+"-download.lock");
+            DeploymentLockManager.unlock(fileName.split(".tgz")[0]+"-download.lock");
             throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                     message.getMessage("common.extension.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
         }
         if(StringUtils.isEmpty(dto.getReleaseFileName()) || Long.parseLong(dto.getReleaseSize()) < 1 ){
             status = "error";
-            CommonDeployUtils.deleteFile(LOCK_DIR, fileName.split(".tgz")[0]+"-download.lock");
+            DeploymentLockManager.unlock(fileName.split(".tgz")[0]+"-download.lock");
             throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                     message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
         }
@@ -136,7 +137,7 @@ public class HbReleaseManagementService {
         //릴리즈 파일이 존재하고 덮어쓰기 체크가 안되어 있을 경우
         if(releseFile.exists() && "false".equalsIgnoreCase(dto.getOverlayCheck())) {
             status = "conflict";
-            CommonDeployUtils.deleteFile(LOCK_DIR, fileName.split(".tgz")[0]+"-download.lock");
+            DeploymentLockManager.unlock(fileName.split(".tgz")[0]+"-download.lock");
             throw new CommonException(message.getMessage("common.conflict.exception.code", null, Locale.KOREA),
                     message.getMessage("common.conflict.file.message", null, Locale.KOREA), HttpStatus.CONFLICT);
         }else{
@@ -170,7 +171,7 @@ public class HbReleaseManagementService {
                     throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                             message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
                 }
-                CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName+"-download.lock");
+                DeploymentLockManager.unlock(lockFileName+"-download.lock");
             }
         }
         return flag;
@@ -383,7 +384,7 @@ public class HbReleaseManagementService {
         //delete lock file
         int index = dto.getReleaseFileName().indexOf(".tgz");
         String lockFileName = dto.getReleaseFileName().substring(0, index) + "-download.lock";
-        CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName);
+        DeploymentLockManager.unlock(lockFileName);
         
         //delete release File
         File releaseFile = new File(RELEASEDIRECTORY + SEPARATOR + dto.getReleaseFileName());
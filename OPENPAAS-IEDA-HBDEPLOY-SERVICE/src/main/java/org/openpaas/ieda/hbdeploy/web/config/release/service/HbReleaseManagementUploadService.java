@@ -9,10 +9,15 @@ import java.security.Principal;
 import java.util.Iterator;
 import java.util.Locale;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
+import org.openpaas.ieda.deploy.web.common.service.ChunkedFileReceiver;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.web.config.release.dao.HbReleaseManagementDAO;
 import org.openpaas.ieda.hbdeploy.web.config.release.dto.HbReleaseManagementDTO;
 import org.slf4j.Logger;
@@ -24,15 +29,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 @Service
 public class HbReleaseManagementUploadService {
 
     @Autowired private HbReleaseManagementDAO dao;
     @Autowired private MessageSource message;
+    @Autowired private ChunkedFileReceiver receiver;
     
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String RELEASE_DIR =LocalDirectoryConfiguration.getReleaseDir();
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static Logger LOGGER = LoggerFactory.getLogger(HbReleaseManagementUploadService.class);
     
     /****************************************************************
@@ -45,6 +53,7 @@ public class HbReleaseManagementUploadService {
         File isKeyFile = null;
         BufferedOutputStream stream = null;
         InputStream instream = null;
+        String sha1 = null;
         Iterator<String> itr =  request.getFileNames();
         
         if(itr.hasNext()) {
@@ -64,11 +73,14 @@ public class HbReleaseManagementUploadService {
                 }
                 
                 int i=0;
+                Hasher hasher = Hashing.sha1().newHasher();
                 stream= new BufferedOutputStream(new FileOutputStream(isKeyFile));
                 instream= mpf.getInputStream();
                  while ((i = instream.read(tmp)) >= 0) {
                      stream.write(tmp, 0, i);
+                     hasher.putBytes(tmp, 0, i);
                  }
+                 sha1 = hasher.hash().toString();//받으면서 계산한 SHA1(저장소 색인 등록 시 다시 계산하지 않음)
                  
                 if(isKeyFile.exists()){
                     HbReleaseManagementDTO.Regist dto = new HbReleaseManagementDTO.Regist();
@@ -84,8 +96,8 @@ public class HbReleaseManagementUploadService {
             }finally {
                 String originalFileExtension = mpf.getOriginalFilename().substring(mpf.getOriginalFilename().lastIndexOf("."));
                 String fileResultName = mpf.getOriginalFilename().replace(originalFileExtension, "") + "-download.lock";
-                //lock 파일 삭제
-                CommonDeployUtils.deleteFile(LOCK_DIR, fileResultName);
+                //lock 해제
+                DeploymentLockManager.unlock(fileResultName);
                 
                 if (stream != null) {
                     try {
@@ -96,10 +108,43 @@ public class HbReleaseManagementUploadService {
                         }
                     }
                 }
+                if( isKeyFile != null && isKeyFile.exists() ){
+                    ArtifactStore.store(isKeyFile, sha1);//저장소 색인 등록(SHA1을 모르면 계산, 중복 제거)
+                }
             }
         }
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : hybrid 릴리즈 파일 구간 업로드의 이어 받을 위치 조회
+     * @title : getHybridReleaseUploadOffset
+     * @return : long
+    *****************************************************************/
+    public long getHybridReleaseUploadOffset(String fileName) {
+        return receiver.getReceivedSize(receiver.getTargetFile(RELEASE_DIR, fileName));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : hybrid 릴리즈 파일 구간 업로드(요청 본문을 hybrid 릴리즈 디렉토리에 바로 기록하며 SHA1 계산)
+     *                마지막 구간까지 받으면 다운로드 정보 저장 후 true 응답
+     * @title : uploadHybridReleaseChunk
+     * @return : boolean
+    *****************************************************************/
+    public boolean uploadHybridReleaseChunk(HttpServletRequest request, Principal principal) {
+        //받은 구간을 기록하기 전에 다운로드 정보 아이디 확인
+        int id = receiver.getUploadId(request);
+        String sha1 = receiver.receiveChunk(request, RELEASE_DIR);
+        if( sha1 == null ){
+            return false;
+        }
+        HbReleaseManagementDTO.Regist dto = new HbReleaseManagementDTO.Regist();
+        dto.setId(id);
+        saveHybridRelease(dto, principal);
+        return true;
+    }
+
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : hybrid 릴리즈 다운로드 정보 저장
@@ -1,6 +1,5 @@
 package org.openpaas.ieda.hbdeploy.web.config.setting.service;
 
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File
 ;
@@ -22,6 +21,7 @@ import org.apache.commons.httpclient.methods.GetMethod;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
+import org.openpaas.ieda.deploy.web.config.setting.service.DirectorHealthRegistry;
 import org.openpaas.ieda.hbdeploy.api.director.dto.DirectorInfoDTO;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
@@ -43,6 +43,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class HbDirectorConfigService  {
     
     @Autowired private HbDirectorConfigDAO dao;
+    @Autowired private DirectorHealthRegistry directorHealthRegistry;
     
     final private static String BASE_DIR = System.getProperty("user.home");
     final private static String SEPARATOR = System.getProperty("file.separator");
@@ -65,7 +66,8 @@ public class HbDirectorConfigService  {
                     "해당하는 디렉터가 존재하지 않습니다.", HttpStatus.NOT_FOUND);
         }
         if( selectedDirector != null ) {
-            boolean flag = checkDirectorConnect(selectedDirector.getDirectorUrl(),
+            //연결 상태는 백그라운드 점검 결과를 사용
+            boolean flag = directorHealthRegistry.isConnected(selectedDirector.getDirectorUrl(),
                                                  selectedDirector.getDirectorPort(),
                                                  selectedDirector.getUserId(),
                                                  selectedDirector.getUserPassword());
@@ -82,15 +84,21 @@ public class HbDirectorConfigService  {
     *****************************************************************/
     public boolean checkDirectorConnect(String directorUrl, int port, String userId, String password) {
         boolean flag = true;
+        GetMethod get = null;
         try {
-            HttpClient client = HbDirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getInfoURI(directorUrl, port)); 
+            HttpClient client = HbDirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(HbDirectorRestHelper.getInfoURI(directorUrl, port)); 
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             client.executeMethod(get);
         } catch (RuntimeException e) {
             if( LOGGER.isErrorEnabled() ){ LOGGER.error( e.getMessage() );}
         } catch (Exception e) {
             return false;
+        } finally {
+            //응답 본문을 읽지 않으므로 커넥션을 풀에 반환
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         return flag;
     }
@@ -121,9 +129,10 @@ public class HbDirectorConfigService  {
     ***************************************************/
     public DirectorInfoDTO getDirectorInfo(String directorUrl, int port, String userId, String password) {
         DirectorInfoDTO info = null;
+        GetMethod get = null;
         try {
-            HttpClient client = HbDirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getInfoURI(directorUrl, port)); 
+            HttpClient client = HbDirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(HbDirectorRestHelper.getInfoURI(directorUrl, port)); 
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             client.executeMethod(get);
         
@@ -133,6 +142,10 @@ public class HbDirectorConfigService  {
             if( LOGGER.isErrorEnabled() ){
                 LOGGER.error( e.getMessage() );
             }
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         
         return info;
@@ -250,7 +263,8 @@ public class HbDirectorConfigService  {
                         "디렉터로 설정 중 에러가 발생 했습니다. 정보를 확인 해주세요.", HttpStatus.NOT_FOUND);
             }
             
-            Thread.sleep(10000);
+            //alias-env 가 bosh config 파일 저장을 마치고 종료할 때까지 대기
+            process.waitFor();
             
             String boshConfigFile = BASE_DIR+SEPARATOR+".bosh"+SEPARATOR+"config";
             input = new FileInputStream(new File(boshConfigFile));
@@ -303,6 +317,7 @@ public class HbDirectorConfigService  {
                     "해당하는 디렉터는 존재하지 않습니다.", HttpStatus.NOT_FOUND);
         }
         dao.deleteHbDirector(seq);
+        directorHealthRegistry.invalidate(directorConfig.getDirectorUrl(), directorConfig.getDirectorPort());
     }
     
     /****************************************************************
@@ -313,13 +328,18 @@ public class HbDirectorConfigService  {
     *****************************************************************/
     public String isExistBoshEnvLogin(String directorUrl, int port, String userId, String password){
         int statusResult = 0;
+        GetMethod get = null;
         try {
-            HttpClient client = HbDirectorRestHelper.getHttpClient(port);
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getStemcellsURI(directorUrl, port)); 
+            HttpClient client = HbDirectorRestHelper.getHttpClient(directorUrl, port);
+            get = new GetMethod(HbDirectorRestHelper.getStemcellsURI(directorUrl, port)); 
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(userId, password, (HttpMethodBase)get); 
             statusResult = client.executeMethod(get);
         } catch (Exception e) {
             if( LOGGER.isErrorEnabled() ){ LOGGER.error( e.getMessage() );}
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         String httpStatus = String.valueOf(statusResult);
         // stemcell 조회 > httpStatus > 조건 200 이 아닐경우 Exception >> database update
@@ -345,28 +365,16 @@ public class HbDirectorConfigService  {
             LOGGER.debug("Credential key path file directory create :: " + result);
         }        
         if(itr.hasNext()) {
-            BufferedOutputStream stream = null;
             MultipartFile mpf = request.getFile(itr.next());
             try { 
                 String keyFilePath = HYBRID_CREDENTIAL_DIR + mpf.getOriginalFilename();
-                byte[] bytes = mpf.getBytes();
                 File isKeyFile = new File(keyFilePath);
-                stream = new BufferedOutputStream(new FileOutputStream(isKeyFile));
-                stream.write(bytes); 
-                        
+                //메모리에 올리지 않고 임시 파일을 그대로 이동(또는 복사)
+                mpf.transferTo(isKeyFile);
             } catch (IOException e) {
                 e.printStackTrace();
                 throw new CommonException("notfound.keyFile.exception",
                         "Key 입력 정보를 확인해 주세요.", HttpStatus.INTERNAL_SERVER_ERROR);
-            } finally {
-                try {
-                    if( stream != null ) {
-                        stream.close();
-                    }
-                } catch (IOException e) {
-                    throw new CommonException("notfound.keyFile.exception",
-                            "Key 입력 정보를 확인해 주세요.", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
             }
         }
     }
@@ -0,0 +1,35 @@
+package org.openpaas.ieda.hbdeploy.web.config.setting.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openpaas.ieda.deploy.web.config.setting.dto.DirectorHealthDTO;
+import org.openpaas.ieda.deploy.web.config.setting.service.DirectorHealthTargetSource;
+import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
+import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HbDirectorHealthTargetSource implements DirectorHealthTargetSource {
+
+    @Autowired private HbDirectorConfigDAO dao;
+
+    /***************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : ieda_hybrid_director_config 의 디렉터를 백그라운드 연결 점검 대상으로 응답
+     * @title : getHealthTargets
+     * @return : List<DirectorHealthDTO>
+    ***************************************************/
+    @Override
+    public List<DirectorHealthDTO> getHealthTargets() {
+        List<DirectorHealthDTO> targets = new ArrayList<DirectorHealthDTO>();
+        for( HbDirectorConfigVO director : dao.selectHbDirectorConfig(null) ){
+            if( director.getDirectorPort() == null ){
+                continue;
+            }
+            targets.add(new DirectorHealthDTO(director.getDirectorUrl(), director.getDirectorPort(), director.getUserId(), director.getUserPassword()));
+        }
+        return targets;
+    }
+}
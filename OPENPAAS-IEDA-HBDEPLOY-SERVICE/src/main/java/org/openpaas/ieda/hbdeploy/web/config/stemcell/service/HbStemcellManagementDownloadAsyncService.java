@@ -1,21 +1,20 @@
 package org.openpaas.ieda.hbdeploy.web.config.stemcell.service;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
+import org.openpaas.ieda.deploy.web.common.service.RangedFileDownloader;
 import org.openpaas.ieda.deploy.web.config.stemcell.dao.StemcellManagementVO;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.dto.HbStemcellManagementDTO;
 import org.openpaas.ieda.deploy.web.config.stemcell.service.StemcellManagementDownloadAsyncService;
@@ -38,18 +37,27 @@ public class HbStemcellManagementDownloadAsyncService {
     
     final private static Logger LOGGER = LoggerFactory.getLogger(StemcellManagementDownloadAsyncService.class);
     final private static String SEPARATOR = System.getProperty("file.separator");
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String TMPDIRECTORY = LocalDirectoryConfiguration.getTmpDir();
     final private static String STEMCELL_DIR = LocalDirectoryConfiguration.getStemcellDir();
     final private static String MESSAGE_ENDPOINT_HB = "/config/hbstemcell/regist/download/logs";
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
-     * @description : wget을 통해 다운로드된 스템셀 상태 저장
+     * @description : 다운로드된 스템셀 상태 저장
      * @title : saveStemcellDownLoadStatus
      * @return : void
     *****************************************************************/
     public void saveStemcellDownLoadStatus(HbStemcellManagementDTO.Regist dto, StemcellManagementVO result, Principal principal, Boolean downloadResult) {
+        saveStemcellDownLoadStatus(dto, result, principal, downloadResult, null);
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 다운로드된 스템셀 상태 저장(다운로드 시 계산한 SHA1로 저장소 색인 등록)
+     * @title : saveStemcellDownLoadStatus
+     * @return : void
+    *****************************************************************/
+    public void saveStemcellDownLoadStatus(HbStemcellManagementDTO.Regist dto, StemcellManagementVO result, Principal principal, Boolean downloadResult, String sha1) {
         //1. 저장된 스템셀 정보 조회
         String status = "";
         File tmpFile = new File(TMPDIRECTORY+ SEPARATOR + result.getStemcellFileName());
@@ -76,6 +84,7 @@ public class HbStemcellManagementDownloadAsyncService {
         }else{//덮어쓰기 가능.
             try {
                 FileUtils.moveFile(tmpFile,stemcellFile);
+                ArtifactStore.store(stemcellFile, sha1);//저장소 색인 등록(SHA1을 모르면 계산, 중복 제거)
                 saveDownloadStemcellInfo(dto, principal);
             } catch (IOException e) {
                 deleteLockFile(status, dto.getStemcellFileName());//LOCK 파일 삭제
@@ -107,48 +116,30 @@ public class HbStemcellManagementDownloadAsyncService {
     
     /***************************************************
     * @project : Paas 플랫폼 설치 자동화
-    * @description : wget을 통한 시스템 릴리즈 다운로드
-    * @title : doWgetStemcellDownload
+    * @description : 구간 병렬 다운로드(Range)를 통한 스템셀 다운로드(중단된 다운로드는 이어 받기)
+    * @title : doStemcellDownload
     * @return : void
     ***************************************************/
-    public void doWgetStemcellDownload(HbStemcellManagementDTO.Regist dto, Principal principal){
+    public void doStemcellDownload(HbStemcellManagementDTO.Regist dto, final Principal principal){
         Boolean downloadInfo = false;
-        InputStream inputStream = null;
-        BufferedReader bufferedReader = null;
-        String info = null;
-        StemcellManagementVO result = getStemcellInfo(dto);
+        String sha1 = null;
+        final StemcellManagementVO result = getStemcellInfo(dto);
         try{
-            //2. wget을 통해 스템셀 다운로드
-            ProcessBuilder builder = new ProcessBuilder("wget", "-d", "-P", TMPDIRECTORY, "--content-disposition", result.getDownloadLink());
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            
-            inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            //2.2 실행 출력하는 로그를 읽어온다.
-            while ((info = bufferedReader.readLine()) != null){
-                Pattern pattern = Pattern.compile("\\d+\\%");
-                Matcher m = pattern.matcher(info);
-                if(m.find()){
-                    messagingTemplate.convertAndSendToUser(principal.getName() ,MESSAGE_ENDPOINT_HB, result.getId()+"/"+m.group());
-                    if( m.group().equals("100%") ){
-                        downloadInfo = true;
-                        break;
-                    }
+            //2. 스템셀 다운로드 후 진행률 전송
+            File tmpFile = new File(TMPDIRECTORY + SEPARATOR + result.getStemcellFileName());
+            sha1 = new RangedFileDownloader().download(result.getDownloadLink(), tmpFile, null, new RangedFileDownloader.ProgressListener() {
+                @Override
+                public void onProgress(int percent) {
+                    messagingTemplate.convertAndSendToUser(principal.getName() ,MESSAGE_ENDPOINT_HB, result.getId()+"/"+percent+"%");
                 }
-            }
+            });
+            if(LOGGER.isInfoEnabled()){ LOGGER.info("downloaded " + result.getStemcellFileName() + " (sha1 : " + sha1 + ")"); }
+            downloadInfo = true;
         } catch(IOException e){
+            if(LOGGER.isErrorEnabled()){ LOGGER.error(e.getMessage()); }
             downloadInfo = false;
-        } finally {
-            try {
-                if(bufferedReader != null){
-                    bufferedReader.close();
-                }
-            } catch (IOException e) {
-                downloadInfo = false;
-            }
         }
-        saveStemcellDownLoadStatus(dto, result, principal,downloadInfo);
+        saveStemcellDownLoadStatus(dto, result, principal, downloadInfo, sha1);
     }
 
     /****************************************************************
@@ -176,9 +167,9 @@ public class HbStemcellManagementDownloadAsyncService {
      * @title : stemcellDownloadAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.FILE_TRANSFER_EXECUTOR)
     public void stemcellDownloadAsync(HbStemcellManagementDTO.Regist dto, Principal principal) {
-        doWgetStemcellDownload(dto, principal);
+        doStemcellDownload(dto, principal);
     }
     
     /****************************************************************
@@ -193,7 +184,7 @@ public class HbStemcellManagementDownloadAsyncService {
             if( !StringUtils.isEmpty(fileName) ){
                 int index = fileName.lastIndexOf(".");
                 String lockFileName = fileName.substring(0, index)+"-download.lock";
-                CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName);
+                DeploymentLockManager.unlock(lockFileName);
             }
         }
     }
@@ -13,8 +13,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.service.CommonUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.dao.HbStemcellManagementVO;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.dto.HbStemcellManagementDTO;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.service.HbStemcellManagementService;
@@ -35,7 +37,6 @@ public class HbStemcellManagementService {
     
     final private static String TMPDIRECTORY = LocalDirectoryConfiguration.getTmpDir();
     final private static String STEMCELLDIR = LocalDirectoryConfiguration.getStemcellDir();
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String SEPARATOR = System.getProperty("file.separator");
     final static private String PUBLIC_STEMCELLS_NEWEST_URL = "https://s3.amazonaws.com"; 
     final static private String PUBLIC_STEMCELLS_WINDOWS_URL = "https://bosh-windows-stemcells-production.";
@@ -54,7 +55,7 @@ public class HbStemcellManagementService {
                 if( stemcell.getDownloadStatus() != null ){
                     if( stemcell.getDownloadStatus().toUpperCase().equalsIgnoreCase("DOWNLOADED") ){
                         File stemcellFile = new File(STEMCELLDIR+SEPARATOR +stemcell.getStemcellFileName());
-                        if(!stemcellFile.exists() || stemcellFile.length() == 0){
+                        if(!ArtifactStore.isStored(stemcellFile)){
                             HbStemcellManagementDTO.Delete dto = new HbStemcellManagementDTO.Delete();
                             dto.setId(stemcell.getId());
                             dto.setStemcellFileName(stemcell.getStemcellFileName());
@@ -424,7 +425,7 @@ public class HbStemcellManagementService {
             if( !StringUtils.isEmpty(fileName) ){
                 int index = fileName.lastIndexOf(".");
                 String lockFileName = fileName.substring(0, index)+"-download.lock";
-                CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName);
+                DeploymentLockManager.unlock(lockFileName);
             }
         }
     }
@@ -441,7 +442,7 @@ public class HbStemcellManagementService {
         //2. lock 파일 삭제
         int index = dto.getStemcellFileName().indexOf(".tgz");
         String lockFileName = dto.getStemcellFileName().substring(0, index) + "-download.lock";
-        CommonDeployUtils.deleteFile(LOCK_DIR, lockFileName); //lock 파일 삭제
+        DeploymentLockManager.unlock(lockFileName); //lock 해제
         
         //스템셀 파일 삭제
         File file = new File(STEMCELLDIR + SEPARATOR + dto.getStemcellFileName());
@@ -463,7 +464,7 @@ public class HbStemcellManagementService {
             for( HbStemcellManagementVO stemcell : list ){
                 if( stemcell.getDownloadStatus() != null && stemcell.getDownloadStatus().equalsIgnoreCase("DOWNLOADED")  ){
                     File stemcellFile = new File(STEMCELLDIR + SEPARATOR + stemcell.getStemcellFileName());
-                    if(!stemcellFile.exists() || stemcellFile.length() == 0){
+                    if(!ArtifactStore.isStored(stemcellFile)){
                         HbStemcellManagementDTO.Delete dto = new HbStemcellManagementDTO.Delete();
                         dto.setId(stemcell.getId());
                         dto.setStemcellFileName(stemcell.getStemcellFileName());
@@ -9,10 +9,14 @@ import java.security.Principal;
 import java.util.Iterator;
 import java.util.Locale;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.ArtifactStore;
+import org.openpaas.ieda.deploy.web.common.service.ChunkedFileReceiver;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.dao.HbStemcellManagementDAO;
 import org.openpaas.ieda.hbdeploy.web.config.stemcell.dto.HbStemcellManagementDTO;
 import org.slf4j.Logger;
@@ -24,15 +28,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 @Service
 public class HbStemcellManagementUploadService {
 
     @Autowired private HbStemcellManagementDAO dao;
     @Autowired private MessageSource message;
+    @Autowired private ChunkedFileReceiver receiver;
     
     private final static String SEPARATOR = System.getProperty("file.separator");
     private final static String STEMCELL_DIR = LocalDirectoryConfiguration.getStemcellDir();
-    private final static String LOCK_DIR = LocalDirectoryConfiguration.getLockDir();
     private final static Logger LOGGER = LoggerFactory.getLogger(HbStemcellManagementUploadService.class);
     
     /****************************************************************
@@ -45,6 +52,7 @@ public class HbStemcellManagementUploadService {
         File isKeyFile = null;
         BufferedOutputStream stream = null;
         InputStream instream = null;
+        String sha1 = null;
         Iterator<String> itr =  request.getFileNames();
         if(itr.hasNext()) {
             MultipartFile mpf = request.getFile(itr.next());
@@ -67,11 +75,14 @@ public class HbStemcellManagementUploadService {
                             message.getMessage("common.conflict.file.messag", null, Locale.KOREA), HttpStatus.CONFLICT);
                 }
                 int i =0;
+                Hasher hasher = Hashing.sha1().newHasher();
                 stream =     new BufferedOutputStream(new FileOutputStream(isKeyFile));
                 instream = mpf.getInputStream();
                  while ((i = instream.read(tmp)) >= 0) {
                      stream.write(tmp, 0, i);
+                     hasher.putBytes(tmp, 0, i);
                  }
+                 sha1 = hasher.hash().toString();//받으면서 계산한 SHA1(저장소 색인 등록 시 다시 계산하지 않음)
                 if(isKeyFile.exists()){
                     HbStemcellManagementDTO.Regist dto = new HbStemcellManagementDTO.Regist();
                     dto.setId(Integer.parseInt(request.getParameter("id")));
@@ -90,8 +101,8 @@ public class HbStemcellManagementUploadService {
                 String originalFileName = mpf.getOriginalFilename();
                 String originalFileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
                 String fileResultName = originalFileName.replace(originalFileExtension, "");
-                //lock 파일 삭제
-                CommonDeployUtils.deleteFile(LOCK_DIR, fileResultName +"-download.lock");
+                //lock 해제
+                DeploymentLockManager.unlock(fileResultName +"-download.lock");
                 if (stream != null) {
                     try {
                         stream.close();
@@ -99,10 +110,43 @@ public class HbStemcellManagementUploadService {
                         if(LOGGER.isErrorEnabled()){ LOGGER.error(e.getMessage()); }
                     }
                 }
+                if( isKeyFile != null && isKeyFile.exists() ){
+                    ArtifactStore.store(isKeyFile, sha1);//저장소 색인 등록(SHA1을 모르면 계산, 중복 제거)
+                }
             }
         }
     }
 
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀 파일 구간 업로드의 이어 받을 위치 조회
+     * @title : getStemcellUploadOffset
+     * @return : long
+    *****************************************************************/
+    public long getStemcellUploadOffset(String fileName) {
+        return receiver.getReceivedSize(receiver.getTargetFile(STEMCELL_DIR, fileName));
+    }
+
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 스템셀 파일 구간 업로드(요청 본문을 스템셀 디렉토리에 바로 기록하며 SHA1 계산)
+     *                마지막 구간까지 받으면 다운로드 정보 저장 후 true 응답
+     * @title : uploadStemcellChunk
+     * @return : boolean
+    *****************************************************************/
+    public boolean uploadStemcellChunk(HttpServletRequest request, Principal principal) {
+        //받은 구간을 기록하기 전에 다운로드 정보 아이디 확인
+        int id = receiver.getUploadId(request);
+        String sha1 = receiver.receiveChunk(request, STEMCELL_DIR);
+        if( sha1 == null ){
+            return false;
+        }
+        HbStemcellManagementDTO.Regist dto = new HbStemcellManagementDTO.Regist();
+        dto.setId(id);
+        saveStemcellInfo(dto, principal);
+        return true;
+    }
+
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : 스템셀 정보 저장
@@ -3,14 +3,16 @@ package org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.service;
 import java.io.File;
 import java.io.IOException;
 import java.security.Principal;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.transaction.Transactional;
 
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.deploy.web.common.service.CredentialGenerator;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapCredentialConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapCredentialConfigVO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dto.HbBootstrapCredentialConfigDTO;
@@ -113,19 +115,10 @@ public class HbBootstrapCredentialConfigService {
             dto.setDirectorPublicIp(dto.getDirectorPrivateIp());
         }
         try {
-            List<String> cmd = new ArrayList<String>(); //bosh 명령어 실행 줄
-            cmd.add("bosh");
-            cmd.add("interpolate");
-            cmd.add(commonCredentialManifestPath);
-            cmd.add("-v");
-            cmd.add("publicStaticIp="+dto.getDirectorPublicIp()+"");
-            cmd.add("-v");
-            cmd.add("privateStaticIp="+dto.getDirectorPrivateIp()+"");
-            cmd.add("--vars-store="+HYBRID_CREDENTIAL_DIR + SEPARATOR + credentialKeyName+"");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
-            Thread.sleep(10000);
+            Map<String, String> vars = new HashMap<String, String>();
+            vars.put("publicStaticIp", dto.getDirectorPublicIp());
+            vars.put("privateStaticIp", dto.getDirectorPrivateIp());
+            CredentialGenerator.generate(commonCredentialManifestPath, vars, HYBRID_CREDENTIAL_DIR + SEPARATOR + credentialKeyName);
         } catch (IOException e) {
             throw new CommonException("conflict.credentialName.exception", "디렉터 인증서 파일 생성 중 에러가 발생 하였습니다.", HttpStatus.BAD_REQUEST);
         } catch (InterruptedException e) {
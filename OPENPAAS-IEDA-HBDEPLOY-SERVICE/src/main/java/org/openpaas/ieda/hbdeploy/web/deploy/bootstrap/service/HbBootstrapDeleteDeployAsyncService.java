@@ -1,10 +1,16 @@
 package org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.service;
 
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.common.process.CommandOutputListener;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandResult;
+import org.openpaas.ieda.common.process.CommandType;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
-import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.TaskLogPublisher;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapDAO;
@@ -18,7 +24,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.File;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,18 +38,20 @@ public class HbBootstrapDeleteDeployAsyncService{
     @Autowired private HbDirectorConfigDAO directorDao;
     @Autowired private HbBootstrapDAO bootstrapDao;
     @Autowired private CommonDeployDAO commonDeployDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     @Autowired MessageSource message;
     
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir() + SEPARATOR;
     final private static String HYBRID_CREDENTIAL_FILE = LocalDirectoryConfiguration.getGenerateHybridCredentialDir() + SEPARATOR;
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String MESSAGE_ENDPOINT = "/deploy/hbBootstrap/delete/logs"; 
     final private static Logger LOGGER = LoggerFactory.getLogger(HbBootstrapDeleteDeployAsyncService.class);
     final private static String MANIFEST_TEMPLATE_PATH = LocalDirectoryConfiguration.getManifastTemplateDir() + SEPARATOR +"bootstrap";
     final private static String PRIVATE_KEY_PATH = LocalDirectoryConfiguration.getSshDir()+SEPARATOR;
     final private static String RELEASE_DIR = LocalDirectoryConfiguration.getReleaseDir();
     final private static String STEMCELL_DIR = LocalDirectoryConfiguration.getStemcellDir();
+    //취소한 설치 작업이 lock 을 해제할 때까지 대기하는 시간
+    final private static long CANCEL_LOCK_WAIT_TIME = 60 * 1000L;
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -54,6 +62,11 @@ public class HbBootstrapDeleteDeployAsyncService{
     public void deleteBootstrapDeploy(HbBootStrapDeployDTO dto, Principal principal) {
         
         String accumulatedLog = "";
+        //설치 중인 create-env 가 있으면 중단 후 삭제
+        boolean cancelled = commandSupervisor.cancel(HbBootstrapDeployAsyncService.hbBootstrapCommandKey(Integer.parseInt(dto.getId())));
+        if( cancelled ){
+            HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList("진행 중인 BOOTSTRAP 설치를 중단했습니다."));
+        }
         HbBootstrapVO vo = bootstrapDao.selectBootstrapConfigInfo(Integer.parseInt(dto.getId()), dto.getIaasType().toLowerCase());
         if( vo == null ){
             bootstrapDao.deleteBootstrapInfo(dto);
@@ -65,9 +78,17 @@ public class HbBootstrapDeleteDeployAsyncService{
         String releaseVersion = "";
         String releaseName = "";
         String versionNumber = "";
-        BufferedReader bufferedReader = null;
+        String lockName = null;
+        String lockToken = null;
 
         try {
+            //취소한 설치 작업이 lock 을 해제할 때까지 대기
+            lockName = HbBootstrapDeployAsyncService.hbBootstrapLockName(vo);
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName(), cancelled ? CANCEL_LOCK_WAIT_TIME : 0L);
+            if( lockToken == null ){
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("현재 다른 설치 관리자가 해당 BOOTSTRAP를 사용 중 입니다."));
+                return;
+            }
             String deployStateFile = DEPLOYMENT_DIR +vo.getDeploymentFile().split(".yml")[0] + "-state.json";
             File stateFile = new File(deployStateFile);
             if ( !stateFile.exists() ) {
@@ -112,24 +133,24 @@ public class HbBootstrapDeleteDeployAsyncService{
                     settingBoshInfo(vo, cmd);
                     settingIaasCpiInfo(vo, cmd, result);
                     cmd.add("--tty");
-                    ProcessBuilder builder = new ProcessBuilder(cmd);
-                    builder.redirectErrorStream(true);
-                    Process process = builder.start();
                     
                        //배포 상태
                     vo.setDeployStatus( message.getMessage("common.deploy.status.deleting", null, Locale.KOREA) );
                     saveDeployStatus(vo, principal);
                     
                     //Delete log...
-                    InputStream inputStream = process.getInputStream();
-                    bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                    StringBuffer accumulatedBuffer = new StringBuffer("");
-                    String info = null;
-                    while ((info = bufferedReader.readLine()) != null){
-                        accumulatedBuffer.append(info).append("\n");
-                        HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList(info));
+                    final TaskLogPublisher logPublisher = new TaskLogPublisher(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT);
+                    CommandResult commandResult = commandSupervisor.run(CommandType.DEPLOY, hbBootstrapDeleteCommandKey(Integer.parseInt(dto.getId())), cmd, new CommandOutputListener() {
+                        @Override
+                        public void onLine(String line, boolean error) {
+                            logPublisher.append(line);
+                        }
+                    });
+                    logPublisher.flush();
+                    accumulatedLog = commandResult.getCombinedOutput();
+                    if( !commandResult.isSuccess() ){
+                        status = "error";
                     }
-                    accumulatedLog = accumulatedBuffer.toString();
                 } else {
                     status = "error";
                     resultMessage = "배포 파일(" + deployFile + ")이 존재하지 않습니다.";
@@ -155,30 +176,29 @@ public class HbBootstrapDeleteDeployAsyncService{
         }catch(RuntimeException e){
             status = "error";
             e.printStackTrace();
-            CommonDeployUtils.deleteFile(LOCK_DIR, "hybird_bootstrap.lock");
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, status, Arrays.asList("BOOTSTRAP 삭제 중 Exception이 발생하였습니다."));
         } catch ( Exception e) {
             status = "error";
-            CommonDeployUtils.deleteFile(LOCK_DIR, "hybird_bootstrap.lock");
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, status, Arrays.asList("BOOTSTRAP 삭제 중 Exception이 발생하였습니다."));
         }finally {
             if(status.toLowerCase().equalsIgnoreCase("error")){
                 vo.setDeployStatus(message.getMessage("common.deploy.status.failed", null, Locale.KOREA));
                 saveDeployStatus(vo, principal);
             }
-            if(bufferedReader!=null){
-                try {
-                    bufferedReader.close();
-                } catch (IOException e) {
-                    if( LOGGER.isErrorEnabled() ){
-                        LOGGER.error( e.getMessage() );
-                    }
-                }
-            }
-            CommonDeployUtils.deleteFile(LOCK_DIR, "hybird_bootstrap.lock");
+            DeploymentLockManager.unlock(lockName, lockToken);
         }
     }
     
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행 중인 delete-env 를 취소할 때 사용하는 키
+     * @title : hbBootstrapDeleteCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String hbBootstrapDeleteCommandKey(Integer id) {
+        return "hbBootstrap/" + id + "/delete";
+    }
+    
     /****************************************************************
      * @project : 이종 Paas 플랫폼 설치 자동화
      * @description : BOSH Release 관련 CMD 정의
@@ -318,7 +338,7 @@ public class HbBootstrapDeleteDeployAsyncService{
      * @title : deleteDeployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deleteDeployAsync(HbBootStrapDeployDTO dto, Principal principal) {
             deleteBootstrapDeploy(dto, principal);
     }    
@@ -1,10 +1,17 @@
 package org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.service;
 
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
+import org.openpaas.ieda.common.process.CommandOutputListener;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandResult;
+import org.openpaas.ieda.common.process.CommandType;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.api.director.dto.DirectorInfoDTO;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
+import org.openpaas.ieda.deploy.api.director.utility.TaskLogPublisher;
 import org.openpaas.ieda.hbdeploy.web.config.setting.service.HbDirectorConfigService;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapDAO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapVO;
@@ -18,10 +25,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,12 +40,12 @@ public class HbBootstrapDeployAsyncService {
     @Autowired private HbBootstrapDAO bootstrapDao;
     @Autowired private MessageSource message;
     @Autowired private CommonDeployDAO commonDeployDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     
 
     final private static String SEPARATOR = System.getProperty("file.separator");
     final private static String MANIFEST_TEMPLATE_PATH = LocalDirectoryConfiguration.getManifastTemplateDir() + SEPARATOR +"bootstrap";
     final private static String PRIVATE_KEY_PATH = LocalDirectoryConfiguration.getSshDir()+SEPARATOR;
-    final private static String KEY_DIR = LocalDirectoryConfiguration.getLockDir()+SEPARATOR;
     final private static String HYBRID_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateHybridCredentialDir() + SEPARATOR;
     final private static String MESSAGE_ENDPOINT = "/deploy/hbBootstrap/install/logs";
     final private static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir() + SEPARATOR;
@@ -59,10 +63,19 @@ public class HbBootstrapDeployAsyncService {
         
         String status = "";
         String accumulatedLog= null;
-        BufferedReader bufferedReader = null;
+        boolean cancelled = false;
         HbBootstrapVO bootstrapInfo = null;
+        String lockName = null;
+        String lockToken = null;
         try {
             bootstrapInfo = bootstrapDao.selectBootstrapConfigInfo(Integer.parseInt(dto.getId()), dto.getIaasType().toLowerCase());
+            //같은 디렉터/배포명의 BOOTSTRAP 만 동시 설치 방지
+            lockName = hbBootstrapLockName(bootstrapInfo);
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName());
+            if( lockToken == null ){
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList("현재 다른 설치 관리자가 해당 BOOTSTRAP를 사용 중 입니다."));
+                return;
+            }
             
             String boshRelease = bootstrapInfo.getDefaultConfigVo().getBoshRelease();
             if(  bootstrapInfo.getDefaultConfigVo().getBoshRelease().contains(".tgz") ){
@@ -106,22 +119,18 @@ public class HbBootstrapDeployAsyncService {
                 }
                 
                 cmd.add("--tty");
-                ProcessBuilder builder = new ProcessBuilder(cmd);
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
 
                 //실행 출력하는 로그를 읽어온다.
-                InputStream inputStream = process.getInputStream();
-                bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                String info = null;
-                StringBuffer accumulatedBuffer = new StringBuffer();
-                while ((info = bufferedReader.readLine()) != null){
-                    accumulatedBuffer.append(info).append("\n");
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "started", Arrays.asList(info));
-                }
-                if( accumulatedBuffer != null ) {
-                    accumulatedLog = accumulatedBuffer.toString();
-                }
+                final TaskLogPublisher logPublisher = new TaskLogPublisher(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT);
+                CommandResult commandResult = commandSupervisor.run(CommandType.DEPLOY, hbBootstrapCommandKey(bootstrapInfo.getId()), cmd, new CommandOutputListener() {
+                    @Override
+                    public void onLine(String line, boolean error) {
+                        logPublisher.append(line);
+                    }
+                });
+                logPublisher.flush();
+                accumulatedLog = commandResult.getCombinedOutput();
+                cancelled = commandResult.isCancelled();
             } else {
                 status = "error";
             }
@@ -132,6 +141,11 @@ public class HbBootstrapDeployAsyncService {
                 bootstrapInfo.setDeployStatus( message.getMessage("common.deploy.status.failed", null, Locale.KOREA) );
                 saveDeployStatus(bootstrapInfo, principal);
                 HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "error", Arrays.asList( "설치할 배포 파일(" + deployFile + ")이 존재하지 않습니다."));
+            } else if ( cancelled ) {
+                status = "cancelled";
+                bootstrapInfo.setDeployStatus(message.getMessage("common.deploy.status.cancelled", null, Locale.KOREA) );
+                saveDeployStatus(bootstrapInfo, principal);
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, MESSAGE_ENDPOINT, "cancelled", Arrays.asList("", "BOOTSTRAP 설치가 취소되었습니다."));
             } else {
                 if ( !accumulatedLog.contains("Succeeded")) {
                     status = "error";
@@ -189,27 +203,31 @@ public class HbBootstrapDeployAsyncService {
             }
             saveDeployStatus(bootstrapInfo, principal);
         }finally {
-            try {
-                if(bufferedReader!=null) {
-                    bufferedReader.close();
-                    
-                }
-            } catch (Exception e) {
-                if( LOGGER.isErrorEnabled() ) {
-                    LOGGER.error( e.getMessage() );
-                }
-            }
-            //동시 설치 방지 lock 파일 삭제
-            File lockFile = new File(KEY_DIR + "hybird_bootstrap.lock");
-            if(lockFile.exists()){
-                Boolean check = lockFile.delete();
-                if( LOGGER.isDebugEnabled() ) {
-                    LOGGER.debug("check delete lock File  : "  + check); 
-                }
-            }
+            //동시 설치 방지 lock 해제
+            DeploymentLockManager.unlock(lockName, lockToken);
         }
     }
     
+    /****************************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : BOOTSTRAP 설치/삭제 lock 이름(디렉터명 + 배포명)
+     * @title : hbBootstrapLockName
+     * @return : String
+    *****************************************************************/
+    public static String hbBootstrapLockName(HbBootstrapVO vo) {
+        return DeploymentLockManager.deploymentLockName(vo.getDefaultConfigVo().getDirectorName(), vo.getDefaultConfigVo().getDeploymentName());
+    }
+    
+    /****************************************************************
+     * @project : Paas 플랫폼 설치 자동화
+     * @description : 실행 중인 create-env 를 취소할 때 사용하는 키
+     * @title : hbBootstrapCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String hbBootstrapCommandKey(Integer id) {
+        return "hbBootstrap/" + id;
+    }
+    
     private void settingPaasTaMonitoringInfo(HbBootstrapVO vo, List<String> cmd, ManifestTemplateVO result) {
         cmd.add("-o");
         cmd.add(MANIFEST_TEMPLATE_PATH + SEPARATOR + result.getMinReleaseVersion() + SEPARATOR + "common/" + "paasta-monitoring-agent.yml");
@@ -405,7 +423,7 @@ public class HbBootstrapDeployAsyncService {
      * @title : deployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deployAsync(HbBootStrapDeployDTO dto, Principal principal) {
             deployBootstrap(dto, principal);
     }
@@ -20,6 +20,7 @@ import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
 import org.openpaas.ieda.deploy.web.common.dto.ReplaceItemDTO;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployService;
 import org.openpaas.ieda.deploy.web.common.service.CommonDeployUtils;
+import org.openpaas.ieda.deploy.web.common.service.ManifestTemplate;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapDAO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dao.HbBootstrapVO;
 import org.openpaas.ieda.hbdeploy.web.deploy.bootstrap.dto.HbBootStrapDeployDTO;
@@ -42,7 +43,6 @@ public class HbBootstrapService {
     @Autowired private MessageSource message;
     
     final private static String SEPARATOR = System.getProperty("file.separator");
-    final private static String LOCK_DIR=LocalDirectoryConfiguration.getLockDir();
     final private static String STEMCELL_DIR=LocalDirectoryConfiguration.getStemcellDir();
     final private static String TEMP_DIR=LocalDirectoryConfiguration.getTempDir();
     final private static String RELEASE_DIR=LocalDirectoryConfiguration.getReleaseDir();
@@ -85,6 +85,7 @@ public class HbBootstrapService {
     ***************************************************/
     public void createSettingFile(int id, String iaas) {
         String content = "";
+        ManifestTemplate template = null;
         try {
             //data 조회
             HbBootstrapVO vo = bootStrapDao.selectBootstrapConfigInfo(id, iaas.toLowerCase());
@@ -107,7 +108,7 @@ public class HbBootstrapService {
                     String paastaMoniteringDeploymentFile = result.getCommonJobTemplate().split("\\.")[0] + "-paasta-monitering.yml";
                     result.setCommonJobTemplate(paastaMoniteringDeploymentFile);
                 }
-                content = commonDeployService.getManifestInputTemplateStream("bootstrap", result.getTemplateVersion(), vo.getIaasType(), result.getCommonJobTemplate(), vo.getIaasAccount().get("openstackVersion").toString());
+                template = commonDeployService.getManifestInputTemplate("bootstrap", result.getTemplateVersion(), vo.getIaasType(), result.getCommonJobTemplate(), vo.getIaasAccount().get("openstackVersion").toString());
             }else {
                 throw new CommonException("null.boshTemplate.exception", "설치 가능한 BOSH 릴리즈 버전을 확인 하세요.", HttpStatus.NOT_FOUND);
             }
@@ -118,9 +119,11 @@ public class HbBootstrapService {
             
             //입력한 정보를 바탕으로 Input Template의 항목과 데이터 치환할 항목들 설정
             List<ReplaceItemDTO> replaceItems = makeReplaceItems(vo);
-            for (ReplaceItemDTO item : replaceItems) {
-                content = content.replace(item.getTargetItem(), item.getSourceItem() == null ? "":item.getSourceItem());
+            List<String> unfilled = template.getUnfilledPlaceholders(replaceItems);
+            if( !unfilled.isEmpty() && LOGGER.isWarnEnabled() ){
+                LOGGER.warn(template.getName() + " unfilled placeholders : " + unfilled);
             }
+            content = template.render(replaceItems);
             LOGGER.debug(content);
             //플랫폼 설치 자동화(.bosh_plugin)의 temp 디렉토리에 치환한 Input Template 파일 출력
             IOUtils.write(content, new FileOutputStream(TEMP_DIR + SEPARATOR + vo.getDeploymentFile()), "UTF-8");
@@ -306,6 +309,5 @@ public class HbBootstrapService {
                     message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
         }
         bootStrapDao.deleteBootstrapInfo(dto);
-        CommonDeployUtils.deleteFile(LOCK_DIR, "bootstrap.lock");
     }
 }
\ No newline at end of file
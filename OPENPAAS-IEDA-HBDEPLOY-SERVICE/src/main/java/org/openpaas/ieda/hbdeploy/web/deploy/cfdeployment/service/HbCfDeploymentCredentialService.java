@@ -3,9 +3,10 @@ package org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.service;
 import java.io.File;
 import java.io.IOException;
 import java.security.Principal;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.transaction.Transactional;
 
@@ -13,6 +14,7 @@ import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
+import org.openpaas.ieda.deploy.web.common.service.CredentialGenerator;
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dao.HbCfDeploymentCredentialConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dao.HbCfDeploymentCredentialConfigVO;
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dto.HbCfDeploymentCredentialConfigDTO;
@@ -115,19 +117,11 @@ public class HbCfDeploymentCredentialService {
         }
         
         try {
-            List<String> cmd = new ArrayList<String>();
-            cmd.add("bosh");
-            cmd.add("interpolate");
-            cmd.add(commonCredentialManifestPath);
-            cmd.add("-v");
-            cmd.add("system_domain="+vo.getDomain()+"");
-            cmd.add("--vars-store="+HYBIRD_CREDENTIAL_DIR + SEPARATOR + vo.getCredentialConfigName()+ "-cred.yml");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            Map<String, String> vars = new HashMap<String, String>();
+            vars.put("system_domain", vo.getDomain());
+            CredentialGenerator.generate(commonCredentialManifestPath, vars, HYBIRD_CREDENTIAL_DIR + SEPARATOR + vo.getCredentialConfigName()+ "-cred.yml");
             keyFileName = vo.getCredentialConfigName()+"-cred.yml";
             vo.setCredentialConfigKeyFileName(keyFileName);
-            Thread.sleep(10000);
         } catch (IOException e) {
             throw new CommonException("conflict.credentialName.exception", "인증서 파일 생성 중 에러가 발생 하였습니다.", HttpStatus.BAD_REQUEST);
         } catch (InterruptedException e) {
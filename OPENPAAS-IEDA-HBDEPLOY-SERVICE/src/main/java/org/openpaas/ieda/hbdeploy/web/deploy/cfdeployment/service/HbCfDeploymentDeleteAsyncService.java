@@ -12,7 +12,13 @@ import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandType;
+import org.openpaas.ieda.deploy.api.director.utility.BoshCliCommand;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorTaskCallback;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
@@ -20,6 +26,8 @@ import org.openpaas.ieda.hbdeploy.web.config.setting.service.HbDirectorConfigSer
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dao.HbCfDeploymentDAO;
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dao.HbCfDeploymentVO;
 import org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.dto.HbCfDeploymentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
@@ -37,13 +45,16 @@ public class HbCfDeploymentDeleteAsyncService {
     @Autowired private HbDirectorConfigDAO directorConfigDao;
     @Autowired private HbCfDeploymentDAO cfDeploymentDao;
     @Autowired private HbCfDeploymentService cfDeploymentService;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     @Autowired private MessageSource message;
     
     private final static String SEPARATOR = System.getProperty("file.separator");
     private final static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir();
     final private static String HYBRID_CF_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateHybridCfCredentialDir();
-    private final static String KEY_DIR = LocalDirectoryConfiguration.getLockDir()+SEPARATOR;
     final static private String CF_MESSAGE_ENDPOINT =  "/deploy/hbCfDeployment/delete/logs";
+    //취소한 설치 작업이 lock 을 해제할 때까지 대기하는 시간
+    final private static long CANCEL_LOCK_WAIT_TIME = 60 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(HbCfDeploymentDeleteAsyncService.class);
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
@@ -57,7 +68,7 @@ public class HbCfDeploymentDeleteAsyncService {
         String deploymentName = "";
         String deploymentFileName = "";
         
-        HbCfDeploymentVO vo = cfDeploymentService.getHbCfDeploymentInfo(dto.getId());
+        final HbCfDeploymentVO vo = cfDeploymentService.getHbCfDeploymentInfo(dto.getId());
         
         deploymentName = vo != null ?vo.getDefaultConfigInfo() : "";
         deploymentFileName = vo != null ? vo.getCloudConfigFile() : "";
@@ -72,6 +83,10 @@ public class HbCfDeploymentDeleteAsyncService {
             saveDeployStatus(vo);
         }
         String cloudConfigFile = DEPLOYMENT_DIR + SEPARATOR + deploymentFileName; 
+        //Task 추적을 시작하면 lock 은 Task 종료 시 해제
+        boolean tracking = false;
+        String lockName = null;
+        String lockToken = null;
         try {
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("CF Deployment Delete Starting...."));
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Director Info Checking...."));
@@ -87,6 +102,18 @@ public class HbCfDeploymentDeleteAsyncService {
                 }
             }
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Director Info Check Succeed...."));
+            //설치 중인 bosh deploy 가 있으면 CLI 프로세스와 디렉터 Task 를 중단 후 삭제
+            boolean cancelled = commandSupervisor.cancel(HbCfDeploymentDeployAsyncService.hbCfDeploymentCommandKey(deploymentName));
+            if( cancelled ){
+                HbDirectorRestHelper.cancelDeploymentTasks(directorInfo, deploymentName);
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("진행 중인 CF Deployment 설치를 중단했습니다."));
+            }
+            lockName = DeploymentLockManager.deploymentLockName(directorInfo.getDirectorUrl(), deploymentName);
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName(), cancelled ? CANCEL_LOCK_WAIT_TIME : 0L);
+            if( lockToken == null ){
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("현재 다른 설치 관리자가 해당 CF Deployment를 사용 중 입니다."));
+                return;
+            }
             List<String> cmd = new ArrayList<String>(); //bosh cloud config 명령어 실행 줄 Cloud Config 관련 Rest API를 아직 지원 안하는 것 같음 2018.08.01
             cmd.add("bosh");
             cmd.add("-e");
@@ -94,37 +121,62 @@ public class HbCfDeploymentDeleteAsyncService {
             cmd.add("update-cloud-config");
             cmd.add(cloudConfigFile);
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            //삭제 요청 전에 cloud config 반영이 끝나도록 대기
+            BoshCliCommand.Result cloudConfigResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, hbCfDeploymentDeleteCommandKey(deploymentName), cmd);
+            if( !cloudConfigResult.isSuccess() && LOGGER.isWarnEnabled() ){
+                LOGGER.warn("update-cloud-config before deleting " + deploymentName + " failed : " + cloudConfigResult.getOutput().getErrors());
+            }
             
             HttpClient httpClient = HbDirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
             
             DeleteMethod deleteMethod = new DeleteMethod(HbDirectorRestHelper.getDeleteDeploymentURI(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort(), deploymentName));
             deleteMethod = (DeleteMethod)HbDirectorRestHelper.setAuthorization(directorInfo.getUserId(), directorInfo.getUserPassword(), (HttpMethodBase)deleteMethod);
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = HbDirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             
             if( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value() ) {
                 Header location = deleteMethod.getResponseHeader("Location");
                 String taskId = HbDirectorRestHelper.getTaskId(location.getValue());
-                HbDirectorRestHelper.trackToTask(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName());
+                //삭제 Task 종료 후 CF 정보 삭제 및 lock 해제
+                final String taskLockName = lockName;
+                final String taskLockToken = lockToken;
+                HbDirectorRestHelper.trackToTask(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName(),
+                        new DirectorTaskCallback() {
+                            @Override
+                            public void onFinish(String taskId, String state) {
+                                try {
+                                    deleteCfInfo(vo);
+                                } finally {
+                                    DeploymentLockManager.unlock(taskLockName, taskLockToken);
+                                }
+                            }
+                        });
+                tracking = true;
             }else {
                 HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "done", Arrays.asList("CF 삭제에 실패 했습니다.."));
+                deleteCfInfo(vo);
             }
-            deleteCfInfo(vo);
         } catch(RuntimeException e){
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(errorMsg));
         } catch ( Exception e) {
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(errorMsg));
         } finally {
-            //동시 설치 방지 lock 파일 삭제
-            File lockFile = new File(KEY_DIR + "hybird_cfDeployment.lock");
-            if(lockFile.exists()){
-                lockFile.delete();
+            //동시 설치 방지 lock 해제
+            if( !tracking ){
+                DeploymentLockManager.unlock(lockName, lockToken);
             }
         }
     }
     
+    /****************************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 삭제 전 실행하는 bosh 명령을 취소할 때 사용하는 키
+     * @title : hbCfDeploymentDeleteCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String hbCfDeploymentDeleteCommandKey(String deploymentName) {
+        return "hbCfDeployment/" + deploymentName + "/delete";
+    }
+    
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : CF 정보 삭제
@@ -160,7 +212,7 @@ public class HbCfDeploymentDeleteAsyncService {
      * @title : deleteDeployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deleteDeployAsync(HbCfDeploymentDTO dto, String platform, Principal principal) {
         deleteDeploy(dto, platform, principal);
     }    
@@ -1,10 +1,6 @@
 package org.openpaas.ieda.hbdeploy.web.deploy.cfdeployment.service;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,9 +9,14 @@ import java.util.Locale;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.common.process.CommandProcessSupervisor;
+import org.openpaas.ieda.common.process.CommandType;
+import org.openpaas.ieda.deploy.api.director.utility.BoshCliCommand;
 import org.openpaas.ieda.deploy.web.common.dao.CommonDeployDAO;
 import org.openpaas.ieda.deploy.web.common.dao.ManifestTemplateVO;
+import org.openpaas.ieda.deploy.web.common.service.DeploymentLockManager;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
@@ -41,9 +42,9 @@ public class HbCfDeploymentDeployAsyncService {
     @Autowired private HbCfDeploymentService cfDeploymentService;
     @Autowired private MessageSource message;
     @Autowired private CommonDeployDAO commonDao;
+    @Autowired private CommandProcessSupervisor commandSupervisor;
     
     private final static String SEPARATOR = System.getProperty("file.separator");
-    private final static String KEY_DIR = LocalDirectoryConfiguration.getLockDir()+SEPARATOR;
     private final static String MANIFEST_TEMPLATE_DIR = LocalDirectoryConfiguration.getManifastTemplateDir();
     final private static String HYBRID_CF_CREDENTIAL_DIR = LocalDirectoryConfiguration.getGenerateHybridCfCredentialDir();
     private final static String DEPLOYMENT_DIR = LocalDirectoryConfiguration.getDeploymentDir();
@@ -64,6 +65,8 @@ public class HbCfDeploymentDeployAsyncService {
         }
         deploymentFileName = vo != null ? vo.getCloudConfigFile() : "";
         String status = "";
+        String lockName = null;
+        String lockToken = null;
         try {
         if ( StringUtils.isEmpty(deploymentFileName) ) {
             throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA), 
@@ -73,8 +76,14 @@ public class HbCfDeploymentDeployAsyncService {
         
         cfDeploymentService.commonCreateCloudConfig(vo, result);
         
-            BufferedReader bufferedReader = null;
             HbDirectorConfigVO directorInfo = directorConfigDao.selectHbDirectorConfigBySeq(Integer.parseInt(vo.getHbCfDeploymentResourceConfigVO().getDirectorInfo()));
+            //같은 디렉터의 같은 배포만 동시 설치 방지
+            lockName = DeploymentLockManager.deploymentLockName(directorInfo.getDirectorUrl(), vo.getHbCfDeploymentDefaultConfigVO().getDefaultConfigName());
+            lockToken = DeploymentLockManager.lock(lockName, principal.getName());
+            if( lockToken == null ){
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("현재 다른 설치 관리자가 해당 CF Deployment를 사용 중 입니다."));
+                return;
+            }
             String httpStatus = directorConfigService.isExistBoshEnvLogin(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort(), directorInfo.getUserId(), directorInfo.getUserPassword());
             if(!"200".equals(httpStatus)){
                 HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("디렉터 정보를 확인 하세요."));
@@ -100,9 +109,12 @@ public class HbCfDeploymentDeployAsyncService {
             cmd.add("update-cloud-config");
             cmd.add(cloudConfigFile);
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            builder.start();
+            //Cloud Config 반영이 끝난 뒤 배포
+            BoshCliCommand.Result cloudConfigResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            if( !cloudConfigResult.isSuccess() ){
+                throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
+                        "Cloud Config 적용 중 에러가 발생 했습니다.", HttpStatus.BAD_REQUEST);
+            }
             if ( vo != null ) {
                 String deployStatus = message.getMessage("common.deploy.status.processing", null, Locale.KOREA);
                 vo.setDeployStatus(deployStatus);
@@ -140,41 +152,13 @@ public class HbCfDeploymentDeployAsyncService {
                 }
                 settingPaasTaMonitoringInfo(vo, cmd, result);
             }
-            cmd.add("--tty");
             cmd.add("-n");
             //cmd.add("--no-redact");
-            builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-                Thread.sleep(20);
-                if(info.contains("invalid argument") || info.contains("error") || info.contains("fail") || info.contains("Error") || info.contains("Expected")){
-                    status = "error";
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                }
-                if(info.contains("Release")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Release Download Check:::"+info));
-                }
-                if(info.contains("cancelled")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "cancelled", Arrays.asList("Cancel Task:::"+info));
-                }
-                
-                if(info.contains("no such file or directory")){
-                    status = "error";
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                }
-                
-                if(info.contains("Preparing deployment: Preparing deployment")){
-                    String taskId = info.split(" ")[1];
-                    HttpClient httpClient = HbDirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
-                    status = HbDirectorRestHelper.trackToTask(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", principal.getName());
-                }
-            }
+            String deploymentName = vo.getHbCfDeploymentDefaultConfigVO().getDefaultConfigName();
+            BoshCliCommand.Result deployResult = BoshCliCommand.runTracked(commandSupervisor, CommandType.DEPLOY, hbCfDeploymentCommandKey(deploymentName), cmd,
+                    directorInfo.getDirectorUrl(), directorInfo.getDirectorPort(), directorInfo.getUserId(), directorInfo.getUserPassword(),
+                    deploymentName, new DeployTaskHandler(principal.getName(), messageEndpoint, directorInfo));
+            status = deployStatus(deployResult, status, principal.getName(), messageEndpoint);
         }catch (RuntimeException e) {
             status = "error";
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> 설정을 확인 해주세요."));
@@ -182,11 +166,8 @@ public class HbCfDeploymentDeployAsyncService {
             status = "error";
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> 설정을 확인 해주세요."));
         }finally {
-            //동시 설치 방지 lock 파일 삭제
-            File lockFile = new File(KEY_DIR + "hybird_cfDeployment.lock");
-            if(lockFile.exists()){
-                lockFile.delete();
-            }
+            //동시 설치 방지 lock 해제
+            DeploymentLockManager.unlock(lockName, lockToken);
         }
         
         if("".equals(status)){
@@ -202,6 +183,16 @@ public class HbCfDeploymentDeployAsyncService {
         }
     }
     
+    /****************************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : 실행 중인 bosh deploy 를 취소할 때 사용하는 키
+     * @title : hbCfDeploymentCommandKey
+     * @return : String
+    *****************************************************************/
+    public static String hbCfDeploymentCommandKey(String deploymentName) {
+        return "hbCfDeployment/" + deploymentName;
+    }
+    
     /****************************************************************
      * @project : 이종 Paas 플랫폼 설치 자동화
      * @description : CF-Deploymnt 5.0.0/PaaS-TA 4.0 이상 BOSH Runtime Config 삭제 명령어 설정
@@ -210,8 +201,6 @@ public class HbCfDeploymentDeployAsyncService {
     *****************************************************************/
     private void deleteRuntimeConfig(HbCfDeploymentVO vo, HbDirectorConfigVO directorInfo, Principal principal,
             String messageEndpoint, ManifestTemplateVO result) {
-        String accumulatedLog= null;
-        BufferedReader bufferedReader = null;
         try {
             List<String> cmd = new ArrayList<String>();
             cmd.add("bosh");
@@ -220,22 +209,9 @@ public class HbCfDeploymentDeployAsyncService {
             cmd.add("delete-config");
             cmd.add("--type=runtime");
             cmd.add("--name=default");
-            cmd.add("--tty");
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-            }
-            if( accumulatedBuffer != null ) {
-                accumulatedLog = accumulatedBuffer.toString();
-            }
-            if ( !accumulatedLog.contains("Succeeded") ) {
+            BoshCliCommand.Result commandResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            if ( !commandResult.isSuccess() ) {
                 String status = "error";
                 vo.setDeployStatus(status);
                 vo.setUpdateUserId(principal.getName());
@@ -244,6 +220,9 @@ public class HbCfDeploymentDeployAsyncService {
             }
         } catch (IOException e) {
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
         }
         
     }
@@ -255,9 +234,7 @@ public class HbCfDeploymentDeployAsyncService {
      * @return : void
     *****************************************************************/
     private String settingRuntimeConfig(HbCfDeploymentVO vo, HbDirectorConfigVO directorInfo, Principal principal, String messageEndpoint, ManifestTemplateVO result) {
-        String accumulatedLog= null;
         String status = "";
-        BufferedReader bufferedReader = null;
         try {
             List<String> cmd = new ArrayList<String>();
             cmd.add("bosh");
@@ -269,43 +246,13 @@ public class HbCfDeploymentDeployAsyncService {
             cmd.add(HYBRID_CF_CREDENTIAL_DIR+ SEPARATOR +vo.getHbCfDeploymentDefaultConfigVO().getDefaultConfigName()+"-runtime-cred.yml");
             cmd.add("-v");
             cmd.add("deployment_name="+vo.getHbCfDeploymentDefaultConfigVO().getDefaultConfigName()+"");
-            cmd.add("--tty");
             cmd.add("-n");
-            ProcessBuilder builder = new ProcessBuilder(cmd);
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            InputStream inputStream = process.getInputStream();
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-            String info = null;
-            StringBuffer accumulatedBuffer = new StringBuffer();
-            while ((info = bufferedReader.readLine()) != null){
-                accumulatedBuffer.append(info).append("\n");
-                if(info.contains("invalid argument") || info.contains("error") || info.contains("fail") || info.contains("Error") || info.contains("Expected")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList(info));
-                    status = "error";
-                }
-                
-                if(info.contains("Downloading remote release")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new packages:::"+info));
-                }
-                
-                if(info.contains("Creating new packages")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new packages:::"+info));
-                }
-                
-                if(info.contains("Creating new jobs")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Creating new jobs:::"+info));
-                }
-                
-                if(info.contains("Succeeded")){
-                    HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Bosh Runtime Config Succeeded:::"+info));
-                }
-            }
-            if( accumulatedBuffer != null ) {
-                accumulatedLog = accumulatedBuffer.toString();
-            }
-            if ( !accumulatedLog.contains("Succeeded") ) {
+            BoshCliCommand.Result commandResult = BoshCliCommand.run(commandSupervisor, CommandType.CONFIG, null, cmd);
+            if ( commandResult.isSuccess() ) {
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "started", Arrays.asList("Bosh Runtime Config Succeeded:::Succeeded"));
+            } else {
                 status = "error";
+                HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", commandResult.getOutput().getErrors());
                 vo.setDeployStatus(status);
                 vo.setUpdateUserId(principal.getName());
                 saveDeployStatus(vo);
@@ -313,6 +260,9 @@ public class HbCfDeploymentDeployAsyncService {
             }
         } catch (IOException e) {
             HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            HbDirectorRestHelper.sendTaskOutput(principal.getName(), messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 중 에러가 발생 했습니다.<br> Runtime config를 확인 해주세요."));
         }
         return status;
     }
@@ -471,9 +421,58 @@ public class HbCfDeploymentDeployAsyncService {
      * @title : deployAsync
      * @return : void
     *****************************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DEPLOY_EXECUTOR)
     public void deployAsync(HbCfDeploymentDTO dto, Principal principal, String platform) {
         deploy(dto, principal, platform);
     }
-    
+
+    /****************************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : bosh deploy 실행 결과(취소/시간 초과/Task 상태/CLI 오류)로 설치 상태 결정
+     * @title : deployStatus
+     * @return : String
+    *****************************************************************/
+    private String deployStatus(BoshCliCommand.Result deployResult, String status, String userId, String messageEndpoint) {
+        if( deployResult.getCommandResult().isCancelled() ){
+            HbDirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "cancelled", Arrays.asList("CF-Deployment 설치가 취소 되었습니다."));
+            return "cancelled";
+        }
+        if( deployResult.getCommandResult().isTimedOut() ){
+            HbDirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "error", Arrays.asList("CF-Deployment 설치 시간이 초과 되었습니다."));
+            return "error";
+        }
+        if( deployResult.getTrackedState() != null ){
+            status = deployResult.getTrackedState();
+        }
+        if( !deployResult.isSuccess() && !"cancelled".equals(status) ){
+            HbDirectorRestHelper.sendTaskOutput(userId, messagingTemplate, messageEndpoint, "error", deployResult.getOutput().getErrors());
+            return "error";
+        }
+        return deployResult.isSuccess() && deployResult.getTrackedState() == null ? "done" : status;
+    }
+
+    /****************************************************************
+     * @project : Paas 이종 플랫폼 설치 자동화
+     * @description : bosh deploy 가 생성한 디렉터 Task 로그 및 상태 추적
+     * @title : DeployTaskHandler
+     * @return :
+    *****************************************************************/
+    private class DeployTaskHandler implements BoshCliCommand.TaskHandler {
+        private final String userId;
+        private final String messageEndpoint;
+        private final HbDirectorConfigVO directorInfo;
+
+        DeployTaskHandler(String userId, String messageEndpoint, HbDirectorConfigVO directorInfo) {
+            this.userId = userId;
+            this.messageEndpoint = messageEndpoint;
+            this.directorInfo = directorInfo;
+        }
+
+        @Override
+        public String track(String taskId) {
+            HttpClient httpClient = HbDirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
+            return HbDirectorRestHelper.trackToTaskAndWait(directorInfo, messagingTemplate, messageEndpoint, httpClient, taskId, "event", userId);
+        }
+    }
+
 }
@@ -39,9 +39,10 @@ public class HbDeploymentService {
             throw new CommonException("notfound.director.exception", "디렉터가 존재하지 않습니다.", HttpStatus.BAD_REQUEST);
         }
         List<DeploymentInfoDTO> deploymentInfoList = null;
+        GetMethod get = null;
         try {
             HttpClient httpClient = HbDirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getDeploymentListURI(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort()));
+            get = new GetMethod(HbDirectorRestHelper.getDeploymentListURI(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort()));
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(directorInfo.getUserId(), directorInfo.getUserPassword(), (HttpMethodBase)get);
             httpClient.executeMethod(get);
             if ( !StringUtils.isEmpty(get.getResponseBodyAsString()) ) {
@@ -79,6 +80,10 @@ public class HbDeploymentService {
             throw new CommonException("noRouteToHost.deployment.exception", "네트워크 연결에 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (IOException e) {
             throw new CommonException("io.deployment.exception", " 배포 정보 조회중 오류가 발생하였습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         
         return deploymentInfoList;
@@ -7,6 +7,7 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
@@ -42,7 +43,7 @@ public class HbReleaseDeleteAsyncService {
             DeleteMethod deleteMethod = new DeleteMethod(HbDirectorRestHelper.getDeleteReleaseURI( directorInfo.getDirectorUrl(), directorInfo.getDirectorPort(), releaseName, releaseVersion));
             deleteMethod = (DeleteMethod)HbDirectorRestHelper.setAuthorization(directorInfo.getUserId(), directorInfo.getUserPassword(), (HttpMethodBase)deleteMethod);
             //실행
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = HbDirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value()  || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 Header location = deleteMethod.getResponseHeader("Location");
@@ -65,7 +66,7 @@ public class HbReleaseDeleteAsyncService {
      * @title : deleteReleaseAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void deleteReleaseAsync(String releaseName, String releaseVersion, String directorId, Principal principal) {
         deleteRelease(releaseName, releaseVersion, directorId, principal);
     }
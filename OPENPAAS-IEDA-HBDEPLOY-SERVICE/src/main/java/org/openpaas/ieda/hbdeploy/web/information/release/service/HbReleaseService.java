@@ -49,8 +49,9 @@ public class HbReleaseService {
         }
         List<ReleaseInfoDTO> releaseInfoList =  new ArrayList<ReleaseInfoDTO>();
         HttpClient client = HbDirectorRestHelper.getHttpClient(directorInfo.getDirectorPort());
+        GetMethod get = null;
         try {
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getReleaseListURI(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort()));
+            get = new GetMethod(HbDirectorRestHelper.getReleaseListURI(directorInfo.getDirectorUrl(), directorInfo.getDirectorPort()));
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(directorInfo.getUserId(), directorInfo.getUserPassword(), (HttpMethodBase)get);
             client.executeMethod(get);
             if ( !StringUtils.isEmpty(get.getResponseBodyAsString())) {
@@ -62,6 +63,10 @@ public class HbReleaseService {
         } catch (IOException e) {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         return releaseInfoList; 
     }
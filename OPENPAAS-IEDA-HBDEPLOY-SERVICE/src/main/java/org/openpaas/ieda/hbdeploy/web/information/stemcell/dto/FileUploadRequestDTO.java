@@ -1,13 +1,12 @@
 package org.openpaas.ieda.hbdeploy.web.information.stemcell.dto;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 
 import org.apache.commons.httpclient.methods.RequestEntity;
+import org.openpaas.ieda.deploy.api.director.utility.DirectorFileUploader;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
@@ -53,27 +52,13 @@ public class FileUploadRequestDTO implements RequestEntity {
     }
 
     public void writeRequest(final OutputStream out) throws IOException {
-        
-        byte[] tmp = new byte[8192];
-        int i = 0;
-        int accumulatePercent = -1;
-        double accumulate = 0;
-        double totalSize = this.file.length();
-        InputStream instream = new FileInputStream(this.file);
-        try {
-                //파일의 크기만큼 읽고 쓰면서 파일을 복사한다.
-            while ((i = instream.read(tmp)) >= 0) {
-                accumulate += i;
-                out.write(tmp, 0, i);
-                //upload percentage
-                if ( accumulatePercent != (int)(accumulate/totalSize *100 )){
-                    accumulatePercent = (int)(accumulate/totalSize * 100); 
-                    HbDirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, messageEndpoint, "Progress", this.file.getName(), Arrays.asList( String.valueOf(accumulatePercent) ));
-                }
-            }        
-        } finally {
-            instream.close();
-        }
+        //파일 전송과 진행률 전송을 분리(진행률은 타이머 스레드에서 변경된 경우에만 전송)
+        DirectorFileUploader.write(this.file, out, new DirectorFileUploader.ProgressListener() {
+            @Override
+            public void onProgress(int percent) {
+                HbDirectorRestHelper.sendTaskOutputWithTag(userId, messagingTemplate, messageEndpoint, "Progress", file.getName(), Arrays.asList( String.valueOf(percent) ));
+            }
+        });
     }    
     
 }
\ No newline at end of file
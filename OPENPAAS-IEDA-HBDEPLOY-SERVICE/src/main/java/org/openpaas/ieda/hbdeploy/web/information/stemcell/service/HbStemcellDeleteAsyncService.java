@@ -7,6 +7,7 @@ import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.DeleteMethod;
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.hbdeploy.api.director.utility.HbDirectorRestHelper;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
@@ -44,7 +45,7 @@ public class HbStemcellDeleteAsyncService {
             deleteMethod = (DeleteMethod)HbDirectorRestHelper.setAuthorization(directorInfo.getUserId(), directorInfo.getUserPassword(), (HttpMethodBase)deleteMethod);
             
             //Request에 대한 응답
-            int statusCode = httpClient.executeMethod(deleteMethod);
+            int statusCode = HbDirectorRestHelper.executeAndRelease(httpClient, deleteMethod);
             if ( statusCode == HttpStatus.MOVED_PERMANENTLY.value() || statusCode == HttpStatus.MOVED_TEMPORARILY.value()    ) {
                 
                 Header location = deleteMethod.getResponseHeader("Location");
@@ -68,7 +69,7 @@ public class HbStemcellDeleteAsyncService {
      * @title : deleteStemcellAsync
      * @return : void
     ***************************************************/
-    @Async
+    @Async(AsyncExecutorConfig.DIRECTOR_QUERY_EXECUTOR)
     public void deleteStemcellAsync(String stemcellName, String stemcellVersion, String directorId, Principal principal) {
         deleteStemcell(stemcellName, stemcellVersion, directorId, principal);
     }    
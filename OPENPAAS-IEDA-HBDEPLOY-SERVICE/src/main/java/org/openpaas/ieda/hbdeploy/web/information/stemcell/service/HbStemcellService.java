@@ -50,9 +50,10 @@ public class HbStemcellService {
         hbDirectorConfigService.isExistBoshEnvLogin(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort(), selectedDirector.getUserId(), selectedDirector.getUserPassword());
         
         List<HbStemcellManagementVO> stemcellInfoList = new ArrayList<HbStemcellManagementVO>();
+        GetMethod get = null;
         try {
             HttpClient client = HbDirectorRestHelper.getHttpClient(selectedDirector.getDirectorPort().intValue());
-            GetMethod get = new GetMethod(HbDirectorRestHelper.getStemcellsURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort().intValue()));
+            get = new GetMethod(HbDirectorRestHelper.getStemcellsURI(selectedDirector.getDirectorUrl(), selectedDirector.getDirectorPort().intValue()));
             get = (GetMethod)HbDirectorRestHelper.setAuthorization(selectedDirector.getUserId(), selectedDirector.getUserPassword(), (HttpMethodBase)get);
             client.executeMethod(get);
             stemcellInfoList= setUploadedStemcellList(get.getResponseBodyAsString());
@@ -62,6 +63,10 @@ public class HbStemcellService {
         } catch (IOException e) {
             throw new CommonException(message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA),
                     message.getMessage("common.internalServerError.message", null, Locale.KOREA), HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         return stemcellInfoList;
     }
@@ -16,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.deploy.web.config.setting.service.DirectorHealthRegistry;
 import org.openpaas.ieda.hbdeploy.web.common.base.BaseHbDeployControllerUnitTest;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigDAO;
 import org.openpaas.ieda.hbdeploy.web.config.setting.dao.HbDirectorConfigVO;
@@ -29,6 +30,7 @@ public class HbDirectorConfigServiceUnitTest extends BaseHbDeployControllerUnitT
     @InjectMocks HbDirectorConfigService mockHbDirectorConfigService;
     
     @Mock HbDirectorConfigDAO mockHbDirectorConfigDAO;
+    @Mock DirectorHealthRegistry mockDirectorHealthRegistry;
     
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
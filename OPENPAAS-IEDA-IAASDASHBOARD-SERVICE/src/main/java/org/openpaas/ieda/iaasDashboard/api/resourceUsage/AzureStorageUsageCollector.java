@@ -0,0 +1,228 @@
+package org.openpaas.ieda.iaasDashboard.api.resourceUsage;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobListingDetails;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlobClient;
+import com.microsoft.azure.storage.blob.CloudBlobContainer;
+import com.microsoft.azure.storage.blob.ListBlobItem;
+
+@Component
+public class AzureStorageUsageCollector {
+
+    //한 번에 조회할 blob 수(Azure 최대값)
+    final private static int SEGMENT_SIZE = 5000;
+    //컨테이너 ETag/Last-Modified 는 blob 추가/삭제로 바뀌지 않으므로 마지막 합계 후 이 주기가 지나면 다시 합계
+    final private static long DEFAULT_RECOUNT_INTERVAL = 60 * 60 * 1000L;
+    final private static int COUNT_THREADS = 4;
+    private final static Logger LOGGER = LoggerFactory.getLogger(AzureStorageUsageCollector.class);
+
+    private final long recountInterval;
+    //"스토리지 계정/컨테이너" 별 마지막 합계와 진행 중인 합계(이어서 조회할 위치)
+    private final ConcurrentMap<String, ContainerUsage> containerUsages = new ConcurrentHashMap<String, ContainerUsage>();
+    //컨테이너 별 blob 목록 조회 스레드(리소스 조회 제한 시간과 무관하게 끝까지 합계)
+    private ExecutorService countExecutor;
+
+    public AzureStorageUsageCollector() {
+        this(DEFAULT_RECOUNT_INTERVAL);
+    }
+
+    public AzureStorageUsageCollector(long recountInterval) {
+        this.recountInterval = recountInterval;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 컨테이너 합계 전용 스레드 시작
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public synchronized void initialize() {
+        if( countExecutor != null ){
+            return;
+        }
+        countExecutor = Executors.newFixedThreadPool(COUNT_THREADS, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "azure-storage-usage-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 컨테이너 합계 전용 스레드 종료(진행 중인 합계는 조회 위치를 유지)
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public synchronized void shutdown() {
+        if( countExecutor != null ){
+            countExecutor.shutdownNow();
+            countExecutor = null;
+        }
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 스토리지 계정의 마지막으로 확인된 blob 크기 합계 조회
+     *                합계가 없거나 오래된 컨테이너는 전용 스레드에서 다시 합계하고 기다리지 않는다
+     *                (한 번도 합계가 끝나지 않은 컨테이너는 지금까지 합계한 크기 사용)
+     * @title : getStorageUsage
+     * @return : long
+    ***************************************************/
+    public long getStorageUsage(String storageAccountName, CloudBlobClient blobClient) throws StorageException {
+        String prefix = storageAccountName + "/";
+        Set<String> keys = new HashSet<String>();
+        long total = 0L;
+        int recounts = 0;
+        for( CloudBlobContainer container : blobClient.listContainers() ){
+            String key = prefix + container.getName();
+            keys.add(key);
+            ContainerUsage usage = containerUsages.get(key);
+            if( usage == null ){
+                ContainerUsage created = new ContainerUsage();
+                usage = containerUsages.putIfAbsent(key, created);
+                if( usage == null ){
+                    usage = created;
+                }
+            }
+            if( usage.isStale(recountInterval) && usage.counting.compareAndSet(false, true) ){
+                recounts++;
+                submitCount(key, container, usage);
+            }
+            total += usage.getKnownSize();
+        }
+        //삭제된 컨테이너 제거
+        for( Iterator<String> it = containerUsages.keySet().iterator(); it.hasNext(); ){
+            String key = it.next();
+            if( key.startsWith(prefix) && !keys.contains(key) ){
+                it.remove();
+            }
+        }
+        if( LOGGER.isDebugEnabled() ){
+            LOGGER.debug(storageAccountName + " : " + keys.size() + " containers, " + recounts + " recounts started");
+        }
+        return total;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 컨테이너 합계를 전용 스레드에 등록(스레드가 시작되지 않은 경우 호출 스레드에서 합계)
+     * @title : submitCount
+     * @return : void
+    ***************************************************/
+    private void submitCount(final String key, final CloudBlobContainer container, final ContainerUsage usage) throws StorageException {
+        ExecutorService executor = countExecutor;
+        if( executor == null ){
+            try{
+                countContainer(container, usage);
+            }finally{
+                usage.counting.set(false);
+            }
+            return;
+        }
+        try{
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try{
+                        countContainer(container, usage);
+                    }catch(StorageException e){
+                        //조회한 위치까지의 합계는 유지하고 다음 조회 시 이어서 합계
+                        if( LOGGER.isWarnEnabled() ){ LOGGER.warn("count of " + key + " stopped : " + e.getMessage()); }
+                    }catch(RuntimeException e){
+                        if( LOGGER.isWarnEnabled() ){ LOGGER.warn("count of " + key + " stopped : " + e.getMessage()); }
+                    }finally{
+                        usage.counting.set(false);
+                    }
+                }
+            });
+        }catch(RejectedExecutionException e){
+            //종료 중
+            usage.counting.set(false);
+        }
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 컨테이너의 blob 목록을 구간(segment) 단위로 조회하여 크기 합계
+     *                구간마다 조회 위치와 합계를 저장하여 중단되어도 이어서 합계
+     * @title : countContainer
+     * @return : void
+    ***************************************************/
+    private void countContainer(CloudBlobContainer container, ContainerUsage usage) throws StorageException {
+        ResultContinuation token = usage.token;
+        long size = token == null ? 0L : usage.partialSize;
+        do{
+            if( Thread.currentThread().isInterrupted() ){
+                return;
+            }
+            //디렉토리 아래 blob(bosh blobstore 등)까지 포함하도록 flat 목록 조회
+            ResultSegment<ListBlobItem> segment = container.listBlobsSegmented(null, true, EnumSet.noneOf(BlobListingDetails.class), SEGMENT_SIZE, token, null, null);
+            for( ListBlobItem blobItem : segment.getResults() ){
+                if( blobItem instanceof CloudBlob ){
+                    size += ((CloudBlob) blobItem).getProperties().getLength();
+                }
+            }
+            token = segment.getContinuationToken();
+            usage.progress(token, size);
+        }while( token != null );
+        usage.complete(size);
+    }
+
+    //컨테이너 합계는 한 번에 하나의 스레드(counting)만 갱신
+    private static class ContainerUsage {
+        final AtomicBoolean counting = new AtomicBoolean();
+        //마지막으로 끝난 합계(-1 : 아직 없음)
+        volatile long size = -1L;
+        volatile long countedAt = 0L;
+        //진행 중인 합계의 다음 조회 위치와 지금까지의 합계
+        volatile ResultContinuation token;
+        volatile long partialSize = 0L;
+
+        boolean isStale(long recountInterval) {
+            return size < 0 || token != null || System.currentTimeMillis() - countedAt >= recountInterval;
+        }
+
+        long getKnownSize() {
+            return size >= 0 ? size : partialSize;
+        }
+
+        void progress(ResultContinuation token, long partialSize) {
+            this.partialSize = partialSize;
+            this.token = token;
+        }
+
+        void complete(long size) {
+            this.size = size;
+            this.countedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -1,35 +1,27 @@
 package org.openpaas.ieda.iaasDashboard.api.resourceUsage;
 
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.services.cloudwatch.AmazonCloudWatchClient;
-import com.amazonaws.services.cloudwatch.AmazonCloudWatchClientBuilder;
 import com.amazonaws.services.cloudwatch.model.Dimension;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
 import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsResult;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.DescribeInstancesResult;
 import com.amazonaws.services.ec2.model.DescribeVolumesResult;
 import com.amazonaws.services.ec2.model.Reservation;
 import com.amazonaws.services.ec2.model.Vpc;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.microsoft.aad.adal4j.AuthenticationContext;
-import com.microsoft.aad.adal4j.AuthenticationResult;
-import com.microsoft.aad.adal4j.ClientCredential;
 import com.microsoft.azure.PagedList;
-import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.Azure;
+import com.microsoft.azure.management.compute.ComputeUsage;
 import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.management.network.NetworkUsage;
 import com.microsoft.azure.management.storage.StorageAccount;
+import com.microsoft.azure.management.storage.StorageUsage;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
-import com.microsoft.azure.storage.blob.CloudBlob;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
-import com.microsoft.azure.storage.blob.CloudBlobContainer;
-import com.microsoft.azure.storage.blob.ListBlobItem;
-import com.microsoft.rest.LogLevel;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.methods.GetMethod;
@@ -44,14 +36,12 @@ import org.openstack4j.model.network.Subnet;
 import org.openstack4j.model.storage.block.Volume;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 /*import com.microsoft.azure.management.Azure;
 import com.microsoft.azure.management.compute.VirtualMachine;
@@ -67,6 +57,7 @@ import com.microsoft.azure.storage.blob.ListBlobItem;*/
 @Service
 public class IaasResourceUsageApiService {
     
+    @Autowired AzureStorageUsageCollector storageUsageCollector;
     final static Logger LOGGER = LoggerFactory.getLogger(IaasResourceUsageApiService.class);
 
     /***************************************************
@@ -77,49 +68,67 @@ public class IaasResourceUsageApiService {
     ***************************************************/
     public HashMap<String, Object> getResourceInfoFromAWS( String accessKey, String secret, Region region ){
         HashMap<String, Object> map = new HashMap<String, Object>();
-      
-        AWSStaticCredentialsProvider provider  = new CommonApiService().getAwsStaticCredentialsProvider(accessKey, secret);
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
-        AmazonCloudWatchClient cloudWatch = (AmazonCloudWatchClient) AmazonCloudWatchClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
-        
         map.put("iaasType", "AWS");
-        //Instance count
+        map.put("instance", getAwsInstanceCount(accessKey, secret, region));
+        map.put("network", getAwsNetworkCount(accessKey, secret, region));
+        map.put("volume", getAwsVolumeCount(accessKey, secret, region));
+        map.put("billing", getAwsBilling(accessKey, secret, region));
+        return map;
+        
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : AWS 인스턴스(Reservation) 수 조회
+     * @title : getAwsInstanceCount
+     * @return : int
+    ***************************************************/
+    public int getAwsInstanceCount( String accessKey, String secret, Region region ){
+        AmazonEC2Client ec2 = new CommonApiService().getAmazonEC2Client(accessKey, secret, region.getName());
         DescribeInstancesResult instanceReq =  ec2.describeInstances();
         List<Reservation> resList = instanceReq.getReservations();
-        if( resList.size() > 0  ){
-            //List<Instance> instances = resList.get(0).getInstances();
-            map.put("instance", resList.size());
-        }else{
-            map.put("instance", 0);
-        }
-        
-        //Network count
+        return resList.size();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : AWS 네트워크(VPC) 수 조회
+     * @title : getAwsNetworkCount
+     * @return : int
+    ***************************************************/
+    public int getAwsNetworkCount( String accessKey, String secret, Region region ){
+        AmazonEC2Client ec2 = new CommonApiService().getAmazonEC2Client(accessKey, secret, region.getName());
         List<Vpc> vpcs = ec2.describeVpcs().getVpcs();
-        if( vpcs.size() > 0 ){
-            map.put("network", vpcs.size());
-        }else{
-            map.put("network", 0);
-        }
-        
-        //volume count
+        return vpcs.size();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : AWS 볼륨 수 조회
+     * @title : getAwsVolumeCount
+     * @return : int
+    ***************************************************/
+    public int getAwsVolumeCount( String accessKey, String secret, Region region ){
+        AmazonEC2Client ec2 = new CommonApiService().getAmazonEC2Client(accessKey, secret, region.getName());
         DescribeVolumesResult volumeReq= ec2.describeVolumes();
         List<com.amazonaws.services.ec2.model.Volume> volumes = volumeReq.getVolumes();
-        if( volumes.size() > 0 ){
-            map.put("volume", volumes.size());
-        }else{
-            map.put("volume", 0);
-        }
-        
-        //cloudwatch billing
+        return volumes.size();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : AWS Cloudwatch 과금(최근 한 달 최대 예상 금액) 조회
+     * @title : getAwsBilling
+     * @return : Double
+    ***************************************************/
+    public Double getAwsBilling( String accessKey, String secret, Region region ){
+        AmazonCloudWatchClient cloudWatch = new CommonApiService().getAmazonCloudWatchClient(accessKey, secret, region.getName());
         GetMetricStatisticsRequest request = cloudwatchRequest(); 
         GetMetricStatisticsResult result = cloudWatch.getMetricStatistics(request);
         if( result.getDatapoints().size() > 0 ) {
-            map.put("billing", result.getDatapoints().get(0).getMaximum());
-        }else {
-            map.put("billing", 0);
+            return result.getDatapoints().get(0).getMaximum();
         }
-        return map;
-        
+        return 0.0;
     }
     
     /***************************************************
@@ -214,11 +223,12 @@ public class IaasResourceUsageApiService {
         HashMap<String, Object> map = new HashMap<String, Object>();
        try {
         long totalSize =0;
-        AzureTokenCredentials azureCredentials = new CommonApiService().getAzureCredentialsFromAzure(commonAccessUser,  commonTenant,commonAccessSecret, azureSubscriptionId);
-        Azure azure  = Azure.configure()
-                .withLogLevel(LogLevel.BASIC)
-                .authenticate(azureCredentials)
-                .withSubscription(azureSubscriptionId);
+        //credential 만료 전까지 계정 별로 보관된 Azure 클라이언트 재사용(기본 구독 = azureSubscriptionId)
+        Azure azure = new CommonApiService().getAzureFromAzure(commonAccessUser, commonTenant, commonAccessSecret, azureSubscriptionId);
+        if( azure == null ){
+            //인증 실패(빈 결과는 조회 오류로 기록)
+            return map;
+        }
         
         PagedList<com.microsoft.azure.management.network.Network> networks = azure.networks().list();
         if( networks.size() > 0 ){
@@ -243,50 +253,29 @@ public class IaasResourceUsageApiService {
                 CloudStorageAccount storageAccount = CloudStorageAccount.parse(storageConnectionString);
 
                 CloudBlobClient blobClient = storageAccount.createCloudBlobClient();
-                Iterator<CloudBlobContainer> containers=  blobClient.listContainers().iterator();
-                while( containers.hasNext()){
-                    String containerName = containers.next().getName();
-                    CloudBlobContainer container = blobClient.getContainerReference(containerName);
-                    Iterable<ListBlobItem> blobItems=  container.listBlobs();
-                    for (ListBlobItem blobItem : blobItems) {
-                        if (blobItem instanceof CloudBlob) {
-                            CloudBlob blob = (CloudBlob) blobItem;
-                            size += blob.getProperties().getLength();
-                        }
-                    }
-                }
+                blobClient.getDefaultRequestOptions().setMaximumExecutionTimeInMs(CommonApiService.SDK_READ_TIMEOUT);
+                //마지막으로 확인된 합계 사용(오래된 컨테이너는 별도 스레드에서 다시 합계)
+                size += storageUsageCollector.getStorageUsage(storageAccounts.get(i).name(), blobClient);
             }
         	
             map.put("volume", size);
          }
         
-        int totalcost = 0;
-        int vmtoatalcost = 0;
-        int netcost =0;
-        int storagetoatalcost = 0;
+        long totalcost = 0;
+        long vmtoatalcost = 0;
+        long netcost =0;
+        long storagetoatalcost = 0;
            String region = "koreasouth"; //centralus
-        //int resourcecost = 0;
-           List machineList = azure.virtualMachines().manager().usages().listByRegion(region);
-//           for (com.microsoft.azure.management.compute.implementation.ComputeManager machine : machineList) {
-//               System.out.print("[sunny]machine : "+ machine.currentValue());
-//               break;
-//           }
-        int vmSize = azure.virtualMachines().manager().usages().listByRegion(region).size(); //listByRegion("centralus")
-            for (int i=0;i<vmSize; i++){
-                
-                 vmtoatalcost =+ azure.virtualMachines().manager().usages().listByRegion(region).get(i).currentValue();//listByRegion("centralus")
-            }
-        int netSize = azure.networks().manager().usages().listByRegion(region).size();//listByRegion("centralus")
-            for (int i=0;i<netSize; i++){
-                Long networktoatalcost =+ azure.networks().manager().usages().listByRegion(region).get(i).currentValue();//listByRegion("centralus")
-                netcost = networktoatalcost.intValue();
-            }
-        int volumeSize = azure.storageAccounts().manager().usages().list().size();
-            for (int i=0; i< volumeSize; i++){
-                storagetoatalcost  =+ azure.storageAccounts().manager().usages().list().get(i).currentValue();
-                //resourcecost =+ azure.storageUsages().list().get(i).currentValue();
-               
-            }
+        //리전 별 사용량은 한 번만 조회
+        for( ComputeUsage usage : azure.virtualMachines().manager().usages().listByRegion(region) ){
+            vmtoatalcost += usage.currentValue();
+        }
+        for( NetworkUsage usage : azure.networks().manager().usages().listByRegion(region) ){
+            netcost += usage.currentValue();
+        }
+        for( StorageUsage usage : azure.storageAccounts().manager().usages().list() ){
+            storagetoatalcost += usage.currentValue();
+        }
         totalcost = vmtoatalcost + netcost + storagetoatalcost;
         if( totalcost != 0 ){
             map.put("billing", totalcost);
@@ -308,8 +297,6 @@ public class IaasResourceUsageApiService {
         return map;
    }
 
-    final private static String AZURE_TOKEN_URL = "https://login.microsoftonline.com/";
-    final private static String AZURE_ACQUIRE_TOKEN_URL = "https://management.azure.com/";
     /***************************************************
      * @return 
      * @project : 인프라 관리 대시보드
@@ -319,19 +306,11 @@ public class IaasResourceUsageApiService {
     ***************************************************/
     @SuppressWarnings({ "unchecked", "rawtypes" })
 	public Double setAzureBillingInfo(String commonAccessUser, String commonTenant, String commonAccessSecret,  String azureSubscriptionId) {
-        AuthenticationContext authContext = null;
-        AuthenticationResult authResult = null;
-        ExecutorService service = null;
         Double costSum = 0.0;
+        GetMethod get = null;
         try {
-            service = Executors.newFixedThreadPool(1);
-            String url = AZURE_TOKEN_URL + commonTenant + "/oauth2/token";
-            authContext = new AuthenticationContext(url, false, service);
-            ClientCredential clientCred = new ClientCredential(commonAccessUser, commonAccessSecret);
-            Future<AuthenticationResult> future = authContext.acquireToken(AZURE_ACQUIRE_TOKEN_URL, clientCred, null);
-            authResult = future.get();
-            if( !StringUtils.isEmpty(authResult.getAccessToken())){
-                String accessToken = authResult.getAccessToken();
+            String accessToken = new CommonApiService().getAzureAccessToken(commonAccessUser, commonTenant, commonAccessSecret);
+            if( !StringUtils.isEmpty(accessToken)){
                 Calendar cal = Calendar.getInstance();
                 int year = cal.get ( cal.YEAR );
                 int month = cal.get ( cal.MONTH );
@@ -343,9 +322,10 @@ public class IaasResourceUsageApiService {
                 }
                 String setDateInfo = String.valueOf(year) + sMonth + "-1";
                 HttpClient httpClient = DirectorRestHelper.getHttpClient(443);
-                GetMethod get = new GetMethod(DirectorRestHelper.getAzureBillingInfoUri("management.azure.com","443", azureSubscriptionId, setDateInfo));
+                get = new GetMethod(DirectorRestHelper.getAzureBillingInfoUri("management.azure.com","443", azureSubscriptionId, setDateInfo));
                 get = (GetMethod)DirectorRestHelper.setAuthorization(accessToken, (HttpMethodBase)get);
                 get.setRequestHeader("Authorization", "Bearer " + accessToken);
+                get.getParams().setSoTimeout(CommonApiService.SDK_READ_TIMEOUT);
                 httpClient.executeMethod(get);
                 if ( !StringUtils.isEmpty(get.getResponseBodyAsString()) ) {
                     ObjectMapper mapper = new ObjectMapper();
@@ -366,6 +346,10 @@ public class IaasResourceUsageApiService {
         } catch (Exception e) {
             if( LOGGER.isErrorEnabled() ){ LOGGER.error(e.getMessage()); }
             e.printStackTrace();
+        } finally {
+            if( get != null ){
+                get.releaseConnection();
+            }
         }
         return costSum;
     }
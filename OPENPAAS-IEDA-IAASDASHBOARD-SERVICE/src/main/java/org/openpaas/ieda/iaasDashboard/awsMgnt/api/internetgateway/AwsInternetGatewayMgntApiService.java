@@ -9,10 +9,8 @@ import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.AttachInternetGatewayRequest;
 import com.amazonaws.services.ec2.model.CreateInternetGatewayRequest;
 import com.amazonaws.services.ec2.model.CreateInternetGatewayResult;
@@ -38,8 +36,7 @@ public class AwsInternetGatewayMgntApiService {
     * @return : AmazonEC2Client
     ***************************************************/
     public AmazonEC2Client getAmazonEC2Client(IaasAccountMgntVO vo, Region region){
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
         return ec2;
     }
     
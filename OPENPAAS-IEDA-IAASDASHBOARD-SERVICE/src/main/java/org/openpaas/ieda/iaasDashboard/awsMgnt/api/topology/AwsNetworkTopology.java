@@ -0,0 +1,232 @@
+package org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.ec2.model.InternetGateway;
+import com.amazonaws.services.ec2.model.InternetGatewayAttachment;
+import com.amazonaws.services.ec2.model.NatGateway;
+import com.amazonaws.services.ec2.model.NetworkAcl;
+import com.amazonaws.services.ec2.model.NetworkAclAssociation;
+import com.amazonaws.services.ec2.model.RouteTable;
+import com.amazonaws.services.ec2.model.RouteTableAssociation;
+import com.amazonaws.services.ec2.model.SecurityGroup;
+import com.amazonaws.services.ec2.model.Subnet;
+import com.amazonaws.services.ec2.model.Vpc;
+
+public class AwsNetworkTopology {
+
+    private final long createdAt;
+
+    private final Map<String, Vpc> vpcs = new LinkedHashMap<String, Vpc>();
+    private final Map<String, Subnet> subnets = new LinkedHashMap<String, Subnet>();
+    private final Map<String, List<Subnet>> subnetsByVpc = new HashMap<String, List<Subnet>>();
+    private final Map<String, RouteTable> routeTables = new LinkedHashMap<String, RouteTable>();
+    private final Map<String, List<RouteTable>> routeTablesByVpc = new HashMap<String, List<RouteTable>>();
+    private final Map<String, RouteTable> mainRouteTableByVpc = new HashMap<String, RouteTable>();
+    //subnetId -> 명시적으로 연결된 Route Table Association
+    private final Map<String, RouteTableAssociation> routeTableAssociationBySubnet = new HashMap<String, RouteTableAssociation>();
+    private final List<InternetGateway> internetGateways = new ArrayList<InternetGateway>();
+    private final Map<String, List<InternetGateway>> internetGatewaysByVpc = new HashMap<String, List<InternetGateway>>();
+    private final Map<String, List<NatGateway>> natGatewaysByVpc = new HashMap<String, List<NatGateway>>();
+    private final Map<String, List<NetworkAcl>> networkAclsByVpc = new HashMap<String, List<NetworkAcl>>();
+    private final Map<String, NetworkAcl> defaultNetworkAclByVpc = new HashMap<String, NetworkAcl>();
+    private final Map<String, NetworkAcl> networkAclBySubnet = new HashMap<String, NetworkAcl>();
+    private final Map<String, SecurityGroup> securityGroups = new LinkedHashMap<String, SecurityGroup>();
+    private final Map<String, List<SecurityGroup>> securityGroupsByVpc = new HashMap<String, List<SecurityGroup>>();
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : 한 번에 조회한 describe* 결과로 ID 별 색인 생성
+     * @title : AwsNetworkTopology
+     * @return :
+    ***************************************************/
+    public AwsNetworkTopology(List<Vpc> vpcList, List<Subnet> subnetList, List<RouteTable> routeTableList,
+            List<InternetGateway> internetGatewayList, List<NatGateway> natGatewayList,
+            List<NetworkAcl> networkAclList, List<SecurityGroup> securityGroupList) {
+        this.createdAt = System.currentTimeMillis();
+        for( Vpc vpc : vpcList ){
+            vpcs.put(vpc.getVpcId(), vpc);
+        }
+        for( Subnet subnet : subnetList ){
+            subnets.put(subnet.getSubnetId(), subnet);
+            addTo(subnetsByVpc, subnet.getVpcId(), subnet);
+        }
+        for( RouteTable routeTable : routeTableList ){
+            routeTables.put(routeTable.getRouteTableId(), routeTable);
+            addTo(routeTablesByVpc, routeTable.getVpcId(), routeTable);
+            for( RouteTableAssociation association : routeTable.getAssociations() ){
+                if( Boolean.TRUE.equals(association.getMain()) ){
+                    mainRouteTableByVpc.put(routeTable.getVpcId(), routeTable);
+                }
+                if( association.getSubnetId() != null ){
+                    routeTableAssociationBySubnet.put(association.getSubnetId(), association);
+                }
+            }
+        }
+        for( InternetGateway internetGateway : internetGatewayList ){
+            internetGateways.add(internetGateway);
+            for( InternetGatewayAttachment attachment : internetGateway.getAttachments() ){
+                if( attachment.getVpcId() != null ){
+                    addTo(internetGatewaysByVpc, attachment.getVpcId(), internetGateway);
+                }
+            }
+        }
+        for( NatGateway natGateway : natGatewayList ){
+            addTo(natGatewaysByVpc, natGateway.getVpcId(), natGateway);
+        }
+        for( NetworkAcl networkAcl : networkAclList ){
+            addTo(networkAclsByVpc, networkAcl.getVpcId(), networkAcl);
+            if( Boolean.TRUE.equals(networkAcl.getIsDefault()) ){
+                defaultNetworkAclByVpc.put(networkAcl.getVpcId(), networkAcl);
+            }
+            for( NetworkAclAssociation association : networkAcl.getAssociations() ){
+                if( association.getSubnetId() != null ){
+                    networkAclBySubnet.put(association.getSubnetId(), networkAcl);
+                }
+            }
+        }
+        for( SecurityGroup securityGroup : securityGroupList ){
+            securityGroups.put(securityGroup.getGroupId(), securityGroup);
+            if( securityGroup.getVpcId() != null ){
+                addTo(securityGroupsByVpc, securityGroup.getVpcId(), securityGroup);
+            }
+        }
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Vpc> getVpcs() {
+        return new ArrayList<Vpc>(vpcs.values());
+    }
+
+    public Vpc getVpc(String vpcId) {
+        return vpcs.get(vpcId);
+    }
+
+    public List<Subnet> getSubnets() {
+        return new ArrayList<Subnet>(subnets.values());
+    }
+
+    public Subnet getSubnet(String subnetId) {
+        return subnets.get(subnetId);
+    }
+
+    public List<Subnet> getSubnets(String vpcId) {
+        return get(subnetsByVpc, vpcId);
+    }
+
+    public List<RouteTable> getRouteTables() {
+        return new ArrayList<RouteTable>(routeTables.values());
+    }
+
+    public RouteTable getRouteTable(String routeTableId) {
+        return routeTables.get(routeTableId);
+    }
+
+    public List<RouteTable> getRouteTables(String vpcId) {
+        return get(routeTablesByVpc, vpcId);
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Subnet에 명시적으로 연결된 Route Table Association 조회(없으면 null)
+     * @title : getRouteTableAssociation
+     * @return : RouteTableAssociation
+    ***************************************************/
+    public RouteTableAssociation getRouteTableAssociation(String subnetId) {
+        return routeTableAssociationBySubnet.get(subnetId);
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Subnet이 사용하는 Route Table 조회
+     *                (명시적 연결 -> VPC의 main Route Table -> VPC의 첫 번째 Route Table 순)
+     * @title : getSubnetRouteTable
+     * @return : RouteTable
+    ***************************************************/
+    public RouteTable getSubnetRouteTable(String subnetId) {
+        RouteTableAssociation association = routeTableAssociationBySubnet.get(subnetId);
+        if( association != null && routeTables.containsKey(association.getRouteTableId()) ){
+            return routeTables.get(association.getRouteTableId());
+        }
+        Subnet subnet = subnets.get(subnetId);
+        if( subnet == null ){
+            return null;
+        }
+        RouteTable main = mainRouteTableByVpc.get(subnet.getVpcId());
+        if( main != null ){
+            return main;
+        }
+        List<RouteTable> list = get(routeTablesByVpc, subnet.getVpcId());
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Subnet이 사용하는 Network ACL 조회
+     *                (명시적 연결 -> VPC의 기본 ACL -> VPC의 첫 번째 ACL 순)
+     * @title : getSubnetNetworkAcl
+     * @return : NetworkAcl
+    ***************************************************/
+    public NetworkAcl getSubnetNetworkAcl(String subnetId) {
+        NetworkAcl networkAcl = networkAclBySubnet.get(subnetId);
+        if( networkAcl != null ){
+            return networkAcl;
+        }
+        Subnet subnet = subnets.get(subnetId);
+        if( subnet == null ){
+            return null;
+        }
+        NetworkAcl defaultAcl = defaultNetworkAclByVpc.get(subnet.getVpcId());
+        if( defaultAcl != null ){
+            return defaultAcl;
+        }
+        List<NetworkAcl> list = get(networkAclsByVpc, subnet.getVpcId());
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    public List<InternetGateway> getInternetGateways() {
+        return new ArrayList<InternetGateway>(internetGateways);
+    }
+
+    public List<InternetGateway> getInternetGateways(String vpcId) {
+        return get(internetGatewaysByVpc, vpcId);
+    }
+
+    public List<NatGateway> getNatGateways(String vpcId) {
+        return get(natGatewaysByVpc, vpcId);
+    }
+
+    public List<SecurityGroup> getSecurityGroups() {
+        return new ArrayList<SecurityGroup>(securityGroups.values());
+    }
+
+    public SecurityGroup getSecurityGroup(String groupId) {
+        return securityGroups.get(groupId);
+    }
+
+    public List<SecurityGroup> getSecurityGroups(String vpcId) {
+        return get(securityGroupsByVpc, vpcId);
+    }
+
+    private static <T> void addTo(Map<String, List<T>> index, String key, T value) {
+        List<T> list = index.get(key);
+        if( list == null ){
+            list = new ArrayList<T>();
+            index.put(key, list);
+        }
+        list.add(value);
+    }
+
+    private static <T> List<T> get(Map<String, List<T>> index, String key) {
+        List<T> list = index.get(key);
+        return list == null ? Collections.<T>emptyList() : Collections.unmodifiableList(list);
+    }
+}
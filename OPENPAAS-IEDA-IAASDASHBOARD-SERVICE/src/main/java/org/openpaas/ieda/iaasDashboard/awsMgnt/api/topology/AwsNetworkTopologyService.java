@@ -0,0 +1,120 @@
+package org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openpaas.ieda.common.web.common.service.CommonApiService;
+import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.ec2.model.DescribeNatGatewaysRequest;
+import com.amazonaws.services.ec2.model.DescribeNatGatewaysResult;
+import com.amazonaws.services.ec2.model.NatGateway;
+
+@Service
+public class AwsNetworkTopologyService {
+
+    //변경 요청이 없어도 다시 조회하는 주기
+    final private static long TOPOLOGY_TTL = 60 * 1000L;
+    final private static int NAT_GATEWAY_PAGE_SIZE = 1000;
+    private final static Logger LOGGER = LoggerFactory.getLogger(AwsNetworkTopologyService.class);
+
+    @Autowired CommonApiService commonApiService;
+
+    //계정/리전 별 네트워크 구성(같은 키의 동시 조회는 한 번만 AWS를 호출)
+    private final ConcurrentMap<String, CachedTopology> topologies = new ConcurrentHashMap<String, CachedTopology>();
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : 계정/리전의 VPC 네트워크 구성 조회(TTL 이내면 재사용)
+     * @title : getTopology
+     * @return : AwsNetworkTopology
+    ***************************************************/
+    public AwsNetworkTopology getTopology(IaasAccountMgntVO vo, String regionName) {
+        CachedTopology cached = getCachedTopology(topologyKey(vo, regionName));
+        synchronized (cached) {
+            AwsNetworkTopology topology = cached.topology;
+            if( topology == null || System.currentTimeMillis() - topology.getCreatedAt() > TOPOLOGY_TTL ){
+                topology = loadTopology(vo, regionName);
+                cached.topology = topology;
+            }
+            return topology;
+        }
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : VPC/Subnet/Route Table 등을 변경한 후 계정/리전의 네트워크 구성 폐기
+     * @title : invalidate
+     * @return : void
+    ***************************************************/
+    public void invalidate(IaasAccountMgntVO vo, String regionName) {
+        CachedTopology cached = topologies.get(topologyKey(vo, regionName));
+        if( cached != null ){
+            synchronized (cached) {
+                cached.topology = null;
+            }
+        }
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : describe* API를 한 번씩 호출하여 네트워크 구성 생성
+     * @title : loadTopology
+     * @return : AwsNetworkTopology
+    ***************************************************/
+    private AwsNetworkTopology loadTopology(IaasAccountMgntVO vo, String regionName) {
+        long start = System.currentTimeMillis();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), regionName);
+        AwsNetworkTopology topology = new AwsNetworkTopology(
+                ec2.describeVpcs().getVpcs(),
+                ec2.describeSubnets().getSubnets(),
+                ec2.describeRouteTables().getRouteTables(),
+                ec2.describeInternetGateways().getInternetGateways(),
+                getNatGateways(ec2),
+                ec2.describeNetworkAcls().getNetworkAcls(),
+                ec2.describeSecurityGroups().getSecurityGroups());
+        if( LOGGER.isDebugEnabled() ){
+            LOGGER.debug("aws network topology of " + vo.getId() + "/" + regionName + " loaded in " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return topology;
+    }
+
+    private List<NatGateway> getNatGateways(AmazonEC2Client ec2) {
+        List<NatGateway> natGateways = new ArrayList<NatGateway>();
+        String nextToken = null;
+        do {
+            DescribeNatGatewaysResult result = ec2.describeNatGateways(
+                    new DescribeNatGatewaysRequest().withMaxResults(NAT_GATEWAY_PAGE_SIZE).withNextToken(nextToken));
+            natGateways.addAll(result.getNatGateways());
+            nextToken = result.getNextToken();
+        } while( nextToken != null && !nextToken.isEmpty() );
+        return natGateways;
+    }
+
+    private CachedTopology getCachedTopology(String key) {
+        CachedTopology cached = topologies.get(key);
+        if( cached == null ){
+            CachedTopology created = new CachedTopology();
+            cached = topologies.putIfAbsent(key, created);
+            if( cached == null ){
+                cached = created;
+            }
+        }
+        return cached;
+    }
+
+    private static String topologyKey(IaasAccountMgntVO vo, String regionName) {
+        return vo.getId() + "/" + vo.getCommonAccessUser() + "/" + regionName;
+    }
+
+    private static class CachedTopology {
+        AwsNetworkTopology topology;
+    }
+}
@@ -11,9 +11,7 @@ import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.CreateTagsRequest;
 import com.amazonaws.services.ec2.model.CreateVpcRequest;
 import com.amazonaws.services.ec2.model.CreateVpcResult;
@@ -38,8 +36,7 @@ public class AwsVpcMgntApiService {
     * @return : AmazonEC2Client
     ***************************************************/
     public AmazonEC2Client getAmazonEC2Client(IaasAccountMgntVO vo, String region){
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region);
         return ec2;
     }
     
@@ -171,8 +168,7 @@ public class AwsVpcMgntApiService {
     * @return : void
     ***************************************************/
     public void deleteAwsVpcInfoApiFromAws(IaasAccountMgntVO vo, AwsVpcMgntDTO dto, String regionName) {
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(regionName).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), regionName);
         DeleteVpcRequest request = new DeleteVpcRequest();
         request.setVpcId(dto.getVpcId());
         ec2.deleteVpc(request);
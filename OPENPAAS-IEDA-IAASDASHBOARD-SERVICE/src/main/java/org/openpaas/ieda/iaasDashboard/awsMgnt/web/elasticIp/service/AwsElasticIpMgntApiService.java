@@ -8,10 +8,8 @@ import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.Address;
 import com.amazonaws.services.ec2.model.AllocateAddressRequest;
 import com.amazonaws.services.ec2.model.AllocateAddressResult;
@@ -35,8 +33,7 @@ public class AwsElasticIpMgntApiService {
      * @return : List<Address>
      ***************************************************/
     public List<Address> getAwsElasticIpInfoListApiFromAws(IaasAccountMgntVO vo, Region region) {
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
         
         DescribeAddressesResult response = ec2.describeAddresses();
         List<Address> address = response.getAddresses();
@@ -53,8 +50,7 @@ public class AwsElasticIpMgntApiService {
      * @return : HashMap<String, Object>
      ***************************************************/
      public HashMap<String, Object> getAwsElasticIpDetailInfoFromAws(IaasAccountMgntVO vo, Region region) {
-         AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-         AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+         AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
          
          DescribeAddressesResult address = ec2.describeAddresses();
          List<Address> addressList = address.getAddresses();
@@ -73,8 +69,7 @@ public class AwsElasticIpMgntApiService {
      * @return : List<NetworkInterface>
     *****************************************************************/
     public List<NetworkInterface> getNetworkInterfaces(IaasAccountMgntVO vo, DescribeNetworkInterfacesRequest request, Region region){
-         AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-         AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+         AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
          return ec2.describeNetworkInterfaces(request).getNetworkInterfaces();
      }
     
@@ -86,8 +81,7 @@ public class AwsElasticIpMgntApiService {
       * @return : String
       ***************************************************/
      public String allocateElasticIpFromAws(IaasAccountMgntVO vo, Region region) {
-         AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-         AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+         AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
          
          AllocateAddressRequest allocateRequest = new AllocateAddressRequest().withDomain(DomainType.Vpc);
          AllocateAddressResult allocateResponse = ec2.allocateAddress(allocateRequest);
@@ -6,8 +6,9 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.api.internetgateway.AwsInternetGatewayMgntApiService;
-import org.openpaas.ieda.iaasDashboard.awsMgnt.api.vpc.AwsVpcMgntApiService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.internetGateway.dao.AwsInternetGatewayMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.internetGateway.dto.AwsInternetGatewayMgntDTO;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
@@ -26,7 +27,7 @@ public class AwsInternetGatewayMgntService {
     
     @Autowired CommonIaasService commonIaasService;
     @Autowired AwsInternetGatewayMgntApiService awsInternetGatewayMgntApiService;
-    @Autowired AwsVpcMgntApiService awsVpcMgntApiService;
+    @Autowired AwsNetworkTopologyService awsNetworkTopologyService;
     @Autowired MessageSource message;
     
     /***************************************************
@@ -94,6 +95,7 @@ public class AwsInternetGatewayMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsInternetGatewayMgntApiService.saveAwsInternetGatewayInfoFromAws(dto, vo, region);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -117,6 +119,7 @@ public class AwsInternetGatewayMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsInternetGatewayMgntApiService.deleteAwsInternetGatewayInfoFromAws(dto, vo, region);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -139,38 +142,26 @@ public class AwsInternetGatewayMgntService {
     public List<AwsInternetGatewayMgntVO> getAwsVpcInfoList(Principal principal, int accountId, String regionName) {
         IaasAccountMgntVO vo =  getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<Vpc> apiVpcList = awsVpcMgntApiService.getAwsVpcInfoListApiFromAws(vo, region.getName());
-        List<InternetGateway> apiInternetList = awsInternetGatewayMgntApiService.getAwsInternetGatewayInfoListFromAws(vo, region);
+        AwsNetworkTopology topology = awsNetworkTopologyService.getTopology(vo, region.getName());
         List<AwsInternetGatewayMgntVO> resultList = new ArrayList<AwsInternetGatewayMgntVO>();
         
-        for(int i=0;i<apiVpcList.size();i++){
-            String attachedVpcIds ="";
-            for(int j=0;j<apiInternetList.size();j++){
-                int attSize = apiInternetList.get(j).getAttachments().size();
-                if(attSize!=0){
-                    for(int k=0; k< attSize; k++){
-                        if(apiInternetList.get(j).getAttachments().get(k).getVpcId()!= null ){
-                          attachedVpcIds += apiInternetList.get(j).getAttachments().get(k).getVpcId();
-                        }
-                    }
-                    
-                }
+        for(Vpc vpc : topology.getVpcs()){
+            //인터넷 게이트웨이가 연결되어 있지 않은 VPC만 목록에 추가한다.
+            if( !topology.getInternetGateways(vpc.getVpcId()).isEmpty() ){
+                continue;
             }
             AwsInternetGatewayMgntVO internetGatewayVO = new AwsInternetGatewayMgntVO();
-            //VPC id가 연결을 가지고 있는 VPC id 목록에 해당 되지 않을 때에만 실행 한다.
-            if(attachedVpcIds.contains(apiVpcList.get(i).getVpcId()) != true){
-                internetGatewayVO.setVpcId(apiVpcList.get(i).getVpcId());
-                //VPC에 nameTag가 있으면 VO로 nameTag 값을 넘겨준다.
-                int tsize = apiVpcList.get(i).getTags().size();
-                String tags = "";
-                if(tsize !=0){
-                  for (int m=0; m<tsize; m++ ){
-                    tags += apiVpcList.get(i).getTags().get(m).getValue().toString();
-                  }
-                  internetGatewayVO.setVpcName(tags);
-                }
-                resultList.add(internetGatewayVO);
+            internetGatewayVO.setVpcId(vpc.getVpcId());
+            //VPC에 nameTag가 있으면 VO로 nameTag 값을 넘겨준다.
+            int tsize = vpc.getTags().size();
+            String tags = "";
+            if(tsize !=0){
+              for (int m=0; m<tsize; m++ ){
+                tags += vpc.getTags().get(m).getValue().toString();
+              }
+              internetGatewayVO.setVpcName(tags);
             }
+            resultList.add(internetGatewayVO);
         }
         return resultList;
     }
@@ -186,6 +177,7 @@ public class AwsInternetGatewayMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsInternetGatewayMgntApiService.internetGatewayAttachVpcFromAws(dto, vo, region);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -209,6 +201,7 @@ public class AwsInternetGatewayMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsInternetGatewayMgntApiService.internetGatewayDetachVpcFromAws(dto, vo, region);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
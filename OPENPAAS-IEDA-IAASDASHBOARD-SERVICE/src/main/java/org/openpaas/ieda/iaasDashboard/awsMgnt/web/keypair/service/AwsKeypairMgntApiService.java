@@ -7,9 +7,7 @@ import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.CreateKeyPairRequest;
 import com.amazonaws.services.ec2.model.CreateKeyPairResult;
 import com.amazonaws.services.ec2.model.KeyPairInfo;
@@ -27,14 +25,7 @@ public class AwsKeypairMgntApiService {
      * @return : List<KeypairInfo>
      ***************************************************/
     public List<KeyPairInfo> getAwsKeypairInfoListApiFromAws(IaasAccountMgntVO vo, String region){
-        AWSStaticCredentialsProvider provider = 
-                commonApiService
-                .getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 = 
-                (AmazonEC2Client)AmazonEC2ClientBuilder
-                .standard()
-                .withRegion(region)
-                .withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region);
         List<KeyPairInfo> keyPair = ec2.describeKeyPairs().getKeyPairs();
         
         return keyPair;
@@ -47,13 +38,7 @@ public class AwsKeypairMgntApiService {
      * @return : void
      ***************************************************/
     public String createAwsKeypairApiFromAws(IaasAccountMgntVO vo, String keyPairName, String region){
-        AWSStaticCredentialsProvider provider = 
-                commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =
-                (AmazonEC2Client)AmazonEC2ClientBuilder
-                .standard()
-                .withRegion(region)
-                .withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region);
         
         CreateKeyPairRequest createKeyPairRequest = new CreateKeyPairRequest().withKeyName(keyPairName);
         CreateKeyPairResult cresult = ec2.createKeyPair(createKeyPairRequest);
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.natGateway.dao.AwsNatGatewayMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.natGateway.dto.AwsNatGatewayMgntDTO;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
@@ -22,6 +23,7 @@ import com.amazonaws.services.ec2.model.Subnet;
 @Service
 public class AwsNatGatewayMgntService {
     @Autowired AwsNatGatewayMgntApiService awsNatGatewayMgntApiService;
+    @Autowired AwsNetworkTopologyService awsNetworkTopologyService;
     @Autowired CommonIaasService commonIaasService;
     @Autowired MessageSource message;
     
@@ -158,6 +160,7 @@ public class AwsNatGatewayMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsNatGatewayMgntApiService.createAwsNatGatewayApiFromAws(vo, region.getName(),dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
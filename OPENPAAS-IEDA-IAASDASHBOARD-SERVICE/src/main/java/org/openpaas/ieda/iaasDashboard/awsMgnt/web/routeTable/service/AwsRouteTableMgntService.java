@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.routeTable.dao.AwsRouteTableMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.routeTable.dto.AwsRouteTableMgntDTO;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
@@ -20,7 +22,9 @@ import com.amazonaws.services.ec2.model.InternetGateway;
 import com.amazonaws.services.ec2.model.NatGateway;
 import com.amazonaws.services.ec2.model.Route;
 import com.amazonaws.services.ec2.model.RouteTable;
+import com.amazonaws.services.ec2.model.RouteTableAssociation;
 import com.amazonaws.services.ec2.model.Subnet;
+import com.amazonaws.services.ec2.model.Tag;
 import com.amazonaws.services.ec2.model.Vpc;
 
 @Service
@@ -28,6 +32,8 @@ public class AwsRouteTableMgntService {
     @Autowired
     AwsRouteTableMgntApiService awsRouteTableMgntApiService;
     @Autowired
+    AwsNetworkTopologyService awsNetworkTopologyService;
+    @Autowired
     CommonIaasService commonIaasService;
     @Autowired
     MessageSource message;
@@ -41,67 +47,38 @@ public class AwsRouteTableMgntService {
     public List<AwsRouteTableMgntVO> getAwsRouteTableInfoList(int accountId, String regionName, Principal principal) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<RouteTable> apiAwsRouteTableList = awsRouteTableMgntApiService.getAwsRouteTableListApiFromAws(vo,
-                region.getName());
+        List<RouteTable> apiAwsRouteTableList = awsNetworkTopologyService.getTopology(vo, region.getName()).getRouteTables();
         List<AwsRouteTableMgntVO> awsrouteTableList = new ArrayList<AwsRouteTableMgntVO>();
-        if (apiAwsRouteTableList.size() != 0) {
-            for (int i = 0; i < apiAwsRouteTableList.size(); i++) {
-                RouteTable routeTable = apiAwsRouteTableList.get(i);
-                AwsRouteTableMgntVO awsrouteTableVO = new AwsRouteTableMgntVO();
-                awsrouteTableVO.setRouteTableId(routeTable.getRouteTableId());
-                if (routeTable.getTags().size() != 0) {
-                    awsrouteTableVO.setNameTag(routeTable.getTags().get(0).getValue().toString());
-                } else {
-                    awsrouteTableVO.setNameTag(" - ");
-                }
-                if (routeTable.getAssociations().size() != 0) {
-                    int k = 1;
-                    for (int j = 0; j < routeTable.getAssociations().size(); j++) {
-                        String subnetId = routeTable.getAssociations().get(j).getSubnetId();
-                        List<String> sIds = new ArrayList<>();
-                        sIds.add(subnetId);
-                        if (routeTable.getAssociations().size() > sIds.size()) {
-                            for (int p = 0; p < routeTable.getRoutes().size(); p++) {
-                                String igw = routeTable.getRoutes().get(p).getGatewayId();
-                                // explicitly associated subnet 보다 association
-                                // 개수가 클 경우
-                                if (subnetId == null && igw != null) {
-                                    // association아래 subnetID없고 route target에
-                                    // internetGateway ID있을 때는 main 테이블이다.
-                                    awsrouteTableVO.setMainYN(true);
-                                }
-                            }
-                        } else if (routeTable.getAssociations().size() == sIds.size()) {
-                            // explicitly associated subnet 개수와 association 개수가
-                            // 같을 경우 해당 association에 대한 main 여부 (boolean)정보를
-                            // 가져온다.
-                            awsrouteTableVO.setMainYN(routeTable.getAssociations().get(j).getMain());
-                        } else {
-                            // do nothing
-                        }
-
-                        if (subnetId != null) {
-                            k++;
-                            awsrouteTableVO.setAssociationCnt(k - 1);
-                        } else {
-                            awsrouteTableVO.setAssociationCnt(0);
-                        }
-                    }
-
-                } else {
-                    awsrouteTableVO.setAssociationCnt(0);
+        for (int i = 0; i < apiAwsRouteTableList.size(); i++) {
+            RouteTable routeTable = apiAwsRouteTableList.get(i);
+            AwsRouteTableMgntVO awsrouteTableVO = new AwsRouteTableMgntVO();
+            awsrouteTableVO.setRouteTableId(routeTable.getRouteTableId());
+            if (routeTable.getTags().size() != 0) {
+                awsrouteTableVO.setNameTag(routeTable.getTags().get(0).getValue().toString());
+            } else {
+                awsrouteTableVO.setNameTag(" - ");
+            }
+            // main 여부와 explicitly associated subnet 개수
+            int associationCnt = 0;
+            boolean main = false;
+            for (RouteTableAssociation association : routeTable.getAssociations()) {
+                if (association.getSubnetId() != null) {
+                    associationCnt++;
                 }
-
-                if (routeTable.getVpcId() != null) {
-                    awsrouteTableVO.setVpcId(routeTable.getVpcId().toString());
-
-                } else {
-                    awsrouteTableVO.setVpcId(" - ");
+                if (Boolean.TRUE.equals(association.getMain())) {
+                    main = true;
                 }
-                awsrouteTableVO.setRecid(i);
-                awsrouteTableVO.setAccountId(accountId);
-                awsrouteTableList.add(awsrouteTableVO);
             }
+            awsrouteTableVO.setMainYN(main);
+            awsrouteTableVO.setAssociationCnt(associationCnt);
+            if (routeTable.getVpcId() != null) {
+                awsrouteTableVO.setVpcId(routeTable.getVpcId().toString());
+            } else {
+                awsrouteTableVO.setVpcId(" - ");
+            }
+            awsrouteTableVO.setRecid(i);
+            awsrouteTableVO.setAccountId(accountId);
+            awsrouteTableList.add(awsrouteTableVO);
         }
         return awsrouteTableList;
     }
@@ -116,37 +93,29 @@ public class AwsRouteTableMgntService {
             String routeTableId) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<RouteTable> apiAwsRouteTableList = awsRouteTableMgntApiService.getAwsRouteTableListApiFromAws(vo,
-                region.getName());
+        RouteTable routeTable = awsNetworkTopologyService.getTopology(vo, region.getName()).getRouteTable(routeTableId);
         List<AwsRouteTableMgntVO> list = new ArrayList<AwsRouteTableMgntVO>();
-        for (int i = 0; i < apiAwsRouteTableList.size(); i++) {
-            String tableId = apiAwsRouteTableList.get(i).getRouteTableId().toString();
-            if (tableId.equals(routeTableId)) {
-                RouteTable routeTable = apiAwsRouteTableList.get(i);
-                for (int j = 0; j < routeTable.getRoutes().size(); j++) {
-
-                    AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
-                    awsRTmgntVo.setRouteTableId(routeTableId);
-
-                    // Propagated 여부
-                    int size = routeTable.getPropagatingVgws().size();
-                    String sizeString = Integer.toString(size);
-                    Boolean exists = !sizeString.equals("0");
-                    awsRTmgntVo.setPropagatedYN(exists);
-
-                    Route route = routeTable.getRoutes().get(j);
-                    awsRTmgntVo.setDestinationIpv4CidrBlock(route.getDestinationCidrBlock());
-                    awsRTmgntVo.setTargetId(route.getGatewayId());
-                    if (route.getNatGatewayId() != null) {
-                        awsRTmgntVo.setTargetId(route.getNatGatewayId());
-                    }
-                    awsRTmgntVo.setStatus(route.getState());
-                    awsRTmgntVo.setRecid(j);
-                    awsRTmgntVo.setAccountId(vo.getId());
+        if (routeTable == null) {
+            return list;
+        }
+        // Propagated 여부
+        Boolean propagated = routeTable.getPropagatingVgws().size() != 0;
+        for (int j = 0; j < routeTable.getRoutes().size(); j++) {
+            AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
+            awsRTmgntVo.setRouteTableId(routeTableId);
+            awsRTmgntVo.setPropagatedYN(propagated);
 
-                    list.add(awsRTmgntVo);
-                }
+            Route route = routeTable.getRoutes().get(j);
+            awsRTmgntVo.setDestinationIpv4CidrBlock(route.getDestinationCidrBlock());
+            awsRTmgntVo.setTargetId(route.getGatewayId());
+            if (route.getNatGatewayId() != null) {
+                awsRTmgntVo.setTargetId(route.getNatGatewayId());
             }
+            awsRTmgntVo.setStatus(route.getState());
+            awsRTmgntVo.setRecid(j);
+            awsRTmgntVo.setAccountId(vo.getId());
+
+            list.add(awsRTmgntVo);
         }
         return list;
     }
@@ -154,8 +123,7 @@ public class AwsRouteTableMgntService {
     /***************************************************
      * @project : AWS 인프라 관리 대시보드
      * @description : AWS 선택 한 Route Table에 대한 Explicitly Associated Subnets 목록
-     *              조회 //routeTable > associations > getSubnetId && get해당
-     *              subnet의 object info 목록
+     *              조회(VPC의 Subnet 별 Route Table 연결 색인으로 조회)
      * @title : getAwsAssociatedWithThisTableSubnetList
      * @return : List<AwsRouteTableMgntVO>
      ***************************************************/
@@ -163,62 +131,24 @@ public class AwsRouteTableMgntService {
             Principal principal, String routeTableId, String vpcId) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<Subnet> apiAwsSubnetList = awsRouteTableMgntApiService.getAwsSubnetInfoListApiFromAws(vo,
-                region.getName());
-        List<RouteTable> apiAwsRouteTableList = awsRouteTableMgntApiService.getAwsRouteTableListApiFromAws(vo,
-                region.getName());
+        AwsNetworkTopology topology = awsNetworkTopologyService.getTopology(vo, region.getName());
+        List<Subnet> vpcSubnets = topology.getSubnets(vpcId);
         List<AwsRouteTableMgntVO> list = new ArrayList<AwsRouteTableMgntVO>();
-        for (int i = 0; i < apiAwsSubnetList.size(); i++) {
-            String subnetVpcId = apiAwsSubnetList.get(i).getVpcId().toString();
-            if (subnetVpcId.equals(vpcId)) {
-                List<String> subnetVpcIds = new ArrayList<String>();
-                subnetVpcIds.add(subnetVpcId);
-                for (int j = 0; j < subnetVpcIds.size(); j++) {
-                    for (int h = 0; h < apiAwsRouteTableList.size(); h++) {
-                        RouteTable apiRouteTable = apiAwsRouteTableList.get(h);
-                        // if(apiRouteTable.getRouteTableId().equals(routeTableId)
-                        // &&
-                        // apiRouteTable.getVpcId().equals(subnetVpcIds.get(j))){
-                        if (apiRouteTable.getRouteTableId().equals(routeTableId)) {
-                            String apiSubnetId = apiAwsSubnetList.get(i).getSubnetId();
-                            if (apiRouteTable.getAssociations().size() != 0) {
-                                AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
-                                int y = apiRouteTable.getAssociations().size();
-                                for (int x = 0; x < y; x++) {
-                                    String tableSubnetId = apiRouteTable.getAssociations().get(x).getSubnetId();
-                                    if (apiSubnetId.equals(tableSubnetId)) {
-                                        awsRTmgntVo.setRouteTableId(
-                                                apiRouteTable.getAssociations().get(x).getRouteTableId());
-                                        awsRTmgntVo.setSubnetId(apiAwsSubnetList.get(i).getSubnetId());
-                                        awsRTmgntVo.setDestinationIpv4CidrBlock(apiAwsSubnetList.get(i).getCidrBlock());
-                                        awsRTmgntVo.setAssociationId(
-                                                apiRouteTable.getAssociations().get(x).getRouteTableAssociationId());
-                                        int vp6size = apiAwsSubnetList.get(i).getIpv6CidrBlockAssociationSet().size();
-                                        if (vp6size != 0) {
-                                            for (int k = 0; k < vp6size; k++) {
-                                                String ipv6Block = "";
-                                                ipv6Block += apiAwsSubnetList.get(i).getIpv6CidrBlockAssociationSet()
-                                                        .get(k).getIpv6CidrBlock();
-                                                awsRTmgntVo.setIpv6CidrBlock(ipv6Block);
-                                            }
-                                        } else if (vp6size == 0) {
-                                            awsRTmgntVo.setIpv6CidrBlock("-");
-                                        }
-
-                                        awsRTmgntVo.setRecid(i);
-                                        awsRTmgntVo.setAccountId(accountId);
-                                        list.add(awsRTmgntVo);
-                                    }
-                                    // else{
-                                    // different routeTable with same vpcId &&
-                                    // not main
-                                    // }
-                                }
-                            }
-                        }
-                    }
-                }
+        for (int i = 0; i < vpcSubnets.size(); i++) {
+            Subnet subnet = vpcSubnets.get(i);
+            RouteTableAssociation association = topology.getRouteTableAssociation(subnet.getSubnetId());
+            if (association == null || !association.getRouteTableId().equals(routeTableId)) {
+                continue;
             }
+            AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
+            awsRTmgntVo.setRouteTableId(association.getRouteTableId());
+            awsRTmgntVo.setSubnetId(subnet.getSubnetId());
+            awsRTmgntVo.setDestinationIpv4CidrBlock(subnet.getCidrBlock());
+            awsRTmgntVo.setAssociationId(association.getRouteTableAssociationId());
+            awsRTmgntVo.setIpv6CidrBlock(getIpv6CidrBlock(subnet));
+            awsRTmgntVo.setRecid(i);
+            awsRTmgntVo.setAccountId(accountId);
+            list.add(awsRTmgntVo);
         }
         return list;
     }
@@ -234,68 +164,47 @@ public class AwsRouteTableMgntService {
             String routeTableId, String vpcId) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<Subnet> apiAwsSubnetList = awsRouteTableMgntApiService.getAwsSubnetInfoListApiFromAws(vo,
-                region.getName());
-        List<RouteTable> apiAwsRouteTableList = awsRouteTableMgntApiService.getAwsRouteTableListApiFromAws(vo,
-                region.getName());
+        AwsNetworkTopology topology = awsNetworkTopologyService.getTopology(vo, region.getName());
+        List<Subnet> vpcSubnets = topology.getSubnets(vpcId);
         List<AwsRouteTableMgntVO> list = new ArrayList<AwsRouteTableMgntVO>();
-        for (int i = 0; i < apiAwsSubnetList.size(); i++) {
-            String subnetVpcId = apiAwsSubnetList.get(i).getVpcId().toString();
-            if (subnetVpcId.equals(vpcId)) {
-                List<String> subnetVpcIds = new ArrayList<String>();
-                subnetVpcIds.add(subnetVpcId);
-                for (int j = 0; j < subnetVpcIds.size(); j++) {
-                    AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
-                    for (int h = 0; h < apiAwsRouteTableList.size(); h++) {
-                        RouteTable routeTable = apiAwsRouteTableList.get(h);
-                        if (routeTable.getVpcId().equals(subnetVpcIds.get(j))) {
-                            String apiSubnetId = apiAwsSubnetList.get(i).getSubnetId();
-                            if (routeTable.getAssociations().size() != 0) {
-                                int y = routeTable.getAssociations().size();
-                                for (int x = 0; x < y; x++) {
-                                    String tableSubnetId = routeTable.getAssociations().get(x).getSubnetId();
-                                    String rTableId = routeTable.getAssociations().get(x).getRouteTableId();
-                                    if (apiSubnetId.equals(tableSubnetId)) {
-                                        if (rTableId.equals(routeTableId)) {
-                                            awsRTmgntVo.setRouteTableId("associated to " + rTableId);
-                                            awsRTmgntVo.setCheck(true);
-                                            awsRTmgntVo.setAssociationId(
-                                                    routeTable.getAssociations().get(x).getRouteTableAssociationId());
-                                        } else {
-                                            awsRTmgntVo.setRouteTableId(rTableId);
-                                            awsRTmgntVo.setAssociationId(
-                                                    routeTable.getAssociations().get(x).getRouteTableAssociationId());
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        /*
-                         * else{ awsRTmgntVo.setRouteTableId(""); }
-                         */
-                    }
-                    awsRTmgntVo.setSubnetId(apiAwsSubnetList.get(i).getSubnetId());
-                    awsRTmgntVo.setDestinationIpv4CidrBlock(apiAwsSubnetList.get(i).getCidrBlock());
-                    int vp6size = apiAwsSubnetList.get(i).getIpv6CidrBlockAssociationSet().size();
-                    if (vp6size != 0) {
-                        for (int k = 0; k < vp6size; k++) {
-                            String ipv6Block = "";
-                            ipv6Block += apiAwsSubnetList.get(i).getIpv6CidrBlockAssociationSet().get(k)
-                                    .getIpv6CidrBlock();
-                            awsRTmgntVo.setIpv6CidrBlock(ipv6Block);
-                        }
-                    } else if (vp6size == 0) {
-                        awsRTmgntVo.setIpv6CidrBlock("-");
-                    }
-                    awsRTmgntVo.setRecid(i);
-                    awsRTmgntVo.setAccountId(accountId);
-                    list.add(awsRTmgntVo);
+        for (int i = 0; i < vpcSubnets.size(); i++) {
+            Subnet subnet = vpcSubnets.get(i);
+            AwsRouteTableMgntVO awsRTmgntVo = new AwsRouteTableMgntVO();
+            RouteTableAssociation association = topology.getRouteTableAssociation(subnet.getSubnetId());
+            if (association != null) {
+                String rTableId = association.getRouteTableId();
+                if (rTableId.equals(routeTableId)) {
+                    awsRTmgntVo.setRouteTableId("associated to " + rTableId);
+                    awsRTmgntVo.setCheck(true);
+                } else {
+                    awsRTmgntVo.setRouteTableId(rTableId);
                 }
+                awsRTmgntVo.setAssociationId(association.getRouteTableAssociationId());
             }
+            awsRTmgntVo.setSubnetId(subnet.getSubnetId());
+            awsRTmgntVo.setDestinationIpv4CidrBlock(subnet.getCidrBlock());
+            awsRTmgntVo.setIpv6CidrBlock(getIpv6CidrBlock(subnet));
+            awsRTmgntVo.setRecid(i);
+            awsRTmgntVo.setAccountId(accountId);
+            list.add(awsRTmgntVo);
         }
         return list;
     }
 
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Subnet의 IPv6 CIDR Block(마지막 값, 없으면 "-")
+     * @title : getIpv6CidrBlock
+     * @return : String
+     ***************************************************/
+    private String getIpv6CidrBlock(Subnet subnet) {
+        int size = subnet.getIpv6CidrBlockAssociationSet().size();
+        if (size == 0) {
+            return "-";
+        }
+        return subnet.getIpv6CidrBlockAssociationSet().get(size - 1).getIpv6CidrBlock();
+    }
+
     /***************************************************
      * @project : AWS 인프라 관리 대시보드
      * @description : AWS VPC ID 목록 조회
@@ -305,7 +214,7 @@ public class AwsRouteTableMgntService {
     public List<AwsRouteTableMgntVO> getAwsVpcIdList(int accountId, String regionName, Principal principal) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<Vpc> apiVpcIdList = awsRouteTableMgntApiService.getAwsVpcIdListApiFromAws(vo, region.getName());
+        List<Vpc> apiVpcIdList = awsNetworkTopologyService.getTopology(vo, region.getName()).getVpcs();
         List<AwsRouteTableMgntVO> awsVpcIdList = new ArrayList<AwsRouteTableMgntVO>();
         for (int i = 0; i < apiVpcIdList.size(); i++) {
             Vpc vpc = apiVpcIdList.get(i);
@@ -313,15 +222,7 @@ public class AwsRouteTableMgntService {
             AwsRouteTableMgntVO awsRouteTableVO = new AwsRouteTableMgntVO();
             awsRouteTableVO.setVpcId(vpc.getVpcId().toString());
             if (vpc.getTags().size() != 0) {
-                String result = "";
-                for (int j = 0; j < vpc.getTags().size(); j++) {
-                    result += vpc.getTags().get(j).getValue().toString();
-                    if (result != "null") {
-                        awsRouteTableVO.setNameTag(result);
-                    } else if (result == "null") {
-                        awsRouteTableVO.setNameTag("");
-                    }
-                }
+                awsRouteTableVO.setNameTag(getTagValues(vpc.getTags()));
             }
             awsRouteTableVO.setRecid(i);
             awsRouteTableVO.setAccountId(accountId);
@@ -333,61 +234,54 @@ public class AwsRouteTableMgntService {
 
     /***************************************************
      * @project : AWS 인프라 관리 대시보드
-     * @description : AWS Target 목록 조회
+     * @description : AWS Target 목록 조회(VPC에 연결된 Internet Gateway, 사용 가능한 NAT Gateway)
      * @title : getAwsTargetInfoList
      * @return : List<AwsRouteTableMgntVO>
      ***************************************************/
     public ArrayList<String> getAwsTargetInfoList(int accountId, String regionName, Principal principal, String vpcId) {
         IaasAccountMgntVO vo = getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<InternetGateway> apiAwsIGWList = awsRouteTableMgntApiService.getAwsIGWListApiFromAws(vo, region.getName());
-        int cnt = 1;
+        AwsNetworkTopology topology = awsNetworkTopologyService.getTopology(vo, region.getName());
         ArrayList<String> targets = new ArrayList<String>();
-        if (apiAwsIGWList != null && apiAwsIGWList.size() != 0) {
-            for (int i = 0; i < apiAwsIGWList.size(); i++) {
-                InternetGateway igw = apiAwsIGWList.get(i);
-                for (int m = 0; m < igw.getAttachments().size(); m++) {
-                    if (igw.getAttachments().get(m).getVpcId().equals(vpcId)) {
-                        String result = "";
-                        if (igw.getTags().size() != 0) {
-                            for (int j = 0; j < igw.getTags().size(); j++) {
-                                result += igw.getTags().get(j).getValue().toString();
-                            }
-                            if (result != "" && result != "null") {
-                                targets.add(cnt - 1, igw.getInternetGatewayId().toString() + " | " + result);
-                            }
-                        } else {
-                            targets.add(cnt - 1, igw.getInternetGatewayId().toString());
-                        }
-                        cnt++;
-                    }
-                }
-            }
+        for (InternetGateway igw : topology.getInternetGateways(vpcId)) {
+            targets.add(getTargetName(igw.getInternetGatewayId(), getTagValues(igw.getTags())));
         }
-        List<NatGateway> apiAwsNatGWList = awsRouteTableMgntApiService.getAwsNatGatewayListApiFromAws(vo,
-                region.getName());
-        int cntt = 1;
-        if (apiAwsNatGWList != null && apiAwsNatGWList.size() != 0) {
-            for (int k = 0; k < apiAwsNatGWList.size(); k++) {
-                NatGateway natgw = apiAwsNatGWList.get(k);
-                if (natgw != null) {
-                    if (natgw.getState().equals("available") && natgw.getVpcId().equals(vpcId)) {
-                        if (!natgw.getClass().getSimpleName().isEmpty()) {
-                            targets.add(cnt - 1 + cntt - 1,
-                                    natgw.getNatGatewayId().toString() + " | " + natgw.getClass().getSimpleName());
-                        }
-                        targets.add(cnt - 1 + cntt - 1, natgw.getNatGatewayId().toString());
-                        cntt++;
-                    }
-                }
+        for (NatGateway natgw : topology.getNatGateways(vpcId)) {
+            if ("available".equals(natgw.getState())) {
+                targets.add(natgw.getNatGatewayId());
             }
         }
-        if (targets == null || targets.size() == 0) {
-            // do nothing
-        }
         return targets;
     }
 
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Target 표시 명("ID | 이름" 또는 이름이 없으면 "ID")
+     * @title : getTargetName
+     * @return : String
+     ***************************************************/
+    private String getTargetName(String targetId, String name) {
+        if (name.isEmpty() || "null".equals(name)) {
+            return targetId;
+        }
+        return targetId + " | " + name;
+    }
+
+    /***************************************************
+     * @project : AWS 인프라 관리 대시보드
+     * @description : Tag 값을 이어 붙인 이름
+     * @title : getTagValues
+     * @return : String
+     ***************************************************/
+    private String getTagValues(List<Tag> tags) {
+        String result = "";
+        for (Tag tag : tags) {
+            result += tag.getValue();
+        }
+        return result;
+    }
+
+
     /***************************************************
      * @project : AWS 인프라 관리 대시보드
      * @description : AWS Route Table 생성
@@ -399,6 +293,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.createAwsRouteTableFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -422,6 +317,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.createAwsRouteFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -446,6 +342,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.deleteAwsRouteInRouteTableFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -469,6 +366,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.associateAwsSubnetWithRouteTableFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -493,6 +391,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.disassociateAwsSubnetFromRouteTableFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -516,6 +415,7 @@ public class AwsRouteTableMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try {
             awsRouteTableMgntApiService.deleteAwsRouteTableFromAws(vo, region.getName(), dto);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -8,6 +8,7 @@ import java.util.Locale;
 
 import org.apache.commons.lang.StringUtils;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.securityGroup.dao.AwsSecurityGroupMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.securityGroup.dto.AwsSecurityGroupMgntDTO;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
@@ -27,6 +28,7 @@ import com.amazonaws.services.ec2.model.SecurityGroup;
 public class AwsSecurityGroupMgntService {
 
     @Autowired AwsSecurityGroupMgntApiService awsSecurityGroupMgntApiService;
+    @Autowired AwsNetworkTopologyService awsNetworkTopologyService;
     @Autowired CommonIaasService commonIaasService;
     @Autowired CommonIaasDAO commonIaasDao;
     @Autowired MessageSource message;
@@ -40,7 +42,7 @@ public class AwsSecurityGroupMgntService {
     public List<AwsSecurityGroupMgntVO> getAwsSecurityGroupInfoList(Principal principal, int accountId, String regionName) {
         IaasAccountMgntVO vo =  getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        List<SecurityGroup> awsSecurityGroupList = awsSecurityGroupMgntApiService.getAwsSecurityGroupInfoListApiFromAws(vo, region);
+        List<SecurityGroup> awsSecurityGroupList = awsNetworkTopologyService.getTopology(vo, region.getName()).getSecurityGroups();
          
         List<AwsSecurityGroupMgntVO> list = new ArrayList<AwsSecurityGroupMgntVO>();
         for (int i=0; i<awsSecurityGroupList.size(); i++ ){
@@ -204,6 +206,7 @@ public class AwsSecurityGroupMgntService {
         IaasAccountMgntVO vo =  getAwsAccountInfo( principal, dto.getAccountId());
         Region region = getAwsRegionInfo(dto.getRegion());
         String groupId = awsSecurityGroupMgntApiService.saveSecurityGroupFromAws(vo,dto, region);
+        awsNetworkTopologyService.invalidate(vo, dto.getRegion());
         if( !StringUtils.isEmpty(groupId) && !dto.getIngressRuleType().equals("none") ){
             dto.setGroupId(groupId);
             saveAwsSecurityGroupRule(dto, principal, region);
@@ -225,6 +228,7 @@ public class AwsSecurityGroupMgntService {
             throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                     message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
         }
+        awsNetworkTopologyService.invalidate(vo, dto.getRegion());
     }
     
     
@@ -242,6 +246,7 @@ public class AwsSecurityGroupMgntService {
              throw new CommonException(message.getMessage("common.badRequest.exception.code", null, Locale.KOREA),
                      message.getMessage("common.badRequest.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
          }
+         awsNetworkTopologyService.invalidate(vo, dto.getRegion());
      }
     
     
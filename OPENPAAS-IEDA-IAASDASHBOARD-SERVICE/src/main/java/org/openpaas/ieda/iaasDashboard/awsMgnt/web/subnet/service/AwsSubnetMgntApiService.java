@@ -11,10 +11,8 @@ import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.services.ec2.AmazonEC2Client;
-import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
 import com.amazonaws.services.ec2.model.CreateSubnetRequest;
 import com.amazonaws.services.ec2.model.CreateSubnetResult;
 import com.amazonaws.services.ec2.model.CreateTagsRequest;
@@ -38,8 +36,7 @@ public class AwsSubnetMgntApiService {
      * @return : List<Subnet>
      ***************************************************/
     public List<Subnet> getAwsSubnetInfoListApiFromAws(IaasAccountMgntVO vo, Region region) {
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
         List<Subnet> subnets = ec2.describeSubnets().getSubnets();
         return subnets;
     }
@@ -53,8 +50,7 @@ public class AwsSubnetMgntApiService {
      * @return : HashMap<String, Object> 
      ***************************************************/
     public HashMap<String, Object> getAwsSubnetDetailInfoFromAws(IaasAccountMgntVO vo, String subnetId, Region region) {
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
         
         DescribeSubnetsRequest subnetsRequest = new DescribeSubnetsRequest();
         subnetsRequest.withSubnetIds(subnetId);
@@ -80,8 +76,7 @@ public class AwsSubnetMgntApiService {
      * @return : void
      ***************************************************/
     public void saveSubnetFromAws(IaasAccountMgntVO vo, AwsSubnetMgntDTO dto, Region region ){
-        AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-        AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+        AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
        
         CreateSubnetRequest subnetRequest = new CreateSubnetRequest();
         subnetRequest.withVpcId(dto.getVpcId())
@@ -120,8 +115,7 @@ public class AwsSubnetMgntApiService {
      * @return : void
      ***************************************************/
      public void deleteSubnetInfoFromAws(IaasAccountMgntVO vo, AwsSubnetMgntDTO dto, Region region) {
-         AWSStaticCredentialsProvider provider = commonApiService.getAwsStaticCredentialsProvider(vo.getCommonAccessUser(), vo.getCommonAccessSecret());
-         AmazonEC2Client ec2 =  (AmazonEC2Client)AmazonEC2ClientBuilder.standard().withRegion(region.getName()).withCredentials(provider).build();
+         AmazonEC2Client ec2 = commonApiService.getAmazonEC2Client(vo.getCommonAccessUser(), vo.getCommonAccessSecret(), region.getName());
          DeleteSubnetRequest request = new DeleteSubnetRequest();
          request.setSubnetId(dto.getSubnetId());
          ec2.deleteSubnet(request);
@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.subnet.dao.AwsSubnetMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.subnet.dto.AwsSubnetMgntDTO;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntVO;
@@ -25,6 +27,7 @@ import com.amazonaws.services.ec2.model.Subnet;
 public class AwsSubnetMgntService {
 
     @Autowired AwsSubnetMgntApiService awsSubnetMgntApiService;
+    @Autowired AwsNetworkTopologyService awsNetworkTopologyService;
     @Autowired CommonIaasService commonIaasService;
     @Autowired MessageSource message;
     
@@ -82,41 +85,32 @@ public class AwsSubnetMgntService {
      * @title : getAwsSubnetDetailInfo
      * @return : AwsSubnetMgntVO
      ***************************************************/
-    @SuppressWarnings("unchecked")
     public HashMap<String, Object> getAwsSubnetDetailInfo(int accountId, String subnetId, Principal principal, String regionName) {
         IaasAccountMgntVO vo =  getAwsAccountInfo(principal, accountId);
         Region region = getAwsRegionInfo(regionName);
-        HashMap<String, Object> detailMap = awsSubnetMgntApiService.getAwsSubnetDetailInfoFromAws(vo, subnetId, region);
+        AwsNetworkTopology topology = awsNetworkTopologyService.getTopology(vo, region.getName());
         HashMap<String, Object> map = new HashMap<String, Object>();
         
-        List<Subnet> subnetList = (List<Subnet>) detailMap.get("subnets");
-        for(int i=0; i<subnetList.size(); i++){
-            Subnet subnet = subnetList.get(i);
-            if(subnet.getSubnetId().equals(subnetId)){
-                map.put("subnetId", subnetId);
-                map.put("state", subnet.getState());
-                map.put("cidrBlock", subnet.getCidrBlock());
-                map.put("availabilityZone", subnet.getAvailabilityZone());
-                map.put("vpcId", subnet.getVpcId());
-                map.put("defaultSubnet", subnet.getDefaultForAz());
-                map.put("autoAssignPublicIp", subnet.getMapPublicIpOnLaunch());
-                map.put("assignIpv6AddressOnCreation", subnet.getAssignIpv6AddressOnCreation());
-                map.put("availableIpAddressCount", subnet.getAvailableIpAddressCount());
-                map.put("ipv6CidrBlock", getIpv6CidrBlock(subnet) );
-                String vpcId = subnet.getVpcId();
-            
-                List<RouteTable> routeTables = (List<RouteTable>) detailMap.get("routeTables");
-                List<NetworkAcl> networkAcls = (List<NetworkAcl>) detailMap.get("networkAcls");
-                for( int j=0; j < routeTables.size(); j++ ){
-                    if(routeTables.get(j).getVpcId().equalsIgnoreCase(vpcId)){
-                        map.put("routeTable", routeTables.get(i).getRouteTableId());
-                   }
-                }
-                for( int j=0; j < networkAcls.size(); j++ ){
-                    if(networkAcls.get(j).getVpcId().equalsIgnoreCase(vpcId)){
-                        map.put("networkAcl", networkAcls.get(i).getNetworkAclId());
-                   }
-                }
+        Subnet subnet = topology.getSubnet(subnetId);
+        if( subnet != null ){
+            map.put("subnetId", subnetId);
+            map.put("state", subnet.getState());
+            map.put("cidrBlock", subnet.getCidrBlock());
+            map.put("availabilityZone", subnet.getAvailabilityZone());
+            map.put("vpcId", subnet.getVpcId());
+            map.put("defaultSubnet", subnet.getDefaultForAz());
+            map.put("autoAssignPublicIp", subnet.getMapPublicIpOnLaunch());
+            map.put("assignIpv6AddressOnCreation", subnet.getAssignIpv6AddressOnCreation());
+            map.put("availableIpAddressCount", subnet.getAvailableIpAddressCount());
+            map.put("ipv6CidrBlock", getIpv6CidrBlock(subnet) );
+            //Subnet에 연결된 Route Table/Network ACL(명시적 연결이 없으면 VPC의 main/default)
+            RouteTable routeTable = topology.getSubnetRouteTable(subnetId);
+            if( routeTable != null ){
+                map.put("routeTable", routeTable.getRouteTableId());
+            }
+            NetworkAcl networkAcl = topology.getSubnetNetworkAcl(subnetId);
+            if( networkAcl != null ){
+                map.put("networkAcl", networkAcl.getNetworkAclId());
             }
         }
        return map;
@@ -154,6 +148,7 @@ public class AwsSubnetMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
             awsSubnetMgntApiService.saveSubnetFromAws(vo, dto, region);
+            awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -177,6 +172,7 @@ public class AwsSubnetMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
              awsSubnetMgntApiService.deleteSubnetInfoFromAws(vo, dto, region);
+             awsNetworkTopologyService.invalidate(vo, region.getName());
         } catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.api.vpc.AwsVpcMgntApiService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.vpc.dao.AwsVpcMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.vpc.dto.AwsVpcMgntDTO;
@@ -24,6 +25,7 @@ import com.amazonaws.services.ec2.model.Vpc;
 public class AwsVpcMgntService {
     
     @Autowired AwsVpcMgntApiService awsVpcMgntApiService;
+    @Autowired AwsNetworkTopologyService awsNetworkTopologyService;
     @Autowired CommonIaasService commonIaasService;
     @Autowired MessageSource message;
     
@@ -155,6 +157,7 @@ public class AwsVpcMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
         awsVpcMgntApiService.saveAwsVpcInfoApiFromAws(vo, dto, region.getName());
+        awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -178,6 +181,7 @@ public class AwsVpcMgntService {
         Region region = getAwsRegionInfo(dto.getRegion());
         try{
         awsVpcMgntApiService.deleteAwsVpcInfoApiFromAws(vo, dto, region.getName());
+        awsNetworkTopologyService.invalidate(vo, region.getName());
         }catch (Exception e) {
             String detailMessage = e.getMessage();
             if(!detailMessage.equals("") && detailMessage != null){
@@ -24,6 +24,7 @@ import javax.servlet.http.HttpSession;
 import org.apache.commons.lang3.StringUtils;
 import org.openpaas.ieda.common.api.LocalDirectoryConfiguration;
 import org.openpaas.ieda.common.exception.CommonException;
+import org.openpaas.ieda.common.web.common.service.CommonApiService;
 import org.openpaas.ieda.common.web.security.SessionInfoDTO;
 import org.openpaas.ieda.iaasDashboard.api.account.IaasAccountMgntApiService;
 import org.openpaas.ieda.iaasDashboard.web.account.dao.IaasAccountMgntDAO;
@@ -153,6 +154,8 @@ public class IaasAccountMgntService {
             }
         }else{
             vo =  dao.selectIaasAccountInfo(principal.getName(), iaasType, Integer.parseInt(dto.getId()));
+            //수정 전 접근 정보로 발급된 SDK 클라이언트/토큰 삭제
+            invalidateIaasClients(vo);
         }
         vo.setOpenstackDomain(dto.getOpenstackDomain());
         vo.setCommonTenant(dto.getCommonTenant());
@@ -205,9 +208,25 @@ public class IaasAccountMgntService {
            throw new CommonException(
                    message.getMessage("common.internalServerError.exception.code", null, Locale.KOREA), message.getMessage("common.database.internalServerError.message", null, Locale.KOREA), HttpStatus.BAD_REQUEST);
        }
+       if( !StringUtils.isEmpty(dto.getIaasType()) ){
+           invalidateIaasClients(dao.selectIaasAccountInfo(session.getUserId(), dto.getIaasType(), Integer.parseInt(dto.getId())));
+       }
        dao.deleteIaasAccountInfo(session.getUserId(),Integer.parseInt(dto.getId()));
     }
     
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정 수정/삭제 시 재사용 중인 SDK 클라이언트/인증 토큰 삭제
+     * @title : invalidateIaasClients
+     * @return : void
+    ***************************************************/
+    private void invalidateIaasClients(IaasAccountMgntVO vo){
+        if( vo != null ){
+            CommonApiService.invalidateAccount(vo.getCommonAccessUser());
+            CommonApiService.invalidateAccount(vo.getGoogleJsonKeyPath());
+        }
+    }
+    
     /****************************************************************
      * @project : Paas 플랫폼 설치 자동화
      * @description : Google Json 키 파일 목록 조회
@@ -266,6 +285,7 @@ public class IaasAccountMgntService {
                 Set<PosixFilePermission> pfp = new HashSet<PosixFilePermission>();
                 pfp.add(PosixFilePermission.OWNER_READ);
                 Files.setPosixFilePermissions(Paths.get(keyFilePath), pfp);
+                CommonApiService.invalidateAccount(mpf.getOriginalFilename());
                 
             } catch (IOException e) {
                 if(LOGGER.isErrorEnabled()){ LOGGER.error(e.getMessage()); }
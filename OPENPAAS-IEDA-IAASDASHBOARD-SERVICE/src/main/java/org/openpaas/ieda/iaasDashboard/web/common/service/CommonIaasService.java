@@ -1,16 +1,11 @@
 package org.openpaas.ieda.iaasDashboard.web.common.service;
 
 import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
-import java.security.KeyFactory;
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.security.PrivateKey;
-import java.security.PublicKey;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.RSAPublicKeySpec;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -49,40 +44,28 @@ public class CommonIaasService {
     @Autowired CommonApiService commonApiService;
     @Autowired IaasAccountMgntApiService api;
     @Autowired IaasAccountMgntDAO iaasAccountDao;
+    @Autowired RsaKeyPairPool rsaKeyPairPool;
     /***************************************************
      * @project : 인프라 관리 대시보드
-     * @description : RSA PublicKey 생성
+     * @description : RSA PublicKey 생성(미리 생성된 키 쌍을 풀에서 발급)
      * @title : getPublicKey
      * @return : HashMap<String,Object>
     ***************************************************/
     public HashMap<String, Object> getPublicKey(HttpServletRequest request){
         HashMap<String, Object> map = new HashMap<String, Object>();
-        KeyPairGenerator generator;
+        RsaKeyPairPool.PooledKeyPair keyPair;
         try {
-            generator = KeyPairGenerator.getInstance("RSA");
-            generator.initialize(1024);
-            KeyPair keyPair = generator.genKeyPair();
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-
-            PublicKey publicKey = keyPair.getPublic();
-            PrivateKey privateKey = keyPair.getPrivate();
-            HttpSession session = request.getSession();
-            
-            // 세션에 공개키의 문자열을 키로하여 개인키를 저장한다.
-            session.setAttribute("__rsaPrivateKey__", privateKey);
-            RSAPublicKeySpec publicSpec = (RSAPublicKeySpec) keyFactory.getKeySpec(publicKey, RSAPublicKeySpec.class);
-            
-            String publicKeyModulus = publicSpec.getModulus().toString(16);
-            String publicKeyExponent = publicSpec.getPublicExponent().toString(16);
-            map.put("publicKeyModulus", publicKeyModulus);
-            map.put("publicKeyExponent", publicKeyExponent);
-        } catch (NoSuchAlgorithmException e) {
-            throw new CommonException(message.getMessage("common.rsa.privateKey.exception.code", null, Locale.KOREA), 
-                    message.getMessage("common.rsa.publicKey.exception.message",null, Locale.KOREA), HttpStatus.BAD_REQUEST);
-        } catch (InvalidKeySpecException e) {
+            keyPair = rsaKeyPairPool.take();
+        } catch (GeneralSecurityException e) {
             throw new CommonException(message.getMessage("common.rsa.privateKey.exception.code", null, Locale.KOREA), 
                     message.getMessage("common.rsa.publicKey.exception.message",null, Locale.KOREA), HttpStatus.BAD_REQUEST);
         }
+        HttpSession session = request.getSession();
+        
+        // 세션에 공개키의 문자열을 키로하여 개인키를 저장한다.
+        session.setAttribute("__rsaPrivateKey__", keyPair.getPrivateKey());
+        map.put("publicKeyModulus", keyPair.getPublicKeyModulus());
+        map.put("publicKeyExponent", keyPair.getPublicKeyExponent());
         return map;
     }
     
@@ -0,0 +1,203 @@
+package org.openpaas.ieda.iaasDashboard.web.common.service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RsaKeyPairPool {
+
+    final private static int KEY_SIZE = 2048;
+    //로그인/계정 화면이 동시에 몰려도 비지 않도록 여유 있게 보관
+    final private static int POOL_SIZE = 32;
+    //풀이 비었을 때 생성 스레드가 채워 주기를 기다리는 최대 시간(초과 시 요청 스레드에서 생성)
+    final private static long TAKE_WAIT_TIME = 3 * 1000L;
+    final private static int GENERATOR_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    //발급되지 않은 키도 이 시간이 지나면 폐기하고 새로 생성
+    final private static long KEY_MAX_AGE = 10 * 60 * 1000L;
+    final private static long ROTATE_INTERVAL = 30 * 1000L;
+    private final static Logger LOGGER = LoggerFactory.getLogger(RsaKeyPairPool.class);
+
+    private final int keySize;
+    private final long keyMaxAge;
+    private final BlockingQueue<PooledKeyPair> pool;
+    //생성 중인 키 개수(풀 여유 공간 - 생성 중인 개수 만큼만 추가 생성)
+    private final AtomicInteger generating = new AtomicInteger();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    //키 생성은 요청 스레드가 아닌 별도 스레드에서 동시에 수행
+    private final ExecutorService generator = Executors.newFixedThreadPool(GENERATOR_THREAD_COUNT, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "rsa-keypair-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    public RsaKeyPairPool() {
+        this(KEY_SIZE, POOL_SIZE, KEY_MAX_AGE);
+    }
+
+    RsaKeyPairPool(int keySize, int poolSize, long keyMaxAge) {
+        this.keySize = keySize;
+        this.keyMaxAge = keyMaxAge;
+        this.pool = new LinkedBlockingQueue<PooledKeyPair>(poolSize);
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 미리 생성해 둔 RSA 키 쌍 발급(한 번 발급한 키는 다시 발급하지 않음)
+     *                풀이 비어 있으면 생성 스레드가 채울 때까지 TAKE_WAIT_TIME 동안 대기 후 요청 스레드에서 생성
+     * @title : take
+     * @return : PooledKeyPair
+    ***************************************************/
+    public PooledKeyPair take() throws GeneralSecurityException {
+        PooledKeyPair keyPair;
+        while( (keyPair = pool.poll()) != null && keyPair.isExpired(keyMaxAge) ){
+            //만료된 키 폐기
+        }
+        requestRefill();
+        if( keyPair == null ){
+            try {
+                keyPair = pool.poll(TAKE_WAIT_TIME, TimeUnit.MILLISECONDS);
+                //기다리는 동안 발급된 자리도 다시 채움
+                requestRefill();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if( keyPair == null ){
+            if( LOGGER.isWarnEnabled() ){ LOGGER.warn("rsa keypair pool is empty, generate on request thread"); }
+            keyPair = generate();
+        }
+        return keyPair;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 만료된 키를 폐기하고 풀을 다시 채움(기동 직후 최초 생성 포함)
+     * @title : rotate
+     * @return : void
+    ***************************************************/
+    @Scheduled(initialDelay = 0, fixedDelay = ROTATE_INTERVAL)
+    public void rotate() {
+        for( PooledKeyPair keyPair : pool ){
+            if( keyPair.isExpired(keyMaxAge) ){
+                pool.remove(keyPair);
+            }
+        }
+        requestRefill();
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 풀에 남은 키 개수
+     * @title : size
+     * @return : int
+    ***************************************************/
+    public int size() {
+        return pool.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generator.shutdownNow();
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 생성 스레드에 풀의 빈 자리 만큼 키 생성 요청(생성 중인 키는 빈 자리에서 제외)
+     * @title : requestRefill
+     * @return : void
+    ***************************************************/
+    void requestRefill() {
+        while( true ){
+            int count = generating.get();
+            if( pool.remainingCapacity() - count <= 0 ){
+                return;
+            }
+            if( !generating.compareAndSet(count, count + 1) ){
+                continue;
+            }
+            try {
+                generator.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        boolean offered = false;
+                        try {
+                            offered = pool.offer(generate());
+                        } catch (GeneralSecurityException e) {
+                            if( LOGGER.isErrorEnabled() ){ LOGGER.error("rsa keypair generate error : " + e.getMessage()); }
+                        } finally {
+                            generating.decrementAndGet();
+                        }
+                        //생성 중에 발급된 자리가 있으면 다시 채움
+                        if( offered ){
+                            requestRefill();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                //종료된 경우
+                generating.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private PooledKeyPair generate() throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(keySize);
+        KeyPair keyPair = keyPairGenerator.genKeyPair();
+        RSAPublicKeySpec publicSpec = KeyFactory.getInstance("RSA").getKeySpec(keyPair.getPublic(), RSAPublicKeySpec.class);
+        return new PooledKeyPair(keyPair.getPrivate(), publicSpec.getModulus().toString(16), publicSpec.getPublicExponent().toString(16));
+    }
+
+    public static class PooledKeyPair {
+        private final PrivateKey privateKey;
+        private final String publicKeyModulus;
+        private final String publicKeyExponent;
+        private final long createdAt = System.currentTimeMillis();
+
+        PooledKeyPair(PrivateKey privateKey, String publicKeyModulus, String publicKeyExponent) {
+            this.privateKey = privateKey;
+            this.publicKeyModulus = publicKeyModulus;
+            this.publicKeyExponent = publicKeyExponent;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+
+        public String getPublicKeyModulus() {
+            return publicKeyModulus;
+        }
+
+        public String getPublicKeyExponent() {
+            return publicKeyExponent;
+        }
+
+        boolean isExpired(long maxAge) {
+            return System.currentTimeMillis() - createdAt > maxAge;
+        }
+    }
+}
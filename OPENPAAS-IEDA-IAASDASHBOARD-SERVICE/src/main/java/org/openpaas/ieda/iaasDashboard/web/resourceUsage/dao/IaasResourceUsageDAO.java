@@ -0,0 +1,60 @@
+package org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
+public interface IaasResourceUsageDAO {
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 리소스 사용량을 수집할 인프라(AWS, Openstack, Azure) 계정 목록 조회
+     *                (userId가 없으면 전체 사용자)
+     * @title : selectResourceUsageAccountList
+     * @return : List<HashMap<String, Object>>
+    ***************************************************/
+    List<HashMap<String, Object>> selectResourceUsageAccountList(@Param("userId") String userId);
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정 별 리소스 사용량 스냅샷 저장
+     * @title : insertResourceUsage
+     * @return : int
+    ***************************************************/
+    int insertResourceUsage(@Param("snapshot") IaasResourceUsageVO vo, @Param("userId") String userId, @Param("collectDate") Date collectDate);
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정 별 마지막 리소스 사용량 스냅샷 목록 조회
+     *                (마지막 수집이 ERROR/TIMEOUT 이면 마지막 OK 스냅샷, OK 스냅샷이 없으면 마지막 스냅샷)
+     * @title : selectLatestResourceUsageList
+     * @return : List<IaasResourceUsageVO>
+    ***************************************************/
+    List<IaasResourceUsageVO> selectLatestResourceUsageList(@Param("userId") String userId);
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 리소스 사용량 이력 조회
+     * @title : selectResourceUsageHistoryList
+     * @return : List<IaasResourceUsageVO>
+    ***************************************************/
+    List<IaasResourceUsageVO> selectResourceUsageHistoryList(@Param("userId") String userId, @Param("resolution") String resolution, @Param("fromDate") Date fromDate);
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 끝난 구간(before 이전)의 스냅샷을 구간(format) 별 평균으로 요약 저장
+     * @title : insertResourceUsageRollup
+     * @return : int
+    ***************************************************/
+    int insertResourceUsageRollup(@Param("source") String source, @Param("target") String target, @Param("format") String format, @Param("before") Date before);
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 보관 기간이 지난 스냅샷 삭제
+     * @title : deleteResourceUsage
+     * @return : int
+    ***************************************************/
+    int deleteResourceUsage(@Param("resolution") String resolution, @Param("before") Date before);
+}
@@ -2,12 +2,21 @@ package org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao;
 
 public class IaasResourceUsageVO {
     
+    private int accountId; //계정 아이디
     private String accountName; //계정 별칭
     private String iaasType; //클라우드 인프라 유형
     private long instance; //인스턴스
     private long network; //네트워크
     private long volume; //볼륨
     private Double billing; //과금
+    private String status; //조회 결과(OK, TIMEOUT, ERROR)
+    private String collectDate; //조회 시각
+    public int getAccountId() {
+        return accountId;
+    }
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
     public String getAccountName() {
         return accountName;
     }
@@ -44,5 +53,17 @@ public class IaasResourceUsageVO {
     public void setBilling(Double billing) {
         this.billing = billing;
     }
+    public String getStatus() {
+        return status;
+    }
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    public String getCollectDate() {
+        return collectDate;
+    }
+    public void setCollectDate(String collectDate) {
+        this.collectDate = collectDate;
+    }
     
 }
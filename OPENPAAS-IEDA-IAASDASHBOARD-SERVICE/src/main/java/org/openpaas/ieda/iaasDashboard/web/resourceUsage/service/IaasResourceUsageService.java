@@ -1,20 +1,43 @@
 package org.openpaas.ieda.iaasDashboard.web.resourceUsage.service;
 
 import java.security.Principal;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.openpaas.ieda.common.async.AsyncExecutorConfig;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.common.web.common.dao.CommonDAO;
 import org.openpaas.ieda.iaasDashboard.api.resourceUsage.IaasResourceUsageApiService;
 import org.openpaas.ieda.iaasDashboard.web.common.service.CommonIaasService;
+import org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao.IaasResourceUsageDAO;
 import org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao.IaasResourceUsageVO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.MessageSource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -25,38 +48,313 @@ import com.amazonaws.regions.Region;
 public class IaasResourceUsageService {
     
     @Autowired CommonDAO commonDao; 
+    @Autowired IaasResourceUsageDAO resourceUsageDao;
     @Autowired CommonIaasService commonIaasService;
     @Autowired IaasResourceUsageApiService apiService;
     @Autowired MessageSource message;
+    @Autowired @Qualifier(AsyncExecutorConfig.IAAS_QUERY_EXECUTOR) AsyncTaskExecutor executor;
     final static Logger LOGGER = LoggerFactory.getLogger(IaasResourceUsageService.class);
     
+    final private static String STATUS_OK = "OK";
+    final private static String STATUS_TIMEOUT = "TIMEOUT";
+    final private static String STATUS_ERROR = "ERROR";
+    //인프라 별 조회 제한 시간(전체 조회 시작 시점 기준)
+    final private static long AWS_DEADLINE = 20 * 1000L;
+    final private static long OPENSTACK_DEADLINE = 20 * 1000L;
+    final private static long AZURE_DEADLINE = 40 * 1000L;
+    //스냅샷 수집 주기
+    final private static long SNAPSHOT_INTERVAL = 10 * 60 * 1000L;
+    final private static long SNAPSHOT_INITIAL_DELAY = 60 * 1000L;
+    //스냅샷 해상도 : 수집 원본(RAW), 시간 평균(HOUR), 일 평균(DAY)
+    final private static String RESOLUTION_RAW = "RAW";
+    final private static String RESOLUTION_HOUR = "HOUR";
+    final private static String RESOLUTION_DAY = "DAY";
+    //해상도 별 보관 기간(일)
+    final private static int RAW_RETENTION_DAYS = 2;
+    final private static int HOUR_RETENTION_DAYS = 31;
+    final private static int DAY_RETENTION_DAYS = 366;
+    final private static String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    //스냅샷 수집은 최대 40초 동안 대기하므로 공용 스케줄러가 아닌 전용 스레드에서 실행
+    private ScheduledExecutorService snapshotScheduler;
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 스냅샷 수집 전용 스케줄러 시작
+     * @title : initialize
+     * @return : void
+    ***************************************************/
+    @PostConstruct
+    public void initialize(){
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "iaas-resource-usage-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        snapshotScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                collectResourceUsageSnapshot();
+            }
+        }, SNAPSHOT_INITIAL_DELAY, SNAPSHOT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 스냅샷 수집 전용 스케줄러 종료
+     * @title : shutdown
+     * @return : void
+    ***************************************************/
+    @PreDestroy
+    public void shutdown(){
+        if( snapshotScheduler != null ){
+            snapshotScheduler.shutdownNow();
+            snapshotScheduler = null;
+        }
+    }
+    
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : 인프라 전체 리소스 사용량 정보 조회
+     *                주기적으로 수집한 계정 별 마지막 스냅샷(collectDate 기준 시각)을 응답하고
+     *                아직 스냅샷이 없는 계정(새로 등록된 계정)만 직접 조회 후 저장
      * @title : getIaasResourceUsageTotalInfo
      * @return : List<IaasResourceUsageVO>
     ***************************************************/
     public List<IaasResourceUsageVO> getIaasResourceUsageTotalInfo( Principal principal  ){
+        List<IaasResourceUsageVO> resourceList = resourceUsageDao.selectLatestResourceUsageList(principal.getName());
+        Set<Integer> collected = new HashSet<Integer>();
+        for( IaasResourceUsageVO resource : resourceList ){
+            collected.add(resource.getAccountId());
+        }
+        List<HashMap<String, Object>> accounts = new ArrayList<HashMap<String, Object>>();
+        for( HashMap<String, Object> at : resourceUsageDao.selectResourceUsageAccountList(principal.getName()) ){
+            if( !collected.contains(Integer.parseInt(at.get("id").toString())) ){
+                accounts.add(at);
+            }
+        }
+        if( !accounts.isEmpty() ){
+            resourceList.addAll(saveResourceUsage(accounts, collectResourceUsage(accounts), new Date()));
+        }
+        return resourceList; 
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 인프라 전체 리소스 사용량 이력 조회(조회 기간에 따라 원본/시간 평균/일 평균)
+     * @title : getIaasResourceUsageHistoryList
+     * @return : List<IaasResourceUsageVO>
+    ***************************************************/
+    public List<IaasResourceUsageVO> getIaasResourceUsageHistoryList( int days, Principal principal ){
+        int period = Math.max(1, Math.min(days, DAY_RETENTION_DAYS));
+        String resolution = RESOLUTION_DAY;
+        if( period <= RAW_RETENTION_DAYS ){
+            resolution = RESOLUTION_RAW;
+        }else if( period <= HOUR_RETENTION_DAYS ){
+            resolution = RESOLUTION_HOUR;
+        }
+        Calendar from = Calendar.getInstance();
+        from.add(Calendar.DATE, -period);
+        return resourceUsageDao.selectResourceUsageHistoryList(principal.getName(), resolution, from.getTime());
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 전체 사용자의 인프라 계정 리소스 사용량을 주기적으로 수집하여 스냅샷 저장
+     *                끝난 시간/일 구간은 평균으로 요약하고 보관 기간이 지난 스냅샷은 삭제
+     * @title : collectResourceUsageSnapshot
+     * @return : void
+    ***************************************************/
+    public void collectResourceUsageSnapshot(){
+        Date collectDate = new Date();
+        try{
+            List<HashMap<String, Object>> accounts = resourceUsageDao.selectResourceUsageAccountList(null);
+            if( !accounts.isEmpty() ){
+                saveResourceUsage(accounts, collectResourceUsage(accounts), collectDate);
+            }
+            rollupResourceUsage(collectDate);
+        }catch(RuntimeException e){
+            if( LOGGER.isErrorEnabled() ){ LOGGER.error("resource usage snapshot failed : " + e.getMessage()); }
+        }
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 조회한 계정 별 리소스 사용량 스냅샷 저장
+     * @title : saveResourceUsage
+     * @return : List<IaasResourceUsageVO>
+    ***************************************************/
+    private List<IaasResourceUsageVO> saveResourceUsage( List<HashMap<String, Object>> accounts, List<IaasResourceUsageVO> resources, Date collectDate ){
+        String collectDateText = new SimpleDateFormat(DATE_FORMAT).format(collectDate);
+        for( int i = 0; i < resources.size(); i++ ){
+            IaasResourceUsageVO resource = resources.get(i);
+            resource.setCollectDate(collectDateText);
+            resourceUsageDao.insertResourceUsage(resource, accounts.get(i).get("createUserId").toString(), collectDate);
+        }
+        return resources;
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 스냅샷 요약(RAW -> HOUR -> DAY) 및 보관 기간이 지난 스냅샷 삭제
+     * @title : rollupResourceUsage
+     * @return : void
+    ***************************************************/
+    private void rollupResourceUsage( Date now ){
+        Calendar hour = Calendar.getInstance();
+        hour.setTime(now);
+        hour.set(Calendar.MINUTE, 0);
+        hour.set(Calendar.SECOND, 0);
+        hour.set(Calendar.MILLISECOND, 0);
+        resourceUsageDao.insertResourceUsageRollup(RESOLUTION_RAW, RESOLUTION_HOUR, "%Y-%m-%d %H:00:00", hour.getTime());
+        Calendar day = (Calendar) hour.clone();
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        resourceUsageDao.insertResourceUsageRollup(RESOLUTION_HOUR, RESOLUTION_DAY, "%Y-%m-%d 00:00:00", day.getTime());
+        
+        resourceUsageDao.deleteResourceUsage(RESOLUTION_RAW, getRetentionDate(now, RAW_RETENTION_DAYS));
+        resourceUsageDao.deleteResourceUsage(RESOLUTION_HOUR, getRetentionDate(now, HOUR_RETENTION_DAYS));
+        resourceUsageDao.deleteResourceUsage(RESOLUTION_DAY, getRetentionDate(now, DAY_RETENTION_DAYS));
+    }
+    
+    private Date getRetentionDate( Date now, int days ){
+        Calendar retention = Calendar.getInstance();
+        retention.setTime(now);
+        retention.add(Calendar.DATE, -days);
+        return retention.getTime();
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 모든 계정의 리소스 사용량을 한 번에 조회 요청(계정 순서대로 응답)
+     *                인프라 별 제한 시간(전체 조회 시작 시점 기준)이 지난 계정은 조회된 값과 상태(TIMEOUT/ERROR)만 응답
+     * @title : collectResourceUsage
+     * @return : List<IaasResourceUsageVO>
+    ***************************************************/
+    public List<IaasResourceUsageVO> collectResourceUsage( List<HashMap<String, Object>> accounts ){
+        long startTime = System.currentTimeMillis();
+        String regionName = message.getMessage("common.aws.region.default", null, Locale.KOREA);
+        Region region = null;
         List<IaasResourceUsageVO> resourceList = new ArrayList<IaasResourceUsageVO>();
-        //aws
-        String region = message.getMessage("common.aws.region.default", null, Locale.KOREA);
-        List<IaasResourceUsageVO> awsResources = getAwsResourceUsageInfoList(region, principal);
-        for( IaasResourceUsageVO resource : awsResources ){
-            resourceList.add(resource);
-        }
-        //openstack
-        List<IaasResourceUsageVO> openstackResources =  getOpenstackResourceUsageInfoList(principal);
-        for( IaasResourceUsageVO resource2 : openstackResources ){
-            resourceList.add(resource2);
-        }
-        //azure
-        List<IaasResourceUsageVO> azureResources =  getAzureResourceUsageInfoList(principal);
-        for( IaasResourceUsageVO resource3 : azureResources ){
-            resourceList.add(resource3);
+        List<ResourceUsageCollector> collectors = new ArrayList<ResourceUsageCollector>();
+        for( HashMap<String, Object> at : accounts ){
+            String iaasType = at.get("iaasType").toString().toLowerCase();
+            if( "aws".equals(iaasType) ){
+                if( region == null ){
+                    region = getAwsRegionInfo(regionName);
+                }
+                collectors.add(collectAwsResourceUsage(at, region, startTime + AWS_DEADLINE));
+            }else if( "openstack".equals(iaasType) ){
+                collectors.add(collectOpenstackResourceUsage(at, startTime + OPENSTACK_DEADLINE));
+            }else{
+                collectors.add(collectAzureResourceUsage(at, startTime + AZURE_DEADLINE));
+            }
+        }
+        for( ResourceUsageCollector collector : collectors ){
+            resourceList.add(collector.await());
+        }
+        if( LOGGER.isDebugEnabled() ){
+            LOGGER.debug("resource usage of " + resourceList.size() + " accounts in " + (System.currentTimeMillis() - startTime) + "ms");
         }
         return resourceList; 
     }
     
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : AWS 계정의 인스턴스/네트워크/볼륨/과금 조회 요청
+     * @title : collectAwsResourceUsage
+     * @return : ResourceUsageCollector
+    ***************************************************/
+    private ResourceUsageCollector collectAwsResourceUsage( HashMap<String, Object> at, final Region region, long deadline ){
+        final String accessKey = at.get("commonAccessUser").toString();
+        final String secret = at.get("commonAccessSecret").toString();
+        ResourceUsageCollector collector = new ResourceUsageCollector(at, "AWS", deadline);
+        collector.submit("instance", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return apiService.getAwsInstanceCount(accessKey, secret, region);
+            }
+        });
+        collector.submit("network", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return apiService.getAwsNetworkCount(accessKey, secret, region);
+            }
+        });
+        collector.submit("volume", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return apiService.getAwsVolumeCount(accessKey, secret, region);
+            }
+        });
+        collector.submit("billing", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return apiService.getAwsBilling(accessKey, secret, region);
+            }
+        });
+        return collector;
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : Openstack 계정의 리소스 조회 요청
+     *                (Openstack 클라이언트는 요청 스레드에 묶이므로 계정 하나는 한 스레드에서 조회)
+     * @title : collectOpenstackResourceUsage
+     * @return : ResourceUsageCollector
+    ***************************************************/
+    private ResourceUsageCollector collectOpenstackResourceUsage( final HashMap<String, Object> at, long deadline ){
+        ResourceUsageCollector collector = new ResourceUsageCollector(at, "Openstack", deadline);
+        collector.submit("resource", new Callable<Object>() {
+            @Override
+            public Object call() {
+                //keystone 버전 v2
+                if( at.get("openstackKeystoneVersion").toString().equalsIgnoreCase("v2") ) {
+                    return apiService.getResourceInfoFromOpenstackV2( at.get("commonAccessEndpoint").toString()
+                                                                     ,at.get("commonTenant").toString()
+                                                                     ,at.get("commonAccessUser").toString()
+                                                                     ,at.get("commonAccessSecret").toString());
+                }
+                //keystone 버전 v3
+                return apiService.getResourceInfoFromOpenstackV3( at.get("commonAccessEndpoint").toString()
+                                                                 ,at.get("openstackDomain").toString()
+                                                                 ,at.get("commonProject").toString()
+                                                                 ,at.get("commonAccessUser").toString()
+                                                                 ,at.get("commonAccessSecret").toString());
+            }
+        });
+        return collector;
+    }
+    
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : Azure 계정의 리소스/과금 조회 요청
+     * @title : collectAzureResourceUsage
+     * @return : ResourceUsageCollector
+    ***************************************************/
+    private ResourceUsageCollector collectAzureResourceUsage( HashMap<String, Object> at, long deadline ){
+        final String user = at.get("commonAccessUser").toString();
+        final String tenant = at.get("commonTenant").toString();
+        final String secret = at.get("commonAccessSecret").toString();
+        final String subscriptionId = at.get("azureSubscriptionId").toString();
+        ResourceUsageCollector collector = new ResourceUsageCollector(at, "Azure", deadline);
+        collector.submit("resource", new Callable<Object>() {
+            @Override
+            public Object call() {
+                return apiService.getResourceInfoFromAzure(user, tenant, secret, subscriptionId);
+            }
+        });
+        collector.submit("billing", new Callable<Object>() {
+            @Override
+            public Object call() {
+                Double usageCost = apiService.setAzureBillingInfo(user, tenant, secret, subscriptionId);
+                return usageCost == null ? null : Double.valueOf(Math.round(usageCost.intValue()));
+            }
+        });
+        return collector;
+    }
+    
     /***************************************************
      * @project : 인프라 관리 대시보드
      * @description : AWS 리소스 사용량 조회
@@ -141,7 +439,7 @@ public class IaasResourceUsageService {
             for( HashMap<String, Object> at : accounts ){
                 IaasResourceUsageVO resource = new IaasResourceUsageVO();
                 Double usageCost = apiService.setAzureBillingInfo(at.get("commonAccessUser").toString(), at.get("commonTenant").toString(), at.get("commonAccessSecret").toString(), at.get("azureSubscriptionId").toString());
-                cost = Math.round(usageCost.intValue());
+                cost = usageCost == null ? 0 : Math.round(usageCost.intValue());
                 HashMap<String, Object> result = apiService.getResourceInfoFromAzure( at.get("commonAccessUser").toString(), at.get("commonTenant").toString(), at.get("commonAccessSecret").toString(), at.get("azureSubscriptionId").toString());
                 resource.setAccountName( at.get("accountName").toString() );
                 resource.setInstance( Long.parseLong(result.get("instance").toString()) );
@@ -169,4 +467,88 @@ public class IaasResourceUsageService {
          return commonIaasService.getAwsRegionInfo(regionName);
      }
 
-}
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 계정 하나의 리소스 조회 요청을 모아 제한 시간까지 결과를 기다림
+     * @title : ResourceUsageCollector
+    ***************************************************/
+    private class ResourceUsageCollector {
+        private final IaasResourceUsageVO resource = new IaasResourceUsageVO();
+        private final Map<String, Future<Object>> futures = new LinkedHashMap<String, Future<Object>>();
+        private final long deadline;
+        private String status = STATUS_OK;
+
+        ResourceUsageCollector( HashMap<String, Object> at, String iaasType, long deadline ){
+            resource.setAccountId(Integer.parseInt(at.get("id").toString()));
+            resource.setAccountName(at.get("accountName").toString());
+            resource.setIaasType(iaasType);
+            this.deadline = deadline;
+        }
+
+        void submit( String name, Callable<Object> task ){
+            try{
+                futures.put(name, executor.submit(task));
+            }catch(TaskRejectedException e){
+                //실행기가 가득 찬 경우 요청 스레드에서 조회하지 않고 오류로 응답(전체 제한 시간을 지키기 위함)
+                if( LOGGER.isWarnEnabled() ){ LOGGER.warn(resource.getAccountName() + " " + name + " rejected : " + e.getMessage()); }
+                status = STATUS_ERROR;
+            }
+        }
+
+        IaasResourceUsageVO await(){
+            for( Map.Entry<String, Future<Object>> entry : futures.entrySet() ){
+                Future<Object> future = entry.getValue();
+                try{
+                    Object value = future.get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                    if( !setResult(entry.getKey(), value) ){
+                        status = STATUS_ERROR;
+                    }
+                }catch(TimeoutException e){
+                    future.cancel(true);
+                    if( STATUS_OK.equals(status) ){
+                        status = STATUS_TIMEOUT;
+                    }
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                    status = STATUS_ERROR;
+                }catch(ExecutionException e){
+                    if( LOGGER.isErrorEnabled() ){ LOGGER.error(resource.getAccountName() + " " + entry.getKey() + " : " + e.getCause()); }
+                    status = STATUS_ERROR;
+                }
+            }
+            if( !STATUS_OK.equals(status) && LOGGER.isWarnEnabled() ){
+                LOGGER.warn(resource.getIaasType() + " account " + resource.getAccountName() + " resource usage " + status);
+            }
+            resource.setStatus(status);
+            return resource;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean setResult( String name, Object value ){
+            if( "resource".equals(name) ){
+                Map<String, Object> result = (Map<String, Object>) value;
+                //API 서비스에서 오류를 기록하고 빈 결과를 응답한 경우
+                if( result == null || result.get("instance") == null || result.get("network") == null || result.get("volume") == null ){
+                    return false;
+                }
+                resource.setInstance( Long.parseLong(result.get("instance").toString()) );
+                resource.setNetwork( Long.parseLong(result.get("network").toString()) );
+                resource.setVolume( Long.parseLong(result.get("volume").toString()) );
+            }else if( "instance".equals(name) ){
+                resource.setInstance( Long.parseLong(value.toString()) );
+            }else if( "network".equals(name) ){
+                resource.setNetwork( Long.parseLong(value.toString()) );
+            }else if( "volume".equals(name) ){
+                resource.setVolume( Long.parseLong(value.toString()) );
+            }else if( "billing".equals(name) ){
+                if( value == null ){
+                    return false;
+                }
+                resource.setBilling( Double.parseDouble(value.toString()) );
+            }
+            return true;
+        }
+    }
+
+}
\ No newline at end of file
@@ -455,9 +455,11 @@ public class IaasAccountMgntServiceUnitTest {
     @Test
     public void testDeleteIaasAccountInfo(){
         IaasAccountMgntDTO dto = setIaasAccountInfoDto();
+        when(mockIaasAccountMgntDao.selectIaasAccountInfo(principal.getName(), "aws", 1)).thenReturn(setIaasAccountInfo());
         when(mockIaasAccountMgntDao.deleteIaasAccountInfo(principal.getName(), 1)).thenReturn(1);
         mockIaasAccountMgntService.deleteIaasAccountInfo(dto, principal);
         
+        verify(mockIaasAccountMgntDao, times(1)).selectIaasAccountInfo(principal.getName(), "aws", 1);
         verify(mockIaasAccountMgntDao, times(1)).deleteIaasAccountInfo(principal.getName(), 1);
         verifyNoMoreInteractions(mockIaasAccountMgntDao);
     }
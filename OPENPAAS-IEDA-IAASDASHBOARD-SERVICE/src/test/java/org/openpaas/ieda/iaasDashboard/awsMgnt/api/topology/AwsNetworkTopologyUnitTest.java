@@ -0,0 +1,105 @@
+package org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.ec2.model.InternetGateway;
+import com.amazonaws.services.ec2.model.InternetGatewayAttachment;
+import com.amazonaws.services.ec2.model.NatGateway;
+import com.amazonaws.services.ec2.model.NetworkAcl;
+import com.amazonaws.services.ec2.model.NetworkAclAssociation;
+import com.amazonaws.services.ec2.model.RouteTable;
+import com.amazonaws.services.ec2.model.RouteTableAssociation;
+import com.amazonaws.services.ec2.model.SecurityGroup;
+import com.amazonaws.services.ec2.model.Subnet;
+import com.amazonaws.services.ec2.model.Vpc;
+
+public class AwsNetworkTopologyUnitTest {
+
+    private AwsNetworkTopology topology;
+
+    /****************************************************************
+     * @project : AWS 관리 대시보드
+     * @description : 하나의 메소드가 실행되기전 호출
+     *                (vpc-1: main Route Table, 명시적 연결 Subnet, 기본 ACL / vpc-2: 연결 없음)
+     * @title : setUp
+     * @return : void
+    *****************************************************************/
+    @Before
+    public void setUp() throws Exception {
+        RouteTable mainTable = new RouteTable().withRouteTableId("rtb-main").withVpcId("vpc-1")
+                .withAssociations(new RouteTableAssociation().withRouteTableId("rtb-main").withMain(true));
+        RouteTable privateTable = new RouteTable().withRouteTableId("rtb-private").withVpcId("vpc-1")
+                .withAssociations(new RouteTableAssociation().withRouteTableId("rtb-private")
+                        .withRouteTableAssociationId("rtbassoc-1").withSubnetId("subnet-private").withMain(false));
+        RouteTable otherTable = new RouteTable().withRouteTableId("rtb-other").withVpcId("vpc-2");
+        NetworkAcl defaultAcl = new NetworkAcl().withNetworkAclId("acl-default").withVpcId("vpc-1").withIsDefault(true);
+        NetworkAcl privateAcl = new NetworkAcl().withNetworkAclId("acl-private").withVpcId("vpc-1").withIsDefault(false)
+                .withAssociations(new NetworkAclAssociation().withSubnetId("subnet-private"));
+        InternetGateway igw = new InternetGateway().withInternetGatewayId("igw-1")
+                .withAttachments(new InternetGatewayAttachment().withVpcId("vpc-1").withState("available"));
+
+        topology = new AwsNetworkTopology(
+                Arrays.asList(new Vpc().withVpcId("vpc-1"), new Vpc().withVpcId("vpc-2")),
+                Arrays.asList(new Subnet().withSubnetId("subnet-public").withVpcId("vpc-1"),
+                        new Subnet().withSubnetId("subnet-private").withVpcId("vpc-1"),
+                        new Subnet().withSubnetId("subnet-other").withVpcId("vpc-2")),
+                Arrays.asList(mainTable, privateTable, otherTable),
+                Arrays.asList(igw),
+                Arrays.asList(new NatGateway().withNatGatewayId("nat-1").withVpcId("vpc-1").withState("available")),
+                Arrays.asList(defaultAcl, privateAcl),
+                new ArrayList<SecurityGroup>());
+    }
+
+    /***************************************************
+    * @project : AWS 관리 대시보드
+    * @description : Subnet의 Route Table을 명시적 연결, main, VPC 순으로 찾는지 테스트
+    * @title : testGetSubnetRouteTable
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetSubnetRouteTable(){
+        assertEquals("rtb-private", topology.getSubnetRouteTable("subnet-private").getRouteTableId());
+        assertEquals("rtbassoc-1", topology.getRouteTableAssociation("subnet-private").getRouteTableAssociationId());
+        assertEquals("rtb-main", topology.getSubnetRouteTable("subnet-public").getRouteTableId());
+        assertNull(topology.getRouteTableAssociation("subnet-public"));
+        assertEquals("rtb-other", topology.getSubnetRouteTable("subnet-other").getRouteTableId());
+        assertNull(topology.getSubnetRouteTable("subnet-unknown"));
+    }
+
+    /***************************************************
+    * @project : AWS 관리 대시보드
+    * @description : Subnet의 Network ACL을 명시적 연결, 기본 ACL 순으로 찾는지 테스트
+    * @title : testGetSubnetNetworkAcl
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetSubnetNetworkAcl(){
+        assertEquals("acl-private", topology.getSubnetNetworkAcl("subnet-private").getNetworkAclId());
+        assertEquals("acl-default", topology.getSubnetNetworkAcl("subnet-public").getNetworkAclId());
+        assertNull(topology.getSubnetNetworkAcl("subnet-other"));
+    }
+
+    /***************************************************
+    * @project : AWS 관리 대시보드
+    * @description : VPC 별 Subnet, Internet Gateway, NAT Gateway 색인 테스트
+    * @title : testGetByVpc
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetByVpc(){
+        assertEquals(2, topology.getSubnets("vpc-1").size());
+        assertEquals(2, topology.getRouteTables("vpc-1").size());
+        assertEquals("igw-1", topology.getInternetGateways("vpc-1").get(0).getInternetGatewayId());
+        assertTrue(topology.getInternetGateways("vpc-2").isEmpty());
+        assertEquals("nat-1", topology.getNatGateways("vpc-1").get(0).getNatGatewayId());
+        assertTrue(topology.getSubnets("vpc-unknown").isEmpty());
+    }
+}
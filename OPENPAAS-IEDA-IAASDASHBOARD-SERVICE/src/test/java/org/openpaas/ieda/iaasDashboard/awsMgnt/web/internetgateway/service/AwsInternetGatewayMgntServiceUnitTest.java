@@ -18,8 +18,9 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.api.internetgateway.AwsInternetGatewayMgntApiService;
-import org.openpaas.ieda.iaasDashboard.awsMgnt.api.vpc.AwsVpcMgntApiService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.common.base.BaseAwsMgntControllerUnitTest;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.internetGateway.dao.AwsInternetGatewayMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.internetGateway.dto.AwsInternetGatewayMgntDTO;
@@ -35,6 +36,11 @@ import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.ec2.model.InternetGateway;
 import com.amazonaws.services.ec2.model.InternetGatewayAttachment;
+import com.amazonaws.services.ec2.model.NatGateway;
+import com.amazonaws.services.ec2.model.NetworkAcl;
+import com.amazonaws.services.ec2.model.RouteTable;
+import com.amazonaws.services.ec2.model.SecurityGroup;
+import com.amazonaws.services.ec2.model.Subnet;
 import com.amazonaws.services.ec2.model.Tag;
 import com.amazonaws.services.ec2.model.Vpc;
 import com.amazonaws.services.ec2.model.VpcIpv6CidrBlockAssociation;
@@ -46,7 +52,7 @@ public class AwsInternetGatewayMgntServiceUnitTest extends BaseAwsMgntController
     
     @InjectMocks AwsInternetGatewayMgntService mockAwsInternetGatewayMgntService;
     @Mock AwsInternetGatewayMgntApiService mockAwsInternetGatewayMgntApiService;
-    @Mock AwsVpcMgntApiService mockAwsVpcMgntApiService;
+    @Mock AwsNetworkTopologyService mockAwsNetworkTopologyService;
     @Mock MessageSource mockMessageSource;
     @Mock CommonIaasService mockCommonIaasService;
     
@@ -193,8 +199,7 @@ public class AwsInternetGatewayMgntServiceUnitTest extends BaseAwsMgntController
         getAwsRegionInfo();
         List<InternetGateway> expectInternetGatewayList = getInternetGatewayResultInfoList("default");
         List<Vpc> expectVpcList = getResultVpcListInfo("default");
-        when(mockAwsInternetGatewayMgntApiService.getAwsInternetGatewayInfoListFromAws(any(), any())).thenReturn(expectInternetGatewayList);
-        when(mockAwsVpcMgntApiService.getAwsVpcInfoListApiFromAws(any(), anyString())).thenReturn(expectVpcList);
+        when(mockAwsNetworkTopologyService.getTopology(any(), anyString())).thenReturn(getNetworkTopology(expectVpcList, expectInternetGatewayList));
         mockAwsInternetGatewayMgntService.getAwsVpcInfoList(principal, 111115, "region");
     }
     
@@ -210,8 +215,7 @@ public class AwsInternetGatewayMgntServiceUnitTest extends BaseAwsMgntController
         getAwsRegionInfo();
         List<InternetGateway> expectInternetGatewayList = getInternetGatewayResultInfoList("default");
         List<Vpc> expectVpcList = getResultVpcListInfo("remove");
-        when(mockAwsInternetGatewayMgntApiService.getAwsInternetGatewayInfoListFromAws(any(), any())).thenReturn(expectInternetGatewayList);
-        when(mockAwsVpcMgntApiService.getAwsVpcInfoListApiFromAws(any(), anyString())).thenReturn(expectVpcList);
+        when(mockAwsNetworkTopologyService.getTopology(any(), anyString())).thenReturn(getNetworkTopology(expectVpcList, expectInternetGatewayList));
         mockAwsInternetGatewayMgntService.getAwsVpcInfoList(principal, 111115, "region");
     }
     
@@ -272,6 +276,17 @@ public class AwsInternetGatewayMgntServiceUnitTest extends BaseAwsMgntController
         return list;
     }
 
+    /***************************************************
+    * @project : AWS 관리 대시보드
+    * @description : VPC/인터넷 게이트웨이 목록으로 네트워크 구성 설정
+    * @title : getNetworkTopology
+    * @return : AwsNetworkTopology
+    ***************************************************/
+    private AwsNetworkTopology getNetworkTopology(List<Vpc> vpcList, List<InternetGateway> internetGatewayList) {
+        return new AwsNetworkTopology(vpcList, new ArrayList<Subnet>(), new ArrayList<RouteTable>(), internetGatewayList,
+                new ArrayList<NatGateway>(), new ArrayList<NetworkAcl>(), new ArrayList<SecurityGroup>());
+    }
+    
     /***************************************************
     * @project : AWS 관리 대시보드
     * @description : AWS Account 조회 정보 결과 값 설정
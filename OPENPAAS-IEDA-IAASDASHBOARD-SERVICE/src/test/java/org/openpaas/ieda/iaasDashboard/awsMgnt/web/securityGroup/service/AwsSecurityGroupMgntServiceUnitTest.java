@@ -16,6 +16,8 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.common.exception.CommonException;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.common.base.BaseAwsMgntControllerUnitTest;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.securityGroup.dao.AwsSecurityGroupMgntVO;
@@ -34,9 +36,14 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.appstream.model.Application;
+import com.amazonaws.services.ec2.model.InternetGateway;
 import com.amazonaws.services.ec2.model.IpPermission;
 import com.amazonaws.services.ec2.model.IpRange;
+import com.amazonaws.services.ec2.model.NatGateway;
+import com.amazonaws.services.ec2.model.NetworkAcl;
+import com.amazonaws.services.ec2.model.RouteTable;
 import com.amazonaws.services.ec2.model.SecurityGroup;
+import com.amazonaws.services.ec2.model.Subnet;
 import com.amazonaws.services.ec2.model.Tag;
 import com.amazonaws.services.ec2.model.UserIdGroupPair;
 import com.amazonaws.services.ec2.model.Vpc;
@@ -48,6 +55,7 @@ import com.amazonaws.services.ec2.model.VpcIpv6CidrBlockAssociation;
 public class AwsSecurityGroupMgntServiceUnitTest extends BaseAwsMgntControllerUnitTest {
     @InjectMocks AwsSecurityGroupMgntService mockAwsSecurityGroupMgntService;
     @Mock AwsSecurityGroupMgntApiService mockAwsSecurityGroupMgntApiService;
+    @Mock AwsNetworkTopologyService mockAwsNetworkTopologyService;
     @Mock CommonIaasService mockCommonIaasService;
     @Mock MessageSource mockMessageSource;
     @Mock CommonIaasDAO mockCommonIaasDao;
@@ -79,7 +87,9 @@ public class AwsSecurityGroupMgntServiceUnitTest extends BaseAwsMgntControllerUn
         
         when( mockCommonIaasService.getIaaSAccountInfo(principal, 1, "AWS")).thenReturn(getAwsAccountInfo());
         when( mockCommonIaasService.getAwsRegionInfo(anyString()) ).thenReturn(Region.getRegion(Regions.US_WEST_2));
-        when(mockAwsSecurityGroupMgntApiService.getAwsSecurityGroupInfoListApiFromAws(any(), any())).thenReturn(awsSecurityGroupList);
+        AwsNetworkTopology topology = new AwsNetworkTopology(new ArrayList<Vpc>(), new ArrayList<Subnet>(), new ArrayList<RouteTable>(),
+                new ArrayList<InternetGateway>(), new ArrayList<NatGateway>(), new ArrayList<NetworkAcl>(), awsSecurityGroupList);
+        when(mockAwsNetworkTopologyService.getTopology(any(), anyString())).thenReturn(topology);
         List<AwsSecurityGroupMgntVO> resultList =  mockAwsSecurityGroupMgntService.getAwsSecurityGroupInfoList(principal, 1, "us-west-2");
         assertEquals(resultList.size(), 1);
         assertEquals(resultList.get(0).getGroupId(), awsSecurityGroupList.get(0).getGroupId());
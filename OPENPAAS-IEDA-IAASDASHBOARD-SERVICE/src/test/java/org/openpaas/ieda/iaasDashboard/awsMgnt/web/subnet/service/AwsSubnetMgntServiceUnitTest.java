@@ -16,6 +16,8 @@ import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopology;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.common.base.BaseAwsMgntControllerUnitTest;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.subnet.dao.AwsSubnetMgntVO;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.subnet.dto.AwsSubnetMgntDTO;
@@ -27,10 +29,14 @@ import org.springframework.context.MessageSource;
 
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
+import com.amazonaws.services.ec2.model.InternetGateway;
+import com.amazonaws.services.ec2.model.NatGateway;
 import com.amazonaws.services.ec2.model.NetworkAcl;
 import com.amazonaws.services.ec2.model.RouteTable;
+import com.amazonaws.services.ec2.model.SecurityGroup;
 import com.amazonaws.services.ec2.model.Subnet;
 import com.amazonaws.services.ec2.model.SubnetIpv6CidrBlockAssociation;
+import com.amazonaws.services.ec2.model.Vpc;
 
 public class AwsSubnetMgntServiceUnitTest extends BaseAwsMgntControllerUnitTest{
     
@@ -38,6 +44,7 @@ public class AwsSubnetMgntServiceUnitTest extends BaseAwsMgntControllerUnitTest{
     
     @InjectMocks AwsSubnetMgntService mockAwsSubnetMgntService;
     @Mock AwsSubnetMgntApiService mockAwsSubnetMgntApiService;
+    @Mock AwsNetworkTopologyService mockAwsNetworkTopologyService;
     @Mock CommonIaasService mockCommonIaasService;
     @Mock MessageSource mockMessageSource;
     /***************************************************
@@ -88,7 +95,10 @@ public class AwsSubnetMgntServiceUnitTest extends BaseAwsMgntControllerUnitTest{
        getAwsAccountInfo();
        getAwsRegionInfo();
        HashMap<String, Object> subnetMap = getResultSubnetDetailInfo();
-       when(mockAwsSubnetMgntApiService.getAwsSubnetDetailInfoFromAws(any(),anyString(), any())).thenReturn(subnetMap);
+       AwsNetworkTopology topology = new AwsNetworkTopology(new ArrayList<Vpc>(), (List<Subnet>) subnetMap.get("subnets"),
+               (List<RouteTable>) subnetMap.get("routeTables"), new ArrayList<InternetGateway>(), new ArrayList<NatGateway>(),
+               (List<NetworkAcl>) subnetMap.get("networkAcls"), new ArrayList<SecurityGroup>());
+       when(mockAwsNetworkTopologyService.getTopology(any(), anyString())).thenReturn(topology);
        HashMap<String, Object> resultMap = mockAwsSubnetMgntService.getAwsSubnetDetailInfo(1, "subnet-33626875", principal, "region");
        
        List<Subnet> subnets = (List<Subnet>) subnetMap.get("subnets");
@@ -19,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openpaas.ieda.iaasDashboard.awsMgnt.api.topology.AwsNetworkTopologyService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.api.vpc.AwsVpcMgntApiService;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.common.base.BaseAwsMgntControllerUnitTest;
 import org.openpaas.ieda.iaasDashboard.awsMgnt.web.vpc.dao.AwsVpcMgntVO;
@@ -45,6 +46,7 @@ public class AwsVpcMgntServiceUnitTest extends BaseAwsMgntControllerUnitTest{
     
     @InjectMocks AwsVpcMgntService mockAwsVpcMgntService;
     @Mock AwsVpcMgntApiService mockAwsVpcMgntApiService;
+    @Mock AwsNetworkTopologyService mockAwsNetworkTopologyService;
     @Mock CommonIaasService mockCommonIaasService;
     @Mock MessageSource mockMessageSource;
     /***************************************************
@@ -0,0 +1,144 @@
+package org.openpaas.ieda.iaasDashboard.web.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.Cipher;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RsaKeyPairPoolUnitTest {
+
+    private RsaKeyPairPool pool;
+
+    /****************************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        if( pool != null ){
+            pool.shutdown();
+        }
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 풀을 미리 채우고 발급한 공개키로 암호화한 값을 개인키로 복호화 할 수 있는지 테스트
+    * @title : testTakeFromPool
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testTakeFromPool() throws Exception{
+        pool = new RsaKeyPairPool(1024, 2, 60 * 1000L);
+        pool.rotate();
+        waitForSize(2);
+
+        RsaKeyPairPool.PooledKeyPair first = pool.take();
+        RsaKeyPairPool.PooledKeyPair second = pool.take();
+
+        assertNotEquals(first.getPublicKeyModulus(), second.getPublicKeyModulus());
+        assertEquals(1024, new BigInteger(first.getPublicKeyModulus(), 16).bitLength());
+        Cipher cipher = Cipher.getInstance("RSA");
+        cipher.init(Cipher.ENCRYPT_MODE, toPublicKey(first));
+        byte[] encrypted = cipher.doFinal("commonAccessSecret".getBytes(StandardCharsets.UTF_8));
+        cipher.init(Cipher.DECRYPT_MODE, first.getPrivateKey());
+        assertEquals("commonAccessSecret", new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8));
+        //발급 후 다시 채워지는지 확인
+        waitForSize(2);
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 만료된 키는 발급하지 않고 풀이 비어 있어도 키를 발급하는지 테스트
+    * @title : testExpiredKeyNotTaken
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testExpiredKeyNotTaken() throws Exception{
+        pool = new RsaKeyPairPool(1024, 1, 0L);
+        pool.rotate();
+        waitForSize(1);
+        Thread.sleep(5);
+
+        RsaKeyPairPool.PooledKeyPair keyPair = pool.take();
+
+        assertTrue(keyPair.getPublicKeyModulus().length() > 0);
+        assertEquals("10001", keyPair.getPublicKeyExponent());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 빈 풀에서 동시에 여러 키를 요청해도 모두 서로 다른 키를 발급하고 풀을 다시 채우는지 테스트
+    * @title : testConcurrentTake
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testConcurrentTake() throws Exception{
+        pool = new RsaKeyPairPool(1024, 4, 60 * 1000L);
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RsaKeyPairPool.PooledKeyPair>> futures = new ArrayList<Future<RsaKeyPairPool.PooledKeyPair>>();
+            for( int i = 0; i < 8; i++ ){
+                futures.add(requests.submit(new Callable<RsaKeyPairPool.PooledKeyPair>() {
+                    @Override
+                    public RsaKeyPairPool.PooledKeyPair call() throws Exception {
+                        return pool.take();
+                    }
+                }));
+            }
+            Set<String> moduli = new HashSet<String>();
+            for( Future<RsaKeyPairPool.PooledKeyPair> future : futures ){
+                moduli.add(future.get().getPublicKeyModulus());
+            }
+            assertEquals(8, moduli.size());
+        } finally {
+            requests.shutdownNow();
+        }
+        pool.rotate();
+        waitForSize(4);
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 풀에 키가 size 개 채워질 때까지 대기
+    * @title : waitForSize
+    * @return : void
+    ***************************************************/
+    private void waitForSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30 * 1000L;
+        while( pool.size() < size && System.currentTimeMillis() < deadline ){
+            Thread.sleep(20);
+        }
+        assertEquals(size, pool.size());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 화면에 전달하는 modulus/exponent 값으로 공개키 생성
+    * @title : toPublicKey
+    * @return : PublicKey
+    ***************************************************/
+    private PublicKey toPublicKey(RsaKeyPairPool.PooledKeyPair keyPair) throws Exception {
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                new BigInteger(keyPair.getPublicKeyModulus(), 16), new BigInteger(keyPair.getPublicKeyExponent(), 16)));
+    }
+}
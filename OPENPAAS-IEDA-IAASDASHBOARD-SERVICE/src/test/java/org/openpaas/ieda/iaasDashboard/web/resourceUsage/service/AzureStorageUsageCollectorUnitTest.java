@@ -0,0 +1,277 @@
+package org.openpaas.ieda.iaasDashboard.web.resourceUsage.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openpaas.ieda.iaasDashboard.api.resourceUsage.AzureStorageUsageCollector;
+
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobContainerProperties;
+import com.microsoft.azure.storage.blob.BlobListingDetails;
+import com.microsoft.azure.storage.blob.BlobProperties;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlobType;
+import com.microsoft.azure.storage.blob.CloudBlobClient;
+import com.microsoft.azure.storage.blob.CloudBlobContainer;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.storage.blob.ListBlobItem;
+
+public class AzureStorageUsageCollectorUnitTest {
+
+    final private static String STORAGE_ACCOUNT = "iedastorage";
+    final private static String OTHER_STORAGE_ACCOUNT = "iedaother";
+    //Azure 한 번 조회 최대 blob 수
+    final private static int SEGMENT_SIZE = 5000;
+
+    private AzureStorageUsageCollector collector;
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    ***************************************************/
+    @Before
+    public void setUp() throws Exception {
+        collector = new AzureStorageUsageCollector();
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    ***************************************************/
+    @After
+    public void tearDown() {
+        collector.shutdown();
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 여러 구간(segment)으로 나뉜 blob 목록을 이어서 조회하고 크기를 모두 합산하는지 테스트
+    * @title : testGetStorageUsagePaging
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetStorageUsagePaging() throws Exception {
+        FakeContainer container = new FakeContainer(STORAGE_ACCOUNT, "bosh", "etag-1",
+                new long[]{100L, 200L}, new long[]{300L}, new long[]{400L});
+
+        assertEquals(1000L, collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, container)));
+
+        assertEquals(3, container.tokens.size());
+        assertNull(container.tokens.get(0));
+        assertSame(container.continuations.get(0), container.tokens.get(1));
+        assertSame(container.continuations.get(1), container.tokens.get(2));
+        assertEquals(Integer.valueOf(SEGMENT_SIZE), container.maxResults);
+        assertTrue(container.flat);
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 컨테이너 합계를 합산하고 다시 합계할 주기 전에는 저장된 합계를 사용하는지 테스트
+    * @title : testGetStorageUsageAggregation
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetStorageUsageAggregation() throws Exception {
+        FakeContainer stemcell = new FakeContainer(STORAGE_ACCOUNT, "stemcell", "etag-1", new long[]{10L, 20L});
+        FakeContainer blobstore = new FakeContainer(STORAGE_ACCOUNT, "blobstore", "etag-1", new long[]{5L}, new long[]{7L});
+
+        assertEquals(42L, collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, stemcell, blobstore)));
+        assertEquals(1, stemcell.tokens.size());
+        assertEquals(2, blobstore.tokens.size());
+
+        //주기 전 : 컨테이너 내용이 바뀌어도(ETag 와 무관) 저장된 합계 사용
+        FakeContainer changed = new FakeContainer(STORAGE_ACCOUNT, "blobstore", "etag-2", new long[]{5L, 7L, 8L});
+        assertEquals(42L, collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, stemcell, changed)));
+        assertEquals(1, stemcell.tokens.size());
+        assertEquals(0, changed.tokens.size());
+
+        //같은 이름의 컨테이너라도 스토리지 계정 별로 합산
+        FakeContainer other = new FakeContainer(OTHER_STORAGE_ACCOUNT, "stemcell", "etag-1", new long[]{1L});
+        assertEquals(1L, collector.getStorageUsage(OTHER_STORAGE_ACCOUNT, client(OTHER_STORAGE_ACCOUNT, other)));
+
+        //삭제된 컨테이너는 합계에서 제외
+        assertEquals(30L, collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, stemcell)));
+        assertEquals(1, stemcell.tokens.size());
+
+        //주기가 지나면 다시 합계
+        AzureStorageUsageCollector recounting = new AzureStorageUsageCollector(0L);
+        FakeContainer before = new FakeContainer(STORAGE_ACCOUNT, "blobstore", "etag-1", new long[]{5L, 7L});
+        FakeContainer after = new FakeContainer(STORAGE_ACCOUNT, "blobstore", "etag-1", new long[]{5L, 7L, 8L});
+        assertEquals(12L, recounting.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, before)));
+        assertEquals(20L, recounting.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, after)));
+        assertEquals(1, after.tokens.size());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 합계 중 오류가 발생하면 조회한 위치까지의 합계를 유지하고 다음 조회 시 이어서 합계하는지 테스트
+    * @title : testGetStorageUsageResume
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetStorageUsageResume() throws Exception {
+        FakeContainer container = new FakeContainer(STORAGE_ACCOUNT, "bosh", "etag-1",
+                new long[]{100L}, new long[]{200L}, new long[]{300L});
+        container.failAt = 1;
+        try {
+            collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, container));
+            fail("storage error expected");
+        } catch (StorageException e) {
+            assertEquals(1, container.continuations.size());
+        }
+
+        assertEquals(600L, collector.getStorageUsage(STORAGE_ACCOUNT, client(STORAGE_ACCOUNT, container)));
+        //처음 구간은 다시 조회하지 않음
+        assertNull(container.tokens.get(0));
+        assertSame(container.continuations.get(0), container.tokens.get(1));
+        assertSame(container.continuations.get(1), container.tokens.get(2));
+        assertEquals(3, container.tokens.size());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 전용 스레드가 합계하는 동안 기다리지 않고 지금까지의 합계를 응답하고 끝나면 전체 합계를 응답하는지 테스트
+    * @title : testGetStorageUsageInBackground
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testGetStorageUsageInBackground() throws Exception {
+        collector.initialize();
+        FakeContainer container = new FakeContainer(STORAGE_ACCOUNT, "bosh", "etag-1",
+                new long[]{100L}, new long[]{200L});
+        container.blockAt = 1;
+        CloudBlobClient blobClient = client(STORAGE_ACCOUNT, container);
+
+        assertTrue(collector.getStorageUsage(STORAGE_ACCOUNT, blobClient) <= 100L);
+        assertTrue(container.blocked.await(10, TimeUnit.SECONDS));
+        //합계 중에는 새로 합계를 시작하지 않고 지금까지의 합계 응답
+        assertEquals(100L, collector.getStorageUsage(STORAGE_ACCOUNT, blobClient));
+        container.release.countDown();
+
+        long deadline = System.currentTimeMillis() + 10 * 1000L;
+        long size = 0L;
+        while( System.currentTimeMillis() < deadline && (size = collector.getStorageUsage(STORAGE_ACCOUNT, blobClient)) != 300L ){
+            Thread.sleep(10L);
+        }
+        assertEquals(300L, size);
+        assertEquals(2, container.tokens.size());
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 컨테이너 목록을 응답하는 blob 클라이언트 생성
+     * @title : client
+     * @return : CloudBlobClient
+    ***************************************************/
+    private static CloudBlobClient client(String storageAccount, final CloudBlobContainer... containers) {
+        return new CloudBlobClient(URI.create("https://" + storageAccount + ".blob.core.windows.net")) {
+            @Override
+            public Iterable<CloudBlobContainer> listContainers() {
+                List<CloudBlobContainer> list = new ArrayList<CloudBlobContainer>();
+                for( CloudBlobContainer container : containers ){
+                    list.add(container);
+                }
+                return list;
+            }
+        };
+    }
+
+    //구간 별 blob 크기 목록을 응답하고 전달받은 continuation token 을 기록
+    private static class FakeContainer extends CloudBlobContainer {
+        final long[][] pages;
+        final List<ResultContinuation> tokens = new ArrayList<ResultContinuation>();
+        final List<ResultContinuation> continuations = new ArrayList<ResultContinuation>();
+        Integer maxResults;
+        boolean flat;
+        //해당 구간 조회 시 1회 오류 응답
+        int failAt = -1;
+        //해당 구간 조회 시 release 까지 대기
+        int blockAt = -1;
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        FakeContainer(String storageAccount, String name, String etag, long[]... pages) throws StorageException {
+            super(URI.create("https://" + storageAccount + ".blob.core.windows.net/" + name));
+            this.pages = pages;
+            setProperties(new FakeContainerProperties(etag));
+        }
+
+        @Override
+        public synchronized ResultSegment<ListBlobItem> listBlobsSegmented(String prefix, boolean useFlatBlobListing,
+                EnumSet<BlobListingDetails> listingDetails, Integer maxResults, ResultContinuation continuationToken,
+                BlobRequestOptions options, OperationContext opContext) throws StorageException {
+            this.maxResults = maxResults;
+            this.flat = useFlatBlobListing;
+            int page = tokens.size();
+            if( page == failAt ){
+                failAt = -1;
+                throw new StorageException("ServerBusy", "server busy", null);
+            }
+            if( page == blockAt ){
+                blockAt = -1;
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            tokens.add(continuationToken);
+            ArrayList<ListBlobItem> blobs = new ArrayList<ListBlobItem>();
+            for( int i = 0; i < pages[page].length; i++ ){
+                blobs.add(new FakeBlob(getUri() + "/blob" + page + "-" + i, pages[page][i]));
+            }
+            ResultContinuation next = null;
+            if( page + 1 < pages.length ){
+                next = new ResultContinuation();
+                continuations.add(next);
+            }
+            return new ResultSegment<ListBlobItem>(blobs, maxResults, next);
+        }
+    }
+
+    private static class FakeContainerProperties extends BlobContainerProperties {
+        //Last-Modified 는 고정하고 ETag 로 변경 여부 구분
+        final private static Date LAST_MODIFIED = new Date(0L);
+
+        FakeContainerProperties(String etag) {
+            setEtag(etag);
+            setLastModified(LAST_MODIFIED);
+        }
+    }
+
+    private static class FakeBlob extends CloudBlockBlob {
+        FakeBlob(String uri, long length) throws StorageException {
+            super(URI.create(uri));
+            setProperties(new FakeBlobProperties(length));
+        }
+    }
+
+    private static class FakeBlobProperties extends BlobProperties {
+        FakeBlobProperties(long length) {
+            super(BlobType.BLOCK_BLOB);
+            setLength(length);
+        }
+    }
+}
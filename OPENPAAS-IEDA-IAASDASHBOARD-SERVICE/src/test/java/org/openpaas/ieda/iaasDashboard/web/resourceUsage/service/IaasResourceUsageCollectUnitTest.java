@@ -0,0 +1,277 @@
+package org.openpaas.ieda.iaasDashboard.web.resourceUsage.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openpaas.ieda.iaasDashboard.api.resourceUsage.IaasResourceUsageApiService;
+import org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao.IaasResourceUsageDAO;
+import org.openpaas.ieda.iaasDashboard.web.resourceUsage.dao.IaasResourceUsageVO;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class IaasResourceUsageCollectUnitTest {
+
+    final private static int ACCOUNT_COUNT = 6;
+    //조회가 겹치도록 API 응답을 지연
+    final private static long API_DELAY = 50L;
+
+    private IaasResourceUsageService service;
+    private ThreadPoolTaskExecutor executor;
+    private final List<IaasResourceUsageVO> inserted = Collections.synchronizedList(new ArrayList<IaasResourceUsageVO>());
+    private final List<String> rollups = Collections.synchronizedList(new ArrayList<String>());
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행되기전 호출
+     * @title : setUp
+     * @return : void
+    ***************************************************/
+    @Before
+    public void setUp() throws Exception {
+        executor = createExecutor(16, 64);
+
+        StaticMessageSource message = new StaticMessageSource();
+        message.addMessage("common.aws.region.default", Locale.KOREA, "us-west-2");
+
+        service = new IaasResourceUsageService();
+        service.apiService = new FakeApiService();
+        service.resourceUsageDao = new FakeResourceUsageDAO();
+        service.message = message;
+        service.executor = executor;
+    }
+
+    /****************************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 하나의 메소드가 실행된 후 호출
+     * @title : tearDown
+     * @return : void
+    *****************************************************************/
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 모든 계정을 동시에 조회하여 전체 조회 시간이 계정 수와 관계없이 API 응답 지연 수준인지,
+    *                계정 순서대로 응답하는지 테스트
+    * @title : testCollectResourceUsage
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCollectResourceUsage(){
+        long start = System.currentTimeMillis();
+        List<IaasResourceUsageVO> resources = service.collectResourceUsage(accounts(ACCOUNT_COUNT));
+        assertTrue(System.currentTimeMillis() - start < API_DELAY * 3);
+
+        assertEquals(ACCOUNT_COUNT, resources.size());
+        for( int i = 0; i < ACCOUNT_COUNT; i++ ){
+            IaasResourceUsageVO resource = resources.get(i);
+            assertEquals(i + 1, resource.getAccountId());
+            assertEquals("OK", resource.getStatus());
+            assertEquals(i + 1, resource.getInstance());
+            assertEquals(i % 2 == 0 ? "Openstack" : "Azure", resource.getIaasType());
+            if( i % 2 == 1 ){
+                assertEquals(Double.valueOf(100), resource.getBilling());
+            }
+        }
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 실행기가 가득 차 거부된 계정은 요청 스레드에서 조회하지 않고 ERROR 로 응답하는지 테스트
+    *              (스레드 1개, 대기열 없는 실행기로 거부 상황을 만든다)
+    * @title : testCollectResourceUsageWhenExecutorIsFull
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCollectResourceUsageWhenExecutorIsFull(){
+        executor.shutdown();
+        executor = createExecutor(1, 0);
+        service.executor = executor;
+
+        long start = System.currentTimeMillis();
+        List<IaasResourceUsageVO> resources = service.collectResourceUsage(accounts(ACCOUNT_COUNT));
+        assertTrue(System.currentTimeMillis() - start < API_DELAY * 3);
+
+        assertEquals(ACCOUNT_COUNT, resources.size());
+        assertEquals("OK", resources.get(0).getStatus());
+        for( int i = 1; i < ACCOUNT_COUNT; i++ ){
+            assertEquals(i + 1, resources.get(i).getAccountId());
+            assertEquals("ERROR", resources.get(i).getStatus());
+        }
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 빈 결과를 응답한 계정만 ERROR 로 기록하는지 테스트
+    * @title : testCollectResourceUsageError
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCollectResourceUsageError(){
+        List<HashMap<String, Object>> accounts = accounts(3);
+        accounts.get(1).put("commonAccessUser", "broken");
+
+        List<IaasResourceUsageVO> resources = service.collectResourceUsage(accounts);
+
+        assertEquals("OK", resources.get(0).getStatus());
+        assertEquals("ERROR", resources.get(1).getStatus());
+        assertEquals("OK", resources.get(2).getStatus());
+    }
+
+    /***************************************************
+    * @project : 인프라 관리 대시보드
+    * @description : 주기 수집이 모든 계정의 스냅샷을 저장하고 요약/보관 기간 정리를 실행하는지 테스트
+    * @title : testCollectResourceUsageSnapshot
+    * @return : void
+    ***************************************************/
+    @Test
+    public void testCollectResourceUsageSnapshot(){
+        service.collectResourceUsageSnapshot();
+
+        assertEquals(ACCOUNT_COUNT, inserted.size());
+        for( IaasResourceUsageVO resource : inserted ){
+            assertEquals("OK", resource.getStatus());
+            assertEquals(19, resource.getCollectDate().length());
+        }
+        assertEquals(5, rollups.size());
+        assertEquals("RAW>HOUR", rollups.get(0));
+        assertEquals("HOUR>DAY", rollups.get(1));
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : 스레드 수와 대기열 크기를 지정한 실행기 생성
+     * @title : createExecutor
+     * @return : ThreadPoolTaskExecutor
+    ***************************************************/
+    private ThreadPoolTaskExecutor createExecutor(int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : Openstack(v2)/Azure 계정을 번갈아 생성
+     * @title : accounts
+     * @return : List<HashMap<String, Object>>
+    ***************************************************/
+    private List<HashMap<String, Object>> accounts(int count) {
+        List<HashMap<String, Object>> accounts = new ArrayList<HashMap<String, Object>>();
+        for( int i = 1; i <= count; i++ ){
+            HashMap<String, Object> at = new HashMap<String, Object>();
+            at.put("id", i);
+            at.put("accountName", "account" + i);
+            at.put("iaasType", i % 2 == 1 ? "OPENSTACK" : "AZURE");
+            at.put("openstackKeystoneVersion", "v2");
+            at.put("commonAccessEndpoint", "http://keystone:5000/v2.0");
+            at.put("commonTenant", String.valueOf(i));
+            at.put("commonAccessUser", "admin");
+            at.put("commonAccessSecret", "secret");
+            at.put("azureSubscriptionId", String.valueOf(i));
+            at.put("createUserId", "admin");
+            accounts.add(at);
+        }
+        return accounts;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : API 응답 지연 후 리소스 조회 결과(broken 사용자는 빈 결과)
+     * @title : result
+     * @return : HashMap<String, Object>
+    ***************************************************/
+    private static HashMap<String, Object> result(String user, String tenant) {
+        sleep();
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        if( !"broken".equals(user) ){
+            result.put("instance", tenant);
+            result.put("network", 1);
+            result.put("volume", 10);
+        }
+        return result;
+    }
+
+    /***************************************************
+     * @project : 인프라 관리 대시보드
+     * @description : API 응답 지연
+     * @title : sleep
+     * @return : void
+    ***************************************************/
+    private static void sleep() {
+        try {
+            Thread.sleep(API_DELAY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //계정 tenant(구독) 값을 인스턴스 수로 응답
+    private static class FakeApiService extends IaasResourceUsageApiService {
+        @Override
+        public HashMap<String, Object> getResourceInfoFromOpenstackV2( String endpoint, String tenant, String user, String secret ){
+            return result(user, tenant);
+        }
+
+        @Override
+        public HashMap<String, Object> getResourceInfoFromAzure( String commonAccessUser, String commonTenant, String commonAccessSecret,  String azureSubscriptionId ){
+            return result(commonAccessUser, azureSubscriptionId);
+        }
+
+        @Override
+        public Double setAzureBillingInfo(String commonAccessUser, String commonTenant, String commonAccessSecret,  String azureSubscriptionId) {
+            sleep();
+            return Double.valueOf(100.4);
+        }
+    }
+
+    private class FakeResourceUsageDAO implements IaasResourceUsageDAO {
+        @Override
+        public List<HashMap<String, Object>> selectResourceUsageAccountList(String userId) {
+            return accounts(ACCOUNT_COUNT);
+        }
+
+        @Override
+        public int insertResourceUsage(IaasResourceUsageVO vo, String userId, Date collectDate) {
+            inserted.add(vo);
+            return 1;
+        }
+
+        @Override
+        public List<IaasResourceUsageVO> selectLatestResourceUsageList(String userId) {
+            return new ArrayList<IaasResourceUsageVO>();
+        }
+
+        @Override
+        public List<IaasResourceUsageVO> selectResourceUsageHistoryList(String userId, String resolution, Date fromDate) {
+            return new ArrayList<IaasResourceUsageVO>();
+        }
+
+        @Override
+        public int insertResourceUsageRollup(String source, String target, String format, Date before) {
+            rollups.add(source + ">" + target);
+            return 0;
+        }
+
+        @Override
+        public int deleteResourceUsage(String resolution, Date before) {
+            rollups.add("delete " + resolution);
+            return 0;
+        }
+    }
+}